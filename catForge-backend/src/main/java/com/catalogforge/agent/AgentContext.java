@@ -21,8 +21,7 @@ public record AgentContext(
     String userPrompt,
     
     // Image analysis (optional)
-    String imageBase64,
-    String imageMimeType,
+    ImageData image,
     ImageAnalysisResult imageAnalysis,
     
     // Assembled prompt
@@ -40,6 +39,21 @@ public record AgentContext(
     Map<String, Object> metadata
 ) {
     
+    /** Metadata key listing degradations applied under load. */
+    public static final String DEGRADATIONS_KEY = "degradations";
+    
+    /** Metadata key overriding the retry budget of the refinement loop. */
+    public static final String MAX_RETRIES_KEY = "maxRetries";
+    
+    /** Metadata key holding the pending {@link CorrectionTurn}. */
+    public static final String CORRECTION_TURN_KEY = "correctionTurn";
+    
+    /** Metadata key holding the ID of the last LLM request, for retry chains in the logs. */
+    public static final String LAST_LLM_REQUEST_KEY = "lastLlmRequestId";
+    
+    /** Metadata key for the names of the skills included in the prompt. */
+    public static final String SKILLS_USED_KEY = "skillsUsed";
+    
     /**
      * Creates a new context for text-to-layout generation.
      */
@@ -54,7 +68,7 @@ public record AgentContext(
                 products,
                 options != null ? options : LayoutOptions.defaults(),
                 userPrompt,
-                null, null, null,
+                null, null,
                 null,
                 null, List.of(),
                 List.of(), 0,
@@ -63,7 +77,7 @@ public record AgentContext(
     }
     
     /**
-     * Creates a new context for image-to-layout generation.
+     * Creates a new context for image-to-layout generation from inline Base64 data.
      */
     public static AgentContext forImageGeneration(
             List<Product> products,
@@ -71,6 +85,18 @@ public record AgentContext(
             String userPrompt,
             String imageBase64,
             String imageMimeType
+    ) {
+        return forImageGeneration(products, options, userPrompt, ImageData.ofBase64(imageBase64, imageMimeType));
+    }
+    
+    /**
+     * Creates a new context for image-to-layout generation.
+     */
+    public static AgentContext forImageGeneration(
+            List<Product> products,
+            LayoutOptions options,
+            String userPrompt,
+            ImageData image
     ) {
         return new AgentContext(
                 UUID.randomUUID().toString(),
@@ -78,7 +104,7 @@ public record AgentContext(
                 products,
                 options != null ? options : LayoutOptions.defaults(),
                 userPrompt,
-                imageBase64, imageMimeType, null,
+                image, null,
                 null,
                 null, List.of(),
                 List.of(), 0,
@@ -86,13 +112,26 @@ public record AgentContext(
         );
     }
     
+    /**
+     * Returns a copy with the given layout options.
+     */
+    public AgentContext withOptions(LayoutOptions newOptions) {
+        return new AgentContext(
+                pipelineId, requestId, products, newOptions, userPrompt,
+                image, imageAnalysis,
+                assembledPrompt,
+                generatedLayout, variants,
+                validationErrors, retryCount, metadata
+        );
+    }
+    
     /**
      * Returns a copy with the assembled prompt set.
      */
     public AgentContext withAssembledPrompt(String prompt) {
         return new AgentContext(
                 pipelineId, requestId, products, options, userPrompt,
-                imageBase64, imageMimeType, imageAnalysis,
+                image, imageAnalysis,
                 prompt,
                 generatedLayout, variants,
                 validationErrors, retryCount, metadata
@@ -105,7 +144,7 @@ public record AgentContext(
     public AgentContext withImageAnalysis(ImageAnalysisResult analysis) {
         return new AgentContext(
                 pipelineId, requestId, products, options, userPrompt,
-                imageBase64, imageMimeType, analysis,
+                image, analysis,
                 assembledPrompt,
                 generatedLayout, variants,
                 validationErrors, retryCount, metadata
@@ -118,7 +157,7 @@ public record AgentContext(
     public AgentContext withGeneratedLayout(Layout layout) {
         return new AgentContext(
                 pipelineId, requestId, products, options, userPrompt,
-                imageBase64, imageMimeType, imageAnalysis,
+                image, imageAnalysis,
                 assembledPrompt,
                 layout, variants,
                 validationErrors, retryCount, metadata
@@ -131,7 +170,7 @@ public record AgentContext(
     public AgentContext withVariants(List<LayoutVariant> newVariants) {
         return new AgentContext(
                 pipelineId, requestId, products, options, userPrompt,
-                imageBase64, imageMimeType, imageAnalysis,
+                image, imageAnalysis,
                 assembledPrompt,
                 generatedLayout, newVariants,
                 validationErrors, retryCount, metadata
@@ -144,7 +183,7 @@ public record AgentContext(
     public AgentContext withValidationErrors(List<String> errors) {
         return new AgentContext(
                 pipelineId, requestId, products, options, userPrompt,
-                imageBase64, imageMimeType, imageAnalysis,
+                image, imageAnalysis,
                 assembledPrompt,
                 generatedLayout, variants,
                 errors, retryCount, metadata
@@ -157,13 +196,26 @@ public record AgentContext(
     public AgentContext withIncrementedRetry() {
         return new AgentContext(
                 pipelineId, requestId, products, options, userPrompt,
-                imageBase64, imageMimeType, imageAnalysis,
+                image, imageAnalysis,
                 assembledPrompt,
                 generatedLayout, variants,
                 validationErrors, retryCount + 1, metadata
         );
     }
     
+    /**
+     * Returns a copy with the given retry count.
+     */
+    public AgentContext withRetryCount(int count) {
+        return new AgentContext(
+                pipelineId, requestId, products, options, userPrompt,
+                image, imageAnalysis,
+                assembledPrompt,
+                generatedLayout, variants,
+                validationErrors, count, metadata
+        );
+    }
+    
     /**
      * Returns a copy with additional metadata.
      */
@@ -172,18 +224,61 @@ public record AgentContext(
         newMetadata.put(key, value);
         return new AgentContext(
                 pipelineId, requestId, products, options, userPrompt,
-                imageBase64, imageMimeType, imageAnalysis,
+                image, imageAnalysis,
+                assembledPrompt,
+                generatedLayout, variants,
+                validationErrors, retryCount, Map.copyOf(newMetadata)
+        );
+    }
+    
+    /**
+     * Returns a copy without the given metadata key.
+     */
+    public AgentContext withoutMetadata(String key) {
+        if (!metadata.containsKey(key)) {
+            return this;
+        }
+        var newMetadata = new java.util.HashMap<>(metadata);
+        newMetadata.remove(key);
+        return new AgentContext(
+                pipelineId, requestId, products, options, userPrompt,
+                image, imageAnalysis,
                 assembledPrompt,
                 generatedLayout, variants,
                 validationErrors, retryCount, Map.copyOf(newMetadata)
         );
     }
     
+    /**
+     * Returns a copy recording a degradation applied under load.
+     */
+    public AgentContext withDegradation(String description) {
+        var updated = new java.util.ArrayList<>(degradations());
+        updated.add(description);
+        return withMetadata(DEGRADATIONS_KEY, List.copyOf(updated));
+    }
+    
+    /**
+     * Returns the degradations applied to this request.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> degradations() {
+        Object value = metadata.get(DEGRADATIONS_KEY);
+        return value instanceof List<?> list ? (List<String>) list : List.of();
+    }
+    
     /**
      * Checks if this context has an image for analysis.
      */
     public boolean hasImage() {
-        return imageBase64 != null && !imageBase64.isBlank();
+        return image != null && !image.isEmpty();
+    }
+    
+    /**
+     * Returns the image MIME type, or null.
+     */
+    public String imageMimeType() {
+        return image != null ? image.mimeType() : null;
     }
     
     /**
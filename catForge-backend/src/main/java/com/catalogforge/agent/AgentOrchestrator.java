@@ -1,16 +1,20 @@
 package com.catalogforge.agent;
 
-import com.catalogforge.agent.steps.ImageAnalysisStep;
+import com.catalogforge.config.properties.AgentProperties;
+import com.catalogforge.model.Layout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Orchestrates the agent pipeline execution.
- * Selects the appropriate strategy and executes the pipeline.
+ * Selects the appropriate strategy and executes the pipeline inside that strategy's bulkhead.
+ * Under pressure the strategy may degrade the request; saturation is rejected with 503.
  */
 @Service
 public class AgentOrchestrator {
@@ -18,9 +22,10 @@ public class AgentOrchestrator {
     private static final Logger log = LoggerFactory.getLogger(AgentOrchestrator.class);
 
     private final List<PipelineStrategy> strategies;
-    private final ImageAnalysisStep imageAnalysisStep;
+    private final Map<String, StrategyBulkhead> bulkheads = new LinkedHashMap<>();
+    private final double degradationThreshold;
 
-    public AgentOrchestrator(List<PipelineStrategy> strategies, ImageAnalysisStep imageAnalysisStep) {
+    public AgentOrchestrator(List<PipelineStrategy> strategies, AgentProperties properties) {
         // Sort by @Order annotation (lower = higher priority)
         this.strategies = strategies.stream()
                 .sorted(Comparator.comparingInt(s -> {
@@ -28,7 +33,12 @@ public class AgentOrchestrator {
                     return order != null ? order.value() : Integer.MAX_VALUE;
                 }))
                 .toList();
-        this.imageAnalysisStep = imageAnalysisStep;
+        this.degradationThreshold = properties.degradationThresholdPercent() / 100.0;
+        
+        for (PipelineStrategy strategy : this.strategies) {
+            bulkheads.put(strategy.name(), new StrategyBulkhead(
+                    strategy.name(), properties.bulkheadFor(strategy.name()), properties.retryAfterSeconds()));
+        }
         
         log.info("AgentOrchestrator initialized with {} strategies: {}", 
                 strategies.size(),
@@ -45,20 +55,27 @@ public class AgentOrchestrator {
         log.info("Starting orchestration: pipelineId={}", context.pipelineId());
         long startTime = System.currentTimeMillis();
         
-        // Step 1: Analyze image if present
-        AgentContext current = context;
-        if (context.hasImage()) {
-            log.debug("Analyzing reference image");
-            current = imageAnalysisStep.execute(current);
-        }
-        
-        // Step 2: Select strategy
-        PipelineStrategy strategy = selectStrategy(current);
+        // Step 1: Select strategy
+        PipelineStrategy strategy = selectStrategy(context);
         log.info("Selected strategy: {}", strategy.name());
         
-        // Step 3: Execute pipeline
-        Pipeline pipeline = strategy.getPipeline();
-        current = pipeline.run(current);
+        // Step 2: Admit through the strategy's bulkhead
+        AgentContext current;
+        try (StrategyBulkhead.Permit permit = bulkheads.get(strategy.name()).acquire()) {
+            AgentContext admitted = context;
+            if (permit.pressure() >= degradationThreshold) {
+                admitted = strategy.degrade(context);
+                if (!admitted.degradations().isEmpty()) {
+                    log.warn("Strategy {} under pressure ({}%), degraded request: {}",
+                            strategy.name(), Math.round(permit.pressure() * 100), admitted.degradations());
+                }
+            }
+            
+            // Step 3: Execute pipeline (image analysis runs inside the pipeline graph)
+            current = strategy.getPipeline().run(admitted);
+        }
+        
+        current = recordDegradations(current);
         
         long duration = System.currentTimeMillis() - startTime;
         log.info("Orchestration completed: pipelineId={}, strategy={}, duration={}ms, valid={}", 
@@ -77,6 +94,18 @@ public class AgentOrchestrator {
                 .orElseThrow(() -> new IllegalStateException("No matching strategy found"));
     }
 
+    /**
+     * Copies the applied degradations into the generated layout's metadata.
+     */
+    private AgentContext recordDegradations(AgentContext context) {
+        Layout layout = context.generatedLayout();
+        if (context.degradations().isEmpty() || layout == null || layout.metadata() == null) {
+            return context;
+        }
+        return context.withGeneratedLayout(
+                layout.withMetadata(layout.metadata().withDegradations(context.degradations())));
+    }
+
     /**
      * Returns all available strategies.
      */
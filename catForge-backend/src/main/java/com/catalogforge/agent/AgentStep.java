@@ -1,5 +1,8 @@
 package com.catalogforge.agent;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Interface for a single step in the agent pipeline.
  * Each step transforms the context and passes it to the next step.
@@ -21,4 +24,20 @@ public interface AgentStep {
     default String name() {
         return getClass().getSimpleName();
     }
+    
+    /**
+     * Returns the context slots this step reads.
+     * Steps that do not declare their slots are treated as reading everything.
+     */
+    default Set<ContextSlot> inputs() {
+        return EnumSet.allOf(ContextSlot.class);
+    }
+    
+    /**
+     * Returns the context slots this step writes.
+     * Steps that do not declare their slots are treated as writing everything.
+     */
+    default Set<ContextSlot> outputs() {
+        return EnumSet.allOf(ContextSlot.class);
+    }
 }
@@ -0,0 +1,70 @@
+package com.catalogforge.agent;
+
+/**
+ * Named pieces of {@link AgentContext} state that steps read and write.
+ * The {@link DagPipeline} derives step dependencies from these declarations.
+ */
+public enum ContextSlot {
+
+    // Request inputs, available before any step runs
+    PRODUCTS,
+    OPTIONS,
+    USER_PROMPT,
+    IMAGE,
+
+    // Derived state
+    IMAGE_ANALYSIS,
+    SKILL_PROMPT("skillPrompt"),
+    PRODUCT_SECTION("productSection"),
+    ASSEMBLED_PROMPT,
+    GENERATED_LAYOUT,
+    VARIANTS,
+    VALIDATION_ERRORS,
+    RETRY_COUNT,
+    CORRECTION_TURN(AgentContext.CORRECTION_TURN_KEY);
+
+    private final String metadataKey;
+
+    ContextSlot() {
+        this(null);
+    }
+
+    ContextSlot(String metadataKey) {
+        this.metadataKey = metadataKey;
+    }
+
+    /**
+     * Returns the metadata key for slots stored in {@link AgentContext#metadata()}, or null.
+     */
+    public String metadataKey() {
+        return metadataKey;
+    }
+
+    /**
+     * Reads the value of a metadata-backed slot as a string.
+     */
+    public String readString(AgentContext context) {
+        Object value = context.metadata().get(metadataKey);
+        return value instanceof String s ? s : null;
+    }
+
+    /**
+     * Copies this slot's value from {@code source} into {@code target}.
+     * Request input slots are immutable and never copied.
+     */
+    AgentContext copy(AgentContext source, AgentContext target) {
+        return switch (this) {
+            case PRODUCTS, OPTIONS, USER_PROMPT, IMAGE -> target;
+            case IMAGE_ANALYSIS -> target.withImageAnalysis(source.imageAnalysis());
+            case SKILL_PROMPT, PRODUCT_SECTION, CORRECTION_TURN -> {
+                Object value = source.metadata().get(metadataKey);
+                yield value != null ? target.withMetadata(metadataKey, value) : target;
+            }
+            case ASSEMBLED_PROMPT -> target.withAssembledPrompt(source.assembledPrompt());
+            case GENERATED_LAYOUT -> target.withGeneratedLayout(source.generatedLayout());
+            case VARIANTS -> target.withVariants(source.variants());
+            case VALIDATION_ERRORS -> target.withValidationErrors(source.validationErrors());
+            case RETRY_COUNT -> target.withRetryCount(source.retryCount());
+        };
+    }
+}
@@ -1,20 +1,35 @@
 package com.catalogforge.agent;
 
+import com.catalogforge.agent.steps.ValidationStep;
+import com.catalogforge.config.properties.LayoutProperties;
+import com.catalogforge.config.properties.LayoutProperties.CorrectionMode;
+import com.catalogforge.model.Layout;
+import com.catalogforge.model.LayoutVariant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 /**
- * Applies corrections to the prompt based on validation errors.
- * Enhances the prompt with specific instructions to fix identified issues.
+ * Applies corrections based on validation errors.
+ * In full mode the instructions are appended to the prompt; in delta mode the previous
+ * output of every failing variant and the instructions are handed to generation as one
+ * multi-turn follow-up.
  */
 @Component
 public class CorrectionStep implements AgentStep {
 
     private static final Logger log = LoggerFactory.getLogger(CorrectionStep.class);
 
+    private final CorrectionMode mode;
+
+    public CorrectionStep(LayoutProperties properties) {
+        this.mode = properties.correctionMode();
+    }
+
     @Override
     public AgentContext execute(AgentContext context) {
         log.debug("Applying corrections for pipeline: {}", context.pipelineId());
@@ -23,8 +38,26 @@ public class CorrectionStep implements AgentStep {
             return context;
         }
         
-        // Build correction instructions based on errors
-        String correctionInstructions = buildCorrectionInstructions(context);
+        Layout previous = context.generatedLayout();
+        if (mode == CorrectionMode.DELTA && previous != null && !"fallback".equals(previous.status())
+                && !previous.variants().isEmpty()) {
+            CorrectionTurn turn = new CorrectionTurn(
+                    variantFixes(previous.variants(), context.validationErrors()),
+                    context.validationErrors(),
+                    buildCorrectionInstructions(context.validationErrors()),
+                    context.retryCount() + 2,
+                    context.metadata().get(AgentContext.LAST_LLM_REQUEST_KEY) instanceof String id ? id : null
+            );
+            
+            log.debug("Prepared delta correction of {} variants for {} errors",
+                    turn.variants().size(), context.validationErrors().size());
+            
+            return context
+                    .withMetadata(AgentContext.CORRECTION_TURN_KEY, turn)
+                    .withValidationErrors(List.of()); // Clear errors for retry
+        }
+        
+        String correctionInstructions = buildCorrectionInstructions(context.validationErrors());
         
         // Append correction instructions to the assembled prompt
         String enhancedPrompt = context.assembledPrompt() + "\n\n" + correctionInstructions;
@@ -33,20 +66,46 @@ public class CorrectionStep implements AgentStep {
         
         return context
                 .withAssembledPrompt(enhancedPrompt)
-                .withValidationErrors(java.util.List.of()); // Clear errors for retry
+                .withValidationErrors(List.of()); // Clear errors for retry
+    }
+
+    /**
+     * Collects the previous output of every failing variant. Errors that name no variant apply to all of them.
+     */
+    private List<CorrectionTurn.VariantFix> variantFixes(List<LayoutVariant> variants, List<String> errors) {
+        List<CorrectionTurn.VariantFix> fixes = new ArrayList<>();
+        for (int i = 0; i < variants.size(); i++) {
+            int index = i;
+            boolean failing = errors.stream().anyMatch(error -> {
+                int variant = ValidationStep.variantIndex(error);
+                return variant < 0 || variant == index;
+            });
+            if (failing) {
+                LayoutVariant variant = variants.get(i);
+                fixes.add(new CorrectionTurn.VariantFix(i,
+                        variant.html() != null ? variant.html() : "",
+                        variant.css() != null ? variant.css() : ""));
+            }
+        }
+        return fixes;
     }
 
-    private String buildCorrectionInstructions(AgentContext context) {
+    private String buildCorrectionInstructions(List<String> errors) {
         StringBuilder sb = new StringBuilder();
         sb.append("## IMPORTANT: Correction Required\n\n");
         sb.append("The previous generation had the following issues that MUST be fixed:\n\n");
         
-        for (String error : context.validationErrors()) {
+        for (String error : errors) {
             sb.append("- ").append(error).append("\n");
             sb.append("  → ").append(getSuggestionForError(error)).append("\n");
         }
         
-        sb.append("\nPlease regenerate the layout ensuring all issues are addressed.");
+        if (mode == CorrectionMode.DELTA) {
+            sb.append("\nReturn every listed variant with its index, corrected html and css. ")
+                    .append("Change only what is needed to fix these issues.");
+        } else {
+            sb.append("\nPlease regenerate the layout ensuring all issues are addressed.");
+        }
         
         return sb.toString();
     }
@@ -61,12 +120,25 @@ public class CorrectionStep implements AgentStep {
         if (error.contains("unbalanced brackets")) {
             return "Check CSS syntax and ensure all brackets are properly closed";
         }
+        if (error.contains("unclosed or stray tags")) {
+            return "Close every opened HTML element and keep the output within the length limit";
+        }
         if (error.contains("sanitized")) {
             return "Avoid using script tags, event handlers, or javascript: URLs";
         }
         return "Review and fix the identified issue";
     }
 
+    @Override
+    public Set<ContextSlot> inputs() {
+        return Set.of(ContextSlot.ASSEMBLED_PROMPT, ContextSlot.VALIDATION_ERRORS);
+    }
+
+    @Override
+    public Set<ContextSlot> outputs() {
+        return Set.of(ContextSlot.ASSEMBLED_PROMPT, ContextSlot.VALIDATION_ERRORS, ContextSlot.CORRECTION_TURN);
+    }
+
     @Override
     public String name() {
         return "Correction";
@@ -0,0 +1,28 @@
+package com.catalogforge.agent;
+
+import java.util.List;
+
+/**
+ * A pending delta correction: the previous output of every failing variant and the errors to fix.
+ * Sent as one short follow-up to a summary of the request instead of resending the full prompt.
+ */
+public record CorrectionTurn(
+    List<VariantFix> variants,
+    List<String> errors,
+    String instructions,
+    int attempt,
+    String parentRequestId
+) {
+    public CorrectionTurn {
+        variants = variants != null ? List.copyOf(variants) : List.of();
+        errors = errors != null ? List.copyOf(errors) : List.of();
+    }
+
+    /**
+     * Previous output of one failing variant.
+     *
+     * @param index position of the variant in the previous layout
+     */
+    public record VariantFix(int index, String html, String css) {
+    }
+}
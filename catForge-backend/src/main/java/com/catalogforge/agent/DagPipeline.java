@@ -0,0 +1,160 @@
+package com.catalogforge.agent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pipeline that executes its steps as a dependency graph.
+ * A step depends on every earlier step it conflicts with: one that writes a slot it
+ * reads or writes, or that reads a slot it writes. Steps without such a conflict
+ * run concurrently on virtual threads of the pipeline's executor, which {@link #close()} shuts down.
+ */
+public class DagPipeline implements Pipeline, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DagPipeline.class);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final String name;
+    private final List<AgentStep> steps;
+    private final List<List<Integer>> dependencies;
+
+    public DagPipeline(String name, List<AgentStep> steps) {
+        this.name = name;
+        this.steps = List.copyOf(steps);
+        this.dependencies = computeDependencies(this.steps);
+        
+        log.debug("{} graph: {}", name, describe());
+    }
+
+    @Override
+    public AgentContext run(AgentContext context) {
+        log.info("Starting {}: {}", name, context.pipelineId());
+        
+        AtomicReference<AgentContext> state = new AtomicReference<>(context);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(steps.size());
+        
+        for (int i = 0; i < steps.size(); i++) {
+            AgentStep step = steps.get(i);
+            CompletableFuture<?>[] upstream = dependencies.get(i).stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            
+            futures.add(CompletableFuture.allOf(upstream)
+                    .thenRunAsync(() -> runStep(step, state), executor));
+        }
+        
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        
+        AgentContext result = state.get();
+        log.info("{} completed: {} (valid={})", name, context.pipelineId(), result.isValid());
+        return result;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Shuts down the step executor; running steps complete, new runs are rejected.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the indices of the steps each step waits for.
+     */
+    List<List<Integer>> dependencies() {
+        return dependencies;
+    }
+
+    private void runStep(AgentStep step, AtomicReference<AgentContext> state) {
+        AgentContext input = state.get();
+        
+        log.debug("Executing step: {}", step.name());
+        long start = System.currentTimeMillis();
+        
+        AgentContext output = step.execute(input);
+        state.updateAndGet(current -> merge(current, input, output, step.outputs()));
+        
+        long duration = System.currentTimeMillis() - start;
+        log.debug("Step {} completed in {}ms", step.name(), duration);
+    }
+
+    /**
+     * Applies a step's declared outputs and any metadata it added onto the shared state.
+     * Metadata-backed outputs missing from the step's result are removed first, so a step can clear them.
+     */
+    private static AgentContext merge(
+            AgentContext current, AgentContext input, AgentContext output, Set<ContextSlot> outputs) {
+        
+        AgentContext merged = current;
+        for (ContextSlot slot : outputs) {
+            String key = slot.metadataKey();
+            if (key != null && !output.metadata().containsKey(key)) {
+                merged = merged.withoutMetadata(key);
+            }
+        }
+        for (ContextSlot slot : outputs) {
+            merged = slot.copy(output, merged);
+        }
+        for (Map.Entry<String, Object> entry : output.metadata().entrySet()) {
+            if (!Objects.equals(input.metadata().get(entry.getKey()), entry.getValue())) {
+                merged = merged.withMetadata(entry.getKey(), entry.getValue());
+            }
+        }
+        return merged;
+    }
+
+    static List<List<Integer>> computeDependencies(List<AgentStep> steps) {
+        List<List<Integer>> result = new ArrayList<>(steps.size());
+        for (int i = 0; i < steps.size(); i++) {
+            List<Integer> upstream = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                if (conflicts(steps.get(j), steps.get(i))) {
+                    upstream.add(j);
+                }
+            }
+            result.add(List.copyOf(upstream));
+        }
+        return List.copyOf(result);
+    }
+
+    private static boolean conflicts(AgentStep earlier, AgentStep later) {
+        return !Collections.disjoint(earlier.outputs(), later.inputs())
+                || !Collections.disjoint(earlier.outputs(), later.outputs())
+                || !Collections.disjoint(earlier.inputs(), later.outputs());
+    }
+
+    private String describe() {
+        List<String> edges = new ArrayList<>();
+        for (int i = 0; i < steps.size(); i++) {
+            List<String> upstream = dependencies.get(i).stream()
+                    .map(j -> steps.get(j).name())
+                    .toList();
+            edges.add(steps.get(i).name() + "<-" + upstream);
+        }
+        return String.join(", ", edges);
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -173,6 +174,16 @@ public class FallbackStep implements AgentStep {
                 .replace("\"", "&quot;");
     }
 
+    @Override
+    public Set<ContextSlot> inputs() {
+        return Set.of(ContextSlot.PRODUCTS, ContextSlot.OPTIONS, ContextSlot.IMAGE_ANALYSIS, ContextSlot.RETRY_COUNT);
+    }
+
+    @Override
+    public Set<ContextSlot> outputs() {
+        return Set.of(ContextSlot.GENERATED_LAYOUT, ContextSlot.VALIDATION_ERRORS);
+    }
+
     @Override
     public String name() {
         return "Fallback";
@@ -1,57 +1,64 @@
 package com.catalogforge.agent;
 
+import com.catalogforge.agent.steps.ImageAnalysisStep;
 import com.catalogforge.agent.steps.LayoutGenerationStep;
+import com.catalogforge.agent.steps.ProductSectionStep;
 import com.catalogforge.agent.steps.PromptAssemblyStep;
+import com.catalogforge.agent.steps.RepairStep;
+import com.catalogforge.agent.steps.SkillAssemblyStep;
 import com.catalogforge.agent.steps.ValidationStep;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
 /**
- * Simple linear pipeline: PromptAssembly → LayoutGeneration → Validation.
+ * Simple linear pipeline: PromptAssembly → LayoutGeneration → Validation → Repair.
+ * Image analysis, skill assembly and product rendering run concurrently ahead of prompt assembly.
  * Used for standard layout generation without retries or variants.
  */
 @Component
 public class LinearPipeline implements Pipeline {
 
-    private static final Logger log = LoggerFactory.getLogger(LinearPipeline.class);
+    private static final String NAME = "LinearPipeline";
 
-    private final List<AgentStep> steps;
+    private final DagPipeline dag;
 
     public LinearPipeline(
+            ImageAnalysisStep imageAnalysisStep,
+            SkillAssemblyStep skillAssemblyStep,
+            ProductSectionStep productSectionStep,
             PromptAssemblyStep promptAssemblyStep,
             LayoutGenerationStep layoutGenerationStep,
-            ValidationStep validationStep
+            ValidationStep validationStep,
+            RepairStep repairStep
     ) {
-        this.steps = List.of(promptAssemblyStep, layoutGenerationStep, validationStep);
+        this.dag = new DagPipeline(NAME, List.of(
+                imageAnalysisStep,
+                skillAssemblyStep,
+                productSectionStep,
+                promptAssemblyStep,
+                layoutGenerationStep,
+                validationStep,
+                repairStep
+        ));
     }
 
     @Override
     public AgentContext run(AgentContext context) {
-        log.info("Starting LinearPipeline: {}", context.pipelineId());
-        
-        AgentContext current = context;
-        
-        for (AgentStep step : steps) {
-            log.debug("Executing step: {}", step.name());
-            long start = System.currentTimeMillis();
-            
-            current = step.execute(current);
-            
-            long duration = System.currentTimeMillis() - start;
-            log.debug("Step {} completed in {}ms", step.name(), duration);
-        }
-        
-        log.info("LinearPipeline completed: {} (valid={})", 
-                context.pipelineId(), current.isValid());
-        
-        return current;
+        return dag.run(context);
     }
 
     @Override
     public String name() {
-        return "LinearPipeline";
+        return NAME;
+    }
+
+    /**
+     * Shuts down the step executor on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        dag.close();
     }
 }
@@ -1,20 +1,16 @@
 package com.catalogforge.agent;
 
+import com.catalogforge.agent.steps.ImageAnalysisStep;
 import com.catalogforge.agent.steps.LayoutGenerationStep;
+import com.catalogforge.agent.steps.ProductSectionStep;
 import com.catalogforge.agent.steps.PromptAssemblyStep;
+import com.catalogforge.agent.steps.RepairStep;
+import com.catalogforge.agent.steps.SkillAssemblyStep;
 import com.catalogforge.agent.steps.ValidationStep;
-import com.catalogforge.model.Layout;
-import com.catalogforge.model.LayoutVariant;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
 
 /**
  * Parallel pipeline for generating multiple layout variants simultaneously.
@@ -23,107 +19,43 @@ import java.util.stream.Collectors;
 @Component
 public class ParallelPipeline implements Pipeline {
 
-    private static final Logger log = LoggerFactory.getLogger(ParallelPipeline.class);
-    private static final int DEFAULT_VARIANT_COUNT = 3;
+    private static final String NAME = "ParallelPipeline";
 
-    private final PromptAssemblyStep promptAssemblyStep;
-    private final LayoutGenerationStep layoutGenerationStep;
-    private final ValidationStep validationStep;
-    private final ExecutorService executor;
+    private final DagPipeline dag;
 
     public ParallelPipeline(
+            ImageAnalysisStep imageAnalysisStep,
+            SkillAssemblyStep skillAssemblyStep,
+            ProductSectionStep productSectionStep,
             PromptAssemblyStep promptAssemblyStep,
             LayoutGenerationStep layoutGenerationStep,
-            ValidationStep validationStep
+            ValidationStep validationStep,
+            RepairStep repairStep
     ) {
-        this.promptAssemblyStep = promptAssemblyStep;
-        this.layoutGenerationStep = layoutGenerationStep;
-        this.validationStep = validationStep;
-        this.executor = Executors.newFixedThreadPool(4);
+        this.dag = new DagPipeline(NAME, List.of(
+                imageAnalysisStep,
+                skillAssemblyStep,
+                productSectionStep,
+                promptAssemblyStep,
+                new VariantFanOutStep(layoutGenerationStep, validationStep, repairStep)
+        ));
     }
 
     @Override
     public AgentContext run(AgentContext context) {
-        log.info("Starting ParallelPipeline: {}", context.pipelineId());
-        
-        int variantCount = context.options() != null 
-                ? context.options().variantCount() 
-                : DEFAULT_VARIANT_COUNT;
-        
-        // Step 1: Assemble base prompt
-        AgentContext baseContext = promptAssemblyStep.execute(context);
-        
-        // Step 2: Generate variants in parallel
-        List<CompletableFuture<AgentContext>> futures = new ArrayList<>();
-        
-        for (int i = 0; i < variantCount; i++) {
-            final int variantIndex = i;
-            CompletableFuture<AgentContext> future = CompletableFuture.supplyAsync(() -> {
-                log.debug("Generating variant {} of {}", variantIndex + 1, variantCount);
-                
-                // Add variant-specific instructions
-                AgentContext variantContext = baseContext.withAssembledPrompt(
-                        baseContext.assembledPrompt() + "\n\n" + 
-                        getVariantInstructions(variantIndex, variantCount)
-                );
-                
-                // Generate and validate
-                AgentContext generated = layoutGenerationStep.execute(variantContext);
-                return validationStep.execute(generated);
-                
-            }, executor);
-            
-            futures.add(future);
-        }
-        
-        // Step 3: Collect results
-        List<AgentContext> results = futures.stream()
-                .map(CompletableFuture::join)
-                .toList();
-        
-        // Step 4: Aggregate variants
-        List<LayoutVariant> allVariants = results.stream()
-                .filter(ctx -> ctx.generatedLayout() != null)
-                .flatMap(ctx -> ctx.generatedLayout().variants().stream())
-                .collect(Collectors.toList());
-        
-        // Use first valid layout as base, add all variants
-        AgentContext firstValid = results.stream()
-                .filter(AgentContext::isValid)
-                .findFirst()
-                .orElse(results.get(0));
-        
-        if (firstValid.generatedLayout() != null) {
-            Layout aggregatedLayout = firstValid.generatedLayout().withVariants(allVariants);
-            firstValid = firstValid.withGeneratedLayout(aggregatedLayout);
-        }
-        
-        log.info("ParallelPipeline completed: {} variants generated", allVariants.size());
-        return firstValid.withVariants(allVariants);
-    }
-
-    private String getVariantInstructions(int index, int total) {
-        String[] styles = {
-                "Create a clean, minimalist design with ample whitespace",
-                "Create a bold, dynamic design with strong visual hierarchy",
-                "Create an elegant, premium design with refined typography",
-                "Create a modern, tech-focused design with geometric elements",
-                "Create a warm, approachable design with rounded elements"
-        };
-        
-        String style = styles[index % styles.length];
-        
-        return String.format("""
-                ## Variant Instructions (Variant %d of %d)
-                
-                %s
-                
-                Make this variant distinct from others while maintaining brand consistency.
-                """, index + 1, total, style);
+        return dag.run(context);
     }
 
     @Override
     public String name() {
-        return "ParallelPipeline";
+        return NAME;
+    }
+
+    /**
+     * Shuts down the step executor on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        dag.close();
     }
 }
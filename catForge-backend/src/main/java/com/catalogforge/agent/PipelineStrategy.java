@@ -19,4 +19,12 @@ public interface PipelineStrategy {
      * Checks if this strategy is appropriate for the given context.
      */
     boolean matches(AgentContext context);
+    
+    /**
+     * Returns a cheaper variant of the request for use under load.
+     * Implementations record what they changed via {@link AgentContext#withDegradation(String)}.
+     */
+    default AgentContext degrade(AgentContext context) {
+        return context;
+    }
 }
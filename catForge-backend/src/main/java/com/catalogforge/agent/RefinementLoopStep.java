@@ -0,0 +1,91 @@
+package com.catalogforge.agent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+
+/**
+ * Composite step running the generate → validate → repair → correct loop.
+ * Local repair is tried first; the LLM is only asked to correct what repair could not fix.
+ * Falls back to a static layout when the retry budget is exhausted.
+ * The budget can be lowered per request via {@link AgentContext#MAX_RETRIES_KEY}.
+ */
+public class RefinementLoopStep implements AgentStep {
+
+    private static final Logger log = LoggerFactory.getLogger(RefinementLoopStep.class);
+
+    private final AgentStep generationStep;
+    private final AgentStep validationStep;
+    private final AgentStep repairStep;
+    private final AgentStep correctionStep;
+    private final AgentStep fallbackStep;
+    private final int maxRetries;
+
+    public RefinementLoopStep(
+            AgentStep generationStep,
+            AgentStep validationStep,
+            AgentStep repairStep,
+            AgentStep correctionStep,
+            AgentStep fallbackStep,
+            int maxRetries
+    ) {
+        this.generationStep = generationStep;
+        this.validationStep = validationStep;
+        this.repairStep = repairStep;
+        this.correctionStep = correctionStep;
+        this.fallbackStep = fallbackStep;
+        this.maxRetries = maxRetries;
+    }
+
+    @Override
+    public AgentContext execute(AgentContext context) {
+        int maxRetries = context.metadata().get(AgentContext.MAX_RETRIES_KEY) instanceof Integer limit
+                ? Math.min(limit, this.maxRetries)
+                : this.maxRetries;
+        AgentContext current = context;
+        
+        while (current.retryCount() <= maxRetries) {
+            log.debug("Generation attempt {} of {}", current.retryCount() + 1, maxRetries + 1);
+            
+            current = generationStep.execute(current);
+            current = validationStep.execute(current);
+            current = repairStep.execute(current);
+            
+            if (current.isValid()) {
+                log.info("Refinement completed successfully after {} attempts", current.retryCount() + 1);
+                return current;
+            }
+            
+            // If not valid and retries remaining, apply correction
+            if (current.retryCount() < maxRetries) {
+                log.debug("Validation failed, applying correction. Errors: {}", 
+                        current.validationErrors());
+                current = correctionStep.execute(current);
+                current = current.withIncrementedRetry();
+            } else {
+                break;
+            }
+        }
+        
+        log.warn("Refinement exceeded max retries, using fallback");
+        return fallbackStep.execute(current);
+    }
+
+    @Override
+    public Set<ContextSlot> inputs() {
+        return Set.of(ContextSlot.ASSEMBLED_PROMPT, ContextSlot.OPTIONS, ContextSlot.IMAGE_ANALYSIS,
+                ContextSlot.PRODUCTS, ContextSlot.RETRY_COUNT);
+    }
+
+    @Override
+    public Set<ContextSlot> outputs() {
+        return Set.of(ContextSlot.ASSEMBLED_PROMPT, ContextSlot.GENERATED_LAYOUT,
+                ContextSlot.VALIDATION_ERRORS, ContextSlot.RETRY_COUNT);
+    }
+
+    @Override
+    public String name() {
+        return "RefinementLoop";
+    }
+}
@@ -0,0 +1,111 @@
+package com.catalogforge.agent;
+
+import com.catalogforge.config.properties.AgentProperties;
+import com.catalogforge.exception.ServiceOverloadedException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency bulkhead for a single pipeline strategy.
+ * Limits in-flight executions and the number of callers waiting for a slot,
+ * so one strategy cannot starve the others.
+ */
+public class StrategyBulkhead {
+
+    private final String strategyName;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitMs;
+    private final int retryAfterSeconds;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public StrategyBulkhead(String strategyName, AgentProperties.Bulkhead settings, int retryAfterSeconds) {
+        this.strategyName = strategyName;
+        this.maxConcurrent = settings.maxConcurrent();
+        this.maxQueued = settings.maxQueued();
+        this.maxWaitMs = settings.maxWaitMs();
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Acquires an execution slot, waiting in the bounded queue if necessary.
+     *
+     * @throws ServiceOverloadedException if the queue is full or the wait times out
+     */
+    public Permit acquire() {
+        if (permits.tryAcquire()) {
+            return new Permit(pressure());
+        }
+        
+        if (waiting.incrementAndGet() > maxQueued) {
+            waiting.decrementAndGet();
+            throw overloaded();
+        }
+        
+        try {
+            if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                throw overloaded();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw overloaded();
+        } finally {
+            waiting.decrementAndGet();
+        }
+        
+        return new Permit(pressure());
+    }
+
+    /**
+     * Returns the current load as a fraction of total capacity (in-flight plus queued).
+     */
+    public double pressure() {
+        int inFlight = maxConcurrent - permits.availablePermits();
+        return (double) (inFlight + waiting.get()) / (maxConcurrent + maxQueued);
+    }
+
+    public int inFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int queued() {
+        return waiting.get();
+    }
+
+    private ServiceOverloadedException overloaded() {
+        return new ServiceOverloadedException(
+                "Strategy " + strategyName + " is saturated, please retry later", retryAfterSeconds);
+    }
+
+    /**
+     * An acquired execution slot. Closing it releases the slot exactly once.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final double pressure;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(double pressure) {
+            this.pressure = pressure;
+        }
+
+        /**
+         * Returns the bulkhead pressure observed when the slot was granted.
+         */
+        public double pressure() {
+            return pressure;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
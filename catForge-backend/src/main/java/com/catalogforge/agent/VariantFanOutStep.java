@@ -0,0 +1,119 @@
+package com.catalogforge.agent;
+
+import com.catalogforge.model.Layout;
+import com.catalogforge.model.LayoutVariant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Composite step generating multiple layout variants concurrently.
+ * Each variant gets its own style instructions; the results are aggregated into one layout.
+ */
+public class VariantFanOutStep implements AgentStep {
+
+    private static final Logger log = LoggerFactory.getLogger(VariantFanOutStep.class);
+    private static final int DEFAULT_VARIANT_COUNT = 3;
+
+    private static final String[] VARIANT_STYLES = {
+            "Create a clean, minimalist design with ample whitespace",
+            "Create a bold, dynamic design with strong visual hierarchy",
+            "Create an elegant, premium design with refined typography",
+            "Create a modern, tech-focused design with geometric elements",
+            "Create a warm, approachable design with rounded elements"
+    };
+
+    private final AgentStep generationStep;
+    private final AgentStep validationStep;
+    private final AgentStep repairStep;
+
+    public VariantFanOutStep(AgentStep generationStep, AgentStep validationStep, AgentStep repairStep) {
+        this.generationStep = generationStep;
+        this.validationStep = validationStep;
+        this.repairStep = repairStep;
+    }
+
+    @Override
+    public AgentContext execute(AgentContext context) {
+        int variantCount = context.options() != null 
+                ? context.options().variantCount() 
+                : DEFAULT_VARIANT_COUNT;
+        
+        List<AgentContext> results;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<AgentContext>> futures = new ArrayList<>();
+            
+            for (int i = 0; i < variantCount; i++) {
+                final int variantIndex = i;
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    log.debug("Generating variant {} of {}", variantIndex + 1, variantCount);
+                    
+                    AgentContext variantContext = context.withAssembledPrompt(
+                            context.assembledPrompt() + "\n\n" + 
+                            getVariantInstructions(variantIndex, variantCount)
+                    );
+                    
+                    AgentContext generated = generationStep.execute(variantContext);
+                    return repairStep.execute(validationStep.execute(generated));
+                }, executor));
+            }
+            
+            results = futures.stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+        }
+        
+        List<LayoutVariant> allVariants = results.stream()
+                .filter(ctx -> ctx.generatedLayout() != null)
+                .flatMap(ctx -> ctx.generatedLayout().variants().stream())
+                .toList();
+        
+        // Use first valid layout as base, add all variants
+        AgentContext firstValid = results.stream()
+                .filter(AgentContext::isValid)
+                .findFirst()
+                .orElse(results.get(0));
+        
+        if (firstValid.generatedLayout() != null) {
+            Layout aggregatedLayout = firstValid.generatedLayout().withVariants(allVariants);
+            firstValid = firstValid.withGeneratedLayout(aggregatedLayout);
+        }
+        
+        log.info("Variant fan-out completed: {} variants generated", allVariants.size());
+        return firstValid.withVariants(allVariants);
+    }
+
+    private String getVariantInstructions(int index, int total) {
+        String style = VARIANT_STYLES[index % VARIANT_STYLES.length];
+        
+        return String.format("""
+                ## Variant Instructions (Variant %d of %d)
+                
+                %s
+                
+                Make this variant distinct from others while maintaining brand consistency.
+                """, index + 1, total, style);
+    }
+
+    @Override
+    public Set<ContextSlot> inputs() {
+        return Set.of(ContextSlot.ASSEMBLED_PROMPT, ContextSlot.OPTIONS, ContextSlot.IMAGE_ANALYSIS,
+                ContextSlot.PRODUCTS);
+    }
+
+    @Override
+    public Set<ContextSlot> outputs() {
+        return Set.of(ContextSlot.GENERATED_LAYOUT, ContextSlot.VARIANTS, ContextSlot.VALIDATION_ERRORS);
+    }
+
+    @Override
+    public String name() {
+        return "VariantFanOut";
+    }
+}
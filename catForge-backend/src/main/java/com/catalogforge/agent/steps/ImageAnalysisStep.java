@@ -2,6 +2,7 @@ package com.catalogforge.agent.steps;
 
 import com.catalogforge.agent.AgentContext;
 import com.catalogforge.agent.AgentStep;
+import com.catalogforge.agent.ContextSlot;
 import com.catalogforge.gemini.GeminiVisionAnalyzer;
 import com.catalogforge.model.ColorPalette;
 import com.catalogforge.model.ImageAnalysisResult;
@@ -12,6 +13,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Analyzes reference images using Gemini Vision.
@@ -38,10 +40,7 @@ public class ImageAnalysisStep implements AgentStep {
         log.debug("Analyzing image for pipeline: {}", context.pipelineId());
         
         try {
-            ImageAnalysisResult result = visionAnalyzer.analyzeImage(
-                    context.imageBase64(),
-                    context.imageMimeType()
-            );
+            ImageAnalysisResult result = visionAnalyzer.analyzeImage(context.image());
             
             log.debug("Image analysis completed: mood={}, colors extracted", 
                     result.mood().type());
@@ -62,6 +61,16 @@ public class ImageAnalysisStep implements AgentStep {
         );
     }
 
+    @Override
+    public Set<ContextSlot> inputs() {
+        return Set.of(ContextSlot.IMAGE);
+    }
+
+    @Override
+    public Set<ContextSlot> outputs() {
+        return Set.of(ContextSlot.IMAGE_ANALYSIS);
+    }
+
     @Override
     public String name() {
         return "ImageAnalysis";
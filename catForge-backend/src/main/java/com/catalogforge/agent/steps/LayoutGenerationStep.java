@@ -2,6 +2,8 @@ package com.catalogforge.agent.steps;
 
 import com.catalogforge.agent.AgentContext;
 import com.catalogforge.agent.AgentStep;
+import com.catalogforge.agent.ContextSlot;
+import com.catalogforge.agent.CorrectionTurn;
 import com.catalogforge.gemini.GeminiClient;
 import com.catalogforge.gemini.GeminiModelSelector;
 import com.catalogforge.gemini.GeminiRequest;
@@ -12,15 +14,21 @@ import com.catalogforge.model.LayoutMetadata;
 import com.catalogforge.model.LayoutVariant;
 import com.catalogforge.model.PageFormat;
 import com.catalogforge.util.JsonUtils;
+import com.catalogforge.util.LayoutRepairer;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Generates layout HTML/CSS using the Gemini API.
@@ -43,19 +51,53 @@ public class LayoutGenerationStep implements AgentStep {
         log.debug("Generating layout for pipeline: {}", context.pipelineId());
         
         String model = selectModel(context);
-        String requestId = llmLogger.generateRequestId();
+        CorrectionTurn correction = context.metadata().get(AgentContext.CORRECTION_TURN_KEY) instanceof CorrectionTurn turn
+                ? turn
+                : null;
+        if (correction != null && context.generatedLayout() != null && !correction.variants().isEmpty()) {
+            return correct(context, model, correction);
+        }
         
-        GeminiRequest request = buildRequest(context);
+        String requestId = llmLogger.generateRequestId();
+        Layout layout = generate(context, model, requestId, buildRequest(context), context.assembledPrompt(),
+                buildLogMetadata(context, null));
+        return context
+                .withGeneratedLayout(layout)
+                .withoutMetadata(AgentContext.CORRECTION_TURN_KEY)
+                .withMetadata(AgentContext.LAST_LLM_REQUEST_KEY, requestId);
+    }
+
+    /**
+     * Regenerates every failing variant of the previous layout in one follow-up and keeps the variants
+     * that passed. A fallback result replaces the whole layout, as in a normal generation.
+     */
+    private AgentContext correct(AgentContext context, String model, CorrectionTurn correction) {
+        String requestId = llmLogger.generateRequestId();
+        Map<String, Object> metadata = buildLogMetadata(context, correction);
+        metadata.put("variants", correction.variants().stream().map(CorrectionTurn.VariantFix::index).toList());
+        GeminiResponse response = call(model, requestId, buildCorrectionRequest(context, correction),
+                correction.instructions(), metadata);
         
+        return context
+                .withGeneratedLayout(parseCorrectionResponse(response, context, correction))
+                .withoutMetadata(AgentContext.CORRECTION_TURN_KEY)
+                .withMetadata(AgentContext.LAST_LLM_REQUEST_KEY, requestId);
+    }
+
+    private Layout generate(AgentContext context, String model, String requestId, GeminiRequest request,
+                            String prompt, Map<String, Object> logMetadata) {
+        return parseLayoutResponse(call(model, requestId, request, prompt, logMetadata), context);
+    }
+
+    private GeminiResponse call(String model, String requestId, GeminiRequest request,
+                                String prompt, Map<String, Object> logMetadata) {
         llmLogger.logRequest(requestId, model, "/v1beta/models/" + model + ":generateContent", 
-                summarizePrompt(context.assembledPrompt()));
+                summarizePrompt(prompt), logMetadata);
         
         try {
             GeminiResponse response = geminiClient.generate(model, request);
             llmLogger.logResponse(requestId, model, response);
-            
-            Layout layout = parseLayoutResponse(response, context);
-            return context.withGeneratedLayout(layout);
+            return response;
             
         } catch (Exception e) {
             llmLogger.logError(requestId, model, e);
@@ -70,15 +112,102 @@ public class LayoutGenerationStep implements AgentStep {
         return GeminiModelSelector.forSimpleLayout();
     }
 
-    private GeminiRequest buildRequest(AgentContext context) {
+    private GeminiRequest.Builder requestBuilder(Map<String, Object> responseSchema) {
         return GeminiRequest.builder()
                 .systemInstruction(SYSTEM_INSTRUCTION)
+                .responseSchema(responseSchema)
+                .temperature(0.7);
+    }
+
+    private GeminiRequest buildRequest(AgentContext context) {
+        return requestBuilder(LAYOUT_RESPONSE_SCHEMA)
                 .userPrompt(context.assembledPrompt())
-                .responseSchema(LAYOUT_RESPONSE_SCHEMA)
-                .temperature(0.7)
                 .build();
     }
 
+    /**
+     * Builds the follow-up for all failing variants: a short summary of the request instead of the
+     * assembled skills and product text, their previous output as the model turn, then the fixes.
+     */
+    private GeminiRequest buildCorrectionRequest(AgentContext context, CorrectionTurn correction) {
+        List<Map<String, Object>> previous = correction.variants().stream()
+                .map(fix -> Map.<String, Object>of("index", fix.index(), "html", fix.html(), "css", fix.css()))
+                .toList();
+        return requestBuilder(CORRECTION_RESPONSE_SCHEMA)
+                .turn("user", summarizeRequest(context))
+                .turn("model", JsonUtils.toJson(Map.of("variants", previous)))
+                .userPrompt(correction.instructions())
+                .build();
+    }
+
+    private String summarizeRequest(AgentContext context) {
+        StringBuilder sb = new StringBuilder("Generate a catalog layout");
+        if (context.options() != null) {
+            sb.append(" in format ").append(context.options().pageFormat())
+                    .append(", style ").append(context.options().style());
+        }
+        sb.append(".\n");
+        if (context.products() != null && !context.products().isEmpty()) {
+            sb.append("Products: ").append(context.products().stream()
+                    .map(product -> product.name() + " (#" + product.id() + ")")
+                    .collect(Collectors.joining(", "))).append("\n");
+        }
+        if (context.userPrompt() != null && !context.userPrompt().isBlank()) {
+            sb.append("Brief: ").append(context.userPrompt()).append("\n");
+        }
+        return sb.toString();
+    }
+
+    private Map<String, Object> buildLogMetadata(AgentContext context, CorrectionTurn correction) {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("pipelineId", context.pipelineId());
+        metadata.put("attempt", correction != null ? correction.attempt() : context.retryCount() + 1);
+        
+        Object parent = correction != null 
+                ? correction.parentRequestId() 
+                : context.metadata().get(AgentContext.LAST_LLM_REQUEST_KEY);
+        if (parent != null) {
+            metadata.put("parentRequestId", parent);
+        }
+        if (correction != null) {
+            metadata.put("correctionMode", "delta");
+            metadata.put("errorCount", correction.errors().size());
+        }
+        return metadata;
+    }
+
+    /**
+     * Replaces the corrected variants of the previous layout. Variants the model left out keep
+     * their previous output and fail validation again.
+     */
+    private Layout parseCorrectionResponse(GeminiResponse response, AgentContext context,
+                                           CorrectionTurn correction) {
+        String json = response.getText();
+        if (json == null || json.isBlank()) {
+            log.warn("Empty response from layout correction");
+            return createFallbackLayout(context);
+        }
+        
+        try {
+            CorrectionOutput output = JsonUtils.fromJson(json, CorrectionOutput.class);
+            Set<Integer> failing = correction.variants().stream()
+                    .map(CorrectionTurn.VariantFix::index)
+                    .collect(Collectors.toSet());
+            List<LayoutVariant> variants = new ArrayList<>(context.generatedLayout().variants());
+            for (CorrectionOutput.Variant corrected : output.variants()) {
+                if (failing.contains(corrected.index()) && corrected.html() != null) {
+                    variants.set(corrected.index(), new LayoutVariant(UUID.randomUUID().toString(),
+                            corrected.html(), corrected.css() != null ? corrected.css() : ""));
+                }
+            }
+            return buildLayout(variants, context);
+            
+        } catch (Exception e) {
+            log.error("Failed to parse layout correction response (finishReason={})", response.getFinishReason(), e);
+            return createFallbackLayout(context);
+        }
+    }
+
     private Layout parseLayoutResponse(GeminiResponse response, AgentContext context) {
         String json = response.getText();
         if (json == null || json.isBlank()) {
@@ -92,37 +221,60 @@ public class LayoutGenerationStep implements AgentStep {
             String html = (String) data.getOrDefault("html", "<div>Layout generation failed</div>");
             String css = (String) data.getOrDefault("css", "");
             
-            LayoutVariant variant = new LayoutVariant(
-                    UUID.randomUUID().toString(),
-                    html,
-                    css
-            );
-            
-            String format = context.options() != null ? context.options().pageFormat() : "A4";
-            PageFormat pageFormat = new PageFormat(format, 210, 297, "mm");
-            
-            LayoutMetadata metadata = new LayoutMetadata(
-                    List.of(), // skillsUsed
-                    0L,        // generationTimeMs - will be set later
-                    1          // llmCallCount
-            );
-            
-            return new Layout(
-                    UUID.randomUUID().toString(),
-                    "completed",
-                    Instant.now(),
-                    pageFormat,
-                    context.imageAnalysis(),
-                    List.of(variant),
-                    metadata
-            );
+            return buildLayout(html, css, context);
             
         } catch (Exception e) {
+            // Output cut off by MAX_TOKENS is not valid JSON, but the partial HTML/CSS is usually repairable
+            Optional<Map<String, String>> salvaged = LayoutRepairer.salvageTruncatedJson(json, "html", "css")
+                    .filter(fields -> fields.containsKey("html"));
+            if (salvaged.isPresent()) {
+                log.warn("Salvaged unparseable layout response (finishReason={})", response.getFinishReason());
+                return buildLayout(salvaged.get().get("html"), salvaged.get().getOrDefault("css", ""), context);
+            }
+            
             log.error("Failed to parse layout response", e);
             return createFallbackLayout(context);
         }
     }
 
+    private Layout buildLayout(String html, String css, AgentContext context) {
+        LayoutVariant variant = new LayoutVariant(
+                UUID.randomUUID().toString(),
+                html,
+                css
+        );
+        return buildLayout(List.of(variant), context);
+    }
+
+    private Layout buildLayout(List<LayoutVariant> variants, AgentContext context) {
+        String format = context.options() != null ? context.options().pageFormat() : "A4";
+        PageFormat pageFormat = new PageFormat(format, 210, 297, "mm");
+        
+        LayoutMetadata metadata = new LayoutMetadata(
+                skillsUsed(context),
+                0L,        // generationTimeMs - will be set later
+                1          // llmCallCount
+        );
+        
+        return new Layout(
+                UUID.randomUUID().toString(),
+                "completed",
+                Instant.now(),
+                pageFormat,
+                context.imageAnalysis(),
+                variants,
+                metadata
+        );
+    }
+
+    private List<String> skillsUsed(AgentContext context) {
+        Object value = context.metadata().get(AgentContext.SKILLS_USED_KEY);
+        if (value instanceof List<?> names) {
+            return names.stream().map(String::valueOf).toList();
+        }
+        return List.of();
+    }
+
     private Layout createFallbackLayout(AgentContext context) {
         String productNames = context.products() != null 
                 ? context.products().stream()
@@ -165,6 +317,17 @@ public class LayoutGenerationStep implements AgentStep {
         return prompt.length() > 100 ? prompt.substring(0, 100) + "..." : prompt;
     }
 
+    @Override
+    public Set<ContextSlot> inputs() {
+        return Set.of(ContextSlot.ASSEMBLED_PROMPT, ContextSlot.OPTIONS, ContextSlot.IMAGE_ANALYSIS, ContextSlot.PRODUCTS,
+                ContextSlot.CORRECTION_TURN);
+    }
+
+    @Override
+    public Set<ContextSlot> outputs() {
+        return Set.of(ContextSlot.GENERATED_LAYOUT, ContextSlot.CORRECTION_TURN);
+    }
+
     @Override
     public String name() {
         return "LayoutGeneration";
@@ -189,4 +352,32 @@ public class LayoutGenerationStep implements AgentStep {
             ),
             "required", java.util.List.of("html", "css", "title")
     );
+
+    private static final Map<String, Object> CORRECTION_RESPONSE_SCHEMA = Map.of(
+            "type", "object",
+            "properties", Map.of(
+                    "variants", Map.of(
+                            "type", "array",
+                            "items", Map.of(
+                                    "type", "object",
+                                    "properties", Map.of(
+                                            "index", Map.of("type", "integer", "description", "Index of the corrected variant"),
+                                            "html", Map.of("type", "string", "description", "The corrected HTML markup"),
+                                            "css", Map.of("type", "string", "description", "The corrected CSS styles")
+                                    ),
+                                    "required", List.of("index", "html", "css")
+                            )
+                    )
+            ),
+            "required", List.of("variants")
+    );
+
+    private record CorrectionOutput(List<Variant> variants) {
+        CorrectionOutput {
+            variants = variants != null ? variants : List.of();
+        }
+
+        private record Variant(int index, String html, String css) {
+        }
+    }
 }
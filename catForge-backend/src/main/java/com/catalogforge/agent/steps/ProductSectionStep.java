@@ -0,0 +1,97 @@
+package com.catalogforge.agent.steps;
+
+import com.catalogforge.agent.AgentContext;
+import com.catalogforge.agent.AgentStep;
+import com.catalogforge.agent.ContextSlot;
+import com.catalogforge.config.properties.LayoutProperties;
+import com.catalogforge.model.ProductFragment;
+import com.catalogforge.service.ProductService;
+import com.catalogforge.util.ProductFragmentRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Renders the product data section of the prompt from pre-rendered product fragments.
+ * Products are rendered in full while the token budget allows; the remaining ones fall back
+ * to their compact form so every requested product stays in the prompt. The compact form keeps
+ * the technical data when the layout includes specs.
+ */
+@Component
+public class ProductSectionStep implements AgentStep {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSectionStep.class);
+
+    private final ProductService productService;
+    private final LayoutProperties layoutProperties;
+
+    public ProductSectionStep(ProductService productService, LayoutProperties layoutProperties) {
+        this.productService = productService;
+        this.layoutProperties = layoutProperties;
+    }
+
+    @Override
+    public AgentContext execute(AgentContext context) {
+        return context.withMetadata(ContextSlot.PRODUCT_SECTION.metadataKey(), buildProductDataSection(context));
+    }
+
+    private String buildProductDataSection(AgentContext context) {
+        if (context.products() == null || context.products().isEmpty()) {
+            return "";
+        }
+        
+        List<ProductFragment> fragments = context.products().stream()
+                .map(productService::getFragment)
+                .toList();
+        
+        boolean withSpecs = context.options() == null || context.options().includeSpecs();
+        
+        // Start from the compact forms and upgrade products in request order while the budget allows
+        int budget = layoutProperties.productTokenBudget();
+        int tokens = fragments.stream().mapToInt(fragment -> fragment.tokens(true, withSpecs)).sum();
+        boolean[] compact = new boolean[fragments.size()];
+        for (int i = 0; i < fragments.size(); i++) {
+            ProductFragment fragment = fragments.get(i);
+            int upgraded = tokens - fragment.tokens(true, withSpecs) + fragment.fullTokens();
+            if (upgraded <= budget) {
+                tokens = upgraded;
+            } else {
+                compact[i] = true;
+            }
+        }
+        
+        StringBuilder sb = new StringBuilder(ProductFragmentRenderer.SECTION_HEADER);
+        int compactCount = 0;
+        for (int i = 0; i < fragments.size(); i++) {
+            sb.append(fragments.get(i).text(compact[i], withSpecs));
+            if (compact[i]) {
+                compactCount++;
+            }
+        }
+        
+        if (compactCount > 0) {
+            log.debug("Product section for pipeline {} uses compact form for {}/{} products (~{} tokens)",
+                    context.pipelineId(), compactCount, fragments.size(), tokens);
+        }
+        
+        return sb.toString();
+    }
+
+    @Override
+    public Set<ContextSlot> inputs() {
+        return Set.of(ContextSlot.PRODUCTS);
+    }
+
+    @Override
+    public Set<ContextSlot> outputs() {
+        return Set.of(ContextSlot.PRODUCT_SECTION);
+    }
+
+    @Override
+    public String name() {
+        return "ProductSection";
+    }
+}
@@ -2,39 +2,38 @@ package com.catalogforge.agent.steps;
 
 import com.catalogforge.agent.AgentContext;
 import com.catalogforge.agent.AgentStep;
-import com.catalogforge.model.Product;
-import com.catalogforge.service.SkillsService;
+import com.catalogforge.agent.ContextSlot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.util.Set;
 
 /**
  * Assembles the complete prompt from skills and product data.
+ * Combines the sections produced by {@link SkillAssemblyStep} and {@link ProductSectionStep},
+ * rendering them inline when this step runs on its own.
  */
 @Component
 public class PromptAssemblyStep implements AgentStep {
 
     private static final Logger log = LoggerFactory.getLogger(PromptAssemblyStep.class);
 
-    private final SkillsService skillsService;
+    private final SkillAssemblyStep skillAssemblyStep;
+    private final ProductSectionStep productSectionStep;
 
-    public PromptAssemblyStep(SkillsService skillsService) {
-        this.skillsService = skillsService;
+    public PromptAssemblyStep(SkillAssemblyStep skillAssemblyStep, ProductSectionStep productSectionStep) {
+        this.skillAssemblyStep = skillAssemblyStep;
+        this.productSectionStep = productSectionStep;
     }
 
     @Override
     public AgentContext execute(AgentContext context) {
         log.debug("Assembling prompt for pipeline: {}", context.pipelineId());
         
-        // Assemble skills based on options
-        String style = context.options() != null ? context.options().style() : null;
-        String format = context.options() != null ? context.options().pageFormat() : null;
-        String skillsContent = skillsService.assemblePrompt(List.of(), style, format);
-        
-        // Build product data section
-        String productData = buildProductDataSection(context);
+        // Skills and product sections are normally produced by upstream steps
+        String skillsContent = section(context, ContextSlot.SKILL_PROMPT, skillAssemblyStep);
+        String productData = section(context, ContextSlot.PRODUCT_SECTION, productSectionStep);
         
         // Build user instructions section
         String userInstructions = buildUserInstructionsSection(context);
@@ -55,45 +54,9 @@ public class PromptAssemblyStep implements AgentStep {
         return context.withAssembledPrompt(assembledPrompt);
     }
 
-    private String buildProductDataSection(AgentContext context) {
-        if (context.products() == null || context.products().isEmpty()) {
-            return "";
-        }
-        
-        StringBuilder sb = new StringBuilder();
-        sb.append("## Product Data\n\n");
-        
-        for (Product product : context.products()) {
-            sb.append("### ").append(product.name()).append("\n");
-            sb.append("- ID: ").append(product.id()).append("\n");
-            sb.append("- Category: ").append(product.category()).append("\n");
-            sb.append("- Series: ").append(product.series()).append("\n");
-            
-            if (product.shortDescription() != null) {
-                sb.append("- Short Description: ").append(product.shortDescription()).append("\n");
-            }
-            if (product.description() != null) {
-                sb.append("- Description: ").append(product.description()).append("\n");
-            }
-            if (product.priceEur() != null) {
-                sb.append("- Price: €").append(product.priceEur()).append("\n");
-            }
-            if (product.highlights() != null && !product.highlights().isEmpty()) {
-                sb.append("- Highlights: ").append(String.join(", ", product.highlights())).append("\n");
-            }
-            if (product.specs() != null && !product.specs().specifications().isEmpty()) {
-                sb.append("- Technical Data:\n");
-                product.specs().specifications().forEach((key, value) -> 
-                    sb.append("  - ").append(key).append(": ").append(value).append("\n")
-                );
-            }
-            if (product.imageUrl() != null) {
-                sb.append("- Image: ").append(product.imageUrl()).append("\n");
-            }
-            sb.append("\n");
-        }
-        
-        return sb.toString();
+    private String section(AgentContext context, ContextSlot slot, AgentStep producer) {
+        String value = slot.readString(context);
+        return value != null ? value : slot.readString(producer.execute(context));
     }
 
     private String buildUserInstructionsSection(AgentContext context) {
@@ -145,6 +108,17 @@ public class PromptAssemblyStep implements AgentStep {
         return sb.toString();
     }
 
+    @Override
+    public Set<ContextSlot> inputs() {
+        return Set.of(ContextSlot.SKILL_PROMPT, ContextSlot.PRODUCT_SECTION, ContextSlot.IMAGE_ANALYSIS,
+                ContextSlot.USER_PROMPT, ContextSlot.OPTIONS, ContextSlot.PRODUCTS);
+    }
+
+    @Override
+    public Set<ContextSlot> outputs() {
+        return Set.of(ContextSlot.ASSEMBLED_PROMPT);
+    }
+
     @Override
     public String name() {
         return "PromptAssembly";
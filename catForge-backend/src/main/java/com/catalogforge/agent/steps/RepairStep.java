@@ -0,0 +1,88 @@
+package com.catalogforge.agent.steps;
+
+import com.catalogforge.agent.AgentContext;
+import com.catalogforge.agent.AgentStep;
+import com.catalogforge.agent.ContextSlot;
+import com.catalogforge.model.Layout;
+import com.catalogforge.model.LayoutVariant;
+import com.catalogforge.util.LayoutRepairer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Repairs mechanically fixable validation failures without another LLM call.
+ * Re-balances CSS, closes dangling tags and strips unsafe content, then re-validates.
+ * Errors that remain are left for the correction step.
+ */
+@Component
+public class RepairStep implements AgentStep {
+
+    private static final Logger log = LoggerFactory.getLogger(RepairStep.class);
+
+    /** Metadata key counting successful local repairs. */
+    public static final String REPAIRS_KEY = "localRepairs";
+
+    private final ValidationStep validationStep;
+
+    public RepairStep(ValidationStep validationStep) {
+        this.validationStep = validationStep;
+    }
+
+    @Override
+    public AgentContext execute(AgentContext context) {
+        Layout layout = context.generatedLayout();
+        if (context.isValid() || layout == null || layout.variants().isEmpty()) {
+            return context;
+        }
+        
+        List<LayoutVariant> repaired = new ArrayList<>(layout.variants().size());
+        boolean changed = false;
+        for (LayoutVariant variant : layout.variants()) {
+            LayoutVariant fixed = new LayoutVariant(
+                    variant.id(),
+                    LayoutRepairer.repairHtml(variant.html()),
+                    LayoutRepairer.repairCss(variant.css())
+            );
+            changed |= !fixed.equals(variant);
+            repaired.add(fixed);
+        }
+        
+        if (!changed) {
+            log.debug("No local repair possible for errors: {}", context.validationErrors());
+            return context;
+        }
+        
+        AgentContext revalidated = validationStep.execute(
+                context.withGeneratedLayout(layout.withVariants(repaired)));
+        
+        if (revalidated.isValid()) {
+            int repairs = context.metadata().get(REPAIRS_KEY) instanceof Integer count ? count : 0;
+            log.info("Local repair fixed {} validation errors, LLM retry avoided", context.validationErrors().size());
+            return revalidated.withMetadata(REPAIRS_KEY, repairs + 1);
+        }
+        
+        log.debug("Local repair left {} of {} errors: {}", revalidated.validationErrors().size(),
+                context.validationErrors().size(), revalidated.validationErrors());
+        return revalidated;
+    }
+
+    @Override
+    public Set<ContextSlot> inputs() {
+        return Set.of(ContextSlot.GENERATED_LAYOUT, ContextSlot.VALIDATION_ERRORS);
+    }
+
+    @Override
+    public Set<ContextSlot> outputs() {
+        return Set.of(ContextSlot.GENERATED_LAYOUT, ContextSlot.VALIDATION_ERRORS);
+    }
+
+    @Override
+    public String name() {
+        return "Repair";
+    }
+}
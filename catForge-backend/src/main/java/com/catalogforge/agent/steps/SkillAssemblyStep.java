@@ -0,0 +1,93 @@
+package com.catalogforge.agent.steps;
+
+import com.catalogforge.agent.AgentContext;
+import com.catalogforge.agent.AgentStep;
+import com.catalogforge.agent.ContextSlot;
+import com.catalogforge.model.Product;
+import com.catalogforge.service.SkillsService;
+import com.catalogforge.skill.SkillSelection;
+import com.catalogforge.skill.SkillTopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Assembles the skills section of the prompt for the requested style and format.
+ * Only skill content relevant to the request's topics is included; the selection is logged for audit.
+ */
+@Component
+public class SkillAssemblyStep implements AgentStep {
+
+    private static final Logger log = LoggerFactory.getLogger(SkillAssemblyStep.class);
+
+    private final SkillsService skillsService;
+
+    public SkillAssemblyStep(SkillsService skillsService) {
+        this.skillsService = skillsService;
+    }
+
+    @Override
+    public AgentContext execute(AgentContext context) {
+        String style = context.options() != null ? context.options().style() : null;
+        String format = context.options() != null ? context.options().pageFormat() : null;
+        Set<SkillTopic> topics = topicsFor(context);
+        
+        SkillSelection selection = skillsService.selectSkills(style, format, topics);
+        
+        log.info("Skill selection for pipeline {}: topics={}, full={}, partial={}, dropped={}, ~{}/{} tokens",
+                context.pipelineId(), selection.topics(), selection.fullSkills(), selection.partialSkills(),
+                selection.droppedSkills(), selection.tokens(), selection.unselectedTokens());
+        
+        return context
+                .withMetadata(ContextSlot.SKILL_PROMPT.metadataKey(), selection.prompt())
+                .withMetadata(AgentContext.SKILLS_USED_KEY, selection.skillsUsed());
+    }
+
+    /**
+     * Derives the relevant skill topics from the request.
+     * Image analysis has not run yet when this step starts, so an attached image stands in for it.
+     */
+    Set<SkillTopic> topicsFor(AgentContext context) {
+        // Every layout sets text
+        Set<SkillTopic> topics = EnumSet.of(SkillTopic.TYPOGRAPHY);
+        
+        if (context.products() != null) {
+            if (context.products().size() > 1) {
+                topics.add(SkillTopic.GRID);
+            }
+            boolean hasSpecs = context.products().stream()
+                    .anyMatch(p -> p.specs() != null && !p.specs().specifications().isEmpty());
+            if (hasSpecs && (context.options() == null || context.options().includeSpecs())) {
+                topics.add(SkillTopic.SPECS);
+            }
+            if (context.products().stream().map(Product::imageUrl).anyMatch(url -> url != null && !url.isBlank())) {
+                topics.add(SkillTopic.IMAGERY);
+            }
+        }
+        
+        if (context.hasImage()) {
+            topics.add(SkillTopic.COLOR);
+        }
+        
+        topics.addAll(SkillTopic.detect(context.userPrompt()));
+        return topics;
+    }
+
+    @Override
+    public Set<ContextSlot> inputs() {
+        return Set.of(ContextSlot.OPTIONS, ContextSlot.PRODUCTS, ContextSlot.USER_PROMPT, ContextSlot.IMAGE);
+    }
+
+    @Override
+    public Set<ContextSlot> outputs() {
+        return Set.of(ContextSlot.SKILL_PROMPT);
+    }
+
+    @Override
+    public String name() {
+        return "SkillAssembly";
+    }
+}
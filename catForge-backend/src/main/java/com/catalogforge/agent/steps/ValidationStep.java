@@ -2,15 +2,20 @@ package com.catalogforge.agent.steps;
 
 import com.catalogforge.agent.AgentContext;
 import com.catalogforge.agent.AgentStep;
+import com.catalogforge.agent.ContextSlot;
 import com.catalogforge.model.LayoutVariant;
 import com.catalogforge.util.CssValidator;
 import com.catalogforge.util.HtmlSanitizer;
+import com.catalogforge.util.LayoutRepairer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Validates and sanitizes the generated layout.
@@ -20,6 +25,9 @@ public class ValidationStep implements AgentStep {
 
     private static final Logger log = LoggerFactory.getLogger(ValidationStep.class);
 
+    // Prefix of errors about a single variant, e.g. "Variant 1: CSS has unbalanced brackets"
+    private static final Pattern VARIANT_ERROR = Pattern.compile("^Variant (\\d+): ");
+
     @Override
     public AgentContext execute(AgentContext context) {
         log.debug("Validating layout for pipeline: {}", context.pipelineId());
@@ -58,16 +66,20 @@ public class ValidationStep implements AgentStep {
         if (html == null || html.isBlank()) {
             errors.add(prefix + "HTML content is empty");
         } else {
-            // Sanitize HTML
-            String sanitized = HtmlSanitizer.sanitize(html);
-            if (!sanitized.equals(html)) {
-                log.debug("{}HTML was sanitized - potentially unsafe content removed", prefix);
+            // Unsafe content must be removed before the layout is served
+            if (HtmlSanitizer.containsDangerousContent(html)) {
+                errors.add(prefix + "HTML contains unsafe content that must be sanitized");
             }
             
             // Check for minimum content
             if (html.length() < 50) {
                 errors.add(prefix + "HTML content is too short - may be incomplete");
             }
+            
+            // Dangling tags usually indicate truncated output
+            if (LayoutRepairer.hasTagImbalance(html)) {
+                errors.add(prefix + "HTML has unclosed or stray tags");
+            }
         }
         
         // Validate CSS
@@ -79,6 +91,24 @@ public class ValidationStep implements AgentStep {
         }
     }
 
+    /**
+     * Returns the index of the variant an error refers to, or -1 for errors about the whole layout.
+     */
+    public static int variantIndex(String error) {
+        Matcher matcher = VARIANT_ERROR.matcher(error);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    @Override
+    public Set<ContextSlot> inputs() {
+        return Set.of(ContextSlot.GENERATED_LAYOUT);
+    }
+
+    @Override
+    public Set<ContextSlot> outputs() {
+        return Set.of(ContextSlot.VALIDATION_ERRORS);
+    }
+
     @Override
     public String name() {
         return "Validation";
@@ -15,6 +15,8 @@ import org.springframework.stereotype.Component;
 @Order(20) // Higher priority than simple
 public class ComplexLayoutStrategy implements PipelineStrategy {
 
+    private static final int DEGRADED_MAX_RETRIES = 1;
+
     private final IterativePipeline iterativePipeline;
 
     public ComplexLayoutStrategy(IterativePipeline iterativePipeline) {
@@ -40,4 +42,11 @@ public class ComplexLayoutStrategy implements PipelineStrategy {
         // Use iterative pipeline for complex strategy or when specs are included
         return context.options().complexStrategy() || context.options().includeSpecs();
     }
+
+    @Override
+    public AgentContext degrade(AgentContext context) {
+        return context
+                .withMetadata(AgentContext.MAX_RETRIES_KEY, DEGRADED_MAX_RETRIES)
+                .withDegradation("maxRetries reduced to " + DEGRADED_MAX_RETRIES);
+    }
 }
@@ -35,4 +35,17 @@ public class MultiVariantStrategy implements PipelineStrategy {
     public boolean matches(AgentContext context) {
         return context.isMultiVariant();
     }
+
+    @Override
+    public AgentContext degrade(AgentContext context) {
+        int requested = context.options().variantCount();
+        int reduced = (requested + 1) / 2;
+        if (reduced >= requested) {
+            return context;
+        }
+        
+        return context
+                .withOptions(context.options().withVariantCount(reduced))
+                .withDegradation("variantCount reduced from " + requested + " to " + reduced);
+    }
 }
@@ -0,0 +1,325 @@
+package com.catalogforge.catalog;
+
+import com.catalogforge.model.Product;
+import com.catalogforge.model.TechnicalData;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * Column-oriented, mostly off-heap storage for large catalogs.
+ *
+ * IDs and prices are primitive columns, category, series and spec keys are dictionary-encoded,
+ * and all free text (names, descriptions, image URLs, highlights, spec values) lives in a
+ * {@link TextArena} outside the Java heap. The store is itself the product list: {@link #get}
+ * materializes a new {@link Product} view on every call, so records only exist while a request
+ * uses them. Numeric spec values are served by the catalog's {@code SpecRangeIndex} columns.
+ */
+public final class ColumnarProductStore extends AbstractList<Product> implements RandomAccess {
+
+    private static final int NO_PRICE = Integer.MIN_VALUE;
+
+    /**
+     * Columns that {@link #sorted} can order by.
+     */
+    public enum Column {
+        ID, NAME, PRICE, CATEGORY, SERIES
+    }
+
+    private final long[] ids;
+    private final int[] prices;
+    private final int[] categoryCodes;
+    private final int[] seriesCodes;
+    private final String[] categories;
+    private final String[] series;
+    private final long[] names;
+    private final long[] shortDescriptions;
+    private final long[] descriptions;
+    private final long[] longDescriptions;
+    private final long[] imageUrls;
+    private final int[] highlightStarts;
+    private final long[] highlights;
+    private final int[] specStarts;
+    private final int[] specKeyCodes;
+    private final long[] specValues;
+    private final String[] specKeys;
+    private final BitSet withoutSpecs;
+    private final TextArena text;
+
+    private ColumnarProductStore(Builder builder) {
+        int size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.prices = Arrays.copyOf(builder.prices, size);
+        this.categoryCodes = Arrays.copyOf(builder.categoryCodes, size);
+        this.seriesCodes = Arrays.copyOf(builder.seriesCodes, size);
+        this.categories = builder.categories.values();
+        this.series = builder.series.values();
+        this.names = Arrays.copyOf(builder.names, size);
+        this.shortDescriptions = Arrays.copyOf(builder.shortDescriptions, size);
+        this.descriptions = Arrays.copyOf(builder.descriptions, size);
+        this.longDescriptions = Arrays.copyOf(builder.longDescriptions, size);
+        this.imageUrls = Arrays.copyOf(builder.imageUrls, size);
+        this.highlightStarts = Arrays.copyOf(builder.highlightStarts, size + 1);
+        this.highlights = Arrays.copyOf(builder.highlights, builder.highlightCount);
+        this.specStarts = Arrays.copyOf(builder.specStarts, size + 1);
+        this.specKeyCodes = Arrays.copyOf(builder.specKeyCodes, builder.specCount);
+        this.specValues = Arrays.copyOf(builder.specValues, builder.specCount);
+        this.specKeys = builder.specKeys.values();
+        this.withoutSpecs = (BitSet) builder.withoutSpecs.clone();
+        this.text = builder.text;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Materializes the product at a position.
+     */
+    @Override
+    public Product get(int position) {
+        Objects.checkIndex(position, ids.length);
+        
+        TechnicalData specs = null;
+        int specFrom = specStarts[position];
+        int specTo = specStarts[position + 1];
+        if (!withoutSpecs.get(position)) {
+            Map<String, String> map = new LinkedHashMap<>((specTo - specFrom) * 2);
+            for (int s = specFrom; s < specTo; s++) {
+                map.put(specKeys[specKeyCodes[s]], text.read(specValues[s]));
+            }
+            specs = new TechnicalData(map);
+        }
+        
+        List<String> productHighlights = new ArrayList<>(highlightStarts[position + 1] - highlightStarts[position]);
+        for (int h = highlightStarts[position]; h < highlightStarts[position + 1]; h++) {
+            productHighlights.add(text.read(highlights[h]));
+        }
+        
+        return new Product(
+                ids[position],
+                text.read(names[position]),
+                text.read(shortDescriptions[position]),
+                text.read(descriptions[position]),
+                text.read(longDescriptions[position]),
+                decode(categories, categoryCodes[position]),
+                decode(series, seriesCodes[position]),
+                specs,
+                productHighlights,
+                text.read(imageUrls[position]),
+                prices[position] != NO_PRICE ? prices[position] : null);
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Returns the product ID at a position without materializing the product.
+     */
+    public long id(int position) {
+        return ids[position];
+    }
+
+    /**
+     * Returns a view of the store ordered by a column. Only the sort column is read; products are
+     * materialized when the view is accessed, so paging the view materializes just the page.
+     * Missing values sort last in both directions, text compares case-insensitively,
+     * and ties keep ascending ID order.
+     */
+    public List<Product> sorted(Column column, boolean descending) {
+        Comparator<String> text = Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER);
+        Comparator<Integer> byValue;
+        IntPredicate missing;
+        switch (column) {
+            case ID -> {
+                byValue = (a, b) -> Long.compare(ids[a], ids[b]);
+                missing = position -> false;
+            }
+            case PRICE -> {
+                byValue = (a, b) -> Integer.compare(prices[a], prices[b]);
+                missing = position -> prices[position] == NO_PRICE;
+            }
+            case CATEGORY -> {
+                byValue = (a, b) -> text.compare(
+                        decode(categories, categoryCodes[a]), decode(categories, categoryCodes[b]));
+                missing = position -> categoryCodes[position] < 0;
+            }
+            case SERIES -> {
+                byValue = (a, b) -> text.compare(
+                        decode(series, seriesCodes[a]), decode(series, seriesCodes[b]));
+                missing = position -> seriesCodes[position] < 0;
+            }
+            default -> {
+                String[] values = new String[ids.length];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = this.text.read(names[i]);
+                }
+                byValue = (a, b) -> text.compare(values[a], values[b]);
+                missing = position -> values[position] == null;
+            }
+        }
+        
+        Comparator<Integer> order = Comparator.<Integer, Boolean>comparing(missing::test)
+                .thenComparing(descending ? byValue.reversed() : byValue)
+                .thenComparing((a, b) -> Long.compare(ids[a], ids[b]));
+        Integer[] boxed = new Integer[ids.length];
+        for (int i = 0; i < boxed.length; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, order);
+        int[] positions = new int[boxed.length];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = boxed[i];
+        }
+        return new PositionView(positions);
+    }
+
+    /**
+     * Returns the off-heap bytes used for text.
+     */
+    public long offHeapBytes() {
+        return text.bytes();
+    }
+
+    private static String decode(String[] dictionary, int code) {
+        return code >= 0 ? dictionary[code] : null;
+    }
+
+    /**
+     * Products of the store in the order of a position array.
+     */
+    private final class PositionView extends AbstractList<Product> implements RandomAccess {
+        private final int[] positions;
+
+        PositionView(int[] positions) {
+            this.positions = positions;
+        }
+
+        @Override
+        public Product get(int index) {
+            return ColumnarProductStore.this.get(positions[index]);
+        }
+
+        @Override
+        public int size() {
+            return positions.length;
+        }
+    }
+
+    /**
+     * Appends products column by column. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private int size;
+        private long[] ids = new long[64];
+        private int[] prices = new int[64];
+        private int[] categoryCodes = new int[64];
+        private int[] seriesCodes = new int[64];
+        private long[] names = new long[64];
+        private long[] shortDescriptions = new long[64];
+        private long[] descriptions = new long[64];
+        private long[] longDescriptions = new long[64];
+        private long[] imageUrls = new long[64];
+        private int[] highlightStarts = new int[65];
+        private long[] highlights = new long[256];
+        private int highlightCount;
+        private int[] specStarts = new int[65];
+        private int[] specKeyCodes = new int[256];
+        private long[] specValues = new long[256];
+        private int specCount;
+        private final BitSet withoutSpecs = new BitSet();
+        private final Dictionary categories = new Dictionary();
+        private final Dictionary series = new Dictionary();
+        private final Dictionary specKeys = new Dictionary();
+        private final TextArena text = new TextArena();
+
+        private Builder() {
+        }
+
+        /**
+         * Appends a product; it can be discarded afterwards.
+         */
+        public Builder add(Product product) {
+            if (size == ids.length) {
+                grow();
+            }
+            ids[size] = product.id();
+            prices[size] = product.priceEur() != null ? product.priceEur() : NO_PRICE;
+            categoryCodes[size] = categories.code(product.category());
+            seriesCodes[size] = series.code(product.series());
+            names[size] = text.append(product.name());
+            shortDescriptions[size] = text.append(product.shortDescription());
+            descriptions[size] = text.append(product.description());
+            longDescriptions[size] = text.append(product.longDescription());
+            imageUrls[size] = text.append(product.imageUrl());
+            
+            for (String highlight : product.highlights()) {
+                if (highlightCount == highlights.length) {
+                    highlights = Arrays.copyOf(highlights, highlightCount * 2);
+                }
+                highlights[highlightCount++] = text.append(highlight);
+            }
+            highlightStarts[size + 1] = highlightCount;
+            
+            if (product.specs() == null) {
+                withoutSpecs.set(size);
+            } else {
+                for (Map.Entry<String, String> spec : product.specs().specifications().entrySet()) {
+                    if (specCount == specValues.length) {
+                        specKeyCodes = Arrays.copyOf(specKeyCodes, specCount * 2);
+                        specValues = Arrays.copyOf(specValues, specCount * 2);
+                    }
+                    specKeyCodes[specCount] = specKeys.code(spec.getKey());
+                    specValues[specCount++] = text.append(spec.getValue());
+                }
+            }
+            specStarts[size + 1] = specCount;
+            size++;
+            return this;
+        }
+
+        public ColumnarProductStore build() {
+            return new ColumnarProductStore(this);
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+            seriesCodes = Arrays.copyOf(seriesCodes, capacity);
+            names = Arrays.copyOf(names, capacity);
+            shortDescriptions = Arrays.copyOf(shortDescriptions, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            longDescriptions = Arrays.copyOf(longDescriptions, capacity);
+            imageUrls = Arrays.copyOf(imageUrls, capacity);
+            highlightStarts = Arrays.copyOf(highlightStarts, capacity + 1);
+            specStarts = Arrays.copyOf(specStarts, capacity + 1);
+        }
+    }
+
+    /**
+     * Maps distinct strings to dense codes; null maps to -1.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int code(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        String[] values() {
+            return values.toArray(String[]::new);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.catalogforge.catalog;
+
+import com.catalogforge.model.Product;
+import com.catalogforge.model.ProductFragment;
+import com.catalogforge.search.ProductFacetIndex;
+import com.catalogforge.search.ProductSearchIndex;
+import com.catalogforge.search.ProductSimilarityIndex;
+import com.catalogforge.search.SpecRangeIndex;
+import com.catalogforge.util.ProductFragmentRenderer;
+import com.catalogforge.util.ProductJson;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable snapshot of the product catalog with all derived data.
+ * A reload builds a complete new snapshot and swaps it in with a single reference assignment,
+ * so readers never see a partially loaded catalog.
+ */
+public final class ProductCatalog {
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private static final ProductCatalog EMPTY = new ProductCatalog(List.of(), ProductIdIndex.build(new long[0]),
+            Map.of(), Map.of(),
+            ProductSearchIndex.build(List.of()), ProductFacetIndex.build(List.of()), SpecRangeIndex.build(List.of()),
+            ProductSimilarityIndex.build(List.of()), null);
+
+    private final List<Product> products;
+    private final ProductIdIndex idIndex;
+    private final Map<Long, ProductFragment> fragmentsById;
+    private final Map<Long, ProductJson> jsonById;
+    private final ProductSearchIndex searchIndex;
+    private final ProductFacetIndex facetIndex;
+    private final SpecRangeIndex rangeIndex;
+    private final ProductSimilarityIndex similarityIndex;
+    private final String fingerprint;
+    private final long version = VERSIONS.incrementAndGet();
+
+    private ProductCatalog(List<Product> products, ProductIdIndex idIndex,
+                           Map<Long, ProductFragment> fragmentsById, Map<Long, ProductJson> jsonById,
+                           ProductSearchIndex searchIndex, ProductFacetIndex facetIndex,
+                           SpecRangeIndex rangeIndex, ProductSimilarityIndex similarityIndex,
+                           String fingerprint) {
+        this.products = products;
+        this.idIndex = idIndex;
+        this.fragmentsById = fragmentsById;
+        this.jsonById = jsonById;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+        this.rangeIndex = rangeIndex;
+        this.similarityIndex = similarityIndex;
+        this.fingerprint = fingerprint;
+    }
+
+    public static ProductCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a snapshot, computing the indexes and per-product renderings concurrently.
+     *
+     * @param products    products in catalog order with unique IDs
+     * @param fingerprint identifies the source state, or null if the source cannot change
+     */
+    public static ProductCatalog build(List<Product> products, String fingerprint, Executor executor) {
+        List<Product> list = List.copyOf(products);
+        
+        CompletableFuture<ProductSearchIndex> search =
+                CompletableFuture.supplyAsync(() -> ProductSearchIndex.build(list), executor);
+        CompletableFuture<ProductFacetIndex> facets =
+                CompletableFuture.supplyAsync(() -> ProductFacetIndex.build(list), executor);
+        CompletableFuture<SpecRangeIndex> ranges =
+                CompletableFuture.supplyAsync(() -> SpecRangeIndex.build(list), executor);
+        CompletableFuture<ProductSimilarityIndex> similarity =
+                CompletableFuture.supplyAsync(() -> ProductSimilarityIndex.build(list), executor);
+        CompletableFuture<Map<Long, ProductFragment>> fragments = CompletableFuture.supplyAsync(() -> {
+            Map<Long, ProductFragment> map = new HashMap<>(list.size() * 2);
+            list.forEach(product -> map.put(product.id(), ProductFragmentRenderer.render(product)));
+            return Map.copyOf(map);
+        }, executor);
+        CompletableFuture<Map<Long, ProductJson>> json = CompletableFuture.supplyAsync(() -> {
+            Map<Long, ProductJson> map = new HashMap<>(list.size() * 2);
+            list.forEach(product -> map.put(product.id(), ProductJson.of(product)));
+            return Map.copyOf(map);
+        }, executor);
+        
+        return new ProductCatalog(list, idIndex(list), fragments.join(), json.join(),
+                search.join(), facets.join(), ranges.join(), similarity.join(), fingerprint);
+    }
+
+    /**
+     * Builds a snapshot over a columnar store. Products are materialized per access, and prompt
+     * fragments and JSON are rendered on demand instead of being kept for every product.
+     */
+    public static ProductCatalog build(ColumnarProductStore store, String fingerprint, Executor executor) {
+        CompletableFuture<ProductSearchIndex> search =
+                CompletableFuture.supplyAsync(() -> ProductSearchIndex.build(store), executor);
+        CompletableFuture<ProductFacetIndex> facets =
+                CompletableFuture.supplyAsync(() -> ProductFacetIndex.build(store), executor);
+        CompletableFuture<SpecRangeIndex> ranges =
+                CompletableFuture.supplyAsync(() -> SpecRangeIndex.build(store), executor);
+        CompletableFuture<ProductSimilarityIndex> similarity =
+                CompletableFuture.supplyAsync(() -> ProductSimilarityIndex.build(store), executor);
+        
+        long[] ids = new long[store.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = store.id(i);
+        }
+        return new ProductCatalog(store, ProductIdIndex.build(ids), Map.of(), Map.of(),
+                search.join(), facets.join(), ranges.join(), similarity.join(), fingerprint);
+    }
+
+    /**
+     * Reassembles a snapshot from precomputed parts, e.g. read from a {@link ProductSnapshot}.
+     * Only the ID index is rebuilt. The indexes must refer to positions in {@code products}.
+     */
+    static ProductCatalog restore(List<Product> products, Map<Long, ProductFragment> fragmentsById,
+                                  Map<Long, ProductJson> jsonById, ProductSearchIndex searchIndex,
+                                  ProductFacetIndex facetIndex, SpecRangeIndex rangeIndex,
+                                  ProductSimilarityIndex similarityIndex, String fingerprint) {
+        return new ProductCatalog(products, idIndex(products), Map.copyOf(fragmentsById), Map.copyOf(jsonById),
+                searchIndex, facetIndex, rangeIndex, similarityIndex, fingerprint);
+    }
+
+    public List<Product> products() {
+        return products;
+    }
+
+    public Product product(Long id) {
+        return id != null ? product(id.longValue()) : null;
+    }
+
+    /**
+     * Returns the product with the given ID, or null; the lookup itself does not allocate.
+     */
+    public Product product(long id) {
+        int position = idIndex.position(id);
+        return position >= 0 ? products.get(position) : null;
+    }
+
+    /**
+     * Returns the position of a product in {@link #products()}, or -1 if the ID is unknown.
+     */
+    public int position(long id) {
+        return idIndex.position(id);
+    }
+
+    /**
+     * Returns the precomputed fragment if the product is the catalog's own instance, otherwise null.
+     */
+    public ProductFragment fragment(Product product) {
+        ProductFragment fragment = product.id() != null ? fragmentsById.get(product.id()) : null;
+        return fragment != null && isCatalogInstance(product) ? fragment : null;
+    }
+
+    /**
+     * Returns the precomputed JSON if the product is the catalog's own instance, otherwise null.
+     */
+    public ProductJson json(Product product) {
+        ProductJson json = product.id() != null ? jsonById.get(product.id()) : null;
+        return json != null && isCatalogInstance(product) ? json : null;
+    }
+
+    public ProductSearchIndex searchIndex() {
+        return searchIndex;
+    }
+
+    public ProductFacetIndex facetIndex() {
+        return facetIndex;
+    }
+
+    public SpecRangeIndex rangeIndex() {
+        return rangeIndex;
+    }
+
+    public ProductSimilarityIndex similarityIndex() {
+        return similarityIndex;
+    }
+
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns a number that is unique to this snapshot within the running process;
+     * later snapshots have higher versions.
+     */
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    private boolean isCatalogInstance(Product product) {
+        return product(product.id()) == product;
+    }
+
+    private static ProductIdIndex idIndex(List<Product> products) {
+        long[] ids = new long[products.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = products.get(i).id();
+        }
+        return ProductIdIndex.build(ids);
+    }
+}
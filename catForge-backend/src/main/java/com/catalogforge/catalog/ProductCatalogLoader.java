@@ -0,0 +1,282 @@
+package com.catalogforge.catalog;
+
+import com.catalogforge.config.properties.ProductDataProperties;
+import com.catalogforge.model.Product;
+import com.catalogforge.util.JsonUtils;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Loads the product catalog from the configured source.
+ *
+ * Sources are the bundled classpath resource, a single file, or a directory whose
+ * {@code *.json} / {@code *.jsonl} files are shards of one catalog. Each shard is a JSON array
+ * or a sequence of product objects and is read with a streaming parser, one product at a time,
+ * so memory is bounded by the products themselves rather than the file size.
+ * A single source is streamed straight into the catalog; several shards are parsed in parallel,
+ * at most {@code loaderThreads} at a time, and concatenated in file name order.
+ * With a snapshot path configured, a {@link ProductSnapshot} whose source checksum and code
+ * fingerprint still match replaces parsing entirely, and every JSON load writes a fresh one.
+ */
+public class ProductCatalogLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalogLoader.class);
+
+    private static final ObjectReader PRODUCT_READER = JsonUtils.getMapper().readerFor(Product.class);
+
+    private final ProductDataProperties properties;
+
+    public ProductCatalogLoader(ProductDataProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Loads and indexes the catalog.
+     *
+     * @throws IOException if the source cannot be read or contains invalid JSON
+     */
+    public ProductCatalog load() throws IOException {
+        long start = System.nanoTime();
+        String fingerprint = fingerprint();
+        
+        boolean offHeap = properties.storage() == ProductDataProperties.Storage.OFF_HEAP;
+        Path snapshot = properties.hasSnapshot() && !offHeap ? Path.of(properties.snapshotPath()) : null;
+        long checksum = snapshot != null ? checksum() : 0;
+        if (snapshot != null) {
+            ProductCatalog cached = ProductSnapshot.read(snapshot, checksum, fingerprint);
+            if (cached != null) {
+                log.info("Loaded {} products from snapshot {} in {} ms", cached.size(), snapshot,
+                        (System.nanoTime() - start) / 1_000_000);
+                return cached;
+            }
+        }
+        
+        try (ExecutorService executor = Executors.newFixedThreadPool(properties.loaderThreads(),
+                Thread.ofPlatform().name("catalog-loader-", 0).daemon().factory())) {
+            if (offHeap) {
+                ColumnarProductStore.Builder store = ColumnarProductStore.builder();
+                Set<Long> ids = new HashSet<>();
+                loadAll(executor, product -> {
+                    if (isNew(product, ids)) {
+                        store.add(product);
+                    }
+                });
+                ColumnarProductStore columns = store.build();
+                ProductCatalog catalog = ProductCatalog.build(columns, fingerprint, executor);
+                log.info("Loaded {} products from {} into columnar storage ({} MB off-heap) in {} ms",
+                        catalog.size(), properties.productsPath(), columns.offHeapBytes() >> 20,
+                        (System.nanoTime() - start) / 1_000_000);
+                return catalog;
+            }
+            
+            List<Product> products = new ArrayList<>();
+            Set<Long> ids = new HashSet<>();
+            loadAll(executor, product -> {
+                if (isNew(product, ids)) {
+                    products.add(product);
+                }
+            });
+            ProductCatalog catalog = ProductCatalog.build(products, fingerprint, executor);
+            
+            log.info("Loaded {} products from {} in {} ms", catalog.size(), properties.productsPath(),
+                    (System.nanoTime() - start) / 1_000_000);
+            if (snapshot != null) {
+                writeSnapshot(snapshot, catalog, checksum);
+            }
+            return catalog;
+        }
+    }
+
+    /**
+     * Returns a checksum of the source's current state, the key of the {@link ProductSnapshot}.
+     * For files it covers the {@link #fingerprint()} (shard names, sizes and modification times), so
+     * no content is read on startup. The bundled classpath resource is keyed by its length and
+     * modification time, or by its content if the modification time is unknown.
+     */
+    public long checksum() throws IOException {
+        CRC32C crc = new CRC32C();
+        if (properties.isClasspath()) {
+            ClassPathResource resource = classpathResource();
+            long lastModified = resource.lastModified();
+            if (lastModified > 0) {
+                ByteBuffer state = ByteBuffer.allocate(Long.BYTES * 2)
+                        .putLong(resource.contentLength())
+                        .putLong(lastModified);
+                crc.update(state.flip());
+            } else {
+                try (InputStream in = resource.getInputStream()) {
+                    update(crc, in, new byte[1 << 16]);
+                }
+            }
+            return crc.getValue();
+        }
+        crc.update(fingerprint().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * Returns a fingerprint of the source's current state (shard names, sizes and modification times),
+     * or null for the classpath resource, which cannot change at runtime.
+     */
+    public String fingerprint() throws IOException {
+        if (properties.isClasspath()) {
+            return null;
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        for (Path shard : shards()) {
+            BasicFileAttributes attributes = Files.readAttributes(shard, BasicFileAttributes.class);
+            fingerprint.append(shard.getFileName()).append(':')
+                    .append(attributes.size()).append(':')
+                    .append(attributes.lastModifiedTime().toMillis()).append(';');
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Reads products from a stream one at a time without materializing the whole document.
+     */
+    static void parse(InputStream in, Consumer<Product> sink) throws IOException {
+        try (MappingIterator<Product> iterator = PRODUCT_READER.readValues(in)) {
+            while (iterator.hasNextValue()) {
+                sink.accept(iterator.nextValue());
+            }
+        }
+    }
+
+    /**
+     * Passes the products of every shard to the sink in shard order, always on the calling thread.
+     * A single shard is streamed directly. Otherwise shards are parsed in parallel into buffers,
+     * with at most {@code loaderThreads} buffers alive; each is dropped once the sink has drained it.
+     */
+    private void loadAll(ExecutorService executor, Consumer<Product> sink) throws IOException {
+        if (properties.isClasspath()) {
+            try (InputStream in = openClasspath()) {
+                parse(in, sink);
+            }
+            return;
+        }
+        
+        List<Path> shards = shards();
+        int window = properties.loaderThreads();
+        if (shards.size() == 1 || window == 1) {
+            for (Path shard : shards) {
+                parseShard(shard, sink);
+            }
+            return;
+        }
+        
+        Deque<CompletableFuture<List<Product>>> pending = new ArrayDeque<>(window);
+        int next = 0;
+        try {
+            while (next < shards.size() || !pending.isEmpty()) {
+                while (next < shards.size() && pending.size() < window) {
+                    Path shard = shards.get(next++);
+                    pending.add(CompletableFuture.supplyAsync(() -> bufferShard(shard), executor));
+                }
+                pending.poll().join().forEach(sink);
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private InputStream openClasspath() throws IOException {
+        return classpathResource().getInputStream();
+    }
+
+    private ClassPathResource classpathResource() {
+        return new ClassPathResource(
+                properties.productsPath().substring(ProductDataProperties.CLASSPATH_PREFIX.length()));
+    }
+
+    private static void update(CRC32C crc, InputStream in, byte[] buffer) throws IOException {
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            crc.update(buffer, 0, read);
+        }
+    }
+
+    private static void writeSnapshot(Path snapshot, ProductCatalog catalog, long checksum) {
+        try {
+            long start = System.nanoTime();
+            ProductSnapshot.write(snapshot, catalog, checksum);
+            log.info("Wrote product snapshot {} in {} ms", snapshot, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Failed to write product snapshot {}: {}", snapshot, e.getMessage());
+        }
+    }
+
+    private static void parseShard(Path shard, Consumer<Product> sink) throws IOException {
+        try (InputStream in = Files.newInputStream(shard)) {
+            parse(in, sink);
+        } catch (IOException e) {
+            throw new IOException("Failed to parse " + shard + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Product> bufferShard(Path shard) {
+        List<Product> products = new ArrayList<>();
+        try {
+            parseShard(shard, products::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.debug("Parsed {} products from {}", products.size(), shard);
+        return products;
+    }
+
+    private List<Path> shards() throws IOException {
+        Path path = Path.of(properties.productsPath());
+        if (!Files.isDirectory(path)) {
+            if (!Files.isRegularFile(path)) {
+                throw new IOException("Product source not found: " + path);
+            }
+            return List.of(path);
+        }
+        try (Stream<Path> files = Files.list(path)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.endsWith(".json") || name.endsWith(".jsonl");
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static boolean isNew(Product product, Set<Long> ids) {
+        if (product.id() == null) {
+            log.warn("Skipping product without ID: {}", product.name());
+            return false;
+        }
+        if (!ids.add(product.id())) {
+            log.warn("Skipping duplicate product ID {}: {}", product.id(), product.name());
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,103 @@
+package com.catalogforge.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Immutable map from product ID to catalog position on primitive arrays.
+ * Contiguous ID ranges (the common case for exported catalogs) use a dense array indexed by
+ * {@code id - minId}; otherwise an open-addressing table with linear probing is used.
+ * Lookups allocate nothing and return -1 for unknown IDs.
+ */
+public final class ProductIdIndex {
+
+    private static final int MISSING = -1;
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+    // Dense arrays are used while at most this many slots per product stay unused
+    private static final int MAX_DENSE_SPREAD = 2;
+
+    private final long minId;
+    private final int[] dense;
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+
+    private ProductIdIndex(long minId, int[] dense, long[] keys, int[] values) {
+        this.minId = minId;
+        this.dense = dense;
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys != null ? keys.length - 1 : 0;
+    }
+
+    /**
+     * Builds the index; {@code ids[i]} is the ID at position {@code i}. IDs must be unique.
+     */
+    public static ProductIdIndex build(long[] ids) {
+        if (ids.length == 0) {
+            return new ProductIdIndex(0, new int[0], null, null);
+        }
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long id : ids) {
+            min = Math.min(min, id);
+            max = Math.max(max, id);
+        }
+        
+        long span = max - min + 1;
+        if (span > 0 && span <= (long) ids.length * MAX_DENSE_SPREAD) {
+            int[] dense = new int[(int) span];
+            Arrays.fill(dense, MISSING);
+            for (int i = 0; i < ids.length; i++) {
+                dense[(int) (ids[i] - min)] = i;
+            }
+            return new ProductIdIndex(min, dense, null, null);
+        }
+        
+        int capacity = Integer.highestOneBit(Math.max(4, ids.length * 2 - 1)) << 1;
+        long[] keys = new long[capacity];
+        int[] values = new int[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == EMPTY_KEY) {
+                throw new IllegalArgumentException("Unsupported product ID: " + ids[i]);
+            }
+            int slot = hash(ids[i]) & (capacity - 1);
+            while (keys[slot] != EMPTY_KEY) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            keys[slot] = ids[i];
+            values[slot] = i;
+        }
+        return new ProductIdIndex(0, null, keys, values);
+    }
+
+    /**
+     * Returns the position of a product ID, or -1 if it is not in the catalog.
+     */
+    public int position(long id) {
+        if (dense != null) {
+            long offset = id - minId;
+            return offset >= 0 && offset < dense.length ? dense[(int) offset] : MISSING;
+        }
+        int slot = hash(id) & mask;
+        while (keys[slot] != EMPTY_KEY) {
+            if (keys[slot] == id) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    /**
+     * Returns whether lookups use the dense array.
+     */
+    public boolean isDense() {
+        return dense != null;
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
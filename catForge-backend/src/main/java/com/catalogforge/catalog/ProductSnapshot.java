@@ -0,0 +1,351 @@
+package com.catalogforge.catalog;
+
+import com.catalogforge.model.Product;
+import com.catalogforge.model.ProductField;
+import com.catalogforge.model.ProductFragment;
+import com.catalogforge.model.TechnicalData;
+import com.catalogforge.search.GermanAnalyzer;
+import com.catalogforge.search.ProductFacetIndex;
+import com.catalogforge.search.ProductSearchIndex;
+import com.catalogforge.search.ProductSimilarityIndex;
+import com.catalogforge.search.SpecRangeIndex;
+import com.catalogforge.search.SpecValueParser;
+import com.catalogforge.util.BinaryUtils;
+import com.catalogforge.util.ProductFragmentRenderer;
+import com.catalogforge.util.ProductJson;
+import com.catalogforge.util.TokenEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of a loaded {@link ProductCatalog}.
+ *
+ * The snapshot stores the products over a deduplicated string table together with their prompt
+ * fragments, pre-serialized JSON, search postings, facet bitmaps, spec columns and similarity
+ * vectors, so a restart maps the file and copies arrays instead of parsing JSON and rebuilding
+ * indexes. The JSON source stays authoritative: the snapshot records the source checksum and is
+ * ignored when it differs. It also records a fingerprint of the code that produced its content
+ * (tokenizer, renderers, indexes), so a new build never serves fragments or postings of an old one.
+ *
+ * Layout: magic, format version, code fingerprint, source checksum, body length, body, CRC32C of the body.
+ */
+public final class ProductSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSnapshot.class);
+
+    private static final int MAGIC = 0x43465053; // "CFPS"
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES * 3;
+
+    /**
+     * Classes whose code decides what a snapshot contains; their nested classes are included.
+     */
+    private static final List<Class<?>> CONTENT_CLASSES = List.of(
+            ProductSnapshot.class, Product.class, TechnicalData.class, ProductField.class, ProductFragment.class,
+            ProductFragmentRenderer.class, TokenEstimator.class, ProductJson.class, GermanAnalyzer.class,
+            ProductSearchIndex.class, ProductFacetIndex.class, SpecValueParser.class, SpecRangeIndex.class,
+            ProductSimilarityIndex.class, BinaryUtils.class);
+
+    /** CRC32C of the class files of {@link #CONTENT_CLASSES}. */
+    static final long CODE_FINGERPRINT = codeFingerprint();
+
+    private ProductSnapshot() {
+        // Utility class
+    }
+
+    /**
+     * Writes a snapshot atomically (temp file plus move).
+     *
+     * @param sourceChecksum checksum of the JSON source the catalog was loaded from
+     */
+    public static void write(Path file, ProductCatalog catalog, long sourceChecksum) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            CRC32C crc = new CRC32C();
+            long bodyLength;
+            try (DataOutputStream header = new DataOutputStream(Files.newOutputStream(temp))) {
+                header.writeInt(MAGIC);
+                header.writeInt(VERSION);
+                header.writeLong(CODE_FINGERPRINT);
+                header.writeLong(sourceChecksum);
+                header.writeLong(0); // body length, patched below
+                
+                CountingOutputStream counter = new CountingOutputStream(header);
+                DataOutputStream body = new DataOutputStream(new BufferedOutputStream(
+                        new CheckedOutputStream(counter, crc), 1 << 16));
+                writeBody(body, catalog);
+                body.flush();
+                header.writeLong(crc.getValue());
+                bodyLength = counter.count;
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer length = ByteBuffer.allocate(Long.BYTES).putLong(0, bodyLength);
+                channel.write(length, Integer.BYTES * 2 + Long.BYTES * 2);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Memory-maps and reads a snapshot.
+     *
+     * @return the catalog, or null if the file is missing, stale, written by other code or corrupt
+     */
+    public static ProductCatalog read(Path file, long sourceChecksum, String fingerprint) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                log.info("Ignoring product snapshot {} with unknown format", file);
+                return null;
+            }
+            if (buffer.getLong() != CODE_FINGERPRINT) {
+                log.info("Ignoring product snapshot {} written by another build", file);
+                return null;
+            }
+            if (buffer.getLong() != sourceChecksum) {
+                log.info("Product snapshot {} is stale", file);
+                return null;
+            }
+            long bodyLength = buffer.getLong();
+            if (bodyLength < 0 || bodyLength != buffer.remaining() - Long.BYTES) {
+                log.warn("Ignoring truncated product snapshot {}", file);
+                return null;
+            }
+            
+            ByteBuffer body = buffer.slice(buffer.position(), (int) bodyLength);
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            if (crc.getValue() != buffer.getLong(buffer.position() + (int) bodyLength)) {
+                log.warn("Ignoring corrupt product snapshot {}", file);
+                return null;
+            }
+            return readBody(body, fingerprint);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to read product snapshot {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeBody(DataOutputStream out, ProductCatalog catalog) throws IOException {
+        List<Product> products = catalog.products();
+        StringTable strings = new StringTable();
+        int fieldCount = ProductField.values().length;
+        
+        // First pass interns every string so the table can precede the records
+        int[][] records = new int[products.size()][];
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            ProductFragment fragment = fragment(catalog, product);
+            String[] json = (catalog.json(product) != null ? catalog.json(product) : ProductJson.of(product))
+                    .fragments();
+            Map<String, String> specs = product.specs() != null ? product.specs().specifications() : null;
+            
+            int[] record = new int[10 + fieldCount + 1 + (specs != null ? specs.size() * 2 : 0)
+                    + 1 + product.highlights().size()];
+            int r = 0;
+            record[r++] = strings.id(product.name());
+            record[r++] = strings.id(product.shortDescription());
+            record[r++] = strings.id(product.description());
+            record[r++] = strings.id(product.longDescription());
+            record[r++] = strings.id(product.category());
+            record[r++] = strings.id(product.series());
+            record[r++] = strings.id(product.imageUrl());
+            record[r++] = strings.id(fragment.full());
+            record[r++] = strings.id(fragment.compact());
+            record[r++] = strings.id(fragment.compactWithSpecs());
+            for (String part : json) {
+                record[r++] = strings.id(part);
+            }
+            record[r++] = specs != null ? specs.size() : -1;
+            if (specs != null) {
+                for (Map.Entry<String, String> spec : specs.entrySet()) {
+                    record[r++] = strings.id(spec.getKey());
+                    record[r++] = strings.id(spec.getValue());
+                }
+            }
+            record[r++] = product.highlights().size();
+            for (String highlight : product.highlights()) {
+                record[r++] = strings.id(highlight);
+            }
+            records[i] = record;
+        }
+        
+        out.writeInt(strings.values.size());
+        for (String value : strings.values) {
+            BinaryUtils.writeString(out, value);
+        }
+        
+        out.writeInt(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            ProductFragment fragment = fragment(catalog, product);
+            out.writeLong(product.id());
+            out.writeInt(product.priceEur() != null ? product.priceEur() : Integer.MIN_VALUE);
+            out.writeBoolean(product.priceEur() != null);
+            out.writeInt(fragment.fullTokens());
+            out.writeInt(fragment.compactTokens());
+            out.writeInt(fragment.compactWithSpecsTokens());
+            BinaryUtils.writeInts(out, records[i]);
+        }
+        
+        catalog.searchIndex().writeTo(out);
+        catalog.facetIndex().writeTo(out);
+        catalog.rangeIndex().writeTo(out);
+        catalog.similarityIndex().writeTo(out);
+    }
+
+    private static ProductCatalog readBody(ByteBuffer in, String fingerprint) {
+        String[] strings = new String[in.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = BinaryUtils.readString(in);
+        }
+        int fieldCount = ProductField.values().length;
+        
+        int productCount = in.getInt();
+        List<Product> products = new ArrayList<>(productCount);
+        Map<Long, ProductFragment> fragments = new HashMap<>(productCount * 2);
+        Map<Long, ProductJson> json = new HashMap<>(productCount * 2);
+        for (int i = 0; i < productCount; i++) {
+            long id = in.getLong();
+            int price = in.getInt();
+            boolean hasPrice = in.get() != 0;
+            int fullTokens = in.getInt();
+            int compactTokens = in.getInt();
+            int compactWithSpecsTokens = in.getInt();
+            int[] record = BinaryUtils.readInts(in);
+            
+            int r = 10;
+            String[] jsonFragments = new String[fieldCount];
+            for (int f = 0; f < fieldCount; f++) {
+                jsonFragments[f] = string(strings, record[r++]);
+            }
+            int specCount = record[r++];
+            TechnicalData specs = null;
+            if (specCount >= 0) {
+                Map<String, String> map = new LinkedHashMap<>(specCount * 2);
+                for (int s = 0; s < specCount; s++) {
+                    map.put(string(strings, record[r++]), string(strings, record[r++]));
+                }
+                specs = new TechnicalData(map);
+            }
+            int highlightCount = record[r++];
+            List<String> highlights = new ArrayList<>(highlightCount);
+            for (int h = 0; h < highlightCount; h++) {
+                highlights.add(string(strings, record[r++]));
+            }
+            
+            products.add(new Product(id, string(strings, record[0]), string(strings, record[1]),
+                    string(strings, record[2]), string(strings, record[3]), string(strings, record[4]),
+                    string(strings, record[5]), specs, highlights, string(strings, record[6]),
+                    hasPrice ? price : null));
+            fragments.put(id, new ProductFragment(id, string(strings, record[7]), string(strings, record[8]),
+                    string(strings, record[9]), fullTokens, compactTokens, compactWithSpecsTokens));
+            json.put(id, ProductJson.ofFragments(jsonFragments));
+        }
+        
+        List<Product> list = List.copyOf(products);
+        ProductSearchIndex searchIndex = ProductSearchIndex.readFrom(in, list);
+        ProductFacetIndex facetIndex = ProductFacetIndex.readFrom(in, list);
+        SpecRangeIndex rangeIndex = SpecRangeIndex.readFrom(in);
+        ProductSimilarityIndex similarityIndex = ProductSimilarityIndex.readFrom(in, list);
+        return ProductCatalog.restore(list, fragments, json, searchIndex, facetIndex, rangeIndex,
+                similarityIndex, fingerprint);
+    }
+
+    /**
+     * Hashes the class files as the class loader sees them, so any rebuild that changes one of the
+     * classes changes the fingerprint. A class file that cannot be read contributes only its name.
+     */
+    private static long codeFingerprint() {
+        CRC32C crc = new CRC32C();
+        Deque<Class<?>> pending = new ArrayDeque<>(CONTENT_CLASSES);
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.pop();
+            pending.addAll(List.of(type.getDeclaredClasses()));
+            String resource = type.getName().substring(type.getPackageName().length() + 1) + ".class";
+            crc.update(resource.getBytes(StandardCharsets.UTF_8));
+            try (InputStream in = type.getResourceAsStream(resource)) {
+                if (in != null) {
+                    crc.update(in.readAllBytes());
+                }
+            } catch (IOException e) {
+                log.debug("Could not read {} for the snapshot fingerprint: {}", resource, e.getMessage());
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static ProductFragment fragment(ProductCatalog catalog, Product product) {
+        ProductFragment fragment = catalog.fragment(product);
+        return fragment != null ? fragment : ProductFragmentRenderer.render(product);
+    }
+
+    private static String string(String[] strings, int id) {
+        return id >= 0 ? strings[id] : null;
+    }
+
+    /**
+     * Interns strings to dense IDs in insertion order; null maps to -1.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int id(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return ids.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * Counts the bytes written to the body without closing the underlying stream.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.catalogforge.catalog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only store for UTF-8 strings in direct (off-heap) memory.
+ * Strings are addressed by a reference that packs the chunk index into the upper and the byte
+ * offset into the lower 32 bits; {@link #NULL} stands for a null string. The arena is not
+ * thread-safe while appending and immutable once handed to readers.
+ */
+final class TextArena {
+
+    static final long NULL = -1L;
+
+    private static final int DEFAULT_CHUNK_SIZE = 16 << 20;
+
+    private final int chunkSize;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private ByteBuffer current;
+    private long bytes;
+
+    TextArena() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    TextArena(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Appends a string and returns its reference.
+     */
+    long append(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        int needed = Integer.BYTES + encoded.length;
+        if (current == null || current.remaining() < needed) {
+            current = ByteBuffer.allocateDirect(Math.max(chunkSize, needed));
+            chunks.add(current);
+        }
+        long reference = ((long) (chunks.size() - 1) << 32) | current.position();
+        current.putInt(encoded.length);
+        current.put(encoded);
+        bytes += needed;
+        return reference;
+    }
+
+    /**
+     * Decodes the string at a reference.
+     */
+    String read(long reference) {
+        if (reference == NULL) {
+            return null;
+        }
+        ByteBuffer chunk = chunks.get((int) (reference >>> 32));
+        int offset = (int) reference;
+        int length = chunk.getInt(offset);
+        byte[] encoded = new byte[length];
+        chunk.get(offset + Integer.BYTES, encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the number of bytes used, including length prefixes.
+     */
+    long bytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,62 @@
+package com.catalogforge.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+
+import java.util.Map;
+
+/**
+ * Configuration properties for agent pipeline admission control.
+ * Bulkheads are keyed by strategy name in kebab case (e.g. {@code multi-variant}).
+ */
+@ConfigurationProperties(prefix = "catalogforge.agent")
+@Validated
+public record AgentProperties(
+    Map<String, Bulkhead> bulkheads,
+    
+    @Positive
+    int retryAfterSeconds,
+    
+    @Min(1) @Max(100)
+    int degradationThresholdPercent
+) {
+    private static final Bulkhead DEFAULT_BULKHEAD = new Bulkhead(4, 8, 30000);
+
+    public AgentProperties {
+        bulkheads = bulkheads != null ? Map.copyOf(bulkheads) : Map.of();
+        if (retryAfterSeconds <= 0) retryAfterSeconds = 10;
+        if (degradationThresholdPercent <= 0) degradationThresholdPercent = 60;
+    }
+
+    /**
+     * Returns the bulkhead settings for a strategy, falling back to defaults.
+     */
+    public Bulkhead bulkheadFor(String strategyName) {
+        String key = strategyName.replaceAll("([a-z])([A-Z])", "$1-$2").toLowerCase();
+        return bulkheads.getOrDefault(key, DEFAULT_BULKHEAD);
+    }
+
+    /**
+     * Concurrency limits for a single strategy.
+     */
+    public record Bulkhead(
+        @Positive
+        int maxConcurrent,
+        
+        @Min(0)
+        int maxQueued,
+        
+        @Positive
+        long maxWaitMs
+    ) {
+        public Bulkhead {
+            if (maxConcurrent <= 0) maxConcurrent = 4;
+            if (maxQueued < 0) maxQueued = 0;
+            if (maxWaitMs <= 0) maxWaitMs = 30000;
+        }
+    }
+}
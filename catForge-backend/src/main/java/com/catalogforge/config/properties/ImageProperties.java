@@ -3,11 +3,21 @@ package com.catalogforge.config.properties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 
+import java.nio.file.Path;
+
 /**
  * Configuration properties for image handling.
+ * Uploaded images are kept in memory up to {@code memoryLimitMb}; beyond that the least recently
+ * used ones are spilled to {@code tempDir}, which holds at most {@code diskLimitMb} of spilled images.
+ * Before vision analysis, images are downscaled to {@code analysisMaxEdgePx} and re-encoded as JPEG
+ * with {@code analysisJpegQuality}. Analysis results are kept in {@code analysisCacheFile} and reused for
+ * images whose perceptual hash differs in at most {@code analysisCacheMaxDistance} bits.
+ * {@code paletteMode} decides whether the color palette comes from Gemini Vision or is extracted locally.
  */
 @ConfigurationProperties(prefix = "catalogforge.images")
 @Validated
@@ -21,11 +31,76 @@ public record ImageProperties(
     @Positive
     int expirationHours,
     
-    boolean placeholderEnabled
+    boolean placeholderEnabled,
+    
+    @Positive
+    int memoryLimitMb,
+    
+    @Positive
+    int diskLimitMb,
+    
+    @Positive
+    int analysisMaxEdgePx,
+    
+    @Min(1) @Max(100)
+    int analysisJpegQuality,
+    
+    String analysisCacheFile,
+    
+    @Positive
+    int analysisCacheSize,
+    
+    @Min(1) @Max(32)
+    int analysisCacheMaxDistance,
+    
+    PaletteMode paletteMode
 ) {
     public ImageProperties {
         if (tempDir == null || tempDir.isBlank()) tempDir = "/tmp/catalogforge/images";
         if (urlValidationTimeoutMs <= 0) urlValidationTimeoutMs = 5000;
         if (expirationHours <= 0) expirationHours = 24;
+        if (memoryLimitMb <= 0) memoryLimitMb = 64;
+        if (diskLimitMb <= 0) diskLimitMb = 1024;
+        if (analysisMaxEdgePx <= 0) analysisMaxEdgePx = 1024;
+        if (analysisJpegQuality <= 0) analysisJpegQuality = 85;
+        if (analysisCacheFile == null || analysisCacheFile.isBlank()) {
+            analysisCacheFile = Path.of(tempDir, "vision-analysis-cache.json").toString();
+        }
+        if (analysisCacheSize <= 0) analysisCacheSize = 500;
+        if (analysisCacheMaxDistance <= 0) analysisCacheMaxDistance = 6;
+        if (paletteMode == null) paletteMode = PaletteMode.HYBRID;
+    }
+
+    /**
+     * Create default properties.
+     */
+    public static ImageProperties defaults() {
+        return new ImageProperties(null, 0, 0, true, 0, 0, 0, 0, null, 0, 0, null);
+    }
+
+    /**
+     * Returns the memory budget of the image store in bytes.
+     */
+    public long memoryLimitBytes() {
+        return memoryLimitMb * 1024L * 1024L;
+    }
+
+    /**
+     * Returns the budget of spilled images on disk in bytes.
+     */
+    public long diskLimitBytes() {
+        return diskLimitMb * 1024L * 1024L;
+    }
+
+    /**
+     * Source of the color palette in image analysis.
+     */
+    public enum PaletteMode {
+        /** Gemini Vision extracts palette, mood and layout hints. */
+        VISION,
+        /** The palette is extracted locally; Gemini Vision only provides mood and layout hints. */
+        HYBRID,
+        /** Only the local palette is used, without a Gemini Vision call; mood and layout hints are defaults. */
+        LOCAL
     }
 }
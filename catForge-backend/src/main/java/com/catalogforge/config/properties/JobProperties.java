@@ -0,0 +1,32 @@
+package com.catalogforge.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Configuration properties for asynchronous layout generation jobs.
+ */
+@ConfigurationProperties(prefix = "catalogforge.jobs")
+@Validated
+public record JobProperties(
+    @Positive
+    int workerThreads,
+    
+    @Positive
+    int queueCapacity,
+    
+    @Positive
+    int retentionMinutes,
+    
+    @Positive
+    int retryAfterSeconds
+) {
+    public JobProperties {
+        if (workerThreads <= 0) workerThreads = 2;
+        if (queueCapacity <= 0) queueCapacity = 20;
+        if (retentionMinutes <= 0) retentionMinutes = 60;
+        if (retryAfterSeconds <= 0) retryAfterSeconds = 30;
+    }
+}
@@ -8,6 +8,8 @@ import jakarta.validation.constraints.Min;
 
 /**
  * Configuration properties for layout generation.
+ * {@code productTokenBudget} caps the estimated tokens of the product section in the prompt;
+ * products beyond it are rendered in compact form. It defaults to 6000 when not configured.
  */
 @ConfigurationProperties(prefix = "catalogforge.layout")
 @Validated
@@ -18,10 +20,27 @@ public record LayoutProperties(
     @Min(1) @Max(10)
     int maxVariantCount,
     
-    boolean fallbackEnabled
+    boolean fallbackEnabled,
+    
+    CorrectionMode correctionMode,
+    
+    @Min(1)
+    int productTokenBudget
 ) {
     public LayoutProperties {
         if (variantCountDefault <= 0) variantCountDefault = 2;
         if (maxVariantCount <= 0) maxVariantCount = 5;
+        if (correctionMode == null) correctionMode = CorrectionMode.DELTA;
+        if (productTokenBudget <= 0) productTokenBudget = 6000;
+    }
+
+    /**
+     * How validation failures are fed back to the LLM on retry.
+     */
+    public enum CorrectionMode {
+        /** Append correction instructions to the full prompt. */
+        FULL,
+        /** Send a request summary, the previous output of failing variants and the errors as one follow-up. */
+        DELTA
     }
 }
@@ -0,0 +1,70 @@
+package com.catalogforge.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Configuration properties for the product catalog source.
+ * {@code productsPath} is a "classpath:" resource, a JSON file, or a directory of JSON shard files;
+ * external sources are checked for changes every {@code refreshIntervalMs}.
+ * A non-blank {@code snapshotPath} enables the binary startup snapshot (heap storage only).
+ */
+@ConfigurationProperties(prefix = "catalogforge.data")
+@Validated
+public record ProductDataProperties(
+    @NotBlank
+    String productsPath,
+    
+    @Positive
+    long refreshIntervalMs,
+    
+    @Positive
+    int loaderThreads,
+    
+    String snapshotPath,
+    
+    Storage storage
+) {
+    public static final String CLASSPATH_PREFIX = "classpath:";
+
+    public ProductDataProperties {
+        if (productsPath == null || productsPath.isBlank()) productsPath = CLASSPATH_PREFIX + "data/products.json";
+        if (refreshIntervalMs <= 0) refreshIntervalMs = 60000;
+        if (storage == null) storage = Storage.HEAP;
+        if (loaderThreads <= 0) loaderThreads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Create default properties (bundled classpath catalog).
+     */
+    public static ProductDataProperties defaults() {
+        return new ProductDataProperties(null, 0, 0, null, null);
+    }
+
+    /**
+     * How loaded products are held in memory.
+     */
+    public enum Storage {
+        /** Product records plus precomputed prompt fragments and JSON on the heap. */
+        HEAP,
+        /** Columnar store with off-heap text; products are materialized per access. */
+        OFF_HEAP
+    }
+
+    /**
+     * Returns whether a binary snapshot is written on load and preferred on startup.
+     */
+    public boolean hasSnapshot() {
+        return snapshotPath != null && !snapshotPath.isBlank();
+    }
+
+    /**
+     * Returns whether products come from the bundled classpath resource.
+     */
+    public boolean isClasspath() {
+        return productsPath.startsWith(CLASSPATH_PREFIX);
+    }
+}
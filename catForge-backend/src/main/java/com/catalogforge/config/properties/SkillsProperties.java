@@ -3,6 +3,7 @@ package com.catalogforge.config.properties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 
 /**
@@ -14,9 +15,35 @@ public record SkillsProperties(
     @NotBlank
     String basePath,
     
-    boolean cacheEnabled
+    boolean cacheEnabled,
+    
+    String externalDir,
+    
+    @Min(0)
+    long watchDebounceMs,
+    
+    SelectionMode selection
 ) {
     public SkillsProperties {
         if (cacheEnabled == false) cacheEnabled = true;
+        if (watchDebounceMs <= 0) watchDebounceMs = 500;
+        if (selection == null) selection = SelectionMode.RELEVANT;
+    }
+
+    /**
+     * Which skill content is sent with a layout request.
+     */
+    public enum SelectionMode {
+        /** MASTER_SKILL, style, format and all their dependencies in full. */
+        ALL,
+        /** Only dependencies and sections that match the request's topics. */
+        RELEVANT
+    }
+
+    /**
+     * Returns whether skills are additionally loaded (and watched) from an external directory.
+     */
+    public boolean hasExternalDir() {
+        return externalDir != null && !externalDir.isBlank();
     }
 }
@@ -2,6 +2,7 @@ package com.catalogforge.controller;
 
 import com.catalogforge.model.response.ImageUploadResponse;
 import com.catalogforge.service.ImageService;
+import com.catalogforge.service.TieredImageStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
@@ -14,7 +15,6 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Base64;
 
 /**
  * REST controller for image upload and retrieval.
@@ -40,11 +40,10 @@ public class ImageController {
         log.info("POST /api/v1/images/upload - filename: {}, size: {} bytes", 
                 file.getOriginalFilename(), file.getSize());
         
-        String base64Data = Base64.getEncoder().encodeToString(file.getBytes());
         String mimeType = file.getContentType();
         String filename = file.getOriginalFilename();
         
-        String imageId = imageService.upload(base64Data, mimeType, filename);
+        String imageId = imageService.upload(file.getBytes(), mimeType, filename);
         String url = imageService.generateUrl(imageId);
         
         ImageUploadResponse response = new ImageUploadResponse(
@@ -78,6 +77,15 @@ public class ImageController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Returns memory and disk usage of the image store.
+     * GET /api/v1/images/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<TieredImageStore.Stats> getStoreStats() {
+        return ResponseEntity.ok(imageService.getStoreStats());
+    }
+
     /**
      * Retrieves an image by ID.
      * GET /api/v1/images/{imageId}
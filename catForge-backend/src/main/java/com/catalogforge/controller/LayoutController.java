@@ -1,10 +1,12 @@
 package com.catalogforge.controller;
 
+import com.catalogforge.model.ImageData;
 import com.catalogforge.model.Layout;
 import com.catalogforge.model.LayoutVariant;
 import com.catalogforge.model.request.ImageToLayoutRequest;
 import com.catalogforge.model.request.TextToLayoutRequest;
 import com.catalogforge.model.response.LayoutResponse;
+import com.catalogforge.service.ImageService;
 import com.catalogforge.service.LayoutGenerationService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -25,9 +27,11 @@ public class LayoutController {
     private static final Logger log = LoggerFactory.getLogger(LayoutController.class);
 
     private final LayoutGenerationService layoutService;
+    private final ImageService imageService;
 
-    public LayoutController(LayoutGenerationService layoutService) {
+    public LayoutController(LayoutGenerationService layoutService, ImageService imageService) {
         this.layoutService = layoutService;
+        this.imageService = imageService;
     }
 
     /**
@@ -53,15 +57,16 @@ public class LayoutController {
      */
     @PostMapping("/generate/image")
     public ResponseEntity<LayoutResponse> generateFromImage(@Valid @RequestBody ImageToLayoutRequest request) {
-        log.info("POST /api/v1/layouts/generate/image - products: {}, mimeType: {}", 
-                request.productIds(), request.imageMimeType());
+        log.info("POST /api/v1/layouts/generate/image - products: {}, mimeType: {}, imageId: {}", 
+                request.productIds(), request.imageMimeType(), request.imageId());
         
+        ImageData image = imageService.resolveImage(
+                request.imageId(), request.imageBase64(), request.imageMimeType());
         Layout layout = layoutService.generateFromImage(
                 request.productIds(),
                 request.options(),
                 request.prompt(),
-                request.imageBase64(),
-                request.imageMimeType()
+                image
         );
         
         return ResponseEntity.status(HttpStatus.CREATED).body(LayoutResponse.from(layout));
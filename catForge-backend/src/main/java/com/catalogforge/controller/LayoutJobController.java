@@ -0,0 +1,122 @@
+package com.catalogforge.controller;
+
+import com.catalogforge.model.ImageData;
+import com.catalogforge.model.LayoutJob;
+import com.catalogforge.model.request.ImageToLayoutRequest;
+import com.catalogforge.model.request.TextToLayoutRequest;
+import com.catalogforge.model.response.LayoutJobResponse;
+import com.catalogforge.model.response.LayoutResponse;
+import com.catalogforge.service.ImageService;
+import com.catalogforge.service.LayoutJobService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * REST controller for asynchronous layout generation jobs.
+ * Submissions return 202 Accepted with a status URL to poll.
+ */
+@RestController
+@RequestMapping("/api/v1/layouts/jobs")
+public class LayoutJobController {
+
+    private static final Logger log = LoggerFactory.getLogger(LayoutJobController.class);
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final LayoutJobService jobService;
+    private final ImageService imageService;
+
+    public LayoutJobController(LayoutJobService jobService, ImageService imageService) {
+        this.jobService = jobService;
+        this.imageService = imageService;
+    }
+
+    /**
+     * Submits a text-to-layout job.
+     * POST /api/v1/layouts/jobs/text
+     */
+    @PostMapping("/text")
+    public ResponseEntity<LayoutJobResponse> submitText(
+            @Valid @RequestBody TextToLayoutRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        log.info("POST /api/v1/layouts/jobs/text - products: {}", request.productIds());
+        
+        LayoutJob job = jobService.submitText(
+                request.productIds(),
+                request.options(),
+                request.prompt(),
+                idempotencyKey
+        );
+        
+        return accepted(job);
+    }
+
+    /**
+     * Submits an image-to-layout job.
+     * POST /api/v1/layouts/jobs/image
+     */
+    @PostMapping("/image")
+    public ResponseEntity<LayoutJobResponse> submitImage(
+            @Valid @RequestBody ImageToLayoutRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        log.info("POST /api/v1/layouts/jobs/image - products: {}, mimeType: {}, imageId: {}",
+                request.productIds(), request.imageMimeType(), request.imageId());
+        
+        // Resolved before submitting, so an unknown image ID fails the request instead of the job
+        ImageData image = imageService.resolveImage(
+                request.imageId(), request.imageBase64(), request.imageMimeType());
+        LayoutJob job = jobService.submitImage(
+                request.productIds(),
+                request.options(),
+                request.prompt(),
+                image,
+                idempotencyKey
+        );
+        
+        return accepted(job);
+    }
+
+    /**
+     * Gets the status of a job.
+     * GET /api/v1/layouts/jobs/{jobId}
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<LayoutJobResponse> getJob(@PathVariable String jobId) {
+        log.debug("GET /api/v1/layouts/jobs/{}", jobId);
+        
+        return ResponseEntity.ok(LayoutJobResponse.from(jobService.getJob(jobId)));
+    }
+
+    /**
+     * Gets the layout produced by a job.
+     * Returns 202 with the job status while the job is still pending
+     * and 422 with the job status and error once it has failed.
+     * GET /api/v1/layouts/jobs/{jobId}/result
+     */
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<?> getResult(@PathVariable String jobId) {
+        log.debug("GET /api/v1/layouts/jobs/{}/result", jobId);
+        
+        LayoutJob job = jobService.getJob(jobId);
+        if (job.status() == LayoutJob.Status.FAILED) {
+            return ResponseEntity.unprocessableEntity().body(LayoutJobResponse.from(job));
+        }
+        
+        return jobService.findResult(jobId)
+                .<ResponseEntity<?>>map(layout -> ResponseEntity.ok(LayoutResponse.from(layout)))
+                .orElseGet(() -> ResponseEntity.accepted().body(LayoutJobResponse.from(job)));
+    }
+
+    private ResponseEntity<LayoutJobResponse> accepted(LayoutJob job) {
+        LayoutJobResponse response = LayoutJobResponse.from(job);
+        return ResponseEntity.accepted()
+                .location(URI.create(response.statusUrl()))
+                .body(response);
+    }
+}
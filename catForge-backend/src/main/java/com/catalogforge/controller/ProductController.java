@@ -1,12 +1,23 @@
 package com.catalogforge.controller;
 
+import com.catalogforge.exception.InvalidQueryException;
 import com.catalogforge.model.Product;
+import com.catalogforge.model.ProductBatch;
+import com.catalogforge.model.ProductGrouping;
+import com.catalogforge.model.SimilarProduct;
+import com.catalogforge.model.request.ProductBatchRequest;
+import com.catalogforge.model.request.ProductListOptions;
+import com.catalogforge.model.response.FacetedProductResponse;
+import com.catalogforge.model.response.ProductListResponse;
+import com.catalogforge.search.SpecRange;
 import com.catalogforge.service.ProductService;
+import com.catalogforge.util.JsonResponseCache;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Set;
 
 /**
  * REST controller for product operations.
@@ -16,7 +27,11 @@ import java.util.Set;
 @RequestMapping("/api/v1/products")
 public class ProductController {
 
+    static final int MAX_SIMILAR = 50;
+    static final int MAX_GROUP_SIZE = 12;
+
     private final ProductService productService;
+    private final JsonResponseCache responseCache = new JsonResponseCache();
 
     public ProductController(ProductService productService) {
         this.productService = productService;
@@ -25,19 +40,54 @@ public class ProductController {
     /**
      * GET /api/v1/products
      * Returns all products, optionally filtered by category and/or series.
+     * With {@code page}, {@code size} or {@code cursor} the result is wrapped in a {@link ProductListResponse};
+     * {@code sort} (e.g. {@code price,desc}) and {@code fields} (e.g. {@code summary}) apply in both cases.
+     * The unfiltered list is served pre-serialized with an ETag per catalog version.
      */
     @GetMapping
-    public ResponseEntity<List<Product>> getProducts(
+    public ResponseEntity<?> getProducts(
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String series) {
+            @RequestParam(required = false) String series,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields) {
         
+        ProductListOptions options = ProductListOptions.parse(page, size, cursor, sort, fields);
         List<Product> products;
         if (category != null || series != null) {
             products = productService.filterProducts(category, series);
+        } else if (options.isDefault()) {
+            return responseCache.respond("products", productService.getCatalogVersion(),
+                    productService::getAllProducts, acceptEncoding);
         } else {
             products = productService.getAllProducts();
         }
-        return ResponseEntity.ok(products);
+        return listResponse(products, options);
+    }
+
+    /**
+     * GET /api/v1/products/filter?category={category}&series={series}&spec={key}&range={expression}
+     * Returns the filtered products together with facet counts for category, series and spec keys.
+     * All parameters are optional; {@code spec} may be repeated and every key must be present.
+     * {@code range} may be repeated, e.g. {@code leistung_ps>400} or {@code gesamtgewicht_t:..18}.
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<FacetedProductResponse> filterProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String series,
+            @RequestParam(name = "spec", required = false) List<String> specKeys,
+            @RequestParam(name = "range", required = false) List<String> rangeExpressions) {
+        
+        List<String> keys = specKeys != null ? specKeys : List.of();
+        List<SpecRange> ranges = rangeExpressions != null
+                ? rangeExpressions.stream().map(SpecRange::parse).toList()
+                : List.of();
+        return ResponseEntity.ok(FacetedProductResponse.of(
+                productService.filterProducts(category, series, keys, ranges),
+                productService.getFacets(category, series, keys, ranges)));
     }
 
     /**
@@ -50,13 +100,54 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    /**
+     * GET /api/v1/products/{id}/similar?limit={limit}
+     * Returns the products most similar to the given one by name, descriptions, highlights and specs.
+     */
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarProduct>> getSimilarProducts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "5") int limit) {
+        
+        if (limit < 1 || limit > MAX_SIMILAR) {
+            throw new InvalidQueryException("limit must be between 1 and " + MAX_SIMILAR);
+        }
+        return ResponseEntity.ok(productService.findSimilarProducts(id, limit));
+    }
+
+    /**
+     * GET /api/v1/products/{id}/grouping?size={size}
+     * Suggests a group of related products around the given one for a multi-product layout.
+     */
+    @GetMapping("/{id}/grouping")
+    public ResponseEntity<ProductGrouping> getGrouping(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "4") int size) {
+        
+        if (size < 2 || size > MAX_GROUP_SIZE) {
+            throw new InvalidQueryException("size must be between 2 and " + MAX_GROUP_SIZE);
+        }
+        return ResponseEntity.ok(productService.suggestGrouping(id, size));
+    }
+
+    /**
+     * POST /api/v1/products/batch
+     * Returns several products in request order; unknown IDs are listed in {@code missingIds}.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ProductBatch> getProductsByIds(@Valid @RequestBody ProductBatchRequest request) {
+        return ResponseEntity.ok(productService.getProductsByIds(request.ids()));
+    }
+
     /**
      * GET /api/v1/products/categories
      * Returns all unique product categories, sorted alphabetically.
      */
     @GetMapping("/categories")
-    public ResponseEntity<Set<String>> getCategories() {
-        return ResponseEntity.ok(productService.getAllCategories());
+    public ResponseEntity<byte[]> getCategories(
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.respond("categories", productService.getCatalogVersion(),
+                productService::getAllCategories, acceptEncoding);
     }
 
     /**
@@ -64,17 +155,37 @@ public class ProductController {
      * Returns all unique product series, sorted alphabetically.
      */
     @GetMapping("/series")
-    public ResponseEntity<Set<String>> getSeries() {
-        return ResponseEntity.ok(productService.getAllSeries());
+    public ResponseEntity<byte[]> getSeries(
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.respond("series", productService.getCatalogVersion(),
+                productService::getAllSeries, acceptEncoding);
     }
 
     /**
      * GET /api/v1/products/search?q={query}
-     * Searches products by query string (case-insensitive full-text search).
+     * Searches products by query string (case-insensitive full-text search), ranked by relevance.
+     * Supports the same paging, sorting and projection parameters as {@link #getProducts}.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String q) {
+    public ResponseEntity<?> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields) {
+        
         List<Product> results = productService.searchProducts(q);
-        return ResponseEntity.ok(results);
+        return listResponse(results, ProductListOptions.parse(page, size, cursor, sort, fields));
+    }
+
+    private ResponseEntity<?> listResponse(List<Product> products, ProductListOptions options) {
+        if (options.isDefault()) {
+            return ResponseEntity.ok(products);
+        }
+        if (options.isPaged()) {
+            return ResponseEntity.ok(productService.pageProducts(products, options));
+        }
+        return ResponseEntity.ok(productService.listProducts(products, options));
     }
 }
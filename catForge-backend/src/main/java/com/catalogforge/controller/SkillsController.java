@@ -2,10 +2,11 @@ package com.catalogforge.controller;
 
 import com.catalogforge.model.Skill;
 import com.catalogforge.service.SkillsService;
+import com.catalogforge.util.JsonResponseCache;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -18,6 +19,7 @@ import java.util.Set;
 public class SkillsController {
 
     private final SkillsService skillsService;
+    private final JsonResponseCache responseCache = new JsonResponseCache();
 
     public SkillsController(SkillsService skillsService) {
         this.skillsService = skillsService;
@@ -25,11 +27,13 @@ public class SkillsController {
 
     /**
      * GET /api/v1/skills
-     * Returns all loaded skills.
+     * Returns all loaded skills, pre-serialized with an ETag per skills snapshot.
      */
     @GetMapping
-    public ResponseEntity<Collection<Skill>> getAllSkills() {
-        return ResponseEntity.ok(skillsService.getAllSkills());
+    public ResponseEntity<byte[]> getAllSkills(
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.respond("skills", skillsService.getSkillsVersion(),
+                skillsService::getAllSkills, acceptEncoding);
     }
 
     /**
@@ -2,6 +2,7 @@ package com.catalogforge.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -92,6 +93,22 @@ public class GlobalExceptionHandler {
             ));
     }
 
+    @ExceptionHandler(InvalidQueryException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidQuery(
+            InvalidQueryException ex, WebRequest request) {
+        
+        log.warn("Invalid query: {}", ex.getMessage());
+        
+        return ResponseEntity
+            .status(HttpStatus.BAD_REQUEST)
+            .body(ErrorResponse.of(
+                HttpStatus.BAD_REQUEST.value(),
+                "Bad Request",
+                ex.getMessage(),
+                getPath(request)
+            ));
+    }
+
     @ExceptionHandler({ImageAnalysisException.class, LayoutGenerationException.class})
     public ResponseEntity<ErrorResponse> handleGeminiError(
             CatalogForgeException ex, WebRequest request) {
@@ -140,6 +157,23 @@ public class GlobalExceptionHandler {
             ));
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloaded(
+            ServiceOverloadedException ex, WebRequest request) {
+        
+        log.warn("Service overloaded: {}", ex.getMessage());
+        
+        return ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(ErrorResponse.of(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                ex.getMessage(),
+                getPath(request)
+            ));
+    }
+
     @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
     public ResponseEntity<ErrorResponse> handleMethodNotAllowed(
             HttpRequestMethodNotSupportedException ex, WebRequest request) {
@@ -0,0 +1,11 @@
+package com.catalogforge.exception;
+
+/**
+ * Exception thrown when a query parameter cannot be parsed.
+ */
+public class InvalidQueryException extends CatalogForgeException {
+
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+}
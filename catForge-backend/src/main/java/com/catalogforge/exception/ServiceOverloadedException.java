@@ -0,0 +1,19 @@
+package com.catalogforge.exception;
+
+/**
+ * Exception thrown when a request is rejected because the service is saturated.
+ * Carries the number of seconds after which the client may retry.
+ */
+public class ServiceOverloadedException extends CatalogForgeException {
+
+    private final int retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,135 @@
+package com.catalogforge.gemini;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reads the EXIF Orientation tag of JPEG images and applies it to decoded pixels.
+ * Cameras store the pixels as captured and record the rotation in the tag; ImageIO ignores it,
+ * so without this step portrait photos are analyzed lying on their side.
+ */
+final class ExifOrientation {
+
+    /** Orientation of images stored upright, and of images without the tag. */
+    static final int NORMAL = 1;
+
+    private static final int ORIENTATION_TAG = 0x0112;
+    private static final int TYPE_SHORT = 3;
+    private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+
+    private ExifOrientation() {
+        // Utility class
+    }
+
+    /**
+     * Returns the orientation (1 to 8) from the APP1 Exif segment of a JPEG, or {@link #NORMAL}
+     * for other formats and for missing or malformed metadata.
+     */
+    static int read(byte[] data) {
+        if (data.length < 4 || (data[0] & 0xff) != 0xff || (data[1] & 0xff) != 0xd8) {
+            return NORMAL;
+        }
+        int position = 2;
+        while (position + 4 <= data.length) {
+            if ((data[position] & 0xff) != 0xff) {
+                return NORMAL;
+            }
+            int marker = data[position + 1] & 0xff;
+            if (marker == 0xff) {
+                // Fill byte before a marker
+                position++;
+                continue;
+            }
+            if (marker == 0xda || marker == 0xd9) {
+                // Metadata segments precede the scan data
+                return NORMAL;
+            }
+            int length = (data[position + 2] & 0xff) << 8 | (data[position + 3] & 0xff);
+            int end = Math.min(data.length, position + 2 + length);
+            if (marker == 0xe1 && isExif(data, position + 4, end)) {
+                return readTiff(data, position + 4 + EXIF_HEADER.length, end);
+            }
+            position += 2 + length;
+        }
+        return NORMAL;
+    }
+
+    /**
+     * Rotates and mirrors an image so it is displayed upright.
+     */
+    static BufferedImage apply(BufferedImage image, int orientation) {
+        if (orientation <= NORMAL || orientation > 8) {
+            return image;
+        }
+        int w = image.getWidth();
+        int h = image.getHeight();
+        // Arguments are m00, m10, m01, m11, m02, m12 with x' = m00 * x + m01 * y + m02, y' = m10 * x + m11 * y + m12
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);  // mirror horizontally
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h); // rotate 180°
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);  // mirror vertically
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);   // transpose
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);  // rotate 90° clockwise
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w); // transverse
+            default -> new AffineTransform(0, -1, 1, 0, 0, w); // rotate 90° counterclockwise
+        };
+        boolean swap = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = oriented.createGraphics();
+        try {
+            g.drawImage(image, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return oriented;
+    }
+
+    private static boolean isExif(byte[] data, int from, int end) {
+        if (end - from < EXIF_HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < EXIF_HEADER.length; i++) {
+            if (data[from + i] != EXIF_HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Looks the tag up in IFD0 of the TIFF structure inside the Exif segment.
+     */
+    private static int readTiff(byte[] data, int from, int end) {
+        if (end - from < 8) {
+            return NORMAL;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(data, from, end - from).slice();
+        if (data[from] == 'I' && data[from + 1] == 'I') {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (data[from] != 'M' || data[from + 1] != 'M') {
+            return NORMAL;
+        }
+        try {
+            if (tiff.getShort(2) != 42) {
+                return NORMAL;
+            }
+            int directory = tiff.getInt(4);
+            int entries = Short.toUnsignedInt(tiff.getShort(directory));
+            for (int i = 0; i < entries; i++) {
+                int entry = directory + 2 + 12 * i;
+                if (Short.toUnsignedInt(tiff.getShort(entry)) == ORIENTATION_TAG) {
+                    int orientation = tiff.getShort(entry + 2) == TYPE_SHORT
+                            ? Short.toUnsignedInt(tiff.getShort(entry + 8))
+                            : NORMAL;
+                    return orientation >= NORMAL && orientation <= 8 ? orientation : NORMAL;
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // Offsets pointing outside the segment
+        }
+        return NORMAL;
+    }
+}
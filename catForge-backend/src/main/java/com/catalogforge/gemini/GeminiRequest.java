@@ -1,5 +1,9 @@
 package com.catalogforge.gemini;
 
+import com.catalogforge.model.ImageData;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.util.List;
 import java.util.Map;
 
@@ -29,12 +33,39 @@ public record GeminiRequest(
         public static Part image(String mimeType, String base64Data) {
             return new Part(null, new InlineData(mimeType, base64Data));
         }
+        
+        public static Part image(ImageData image) {
+            return new Part(null, new InlineData(image.mimeType(), image));
+        }
     }
     
+    /**
+     * Inline image of a request part. Raw image bytes are Base64-encoded by Jackson
+     * directly into the request body instead of being held as an encoded String.
+     */
     public record InlineData(
         String mimeType,
-        String data
-    ) {}
+        @JsonIgnore ImageData image
+    ) {
+        public InlineData(String mimeType, String base64Data) {
+            this(mimeType, ImageData.ofBase64(base64Data, mimeType));
+        }
+        
+        /**
+         * Returns the Base64 data; raw bytes are encoded on every call.
+         */
+        public String data() {
+            return image.toBase64();
+        }
+        
+        /**
+         * Serialized as {@code data}: byte arrays are written as Base64 by the JSON generator.
+         */
+        @JsonProperty("data")
+        private Object jsonData() {
+            return image.bytes() != null ? image.bytes() : image.base64();
+        }
+    }
     
     public record SystemInstruction(
         List<Part> parts
@@ -65,8 +96,8 @@ public record GeminiRequest(
         private Map<String, Object> responseSchema;
         private Double temperature = 0.7;
         private Integer maxOutputTokens = 8192;
-        private String imageBase64;
-        private String imageMimeType;
+        private ImageData image;
+        private final List<Content> history = new java.util.ArrayList<>();
 
         public Builder userPrompt(String prompt) {
             this.userPrompt = prompt;
@@ -99,16 +130,30 @@ public record GeminiRequest(
         }
 
         public Builder image(String base64Data, String mimeType) {
-            this.imageBase64 = base64Data;
-            this.imageMimeType = mimeType;
+            this.image = base64Data != null ? ImageData.ofBase64(base64Data, mimeType) : null;
+            return this;
+        }
+
+        public Builder image(ImageData image) {
+            this.image = image;
+            return this;
+        }
+
+        /**
+         * Adds an earlier conversation turn sent before the user prompt.
+         *
+         * @param role "user" or "model"
+         */
+        public Builder turn(String role, String text) {
+            this.history.add(new Content(List.of(Part.text(text)), role));
             return this;
         }
 
         public GeminiRequest build() {
             List<Part> parts = new java.util.ArrayList<>();
             
-            if (imageBase64 != null && imageMimeType != null) {
-                parts.add(Part.image(imageMimeType, imageBase64));
+            if (image != null && image.mimeType() != null) {
+                parts.add(Part.image(image));
             }
             
             if (userPrompt != null) {
@@ -128,7 +173,10 @@ public record GeminiRequest(
                     maxOutputTokens
             );
 
-            return new GeminiRequest(List.of(content), sysInstr, config);
+            List<Content> contents = new java.util.ArrayList<>(history);
+            contents.add(content);
+
+            return new GeminiRequest(List.copyOf(contents), sysInstr, config);
         }
     }
 }
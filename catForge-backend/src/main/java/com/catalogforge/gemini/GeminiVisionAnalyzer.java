@@ -1,7 +1,11 @@
 package com.catalogforge.gemini;
 
+import com.catalogforge.config.properties.ImageProperties;
+import com.catalogforge.config.properties.ImageProperties.PaletteMode;
 import com.catalogforge.model.ColorPalette;
 import com.catalogforge.model.ImageAnalysisResult;
+import com.catalogforge.model.ImageData;
+import com.catalogforge.model.ImageFingerprint;
 import com.catalogforge.model.LayoutHints;
 import com.catalogforge.model.MoodAnalysis;
 import com.catalogforge.util.JsonUtils;
@@ -10,11 +14,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Analyzes images using Gemini Vision to extract color palettes, mood, and layout hints.
+ * Depending on the configured {@link PaletteMode}, the palette is extracted locally instead and
+ * Gemini Vision is asked only for mood and layout hints, or not called at all. In hybrid mode the
+ * local extraction runs while the vision call is in flight and both are merged afterwards.
  */
 @Component
 public class GeminiVisionAnalyzer {
@@ -22,9 +31,16 @@ public class GeminiVisionAnalyzer {
     private static final Logger log = LoggerFactory.getLogger(GeminiVisionAnalyzer.class);
 
     private final GeminiClient geminiClient;
+    private final ImagePreprocessor preprocessor;
+    private final VisionAnalysisCache analysisCache;
+    private final PaletteMode paletteMode;
 
-    public GeminiVisionAnalyzer(GeminiClient geminiClient) {
+    public GeminiVisionAnalyzer(GeminiClient geminiClient, ImagePreprocessor preprocessor,
+                                VisionAnalysisCache analysisCache, ImageProperties imageProperties) {
         this.geminiClient = geminiClient;
+        this.preprocessor = preprocessor;
+        this.analysisCache = analysisCache;
+        this.paletteMode = imageProperties.paletteMode();
     }
 
     /**
@@ -35,13 +51,50 @@ public class GeminiVisionAnalyzer {
      * @return Analysis result with color palette, mood, and layout hints
      */
     public ImageAnalysisResult analyzeImage(String imageBase64, String mimeType) {
-        log.debug("Analyzing image: mimeType={}", mimeType);
+        return analyzeImage(ImageData.ofBase64(imageBase64, mimeType));
+    }
+
+    /**
+     * Analyzes an image and extracts design-relevant information.
+     * The image is downscaled first; raw image bytes are sent without an intermediate Base64 copy.
+     * Results for visually near-identical images are reused from the {@link VisionAnalysisCache}.
+     * Uploaded images are looked up with the fingerprint computed when they were stored and only
+     * prepared again if Gemini Vision has to be called.
+     *
+     * @return Analysis result with color palette, mood, and layout hints
+     */
+    public ImageAnalysisResult analyzeImage(ImageData image) {
+        log.debug("Analyzing image: mimeType={}", image.mimeType());
+        ImageFingerprint fingerprint = image.fingerprint();
+        ImagePreprocessor.Prepared prepared = fingerprint == null ? preprocessor.prepare(image) : null;
+        // Null if the palette comes from Gemini Vision or the image could not be decoded locally
+        CompletableFuture<ColorPalette> localPalette = fingerprint == null ? prepared.pendingPalette()
+                : fingerprint.palette() != null ? CompletableFuture.completedFuture(fingerprint.palette()) : null;
+        Long hash = fingerprint != null ? fingerprint.perceptualHash() : prepared.perceptualHash();
+        int[] colors = fingerprint != null ? fingerprint.colorSignature() : prepared.colorSignature();
+        if (hash != null) {
+            ImageAnalysisResult cached = analysisCache.find(hash, colors);
+            if (cached != null) {
+                // Mood and hints carry over to near-duplicates, but the exact palette of this image wins
+                return localPalette != null
+                        ? new ImageAnalysisResult(localPalette.join(), cached.mood(), cached.layoutHints())
+                        : cached;
+            }
+        }
+
+        if (localPalette != null && paletteMode == PaletteMode.LOCAL) {
+            log.debug("Using local palette without vision call");
+            return new ImageAnalysisResult(localPalette.join(), DEFAULT_MOOD, DEFAULT_LAYOUT_HINTS);
+        }
 
+        if (prepared == null) {
+            prepared = preprocessor.prepare(image);
+        }
         GeminiRequest request = GeminiRequest.builder()
                 .systemInstruction(ANALYSIS_SYSTEM_PROMPT)
-                .userPrompt(ANALYSIS_USER_PROMPT)
-                .image(imageBase64, mimeType)
-                .responseSchema(ANALYSIS_SCHEMA)
+                .userPrompt(localPalette != null ? MOOD_AND_HINTS_USER_PROMPT : ANALYSIS_USER_PROMPT)
+                .image(prepared.image())
+                .responseSchema(localPalette != null ? MOOD_AND_HINTS_SCHEMA : ANALYSIS_SCHEMA)
                 .temperature(0.3)
                 .build();
 
@@ -50,14 +103,30 @@ public class GeminiVisionAnalyzer {
                 request
         );
 
-        return parseAnalysisResponse(response);
+        ImageAnalysisResult result = parseAnalysisResponse(response);
+        if (result == null) {
+            ImageAnalysisResult placeholder = createPlaceholderResult();
+            return localPalette != null
+                    ? new ImageAnalysisResult(localPalette.join(), placeholder.mood(), placeholder.layoutHints())
+                    : placeholder;
+        }
+        if (localPalette != null) {
+            result = new ImageAnalysisResult(localPalette.join(), result.mood(), result.layoutHints());
+        }
+        if (hash != null) {
+            analysisCache.put(hash, colors, result);
+        }
+        return result;
     }
 
+    /**
+     * Returns the parsed result, or null if the response is empty or not valid JSON.
+     */
     private ImageAnalysisResult parseAnalysisResponse(GeminiResponse response) {
         String json = response.getText();
         if (json == null || json.isBlank()) {
             log.warn("Empty response from vision analysis");
-            return createPlaceholderResult();
+            return null;
         }
 
         try {
@@ -71,7 +140,7 @@ public class GeminiVisionAnalyzer {
             
         } catch (Exception e) {
             log.error("Failed to parse vision analysis response", e);
-            return createPlaceholderResult();
+            return null;
         }
     }
 
@@ -95,7 +164,7 @@ public class GeminiVisionAnalyzer {
     private MoodAnalysis parseMoodAnalysis(Map<String, Object> data) {
         Map<String, Object> mood = (Map<String, Object>) data.get("moodAnalysis");
         if (mood == null) {
-            return new MoodAnalysis("professional", 0.8, List.of("clean", "modern"));
+            return DEFAULT_MOOD;
         }
         
         String type = (String) mood.getOrDefault("type", "professional");
@@ -111,7 +180,7 @@ public class GeminiVisionAnalyzer {
     private LayoutHints parseLayoutHints(Map<String, Object> data) {
         Map<String, Object> hints = (Map<String, Object>) data.get("layoutHints");
         if (hints == null) {
-            return new LayoutHints("modular", "medium", "center", 2);
+            return DEFAULT_LAYOUT_HINTS;
         }
         
         String gridType = (String) hints.getOrDefault("gridType", "modular");
@@ -127,11 +196,14 @@ public class GeminiVisionAnalyzer {
     private ImageAnalysisResult createPlaceholderResult() {
         return new ImageAnalysisResult(
                 new ColorPalette("#333333", "#666666", "#0066CC", "#F5F5F5", "#1A1A1A"),
-                new MoodAnalysis("professional", 0.8, List.of("clean", "modern")),
-                new LayoutHints("modular", "medium", "center", 2)
+                DEFAULT_MOOD,
+                DEFAULT_LAYOUT_HINTS
         );
     }
 
+    private static final MoodAnalysis DEFAULT_MOOD = new MoodAnalysis("professional", 0.8, List.of("clean", "modern"));
+    private static final LayoutHints DEFAULT_LAYOUT_HINTS = new LayoutHints("modular", "medium", "center", 2);
+
     private static final String ANALYSIS_SYSTEM_PROMPT = """
         You are an expert image analyst for design purposes.
         Analyze images to extract color palettes, mood/atmosphere, and layout suggestions.
@@ -145,6 +217,12 @@ public class GeminiVisionAnalyzer {
         3. Layout hints (focal point position, orientation, text presence, complexity)
         """;
 
+    private static final String MOOD_AND_HINTS_USER_PROMPT = """
+        Analyze this image and extract:
+        1. Mood analysis (overall mood, energy level, descriptive keywords)
+        2. Layout hints (focal point position, orientation, text presence, complexity)
+        """;
+
     private static final Map<String, Object> ANALYSIS_SCHEMA = Map.of(
             "type", "object",
             "properties", Map.of(
@@ -177,4 +255,14 @@ public class GeminiVisionAnalyzer {
                     )
             )
     );
+
+    /** Used when the palette is extracted locally, so Gemini does not generate it. */
+    private static final Map<String, Object> MOOD_AND_HINTS_SCHEMA = withoutPalette(ANALYSIS_SCHEMA);
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> withoutPalette(Map<String, Object> schema) {
+        Map<String, Object> properties = new LinkedHashMap<>((Map<String, Object>) schema.get("properties"));
+        properties.remove("colorPalette");
+        return Map.of("type", "object", "properties", properties);
+    }
 }
@@ -0,0 +1,355 @@
+package com.catalogforge.gemini;
+
+import com.catalogforge.config.properties.ImageProperties;
+import com.catalogforge.config.properties.ImageProperties.PaletteMode;
+import com.catalogforge.model.ColorPalette;
+import com.catalogforge.model.ImageData;
+import com.catalogforge.model.ImageFingerprint;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.NodeList;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.color.ColorSpace;
+import java.awt.color.ICC_Profile;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorConvertOp;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Shrinks images before they are sent to vision analysis.
+ * Images are decoded, converted to sRGB, downscaled so the longer edge is at most {@code analysisMaxEdgePx},
+ * turned upright according to their EXIF orientation and re-encoded as JPEG without metadata. Palette, mood and layout hints do not need full resolution,
+ * so this mostly reduces the request payload and vision latency.
+ * The {@link PerceptualHash} with its color signature and, unless the palette comes from Gemini Vision, the local
+ * {@link PaletteExtractor} palette are computed from the same decoded image. The palette is extracted on a
+ * virtual thread, so it runs alongside encoding and the vision call instead of delaying them.
+ * Results are cached by content hash, so repeated analyses of the same image are only processed once.
+ */
+@Component
+public class ImagePreprocessor {
+
+    private static final Logger log = LoggerFactory.getLogger(ImagePreprocessor.class);
+    private static final String OUTPUT_MIME_TYPE = "image/jpeg";
+    private static final int CACHE_SIZE = 32;
+    private static final String PNG_METADATA_FORMAT = "javax_imageio_png_1.0";
+
+    /**
+     * Image prepared for analysis.
+     *
+     * @param image          the downscaled image, or the original if it was sent unchanged
+     * @param perceptualHash dHash of the image, or null if it could not be decoded
+     * @param colorSignature {@link PerceptualHash#colorSignature} of the image, or null if it could not be decoded
+     * @param pendingPalette locally extracted palette, or null if disabled or the image could not be decoded
+     */
+    public record Prepared(ImageData image, Long perceptualHash, int[] colorSignature,
+                           CompletableFuture<ColorPalette> pendingPalette) {
+
+        /**
+         * Waits for the local palette; null if there is none.
+         */
+        public ColorPalette palette() {
+            return pendingPalette != null ? pendingPalette.join() : null;
+        }
+    }
+
+    /**
+     * Cached outcome; {@code image} is null if the original is sent unchanged, so the caller's
+     * representation is kept.
+     */
+    private record Entry(ImageData image, Long perceptualHash, int[] colorSignature,
+                         CompletableFuture<ColorPalette> palette) {}
+
+    /**
+     * Decoded pixels and the embedded ICC profile the reader did not apply, if any.
+     */
+    private record Decoded(BufferedImage image, ICC_Profile profile) {}
+
+    /**
+     * First 128 bits of the SHA-256 of the original image bytes.
+     */
+    private record Key(long high, long low) {}
+
+    private final int maxEdge;
+    private final float jpegQuality;
+    private final boolean extractPalette;
+    private final ExecutorService paletteExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Guarded by itself; least recently used first
+    private final Map<Key, Entry> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    public ImagePreprocessor(ImageProperties properties) {
+        this.maxEdge = properties.analysisMaxEdgePx();
+        this.jpegQuality = properties.analysisJpegQuality() / 100f;
+        this.extractPalette = properties.paletteMode() != PaletteMode.VISION;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        paletteExecutor.shutdown();
+    }
+
+    /**
+     * Returns the downscaled JPEG version of an image and its perceptual hash.
+     * Images that cannot be decoded (e.g. WebP, which ImageIO does not read) and images whose
+     * re-encoded version would not be smaller are returned unchanged.
+     */
+    public Prepared prepare(ImageData image) {
+        if (image == null || image.isEmpty()) {
+            return new Prepared(image, null, null, null);
+        }
+        byte[] original;
+        try {
+            original = image.toBytes();
+        } catch (IllegalArgumentException e) {
+            log.debug("Image is not valid Base64, sending it unchanged");
+            return new Prepared(image, null, null, null);
+        }
+
+        Key key = key(original);
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(key);
+        }
+        if (entry == null) {
+            entry = process(original, image.mimeType());
+            synchronized (cache) {
+                cache.put(key, entry);
+            }
+        }
+        return new Prepared(entry.image() != null ? entry.image() : image, entry.perceptualHash(),
+                entry.colorSignature(), entry.palette());
+    }
+
+    /**
+     * Returns the perceptual hash, color signature and local palette of an image, or null if it
+     * cannot be decoded. The prepared image stays cached, so an analysis right after does not decode it again.
+     */
+    public ImageFingerprint fingerprint(ImageData image) {
+        Prepared prepared = prepare(image);
+        if (prepared.perceptualHash() == null) {
+            return null;
+        }
+        return new ImageFingerprint(prepared.perceptualHash(), prepared.colorSignature(), prepared.palette());
+    }
+
+    private Entry process(byte[] original, String mimeType) {
+        long start = System.nanoTime();
+        Decoded decoded;
+        try {
+            decoded = decode(original);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not decode {} image for analysis, sending it unchanged: {}", mimeType, e.getMessage());
+            return new Entry(null, null, null, null);
+        }
+        if (decoded == null) {
+            log.debug("No decoder for {} image, sending it unchanged", mimeType);
+            return new Entry(null, null, null, null);
+        }
+
+        BufferedImage srgb = toSrgb(decoded.image(), decoded.profile());
+        int orientation = ExifOrientation.read(original);
+        BufferedImage scaled = ExifOrientation.apply(toRgb(scale(srgb)), orientation);
+        // Without its metadata the original would be seen rotated or in the wrong colors
+        boolean corrected = srgb != decoded.image() || orientation != ExifOrientation.NORMAL;
+        // Only reads the pixels, so it can share the image with hashing and encoding
+        CompletableFuture<ColorPalette> palette = extractPalette
+                ? CompletableFuture.supplyAsync(() -> PaletteExtractor.extract(scaled), paletteExecutor)
+                : null;
+        long hash = PerceptualHash.dHash(scaled);
+        int[] colors = PerceptualHash.colorSignature(scaled);
+        byte[] encoded;
+        try {
+            encoded = encodeJpeg(scaled);
+        } catch (IOException e) {
+            log.warn("Could not encode image for analysis, sending it unchanged: {}", e.getMessage());
+            return new Entry(null, hash, colors, palette);
+        }
+        if (encoded.length >= original.length && !corrected) {
+            return new Entry(null, hash, colors, palette);
+        }
+
+        log.debug("Preprocessed {} image for analysis: {}x{} -> max edge {}, {} -> {} bytes in {} ms",
+                mimeType, decoded.image().getWidth(), decoded.image().getHeight(), maxEdge,
+                original.length, encoded.length, (System.nanoTime() - start) / 1_000_000);
+        return new Entry(ImageData.ofBytes(encoded, OUTPUT_MIME_TYPE), hash, colors, palette);
+    }
+
+    /**
+     * Decodes an image. Large images are subsampled while decoding, down to twice the target size,
+     * so the full resolution raster is never allocated.
+     *
+     * @return the image, or null if no reader supports the format
+     */
+    private Decoded decode(byte[] data) throws IOException {
+        try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                // Only PNG metadata is needed; the JPEG reader rejects some valid files when parsing it
+                boolean png = "png".equalsIgnoreCase(reader.getFormatName());
+                reader.setInput(input, true, !png);
+                int longEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longEdge / (maxEdge * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return new Decoded(reader.read(0, param), png ? pngProfile(reader.getImageMetadata(0)) : null);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Returns the ICC profile of a PNG's iCCP chunk. The JPEG reader converts images with an embedded
+     * profile to sRGB itself, but the PNG reader ignores the chunk.
+     *
+     * @return the profile, or null if there is none or it cannot be read
+     */
+    private static ICC_Profile pngProfile(IIOMetadata metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        NodeList chunks = ((IIOMetadataNode) metadata.getAsTree(PNG_METADATA_FORMAT)).getElementsByTagName("iCCP");
+        if (chunks.getLength() == 0 || !(((IIOMetadataNode) chunks.item(0)).getUserObject() instanceof byte[] compressed)) {
+            return null;
+        }
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            return ICC_Profile.getInstance(in.readAllBytes());
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("Ignoring unreadable ICC profile: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Converts pixels stored in an embedded RGB profile, e.g. Adobe RGB or Display P3, to sRGB.
+     * Runs before scaling, so pixels are blended in the color space they are displayed in.
+     *
+     * @return the converted image, or the image itself if no conversion is needed
+     */
+    private static BufferedImage toSrgb(BufferedImage image, ICC_Profile profile) {
+        if (profile == null || profile.getColorSpaceType() != ColorSpace.TYPE_RGB) {
+            return image;
+        }
+        BufferedImage rgb = toRgb(image);
+        BufferedImage converted = new BufferedImage(rgb.getWidth(), rgb.getHeight(), BufferedImage.TYPE_INT_RGB);
+        ICC_Profile[] profiles = {profile, ICC_Profile.getInstance(ColorSpace.CS_sRGB)};
+        new ColorConvertOp(profiles, null).filter(rgb.getRaster(), converted.getRaster());
+        return converted;
+    }
+
+    /**
+     * Downscales in steps of at most half the size, so bilinear filtering samples every source pixel.
+     */
+    private BufferedImage scale(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int longEdge = Math.max(width, height);
+        if (longEdge <= maxEdge) {
+            return image;
+        }
+        int targetWidth = Math.max(1, (int) Math.round((double) width * maxEdge / longEdge));
+        int targetHeight = Math.max(1, (int) Math.round((double) height * maxEdge / longEdge));
+
+        BufferedImage current = image;
+        while (width != targetWidth || height != targetHeight) {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        }
+        return current;
+    }
+
+    /**
+     * JPEG has no alpha channel; transparent areas become white.
+     */
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    /**
+     * Encodes without metadata, so EXIF, ICC and XMP segments of the original are dropped;
+     * orientation and color profile are already applied to the pixels.
+     */
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByMIMEType(OUTPUT_MIME_TYPE).next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static Key key(byte[] data) {
+        try {
+            ByteBuffer digest = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(data));
+            return new Key(digest.getLong(), digest.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
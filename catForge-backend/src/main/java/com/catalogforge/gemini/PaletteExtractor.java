@@ -0,0 +1,313 @@
+package com.catalogforge.gemini;
+
+import com.catalogforge.model.ColorPalette;
+import com.catalogforge.util.ColorUtils;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Extracts a {@link ColorPalette} from image pixels without an LLM call.
+ * Pixels are counted in a 15-bit RGB histogram, built in parallel over horizontal tiles, and
+ * quantized with median cut. The quantized colors are assigned to palette roles by lightness,
+ * population and saturation, then adjusted until the WCAG contrast checks of {@link ColorUtils} pass.
+ */
+public final class PaletteExtractor {
+
+    private static final int BITS = 5;
+    private static final int SHIFT = 8 - BITS;
+    private static final int BINS = 1 << (3 * BITS);
+    private static final int TILE_ROWS = 64;
+    private static final int MAX_COLORS = 8;
+
+    /** Text on the light and dark neutrals must meet WCAG AA for normal text. */
+    private static final double TEXT_CONTRAST = 4.5;
+    /** Primary and accent are used for headings and UI elements, which need 3:1 against the background. */
+    private static final double GRAPHIC_CONTRAST = 3.0;
+    private static final double ADJUST_STEP = 0.1;
+
+    private PaletteExtractor() {
+        // Utility class
+    }
+
+    /**
+     * A quantized color and the share of pixels it represents.
+     */
+    record Swatch(int r, int g, int b, double share) {
+
+        double luminance() {
+            return ColorUtils.calculateRelativeLuminance(hex());
+        }
+
+        double saturation() {
+            int max = Math.max(r, Math.max(g, b));
+            int min = Math.min(r, Math.min(g, b));
+            return max == 0 ? 0 : (max - min) / (double) max;
+        }
+
+        String hex() {
+            return ColorUtils.rgbToHex(r, g, b);
+        }
+    }
+
+    /**
+     * Extracts the palette of an image; images should be downscaled first.
+     */
+    public static ColorPalette extract(BufferedImage image) {
+        return assign(quantize(histogram(image)));
+    }
+
+    /**
+     * Counts pixels per 15-bit color. Each tile of rows fills its own histogram; the tiles are
+     * merged afterwards, so no counter is shared between threads.
+     */
+    static int[] histogram(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getType() == BufferedImage.TYPE_INT_RGB
+                ? ((DataBufferInt) image.getRaster().getDataBuffer()).getData()
+                : null;
+        int tiles = (height + TILE_ROWS - 1) / TILE_ROWS;
+
+        return IntStream.range(0, tiles).parallel()
+                .mapToObj(tile -> {
+                    int[] counts = new int[BINS];
+                    int[] row = pixels == null ? new int[width] : null;
+                    for (int y = tile * TILE_ROWS; y < Math.min(height, (tile + 1) * TILE_ROWS); y++) {
+                        int[] source = pixels;
+                        int offset = y * width;
+                        if (source == null) {
+                            source = image.getRGB(0, y, width, 1, row, 0, width);
+                            offset = 0;
+                        }
+                        for (int x = 0; x < width; x++) {
+                            counts[bin(source[offset + x])]++;
+                        }
+                    }
+                    return counts;
+                })
+                .reduce((a, b) -> {
+                    for (int i = 0; i < BINS; i++) {
+                        a[i] += b[i];
+                    }
+                    return a;
+                })
+                .orElseGet(() -> new int[BINS]);
+    }
+
+    /**
+     * Median cut: repeatedly splits the box with the most pixels times its longest channel range
+     * at the pixel median of that channel.
+     *
+     * @return up to {@link #MAX_COLORS} swatches, most frequent first
+     */
+    static List<Swatch> quantize(int[] histogram) {
+        int used = 0;
+        long total = 0;
+        for (int count : histogram) {
+            if (count > 0) {
+                used++;
+                total += count;
+            }
+        }
+        int[] colors = new int[used];
+        used = 0;
+        for (int i = 0; i < BINS; i++) {
+            if (histogram[i] > 0) {
+                colors[used++] = i;
+            }
+        }
+
+        List<Box> boxes = new ArrayList<>();
+        if (used > 0) {
+            boxes.add(new Box(colors, 0, used, histogram));
+        }
+        while (boxes.size() < MAX_COLORS) {
+            Box widest = null;
+            for (Box box : boxes) {
+                if (box.splittable() && (widest == null || box.priority() > widest.priority())) {
+                    widest = box;
+                }
+            }
+            if (widest == null) {
+                break;
+            }
+            boxes.remove(widest);
+            boxes.addAll(widest.split(colors, histogram));
+        }
+
+        List<Swatch> swatches = new ArrayList<>(boxes.size());
+        for (Box box : boxes) {
+            swatches.add(box.swatch(colors, histogram, total));
+        }
+        swatches.sort(Comparator.comparingDouble(Swatch::share).reversed());
+        return swatches;
+    }
+
+    /**
+     * Assigns roles: the lightest and darkest colors become the neutrals, the most frequent remaining
+     * color the primary, the most saturated one the accent and the next frequent one the secondary.
+     */
+    static ColorPalette assign(List<Swatch> swatches) {
+        if (swatches.isEmpty()) {
+            return new ColorPalette("#333333", "#666666", "#0066CC", "#F5F5F5", "#1A1A1A");
+        }
+        List<Swatch> remaining = new ArrayList<>(swatches);
+        Swatch light = remaining.stream().max(Comparator.comparingDouble(Swatch::luminance)).orElseThrow();
+        remaining.remove(light);
+        Swatch dark = remaining.stream().min(Comparator.comparingDouble(Swatch::luminance)).orElse(light);
+        remaining.remove(dark);
+
+        Swatch primary = remaining.isEmpty() ? dark : remaining.remove(0);
+        Swatch accent = remaining.stream()
+                .max(Comparator.comparingDouble(swatch -> swatch.saturation() * Math.sqrt(swatch.share())))
+                .orElse(primary);
+        remaining.remove(accent);
+        Swatch secondary = remaining.isEmpty() ? primary : remaining.get(0);
+
+        String neutralLight = light.hex();
+        String neutralDark = dark.hex();
+        while (ColorUtils.calculateContrastRatio(neutralLight, neutralDark) < TEXT_CONTRAST) {
+            neutralLight = mix(neutralLight, 255, ADJUST_STEP);
+            neutralDark = mix(neutralDark, 0, ADJUST_STEP);
+        }
+        return new ColorPalette(
+                ensureContrast(primary.hex(), neutralLight),
+                secondary.hex(),
+                ensureContrast(accent.hex(), neutralLight),
+                neutralLight,
+                neutralDark
+        );
+    }
+
+    /**
+     * Darkens a color until it reaches {@link #GRAPHIC_CONTRAST} against the background.
+     */
+    private static String ensureContrast(String color, String background) {
+        while (ColorUtils.calculateContrastRatio(color, background) < GRAPHIC_CONTRAST) {
+            color = mix(color, 0, ADJUST_STEP);
+        }
+        return color;
+    }
+
+    /**
+     * Moves every channel of a color the given fraction towards a target value (0 or 255).
+     * Steps round away from the color, so repeated mixing always reaches the target.
+     */
+    private static String mix(String hex, int target, double fraction) {
+        int[] rgb = ColorUtils.hexToRgb(hex);
+        for (int i = 0; i < 3; i++) {
+            int step = (int) Math.ceil(Math.abs(target - rgb[i]) * fraction);
+            rgb[i] += Integer.signum(target - rgb[i]) * step;
+        }
+        return ColorUtils.rgbToHex(rgb[0], rgb[1], rgb[2]);
+    }
+
+    private static int bin(int rgb) {
+        int r = (rgb >> 16 & 0xff) >> SHIFT;
+        int g = (rgb >> 8 & 0xff) >> SHIFT;
+        int b = (rgb & 0xff) >> SHIFT;
+        return r << (2 * BITS) | g << BITS | b;
+    }
+
+    private static int channel(int bin, int channel) {
+        return bin >> ((2 - channel) * BITS) & ((1 << BITS) - 1);
+    }
+
+    /**
+     * Range {@code [from, to)} of the color array with its pixel count and per-channel bounds.
+     */
+    private static final class Box {
+
+        private final int from;
+        private final int to;
+        private final long population;
+        private final int[] min = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE};
+        private final int[] max = {Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+
+        Box(int[] colors, int from, int to, int[] histogram) {
+            this.from = from;
+            this.to = to;
+            long count = 0;
+            for (int i = from; i < to; i++) {
+                count += histogram[colors[i]];
+                for (int c = 0; c < 3; c++) {
+                    int value = channel(colors[i], c);
+                    min[c] = Math.min(min[c], value);
+                    max[c] = Math.max(max[c], value);
+                }
+            }
+            this.population = count;
+        }
+
+        boolean splittable() {
+            return to - from > 1;
+        }
+
+        double priority() {
+            return (double) population * (max[longestChannel()] - min[longestChannel()] + 1);
+        }
+
+        private int longestChannel() {
+            int longest = 0;
+            for (int c = 1; c < 3; c++) {
+                if (max[c] - min[c] > max[longest] - min[longest]) {
+                    longest = c;
+                }
+            }
+            return longest;
+        }
+
+        /**
+         * Sorts the box's colors along the longest channel (a counting sort, as a channel has only
+         * 32 values) and splits at the pixel median.
+         */
+        List<Box> split(int[] colors, int[] histogram) {
+            int channel = longestChannel();
+            int[] starts = new int[(1 << BITS) + 1];
+            for (int i = from; i < to; i++) {
+                starts[channel(colors[i], channel) + 1]++;
+            }
+            for (int v = 1; v < starts.length; v++) {
+                starts[v] += starts[v - 1];
+            }
+            int[] sorted = new int[to - from];
+            for (int i = from; i < to; i++) {
+                sorted[starts[channel(colors[i], channel)]++] = colors[i];
+            }
+            System.arraycopy(sorted, 0, colors, from, sorted.length);
+
+            long half = population / 2;
+            long seen = 0;
+            int cut = from;
+            while (cut < to - 1 && seen + histogram[colors[cut]] <= half) {
+                seen += histogram[colors[cut++]];
+            }
+            cut = Math.max(cut, from + 1);
+            return List.of(new Box(colors, from, cut, histogram), new Box(colors, cut, to, histogram));
+        }
+
+        /**
+         * Returns the pixel-weighted mean color, using bin centers.
+         */
+        Swatch swatch(int[] colors, int[] histogram, long total) {
+            double[] sums = new double[3];
+            for (int i = from; i < to; i++) {
+                int count = histogram[colors[i]];
+                for (int c = 0; c < 3; c++) {
+                    sums[c] += count * ((channel(colors[i], c) << SHIFT) + (1 << SHIFT) / 2.0);
+                }
+            }
+            return new Swatch(
+                    (int) Math.round(sums[0] / population),
+                    (int) Math.round(sums[1] / population),
+                    (int) Math.round(sums[2] / population),
+                    (double) population / total
+            );
+        }
+    }
+}
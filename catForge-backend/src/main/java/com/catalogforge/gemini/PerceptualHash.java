@@ -0,0 +1,120 @@
+package com.catalogforge.gemini;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Difference hash (dHash) of an image.
+ * The image is reduced to a 9x8 grid of mean luminances; each of the 64 bits says whether a cell
+ * is brighter than its right neighbour. Re-encoded, resized or slightly edited copies of an image
+ * differ in only a few bits, so the Hamming distance measures visual similarity.
+ * The dHash only sees luminance gradients: recolored copies and flat images (whose hash is near 0)
+ * look alike to it. The {@link #colorSignature color signature} tells those apart.
+ */
+public final class PerceptualHash {
+
+    private static final int COLUMNS = 9;
+    private static final int ROWS = 8;
+    private static final int COLOR_GRID = 4;
+
+    private PerceptualHash() {
+        // Utility class
+    }
+
+    /**
+     * Computes the dHash of an image; transparency is ignored.
+     */
+    public static long dHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[] sums = new double[COLUMNS * ROWS];
+        int[] counts = new int[COLUMNS * ROWS];
+
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int cellRow = (int) ((long) y * ROWS / height) * COLUMNS;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                int cell = cellRow + (int) ((long) x * COLUMNS / width);
+                sums[cell] += 0.299 * (rgb >> 16 & 0xff) + 0.587 * (rgb >> 8 & 0xff) + 0.114 * (rgb & 0xff);
+                counts[cell]++;
+            }
+        }
+
+        long hash = 0;
+        int bit = 0;
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < COLUMNS - 1; c++) {
+                int left = r * COLUMNS + c;
+                if (mean(sums, counts, left) > mean(sums, counts, left + 1)) {
+                    hash |= 1L << bit;
+                }
+                bit++;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Computes the mean color of each cell of a 4x4 grid, row by row, as {@code 0xRRGGBB}.
+     */
+    public static int[] colorSignature(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int cells = COLOR_GRID * COLOR_GRID;
+        long[][] sums = new long[cells][3];
+        int[] counts = new int[cells];
+
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int cellRow = (int) ((long) y * COLOR_GRID / height) * COLOR_GRID;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                int cell = cellRow + (int) ((long) x * COLOR_GRID / width);
+                sums[cell][0] += rgb >> 16 & 0xff;
+                sums[cell][1] += rgb >> 8 & 0xff;
+                sums[cell][2] += rgb & 0xff;
+                counts[cell]++;
+            }
+        }
+
+        int[] signature = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            int count = Math.max(1, counts[cell]);
+            signature[cell] = (int) (sums[cell][0] / count) << 16
+                    | (int) (sums[cell][1] / count) << 8
+                    | (int) (sums[cell][2] / count);
+        }
+        return signature;
+    }
+
+    /**
+     * Returns the largest difference of any channel in any cell of two color signatures (0 to 255),
+     * or 255 if they have different sizes.
+     */
+    public static int colorDifference(int[] a, int[] b) {
+        if (a.length != b.length) {
+            return 255;
+        }
+        int max = 0;
+        for (int i = 0; i < a.length; i++) {
+            for (int shift = 0; shift <= 16; shift += 8) {
+                max = Math.max(max, Math.abs((a[i] >> shift & 0xff) - (b[i] >> shift & 0xff)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the number of differing bits of two hashes (0 to 64).
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static double mean(double[] sums, int[] counts, int cell) {
+        // Images narrower than 9 or lower than 8 pixels leave cells empty
+        return counts[cell] > 0 ? sums[cell] / counts[cell] : 0;
+    }
+}
@@ -0,0 +1,240 @@
+package com.catalogforge.gemini;
+
+import com.catalogforge.config.properties.ImageProperties;
+import com.catalogforge.model.ImageAnalysisResult;
+import com.catalogforge.util.JsonUtils;
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Vision analysis results keyed by the {@link PerceptualHash} and color signature of the analyzed image.
+ * A lookup returns the result of the closest stored hash within the configured Hamming distance whose
+ * color signature matches as well, so re-uploaded and slightly re-encoded reference images do not
+ * trigger another Gemini call, while recolored copies do.
+ * The least recently used entries are dropped beyond the configured size. Entries are written to a
+ * JSON file in the background after changes and loaded again on startup.
+ */
+@Component
+public class VisionAnalysisCache {
+
+    private static final Logger log = LoggerFactory.getLogger(VisionAnalysisCache.class);
+
+    /** Largest per-channel difference of a color signature cell that still counts as the same image. */
+    private static final int MAX_COLOR_DIFFERENCE = 16;
+
+    /**
+     * Persisted form of an entry; the hash is written as unsigned hex.
+     */
+    record StoredEntry(String hash, int[] colors, ImageAnalysisResult result) {}
+
+    /**
+     * Cache key; records compare arrays by identity, so equality is spelled out.
+     */
+    private record Key(long hash, int[] colors) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && hash == other.hash && Arrays.equals(colors, other.colors);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(hash) + Arrays.hashCode(colors);
+        }
+    }
+
+    private final Path file;
+    private final int maxSize;
+    private final int maxDistance;
+    private final AtomicBoolean writePending = new AtomicBoolean();
+    // One thread, so writes never overtake each other
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("vision-cache-writer").daemon().factory());
+
+    // Guarded by itself; least recently used first
+    private final LinkedHashMap<Key, ImageAnalysisResult> entries;
+
+    public VisionAnalysisCache(ImageProperties properties) {
+        this.file = Path.of(properties.analysisCacheFile());
+        this.maxSize = properties.analysisCacheSize();
+        this.maxDistance = properties.analysisCacheMaxDistance();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, ImageAnalysisResult> eldest) {
+                return size() > maxSize;
+            }
+        };
+        load();
+    }
+
+    /**
+     * Returns the result stored for the closest hash within the maximum distance whose color
+     * signature matches, or null.
+     */
+    public ImageAnalysisResult find(long hash, int[] colors) {
+        synchronized (entries) {
+            Key best = null;
+            int bestDistance = maxDistance + 1;
+            for (Key candidate : entries.keySet()) {
+                int distance = PerceptualHash.distance(hash, candidate.hash());
+                if (distance < bestDistance
+                        && PerceptualHash.colorDifference(colors, candidate.colors()) <= MAX_COLOR_DIFFERENCE) {
+                    best = candidate;
+                    bestDistance = distance;
+                    if (distance == 0) {
+                        break;
+                    }
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            log.debug("Vision analysis cache hit: hash={}, distance={}", Long.toHexString(hash), bestDistance);
+            return entries.get(best);
+        }
+    }
+
+    /**
+     * Stores a result; the cache file is rewritten in the background.
+     */
+    public void put(long hash, int[] colors, ImageAnalysisResult result) {
+        synchronized (entries) {
+            entries.put(new Key(hash, colors.clone()), result);
+        }
+        scheduleWrite();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Removes all entries; the cache file is emptied in the background.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        scheduleWrite();
+    }
+
+    /**
+     * Writes pending changes and stops the writer thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Vision analysis cache {} was not written in time", file);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a write unless one is queued already. The flag is reset before the snapshot is taken,
+     * so a change made during a write queues the next one; bursts of puts cost one write.
+     */
+    private void scheduleWrite() {
+        if (writePending.compareAndSet(false, true)) {
+            try {
+                writer.execute(() -> {
+                    writePending.set(false);
+                    write(snapshot());
+                });
+            } catch (RejectedExecutionException e) {
+                writePending.set(false);
+                log.debug("Vision analysis cache is shut down, not writing {}", file);
+            }
+        }
+    }
+
+    private List<StoredEntry> snapshot() {
+        synchronized (entries) {
+            List<StoredEntry> snapshot = new ArrayList<>(entries.size());
+            entries.forEach((key, result) ->
+                    snapshot.add(new StoredEntry(Long.toHexString(key.hash()), key.colors(), result)));
+            return snapshot;
+        }
+    }
+
+    /**
+     * Writes a snapshot via a temporary file, so a crash never leaves a truncated cache behind.
+     * A failed write only costs the persisted entries; the in-memory cache stays usable.
+     * Runs on the writer thread.
+     */
+    private void write(List<StoredEntry> snapshot) {
+        Path temp = null;
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                JsonUtils.getMapper().writeValue(out, snapshot);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write vision analysis cache {}: {}", file, e.getMessage());
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Loads persisted entries in their stored order, least recently used first.
+     * A missing or unreadable file starts an empty cache; entries without a color signature,
+     * written by earlier versions, are skipped.
+     */
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            List<StoredEntry> stored = JsonUtils.fromJson(in, new TypeReference<>() {});
+            for (StoredEntry entry : stored) {
+                if (entry.colors() != null) {
+                    entries.put(new Key(Long.parseUnsignedLong(entry.hash(), 16), entry.colors()), entry.result());
+                }
+            }
+            log.info("Loaded {} vision analysis results from {}", entries.size(), file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable vision analysis cache {}: {}", file, e.getMessage());
+            entries.clear();
+        }
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            log.debug("Could not delete temporary file {}: {}", temp, e.getMessage());
+        }
+    }
+}
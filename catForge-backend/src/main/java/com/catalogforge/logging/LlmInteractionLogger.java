@@ -42,13 +42,24 @@ public class LlmInteractionLogger {
      * @param prompt The prompt being sent (stored in full and summarized)
      */
     public void logRequest(String requestId, String model, String endpoint, String prompt) {
+        logRequest(requestId, model, endpoint, prompt, null);
+    }
+
+    /**
+     * Logs an outgoing request with additional metadata, e.g. the parent request of a retry.
+     */
+    public void logRequest(String requestId, String model, String endpoint, String prompt,
+                           Map<String, Object> metadata) {
         requestStartTimes.put(requestId, System.currentTimeMillis());
         
         String promptSummary = summarize(prompt);
         LlmLogEntry entry = LlmLogEntry.request(requestId, model, endpoint, promptSummary, prompt);
+        if (metadata != null && !metadata.isEmpty()) {
+            entry = entry.withMetadata(metadata);
+        }
         
         logWriter.write(entry);
-        log.debug("LLM Request [{}]: model={}, prompt={}", requestId, model, promptSummary);
+        log.debug("LLM Request [{}]: model={}, prompt={}, metadata={}", requestId, model, promptSummary, metadata);
     }
 
     /**
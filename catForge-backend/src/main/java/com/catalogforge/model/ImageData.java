@@ -0,0 +1,47 @@
+package com.catalogforge.model;
+
+import java.util.Base64;
+
+/**
+ * Image passed to vision analysis, either as raw bytes (uploaded images) or as the Base64 text
+ * a client sent inline. Whichever form arrived is passed on unchanged; raw bytes are only
+ * Base64-encoded while the Gemini request body is written.
+ * The byte array is shared, not copied, and must not be modified.
+ * Uploaded images carry the {@link ImageFingerprint} computed when they were stored, or null.
+ */
+public record ImageData(
+    byte[] bytes,
+    String base64,
+    String mimeType,
+    ImageFingerprint fingerprint
+) {
+    public static ImageData ofBytes(byte[] bytes, String mimeType) {
+        return new ImageData(bytes, null, mimeType, null);
+    }
+
+    public static ImageData ofBase64(String base64, String mimeType) {
+        return new ImageData(null, base64, mimeType, null);
+    }
+
+    public ImageData withFingerprint(ImageFingerprint newFingerprint) {
+        return new ImageData(bytes, base64, mimeType, newFingerprint);
+    }
+
+    /**
+     * Returns the image as Base64; raw bytes are encoded on every call.
+     */
+    public String toBase64() {
+        return bytes != null ? Base64.getEncoder().encodeToString(bytes) : base64;
+    }
+
+    /**
+     * Returns the raw bytes, decoding inline Base64 on every call.
+     */
+    public byte[] toBytes() {
+        return bytes != null ? bytes : Base64.getDecoder().decode(base64);
+    }
+
+    public boolean isEmpty() {
+        return bytes != null ? bytes.length == 0 : base64 == null || base64.isBlank();
+    }
+}
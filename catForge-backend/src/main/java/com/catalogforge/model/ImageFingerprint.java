@@ -0,0 +1,13 @@
+package com.catalogforge.model;
+
+/**
+ * Perceptual hash, color signature and local palette of an uploaded image, computed once when it is stored.
+ * Vision analyses of the image look up cached results with it instead of decoding the image again.
+ *
+ * @param palette locally extracted palette, or null if the palette comes from Gemini Vision
+ */
+public record ImageFingerprint(
+    long perceptualHash,
+    int[] colorSignature,
+    ColorPalette palette
+) {}
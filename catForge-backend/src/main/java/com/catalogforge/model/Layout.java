@@ -25,4 +25,11 @@ public record Layout(
     public Layout withVariants(List<LayoutVariant> newVariants) {
         return new Layout(id, status, generatedAt, pageFormat, imageAnalysis, newVariants, metadata);
     }
+
+    /**
+     * Create a new Layout with updated metadata.
+     */
+    public Layout withMetadata(LayoutMetadata newMetadata) {
+        return new Layout(id, status, generatedAt, pageFormat, imageAnalysis, variants, newMetadata);
+    }
 }
@@ -0,0 +1,60 @@
+package com.catalogforge.model;
+
+import java.time.Instant;
+
+/**
+ * Represents an asynchronous layout generation job.
+ * Jobs are immutable; each state transition returns a new instance.
+ */
+public record LayoutJob(
+    String id,
+    String idempotencyKey,
+    Status status,
+    Instant submittedAt,
+    Instant startedAt,
+    Instant completedAt,
+    String layoutId,
+    String errorMessage
+) {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * Creates a newly queued job.
+     */
+    public static LayoutJob queued(String id, String idempotencyKey) {
+        return new LayoutJob(id, idempotencyKey, Status.QUEUED, Instant.now(), null, null, null, null);
+    }
+
+    /**
+     * Returns a copy marked as running.
+     */
+    public LayoutJob running() {
+        return new LayoutJob(id, idempotencyKey, Status.RUNNING, submittedAt, Instant.now(), null, null, null);
+    }
+
+    /**
+     * Returns a copy marked as completed with the resulting layout.
+     */
+    public LayoutJob completed(String resultLayoutId) {
+        return new LayoutJob(id, idempotencyKey, Status.COMPLETED, submittedAt, startedAt, Instant.now(),
+                resultLayoutId, null);
+    }
+
+    /**
+     * Returns a copy marked as failed with the given error message.
+     */
+    public LayoutJob failed(String message) {
+        return new LayoutJob(id, idempotencyKey, Status.FAILED, submittedAt, startedAt, Instant.now(),
+                null, message);
+    }
+
+    /**
+     * Checks if the job has reached a terminal state.
+     */
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+}
@@ -8,9 +8,22 @@ import java.util.List;
 public record LayoutMetadata(
     List<String> skillsUsed,
     long generationTimeMs,
-    int llmCallCount
+    int llmCallCount,
+    List<String> degradations
 ) {
     public LayoutMetadata {
         skillsUsed = skillsUsed != null ? List.copyOf(skillsUsed) : List.of();
+        degradations = degradations != null ? List.copyOf(degradations) : List.of();
+    }
+
+    public LayoutMetadata(List<String> skillsUsed, long generationTimeMs, int llmCallCount) {
+        this(skillsUsed, generationTimeMs, llmCallCount, List.of());
+    }
+
+    /**
+     * Create a new LayoutMetadata with the given degradations.
+     */
+    public LayoutMetadata withDegradations(List<String> newDegradations) {
+        return new LayoutMetadata(skillsUsed, generationTimeMs, llmCallCount, newDegradations);
     }
 }
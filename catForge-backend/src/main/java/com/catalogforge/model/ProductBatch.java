@@ -0,0 +1,24 @@
+package com.catalogforge.model;
+
+import java.util.List;
+
+/**
+ * Result of a bulk product lookup: the products found, in request order,
+ * and every requested ID that is not in the catalog.
+ */
+public record ProductBatch(
+    List<Product> products,
+    List<Long> missingIds
+) {
+    public ProductBatch {
+        products = products != null ? List.copyOf(products) : List.of();
+        missingIds = missingIds != null ? List.copyOf(missingIds) : List.of();
+    }
+
+    /**
+     * Returns whether every requested ID was found.
+     */
+    public boolean isComplete() {
+        return missingIds.isEmpty();
+    }
+}
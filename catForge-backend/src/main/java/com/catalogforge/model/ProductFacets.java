@@ -0,0 +1,21 @@
+package com.catalogforge.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Product counts per facet value for faceted navigation.
+ * Maps are ordered alphabetically by value and omit values without matches.
+ */
+public record ProductFacets(
+    Map<String, Integer> categories,
+    Map<String, Integer> series,
+    Map<String, Integer> specKeys
+) {
+    public ProductFacets {
+        categories = categories != null ? Collections.unmodifiableMap(new LinkedHashMap<>(categories)) : Map.of();
+        series = series != null ? Collections.unmodifiableMap(new LinkedHashMap<>(series)) : Map.of();
+        specKeys = specKeys != null ? Collections.unmodifiableMap(new LinkedHashMap<>(specKeys)) : Map.of();
+    }
+}
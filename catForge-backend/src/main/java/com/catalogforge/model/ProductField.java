@@ -0,0 +1,74 @@
+package com.catalogforge.model;
+
+import com.catalogforge.exception.InvalidQueryException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Serialized fields of a {@link Product}, used for field projection in list responses.
+ */
+public enum ProductField {
+    ID("id"),
+    NAME("name"),
+    SHORT_DESCRIPTION("shortDescription"),
+    DESCRIPTION("description"),
+    LONG_DESCRIPTION("longDescription"),
+    CATEGORY("category"),
+    SERIES("series"),
+    SPECS("specs"),
+    HIGHLIGHTS("highlights"),
+    IMAGE_URL("imageUrl"),
+    PRICE_EUR("priceEur");
+
+    /**
+     * Fields needed by list views; selectable as {@code fields=summary}.
+     */
+    public static final Set<ProductField> SUMMARY =
+            Collections.unmodifiableSet(EnumSet.of(ID, NAME, SHORT_DESCRIPTION, IMAGE_URL));
+
+    private final String jsonName;
+
+    ProductField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    /**
+     * Parses a comma-separated field list such as "id,name,imageUrl" or "summary".
+     *
+     * @return the selected fields, or null if the list is blank (all fields)
+     * @throws InvalidQueryException if a field is unknown
+     */
+    public static Set<ProductField> parseList(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        EnumSet<ProductField> result = EnumSet.noneOf(ProductField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (trimmed.equalsIgnoreCase("summary")) {
+                result.addAll(SUMMARY);
+            } else {
+                result.add(fromJsonName(trimmed));
+            }
+        }
+        return result.isEmpty() ? null : Collections.unmodifiableSet(result);
+    }
+
+    private static ProductField fromJsonName(String name) {
+        for (ProductField field : values()) {
+            if (field.jsonName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new InvalidQueryException("Unknown product field: " + name);
+    }
+}
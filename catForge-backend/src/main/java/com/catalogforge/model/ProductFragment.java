@@ -0,0 +1,52 @@
+package com.catalogforge.model;
+
+/**
+ * Pre-rendered prompt fragments for a single product.
+ * The full form carries all product data, the compact form only identification,
+ * short description and price for prompts that would otherwise exceed their budget.
+ * {@code compactWithSpecs} adds the technical data to the compact form for layouts that show specs;
+ * it is the compact form itself for products without specs.
+ */
+public record ProductFragment(
+    Long productId,
+    String full,
+    String compact,
+    String compactWithSpecs,
+    int fullTokens,
+    int compactTokens,
+    int compactWithSpecsTokens
+) {
+    /**
+     * Returns the fragment text for the requested form.
+     */
+    public String text(boolean compactForm) {
+        return text(compactForm, false);
+    }
+
+    /**
+     * Returns the fragment text for the requested form, keeping the specs in the compact form if requested.
+     */
+    public String text(boolean compactForm, boolean withSpecs) {
+        if (!compactForm) {
+            return full;
+        }
+        return withSpecs ? compactWithSpecs : compact;
+    }
+
+    /**
+     * Returns the estimated token count for the requested form.
+     */
+    public int tokens(boolean compactForm) {
+        return tokens(compactForm, false);
+    }
+
+    /**
+     * Returns the estimated token count for the requested form, keeping the specs in the compact form if requested.
+     */
+    public int tokens(boolean compactForm, boolean withSpecs) {
+        if (!compactForm) {
+            return fullTokens;
+        }
+        return withSpecs ? compactWithSpecsTokens : compactTokens;
+    }
+}
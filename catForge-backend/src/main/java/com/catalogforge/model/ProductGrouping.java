@@ -0,0 +1,17 @@
+package com.catalogforge.model;
+
+import java.util.List;
+
+/**
+ * Suggested set of related products for a multi-product layout, starting with the seed product.
+ *
+ * @param cohesion mean pairwise similarity of the products, from 0 to 1
+ */
+public record ProductGrouping(
+    List<Product> products,
+    double cohesion
+) {
+    public ProductGrouping {
+        products = products != null ? List.copyOf(products) : List.of();
+    }
+}
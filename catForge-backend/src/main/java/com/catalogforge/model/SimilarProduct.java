@@ -0,0 +1,11 @@
+package com.catalogforge.model;
+
+/**
+ * A product recommended as similar to another one.
+ *
+ * @param score cosine similarity of the product vectors, from 0 (unrelated) to 1 (identical features)
+ */
+public record SimilarProduct(
+    Product product,
+    double score
+) {}
@@ -1,12 +1,15 @@
 package com.catalogforge.model.request;
 
-import jakarta.validation.constraints.NotBlank;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Size;
 
 import java.util.List;
 
 /**
  * Request for image-to-layout generation.
+ * The image is either inline ({@code imageBase64} with {@code imageMimeType}) or a previously
+ * uploaded image referenced by {@code imageId}, which avoids sending it as Base64 again.
  */
 public record ImageToLayoutRequest(
     @Size(min = 1, message = "At least one product ID is required")
@@ -17,15 +20,28 @@ public record ImageToLayoutRequest(
     @Size(max = 5000, message = "Prompt must not exceed 5000 characters")
     String prompt,
     
-    @NotBlank(message = "Image data is required")
     String imageBase64,
     
-    @NotBlank(message = "Image MIME type is required")
-    String imageMimeType
+    String imageMimeType,
+    
+    String imageId
 ) {
     public ImageToLayoutRequest {
         if (productIds == null) productIds = List.of();
         if (options == null) options = LayoutOptions.defaults();
         if (prompt == null) prompt = "";
     }
+
+    /**
+     * Returns whether an image ID or inline image data with MIME type is present.
+     */
+    @JsonIgnore
+    @AssertTrue(message = "Image data with MIME type or an uploaded image ID is required")
+    public boolean isImageProvided() {
+        return hasText(imageId) || (hasText(imageBase64) && hasText(imageMimeType));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
 }
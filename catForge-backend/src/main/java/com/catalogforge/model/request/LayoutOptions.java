@@ -15,6 +15,13 @@ public record LayoutOptions(
         if (variantCount <= 0) variantCount = 1;
     }
 
+    /**
+     * Returns a copy with a different variant count.
+     */
+    public LayoutOptions withVariantCount(int count) {
+        return new LayoutOptions(pageFormat, style, count, includeSpecs, complexStrategy);
+    }
+
     /**
      * Create default options.
      */
@@ -0,0 +1,15 @@
+package com.catalogforge.model.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request for a bulk product lookup.
+ */
+public record ProductBatchRequest(
+    @NotNull(message = "Product IDs are required")
+    @Size(min = 1, max = 500, message = "Between 1 and 500 product IDs are allowed")
+    List<@NotNull Long> ids
+) {}
@@ -0,0 +1,163 @@
+package com.catalogforge.model.request;
+
+import com.catalogforge.exception.InvalidQueryException;
+import com.catalogforge.model.Product;
+import com.catalogforge.model.ProductField;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Paging, sorting and projection options for product list endpoints.
+ * Without any option the endpoints keep returning the plain product array.
+ *
+ * @param offset index of the first product to return
+ * @param size   page size, or null if the request is not paged
+ * @param sort   sort order, or null to keep catalog (or relevance) order
+ * @param fields projected fields, or null for all fields
+ */
+public record ProductListOptions(
+    int offset,
+    Integer size,
+    ProductListOptions.Sort sort,
+    Set<ProductField> fields
+) {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String CURSOR_PREFIX = "o:";
+    private static final Comparator<Product> BY_ID =
+            Comparator.comparing(Product::id, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    /**
+     * Sortable product properties. Missing values sort last; ties keep the product ID order.
+     */
+    public enum SortField {
+        ID(Product::id, BY_ID),
+        NAME(Product::name, Comparator.comparing(Product::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))),
+        PRICE(Product::priceEur, Comparator.comparing(Product::priceEur, Comparator.nullsLast(Comparator.naturalOrder()))),
+        CATEGORY(Product::category, Comparator.comparing(Product::category, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))),
+        SERIES(Product::series, Comparator.comparing(Product::series, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+        private final Comparator<Product> ascending;
+        private final Comparator<Product> descending;
+
+        SortField(Function<Product, Object> key, Comparator<Product> comparator) {
+            Comparator<Product> missingLast = Comparator.comparing(product -> key.apply(product) == null);
+            this.ascending = missingLast.thenComparing(comparator).thenComparing(BY_ID);
+            this.descending = missingLast.thenComparing(comparator.reversed()).thenComparing(BY_ID);
+        }
+    }
+
+    /**
+     * Sort order of a list response. Stores that can sort without materializing products
+     * use the field and direction; everything else uses the comparator.
+     */
+    public record Sort(SortField field, boolean descending) implements Comparator<Product> {
+        @Override
+        public int compare(Product a, Product b) {
+            return (descending ? field.descending : field.ascending).compare(a, b);
+        }
+    }
+
+    /**
+     * Parses the raw request parameters.
+     *
+     * @param page   zero-based page number
+     * @param size   page size (1..{@value #MAX_PAGE_SIZE})
+     * @param cursor continuation token from a previous page, exclusive with {@code page}
+     * @param sort   "field" or "field,desc", e.g. "price,desc"
+     * @param fields comma-separated field list or "summary"
+     * @throws InvalidQueryException if a parameter is invalid
+     */
+    public static ProductListOptions parse(Integer page, Integer size, String cursor, String sort, String fields) {
+        if (page != null && cursor != null) {
+            throw new InvalidQueryException("Use either page or cursor, not both");
+        }
+        if (page != null && page < 0) {
+            throw new InvalidQueryException("Page must not be negative: " + page);
+        }
+        if (size != null && (size < 1 || size > MAX_PAGE_SIZE)) {
+            throw new InvalidQueryException("Size must be between 1 and " + MAX_PAGE_SIZE + ": " + size);
+        }
+        
+        boolean paged = page != null || size != null || cursor != null;
+        Integer pageSize = paged ? (size != null ? size : DEFAULT_PAGE_SIZE) : null;
+        int offset = 0;
+        if (cursor != null) {
+            offset = decodeCursor(cursor);
+        } else if (page != null) {
+            try {
+                offset = Math.multiplyExact(page, pageSize);
+            } catch (ArithmeticException e) {
+                throw new InvalidQueryException("Page is too large: " + page);
+            }
+        }
+        return new ProductListOptions(offset, pageSize, parseSort(sort), ProductField.parseList(fields));
+    }
+
+    /**
+     * Returns whether the request asked for a page envelope instead of a plain array.
+     */
+    public boolean isPaged() {
+        return size != null;
+    }
+
+    /**
+     * Returns whether no option was given, i.e. the legacy response applies unchanged.
+     */
+    public boolean isDefault() {
+        return !isPaged() && sort == null && fields == null;
+    }
+
+    /**
+     * Encodes the continuation token for the page starting at the given offset.
+     */
+    public static String encodeCursor(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                int offset = Integer.parseInt(decoded.substring(CURSOR_PREFIX.length()));
+                if (offset >= 0) {
+                    return offset;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Falls through to the error below
+        }
+        throw new InvalidQueryException("Invalid cursor: " + cursor);
+    }
+
+    private static Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return null;
+        }
+        String[] parts = sort.split(",");
+        if (parts.length > 2) {
+            throw new InvalidQueryException("Invalid sort: " + sort);
+        }
+        
+        SortField field;
+        try {
+            field = SortField.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryException("Unknown sort field: " + parts[0].trim());
+        }
+        
+        String direction = parts.length == 2 ? parts[1].trim().toLowerCase(Locale.ROOT) : "asc";
+        return switch (direction) {
+            case "asc" -> new Sort(field, false);
+            case "desc" -> new Sort(field, true);
+            default -> throw new InvalidQueryException("Invalid sort direction: " + parts[1].trim());
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.catalogforge.model.response;
+
+import java.util.List;
+
+import com.catalogforge.model.Product;
+import com.catalogforge.model.ProductFacets;
+
+/**
+ * Filtered products together with the facet counts for the product picker.
+ */
+public record FacetedProductResponse(
+    List<Product> products,
+    int totalElements,
+    ProductFacets facets
+) {
+    public FacetedProductResponse {
+        products = products != null ? List.copyOf(products) : List.of();
+    }
+
+    public static FacetedProductResponse of(List<Product> products, ProductFacets facets) {
+        return new FacetedProductResponse(products, products.size(), facets);
+    }
+}
@@ -0,0 +1,33 @@
+package com.catalogforge.model.response;
+
+import com.catalogforge.model.LayoutJob;
+
+import java.time.Instant;
+
+/**
+ * Response describing the state of an asynchronous layout job.
+ */
+public record LayoutJobResponse(
+    String jobId,
+    String status,
+    Instant submittedAt,
+    Instant completedAt,
+    String layoutId,
+    String error,
+    String statusUrl,
+    String resultUrl
+) {
+    public static LayoutJobResponse from(LayoutJob job) {
+        String statusUrl = "/api/v1/layouts/jobs/" + job.id();
+        return new LayoutJobResponse(
+                job.id(),
+                job.status().name(),
+                job.submittedAt(),
+                job.completedAt(),
+                job.layoutId(),
+                job.errorMessage(),
+                statusUrl,
+                statusUrl + "/result"
+        );
+    }
+}
@@ -15,7 +15,8 @@ public record LayoutResponse(
     Instant generatedAt,
     String pageFormat,
     List<VariantResponse> variants,
-    int variantCount
+    int variantCount,
+    List<String> degradations
 ) {
     
     public record VariantResponse(
@@ -39,7 +40,8 @@ public record LayoutResponse(
                 layout.generatedAt(),
                 layout.pageFormat() != null ? layout.pageFormat().name() : "A4",
                 variants,
-                variants.size()
+                variants.size(),
+                layout.metadata() != null ? layout.metadata().degradations() : List.of()
         );
     }
 }
@@ -2,17 +2,19 @@ package com.catalogforge.model.response;
 
 import java.util.List;
 
-import com.catalogforge.model.Product;
+import com.fasterxml.jackson.databind.util.RawValue;
 
 /**
  * Paginated response for product list requests.
+ * Products are embedded as pre-serialized (and possibly projected) JSON objects.
  */
 public record ProductListResponse(
-    List<Product> products,
+    List<RawValue> products,
     int page,
     int size,
     long totalElements,
-    int totalPages
+    int totalPages,
+    String nextCursor
 ) {
     public ProductListResponse {
         products = products != null ? List.copyOf(products) : List.of();
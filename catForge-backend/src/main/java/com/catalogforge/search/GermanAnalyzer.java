@@ -0,0 +1,82 @@
+package com.catalogforge.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizer for German and English product text.
+ * Lower-cases, transcribes umlauts the way German spells them without ("ä" → "ae", "ß" → "ss"),
+ * so both spellings compare equal, strips other diacritics and splits on everything that is not a letter or digit.
+ */
+public final class GermanAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "aber", "als", "am", "an", "auch", "auf", "aus", "bei", "bis", "das", "dass", "dem", "den",
+            "der", "des", "die", "durch", "ein", "eine", "einem", "einen", "einer", "eines", "es", "fuer",
+            "hat", "im", "in", "ist", "mit", "nach", "nicht", "noch", "oder", "sich", "sie", "sind", "so",
+            "um", "und", "ueber", "unter", "vom", "von", "vor", "wie", "wird", "zu", "zum", "zur",
+            "a", "and", "for", "of", "on", "or", "the", "to", "with");
+
+    private GermanAnalyzer() {
+        // Utility class
+    }
+
+    /**
+     * Splits text into normalized tokens, including stopwords.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean tokenChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns whether a normalized token is a stopword.
+     */
+    public static boolean isStopword(String token) {
+        return STOPWORDS.contains(token);
+    }
+
+    /**
+     * Lower-cases and folds a text so that spelling variants compare equal.
+     */
+    static String fold(String text) {
+        // NFC first, so decomposed umlauts (u + combining diaeresis) are transcribed as well
+        String lower = Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.GERMAN);
+        StringBuilder sb = new StringBuilder(lower.length() + 8);
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            switch (c) {
+                case 'ä' -> sb.append("ae");
+                case 'ö' -> sb.append("oe");
+                case 'ü' -> sb.append("ue");
+                case 'ß' -> sb.append("ss");
+                default -> sb.append(c);
+            }
+        }
+        
+        // Existing "ae", "oe", "ue" are left alone, so "aero", "poet" and "blue" keep their spelling.
+        // Other accented letters lose their marks.
+        return DIACRITICS.matcher(Normalizer.normalize(sb, Normalizer.Form.NFD)).replaceAll("");
+    }
+}
@@ -0,0 +1,236 @@
+package com.catalogforge.search;
+
+import com.catalogforge.model.Product;
+import com.catalogforge.model.ProductFacets;
+import com.catalogforge.util.BinaryUtils;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Immutable bitmap index over the facet fields of the catalog.
+ * Each category, series and spec key maps its lower-cased value to a bitmap of product positions,
+ * so filtering is a bitmap intersection and counting is a cardinality.
+ */
+public final class ProductFacetIndex {
+
+    /**
+     * Bitmaps for one facet dimension, keyed by lower-cased value.
+     */
+    private record Dimension(Map<String, BitSet> bitmaps, Map<String, String> displayNames) {
+
+        /**
+         * Returns the bitmap for a value, or null if the value does not constrain the result.
+         */
+        BitSet lookup(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            return bitmaps.getOrDefault(normalize(value), new BitSet());
+        }
+
+        Map<String, Integer> counts(BitSet within) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            displayNames.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue())
+                    .forEach(entry -> {
+                        BitSet hits = (BitSet) bitmaps.get(entry.getKey()).clone();
+                        hits.and(within);
+                        if (!hits.isEmpty()) {
+                            counts.put(entry.getValue(), hits.cardinality());
+                        }
+                    });
+            return counts;
+        }
+
+        SortedSet<String> values() {
+            return new TreeSet<>(displayNames.values());
+        }
+    }
+
+    /**
+     * Collects the bitmaps of one dimension while the products are scanned.
+     */
+    private static final class DimensionBuilder {
+        private final Map<String, BitSet> bitmaps = new HashMap<>();
+        private final Map<String, String> displayNames = new TreeMap<>();
+
+        void add(String value, int position, int productCount) {
+            if (value == null) {
+                return;
+            }
+            String key = normalize(value);
+            bitmaps.computeIfAbsent(key, k -> new BitSet(productCount)).set(position);
+            displayNames.putIfAbsent(key, value);
+        }
+
+        Dimension build() {
+            return new Dimension(Map.copyOf(bitmaps), Collections.unmodifiableMap(displayNames));
+        }
+    }
+
+    private final List<Product> products;
+    private final BitSet all;
+    private final Dimension categories;
+    private final Dimension series;
+    private final Dimension specKeys;
+
+    private ProductFacetIndex(List<Product> products, Dimension categories, Dimension series, Dimension specKeys) {
+        this.products = products;
+        this.all = new BitSet(products.size());
+        this.all.set(0, products.size());
+        this.categories = categories;
+        this.series = series;
+        this.specKeys = specKeys;
+    }
+
+    /**
+     * Builds the index for a product list. Results keep the list order.
+     * Random-access lists are referenced rather than copied, so a lazily materializing list stays lazy.
+     */
+    public static ProductFacetIndex build(List<Product> productList) {
+        List<Product> products = randomAccess(productList);
+        
+        // Single pass, so lazily materialized products are read once
+        DimensionBuilder categoryBuilder = new DimensionBuilder();
+        DimensionBuilder seriesBuilder = new DimensionBuilder();
+        DimensionBuilder specKeyBuilder = new DimensionBuilder();
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            categoryBuilder.add(product.category(), i, products.size());
+            seriesBuilder.add(product.series(), i, products.size());
+            if (product.specs() != null) {
+                for (String key : product.specs().specifications().keySet()) {
+                    specKeyBuilder.add(key, i, products.size());
+                }
+            }
+        }
+        return new ProductFacetIndex(products, categoryBuilder.build(), seriesBuilder.build(), specKeyBuilder.build());
+    }
+
+    /**
+     * Writes the bitmaps for a binary catalog snapshot; documents refer to positions in the product list.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(products.size());
+        for (Dimension dimension : List.of(categories, series, specKeys)) {
+            out.writeInt(dimension.displayNames().size());
+            for (Map.Entry<String, String> value : dimension.displayNames().entrySet()) {
+                BinaryUtils.writeString(out, value.getKey());
+                BinaryUtils.writeString(out, value.getValue());
+                BinaryUtils.writeLongs(out, dimension.bitmaps().get(value.getKey()).toLongArray());
+            }
+        }
+    }
+
+    /**
+     * Reads an index written by {@link #writeTo} for the same product list.
+     */
+    public static ProductFacetIndex readFrom(ByteBuffer in, List<Product> productList) {
+        int productCount = in.getInt();
+        if (productCount != productList.size()) {
+            throw new IllegalArgumentException("Facet index covers " + productCount
+                    + " products, expected " + productList.size());
+        }
+        Dimension[] dimensions = new Dimension[3];
+        for (int d = 0; d < dimensions.length; d++) {
+            int valueCount = in.getInt();
+            Map<String, BitSet> bitmaps = new HashMap<>(valueCount * 2);
+            Map<String, String> displayNames = new TreeMap<>();
+            for (int v = 0; v < valueCount; v++) {
+                String key = BinaryUtils.readString(in);
+                displayNames.put(key, BinaryUtils.readString(in));
+                bitmaps.put(key, BitSet.valueOf(BinaryUtils.readLongs(in)));
+            }
+            dimensions[d] = new Dimension(Map.copyOf(bitmaps), Collections.unmodifiableMap(displayNames));
+        }
+        return new ProductFacetIndex(randomAccess(productList), dimensions[0], dimensions[1], dimensions[2]);
+    }
+
+    /**
+     * Returns the positions of all products matching every given constraint.
+     * Null or blank values do not constrain; spec keys must all be present.
+     */
+    public BitSet filter(String category, String seriesName, Collection<String> requiredSpecKeys) {
+        return filter(category, seriesName, requiredSpecKeys, null);
+    }
+
+    /**
+     * Returns the positions of all products matching every given constraint and contained in {@code within}.
+     * A null {@code within} does not constrain, see {@link SpecRangeIndex#filter}.
+     */
+    public BitSet filter(String category, String seriesName, Collection<String> requiredSpecKeys, BitSet within) {
+        BitSet result = (BitSet) all.clone();
+        intersect(result, within);
+        intersect(result, categories.lookup(category));
+        intersect(result, series.lookup(seriesName));
+        if (requiredSpecKeys != null) {
+            for (String key : requiredSpecKeys) {
+                intersect(result, specKeys.lookup(key));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the products at the given positions.
+     */
+    public List<Product> products(BitSet positions) {
+        List<Product> result = new ArrayList<>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            result.add(products.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns facet counts for a filter.
+     * Category and series counts ignore their own constraint so alternatives stay selectable;
+     * spec key counts refer to the filtered result.
+     */
+    public ProductFacets facets(String category, String seriesName, Collection<String> requiredSpecKeys) {
+        return facets(category, seriesName, requiredSpecKeys, null);
+    }
+
+    /**
+     * Returns facet counts for a filter restricted to {@code within}.
+     */
+    public ProductFacets facets(String category, String seriesName, Collection<String> requiredSpecKeys,
+                                BitSet within) {
+        BitSet result = filter(category, seriesName, requiredSpecKeys, within);
+        return new ProductFacets(
+                categories.counts(filter(null, seriesName, requiredSpecKeys, within)),
+                series.counts(filter(category, null, requiredSpecKeys, within)),
+                specKeys.counts(result));
+    }
+
+    /**
+     * Returns all categories, sorted alphabetically.
+     */
+    public SortedSet<String> categories() {
+        return categories.values();
+    }
+
+    /**
+     * Returns all series, sorted alphabetically.
+     */
+    public SortedSet<String> series() {
+        return series.values();
+    }
+
+    private static void intersect(BitSet target, BitSet constraint) {
+        if (constraint != null) {
+            target.and(constraint);
+        }
+    }
+
+    private static List<Product> randomAccess(List<Product> products) {
+        return products instanceof RandomAccess ? products : new ArrayList<>(products);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
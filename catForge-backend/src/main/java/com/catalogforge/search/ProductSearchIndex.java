@@ -0,0 +1,254 @@
+package com.catalogforge.search;
+
+import com.catalogforge.model.Product;
+import com.catalogforge.util.BinaryUtils;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Immutable inverted index over the searchable product fields.
+ * Terms are kept in a sorted dictionary so prefix queries are a binary search plus a range scan.
+ * Results are ranked with BM25 over field-weighted term frequencies; every query term must match.
+ */
+public final class ProductSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    
+    // Query terms shorter than this only match exactly
+    private static final int MIN_PREFIX_LENGTH = 2;
+    // Score factor for terms matched by prefix rather than exactly
+    private static final float PREFIX_WEIGHT = 0.8f;
+
+    /**
+     * A searchable product field and its BM25 weight.
+     */
+    private record Field(Function<Product, String> accessor, float weight) {}
+
+    private static final List<Field> FIELDS = List.of(
+            new Field(Product::name, 3.0f),
+            new Field(Product::series, 2.5f),
+            new Field(Product::category, 2.0f),
+            new Field(Product::shortDescription, 1.5f),
+            new Field(Product::description, 1.0f));
+
+    private final List<Product> products;
+    private final String[] terms;
+    private final int[][] postingDocs;
+    private final float[][] postingWeights;
+    private final float[] docLengths;
+    private final float avgDocLength;
+
+    private ProductSearchIndex(List<Product> products, String[] terms, int[][] postingDocs,
+                               float[][] postingWeights, float[] docLengths, float avgDocLength) {
+        this.products = products;
+        this.terms = terms;
+        this.postingDocs = postingDocs;
+        this.postingWeights = postingWeights;
+        this.docLengths = docLengths;
+        this.avgDocLength = avgDocLength;
+    }
+
+    /**
+     * Builds the index for a product list. Document IDs are positions in the list.
+     * Random-access lists are referenced rather than copied, so a lazily materializing list stays lazy.
+     */
+    public static ProductSearchIndex build(List<Product> productList) {
+        List<Product> products = randomAccess(productList);
+        float[] docLengths = new float[products.size()];
+        
+        // term -> (doc -> weighted term frequency), docs ascending
+        Map<String, LinkedHashMap<Integer, Float>> postings = new HashMap<>();
+        float totalLength = 0;
+        for (int doc = 0; doc < products.size(); doc++) {
+            Product product = products.get(doc);
+            for (Field field : FIELDS) {
+                for (String token : GermanAnalyzer.tokenize(field.accessor().apply(product))) {
+                    postings.computeIfAbsent(token, t -> new LinkedHashMap<>())
+                            .merge(doc, field.weight(), Float::sum);
+                    docLengths[doc] += field.weight();
+                }
+            }
+            totalLength += docLengths[doc];
+        }
+        
+        String[] terms = postings.keySet().toArray(String[]::new);
+        Arrays.sort(terms);
+        int[][] postingDocs = new int[terms.length][];
+        float[][] postingWeights = new float[terms.length][];
+        for (int t = 0; t < terms.length; t++) {
+            Map<Integer, Float> posting = postings.get(terms[t]);
+            postingDocs[t] = new int[posting.size()];
+            postingWeights[t] = new float[posting.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Float> entry : posting.entrySet()) {
+                postingDocs[t][i] = entry.getKey();
+                postingWeights[t][i++] = entry.getValue();
+            }
+        }
+        
+        float avgDocLength = products.size() > 0 ? totalLength / products.size() : 0;
+        return new ProductSearchIndex(products, terms, postingDocs, postingWeights, docLengths, avgDocLength);
+    }
+
+    /**
+     * Writes the dictionary and postings for a binary catalog snapshot.
+     * Products are not written; documents refer to positions in the product list.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(terms.length);
+        for (int t = 0; t < terms.length; t++) {
+            BinaryUtils.writeString(out, terms[t]);
+            BinaryUtils.writeInts(out, postingDocs[t]);
+            BinaryUtils.writeFloats(out, postingWeights[t]);
+        }
+        BinaryUtils.writeFloats(out, docLengths);
+        out.writeFloat(avgDocLength);
+    }
+
+    /**
+     * Reads an index written by {@link #writeTo} for the same product list.
+     */
+    public static ProductSearchIndex readFrom(ByteBuffer in, List<Product> productList) {
+        int termCount = in.getInt();
+        String[] terms = new String[termCount];
+        int[][] postingDocs = new int[termCount][];
+        float[][] postingWeights = new float[termCount][];
+        for (int t = 0; t < termCount; t++) {
+            terms[t] = BinaryUtils.readString(in);
+            postingDocs[t] = BinaryUtils.readInts(in);
+            postingWeights[t] = BinaryUtils.readFloats(in);
+        }
+        float[] docLengths = BinaryUtils.readFloats(in);
+        float avgDocLength = in.getFloat();
+        if (docLengths.length != productList.size()) {
+            throw new IllegalArgumentException("Search index covers " + docLengths.length
+                    + " products, expected " + productList.size());
+        }
+        return new ProductSearchIndex(randomAccess(productList), terms, postingDocs,
+                postingWeights, docLengths, avgDocLength);
+    }
+
+    /**
+     * Returns the products matching every term of the query, best match first.
+     * Query terms of at least two characters also match as a prefix.
+     * Stopwords are ignored unless the query consists of stopwords only.
+     */
+    public List<Product> search(String query) {
+        List<String> queryTerms = queryTerms(query);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        
+        float[] scores = new float[products.size()];
+        int[] matched = new int[products.size()];
+        for (int q = 0; q < queryTerms.size(); q++) {
+            if (!scoreTerm(queryTerms.get(q), q, scores, matched)) {
+                return List.of();
+            }
+        }
+        
+        int required = queryTerms.size();
+        List<Integer> hits = new ArrayList<>();
+        for (int doc = 0; doc < products.size(); doc++) {
+            if (matched[doc] == required) {
+                hits.add(doc);
+            }
+        }
+        hits.sort((a, b) -> {
+            int byScore = Float.compare(scores[b], scores[a]);
+            return byScore != 0 ? byScore : Integer.compare(a, b);
+        });
+        
+        List<Product> results = new ArrayList<>(hits.size());
+        for (int doc : hits) {
+            results.add(products.get(doc));
+        }
+        return results;
+    }
+
+    /**
+     * Returns the number of distinct terms in the index.
+     */
+    public int termCount() {
+        return terms.length;
+    }
+
+    /**
+     * Adds the BM25 contribution of one query term and marks the documents it matched.
+     * {@code matched} counts matched query terms per document; only documents that matched
+     * all previous terms are advanced, which keeps the AND semantics without extra sets.
+     *
+     * @return false if the term matches no document
+     */
+    private boolean scoreTerm(String queryTerm, int position, float[] scores, int[] matched) {
+        int from = lowerBound(queryTerm);
+        int to = queryTerm.length() >= MIN_PREFIX_LENGTH
+                ? prefixEnd(queryTerm, from)
+                : (from < terms.length && terms[from].equals(queryTerm) ? from + 1 : from);
+        if (from >= to) {
+            return false;
+        }
+        
+        boolean any = false;
+        float[] best = new float[products.size()];
+        for (int t = from; t < to; t++) {
+            float boost = terms[t].equals(queryTerm) ? 1.0f : PREFIX_WEIGHT;
+            float idf = idf(postingDocs[t].length);
+            for (int i = 0; i < postingDocs[t].length; i++) {
+                int doc = postingDocs[t][i];
+                if (matched[doc] != position) {
+                    continue;
+                }
+                float tf = postingWeights[t][i];
+                float norm = K1 * (1 - B + B * docLengths[doc] / avgDocLength);
+                best[doc] = Math.max(best[doc], boost * idf * tf * (K1 + 1) / (tf + norm));
+            }
+        }
+        
+        // A query term counts once per document, with its best-scoring expansion
+        for (int doc = 0; doc < products.size(); doc++) {
+            if (best[doc] > 0) {
+                scores[doc] += best[doc];
+                matched[doc]++;
+                any = true;
+            }
+        }
+        return any;
+    }
+
+    private float idf(int docFrequency) {
+        return (float) Math.log(1 + (products.size() - docFrequency + 0.5) / (docFrequency + 0.5));
+    }
+
+    private int lowerBound(String key) {
+        int index = Arrays.binarySearch(terms, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Returns the end of the sorted range of terms starting with the prefix. The range is not
+     * capped: dropping expansions would drop documents and, with AND semantics, real matches.
+     */
+    private int prefixEnd(String prefix, int from) {
+        int to = lowerBound(prefix + Character.MAX_VALUE);
+        return Math.max(from, to);
+    }
+
+    private static List<Product> randomAccess(List<Product> products) {
+        return products instanceof RandomAccess ? products : new ArrayList<>(products);
+    }
+
+    private static List<String> queryTerms(String query) {
+        List<String> tokens = GermanAnalyzer.tokenize(query);
+        List<String> withoutStopwords = tokens.stream()
+                .filter(token -> !GermanAnalyzer.isStopword(token))
+                .distinct()
+                .toList();
+        return withoutStopwords.isEmpty() ? tokens.stream().distinct().toList() : withoutStopwords;
+    }
+}
@@ -0,0 +1,389 @@
+package com.catalogforge.search;
+
+import com.catalogforge.model.Product;
+import com.catalogforge.util.BinaryUtils;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Immutable nearest-neighbour index over TF-IDF product vectors.
+ * Features (text tokens, category, series, spec keys and bucketed spec values) are hashed into a
+ * fixed space, so vectors are sparse primitive arrays. Each vector also gets a 64-bit SimHash
+ * signature; a query ranks all signatures by Hamming distance and only re-scores the closest
+ * candidates with the exact cosine similarity.
+ */
+public final class ProductSimilarityIndex {
+
+    private static final int DIMENSIONS = 1 << 18;
+    private static final int CANDIDATES_PER_RESULT = 8;
+    private static final int MIN_CANDIDATES = 64;
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float HIGHLIGHT_WEIGHT = 1.5f;
+    private static final float TEXT_WEIGHT = 1f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float SERIES_WEIGHT = 2f;
+    private static final float SPEC_WEIGHT = 1f;
+
+    /** Width of a spec value bucket: values within about 25% of each other share a feature. */
+    private static final double SPEC_BUCKET_BASE = Math.log(1.25);
+
+    /**
+     * A neighbour of a query product.
+     *
+     * @param position product position in the indexed list
+     * @param score    cosine similarity in (0, 1]
+     */
+    public record Neighbour(int position, double score) {}
+
+    private final int[][] dimensions;
+    private final float[][] weights;
+    private final long[] signatures;
+
+    private ProductSimilarityIndex(int[][] dimensions, float[][] weights, long[] signatures) {
+        this.dimensions = dimensions;
+        this.weights = weights;
+        this.signatures = signatures;
+    }
+
+    /**
+     * Builds the index for a product list; positions refer to the list.
+     */
+    public static ProductSimilarityIndex build(List<Product> products) {
+        int n = products.size();
+        int[][] dimensions = new int[n][];
+        float[][] weights = new float[n][];
+        int[] documentFrequency = new int[DIMENSIONS];
+
+        Features features = new Features();
+        for (int i = 0; i < n; i++) {
+            features.clear();
+            collect(products.get(i), features);
+            dimensions[i] = features.dimensions();
+            weights[i] = features.weights();
+            for (int dimension : dimensions[i]) {
+                documentFrequency[dimension]++;
+            }
+        }
+
+        long[] signatures = new long[n];
+        for (int i = 0; i < n; i++) {
+            int[] dims = dimensions[i];
+            float[] values = weights[i];
+            double norm = 0;
+            for (int k = 0; k < dims.length; k++) {
+                double idf = Math.log((n + 1.0) / (documentFrequency[dims[k]] + 1.0)) + 1.0;
+                values[k] = (float) ((1.0 + Math.log(values[k])) * idf);
+                norm += values[k] * values[k];
+            }
+            if (norm > 0) {
+                float scale = (float) (1.0 / Math.sqrt(norm));
+                for (int k = 0; k < values.length; k++) {
+                    values[k] *= scale;
+                }
+            }
+            signatures[i] = simHash(dims, values);
+        }
+        return new ProductSimilarityIndex(dimensions, weights, signatures);
+    }
+
+    /**
+     * Writes the vectors and signatures for a binary catalog snapshot.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(signatures.length);
+        for (int i = 0; i < signatures.length; i++) {
+            BinaryUtils.writeInts(out, dimensions[i]);
+            BinaryUtils.writeFloats(out, weights[i]);
+        }
+        BinaryUtils.writeLongs(out, signatures);
+    }
+
+    /**
+     * Reads an index written by {@link #writeTo} for the same product list.
+     */
+    public static ProductSimilarityIndex readFrom(ByteBuffer in, List<Product> products) {
+        int n = in.getInt();
+        if (n != products.size()) {
+            throw new IllegalArgumentException("Similarity index covers " + n
+                    + " products, expected " + products.size());
+        }
+        int[][] dimensions = new int[n][];
+        float[][] weights = new float[n][];
+        for (int i = 0; i < n; i++) {
+            dimensions[i] = BinaryUtils.readInts(in);
+            weights[i] = BinaryUtils.readFloats(in);
+        }
+        return new ProductSimilarityIndex(dimensions, weights, BinaryUtils.readLongs(in));
+    }
+
+    /**
+     * Returns up to {@code limit} products most similar to the product at {@code position},
+     * best first. The product itself and products without any shared feature are left out.
+     */
+    public List<Neighbour> nearest(int position, int limit) {
+        if (limit <= 0 || signatures.length < 2) {
+            return List.of();
+        }
+        int[] candidates = candidates(position, Math.max(MIN_CANDIDATES, limit * CANDIDATES_PER_RESULT));
+
+        List<Neighbour> neighbours = new ArrayList<>(candidates.length);
+        for (int candidate : candidates) {
+            double score = cosine(position, candidate);
+            if (score > 0) {
+                neighbours.add(new Neighbour(candidate, score));
+            }
+        }
+        neighbours.sort(Comparator.comparingDouble(Neighbour::score).reversed()
+                .thenComparingInt(Neighbour::position));
+        return neighbours.size() > limit ? List.copyOf(neighbours.subList(0, limit)) : List.copyOf(neighbours);
+    }
+
+    /**
+     * Suggests a group of {@code size} products around a seed for a multi-product layout.
+     * Starting from the seed, the candidate with the highest mean similarity to the products
+     * already in the group is added until the group is full or no related product is left.
+     *
+     * @return positions in the order they joined the group, starting with the seed
+     */
+    public int[] group(int position, int size) {
+        List<Neighbour> pool = new ArrayList<>(nearest(position, Math.max(size * CANDIDATES_PER_RESULT, size)));
+        int[] group = new int[Math.min(size, pool.size() + 1)];
+        group[0] = position;
+
+        for (int filled = 1; filled < group.length; filled++) {
+            int best = -1;
+            double bestScore = 0;
+            for (int c = 0; c < pool.size(); c++) {
+                double total = 0;
+                for (int g = 0; g < filled; g++) {
+                    total += cosine(group[g], pool.get(c).position());
+                }
+                if (total / filled > bestScore) {
+                    bestScore = total / filled;
+                    best = c;
+                }
+            }
+            if (best < 0) {
+                return Arrays.copyOf(group, filled);
+            }
+            group[filled] = pool.remove(best).position();
+        }
+        return group;
+    }
+
+    /**
+     * Returns the mean pairwise cosine similarity of the given products, or 0 for fewer than two.
+     */
+    public double cohesion(int[] positions) {
+        if (positions.length < 2) {
+            return 0;
+        }
+        double total = 0;
+        int pairs = 0;
+        for (int a = 0; a < positions.length; a++) {
+            for (int b = a + 1; b < positions.length; b++) {
+                total += cosine(positions[a], positions[b]);
+                pairs++;
+            }
+        }
+        return total / pairs;
+    }
+
+    /**
+     * Returns the exact cosine similarity of two indexed products.
+     */
+    public double cosine(int a, int b) {
+        int[] dimsA = dimensions[a];
+        int[] dimsB = dimensions[b];
+        float[] valuesA = weights[a];
+        float[] valuesB = weights[b];
+        double dot = 0;
+        int i = 0;
+        int j = 0;
+        while (i < dimsA.length && j < dimsB.length) {
+            if (dimsA[i] == dimsB[j]) {
+                dot += valuesA[i++] * valuesB[j++];
+            } else if (dimsA[i] < dimsB[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Math.min(1.0, dot);
+    }
+
+    public int size() {
+        return signatures.length;
+    }
+
+    /**
+     * Returns the positions with the smallest signature distance to the query, ordered by distance
+     * and then by position. Distances are computed once and counting-sorted into their buckets,
+     * so the selection is linear in the catalog size.
+     */
+    private int[] candidates(int position, int count) {
+        long signature = signatures[position];
+        byte[] distances = new byte[signatures.length];
+        int[] perDistance = new int[65];
+        for (int i = 0; i < signatures.length; i++) {
+            if (i != position) {
+                int distance = Long.bitCount(signature ^ signatures[i]);
+                distances[i] = (byte) distance;
+                perDistance[distance]++;
+            }
+        }
+
+        int[] candidates = new int[Math.min(count, signatures.length - 1)];
+        // Counting sort: next[d] is the next free slot for distance d; slots past the candidate count are dropped
+        int[] next = new int[65];
+        int offset = 0;
+        for (int d = 0; d < next.length; d++) {
+            next[d] = offset;
+            offset += perDistance[d];
+        }
+        for (int i = 0; i < signatures.length; i++) {
+            if (i != position) {
+                int slot = next[distances[i]]++;
+                if (slot < candidates.length) {
+                    candidates[slot] = i;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static void collect(Product product, Features features) {
+        addText(features, product.name(), NAME_WEIGHT);
+        addText(features, product.shortDescription(), TEXT_WEIGHT);
+        addText(features, product.description(), TEXT_WEIGHT);
+        addText(features, product.longDescription(), TEXT_WEIGHT);
+        if (product.highlights() != null) {
+            product.highlights().forEach(highlight -> addText(features, highlight, HIGHLIGHT_WEIGHT));
+        }
+        if (product.category() != null) {
+            features.add("category:" + product.category().toLowerCase(Locale.ROOT), CATEGORY_WEIGHT);
+        }
+        if (product.series() != null) {
+            features.add("series:" + product.series().toLowerCase(Locale.ROOT), SERIES_WEIGHT);
+        }
+        if (product.specs() != null) {
+            product.specs().specifications().forEach((key, value) -> {
+                String normalized = key.toLowerCase(Locale.ROOT);
+                features.add("spec:" + normalized, SPEC_WEIGHT);
+                features.add("spec:" + normalized + "=" + specValue(normalized, value), SPEC_WEIGHT);
+            });
+        }
+    }
+
+    private static String specValue(String key, String value) {
+        OptionalDouble number = SpecValueParser.parse(key, value);
+        if (number.isPresent() && number.getAsDouble() > 0) {
+            return "#" + Math.round(Math.log(number.getAsDouble()) / SPEC_BUCKET_BASE);
+        }
+        return String.join(" ", GermanAnalyzer.tokenize(value));
+    }
+
+    private static void addText(Features features, String text, float weight) {
+        for (String token : GermanAnalyzer.tokenize(text)) {
+            if (token.length() > 1 && !GermanAnalyzer.isStopword(token)) {
+                features.add(token, weight);
+            }
+        }
+    }
+
+    /**
+     * Reusable buffer of hashed feature occurrences. Each occurrence is packed into a long with the
+     * dimension in the high and the float weight bits in the low half, so sorting groups equal dimensions.
+     */
+    private static final class Features {
+
+        private long[] entries = new long[256];
+        private int size;
+        private int distinct;
+
+        void clear() {
+            size = 0;
+            distinct = 0;
+        }
+
+        void add(String feature, float weight) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            long dimension = Math.floorMod(mix(feature.hashCode()), DIMENSIONS);
+            entries[size++] = dimension << 32 | Float.floatToRawIntBits(weight) & 0xffffffffL;
+        }
+
+        /**
+         * Returns the distinct dimensions in ascending order; sums the weights of repeated features.
+         */
+        int[] dimensions() {
+            Arrays.sort(entries, 0, size);
+            distinct = 0;
+            for (int i = 0; i < size; i++) {
+                int dimension = (int) (entries[i] >>> 32);
+                float weight = Float.intBitsToFloat((int) entries[i]);
+                if (distinct > 0 && (int) (entries[distinct - 1] >>> 32) == dimension) {
+                    weight += Float.intBitsToFloat((int) entries[distinct - 1]);
+                    distinct--;
+                }
+                entries[distinct++] = (long) dimension << 32 | Float.floatToRawIntBits(weight) & 0xffffffffL;
+            }
+            int[] dimensions = new int[distinct];
+            for (int i = 0; i < distinct; i++) {
+                dimensions[i] = (int) (entries[i] >>> 32);
+            }
+            return dimensions;
+        }
+
+        /**
+         * Returns the summed weights matching {@link #dimensions()}, which must be called first.
+         */
+        float[] weights() {
+            float[] weights = new float[distinct];
+            for (int i = 0; i < distinct; i++) {
+                weights[i] = Float.intBitsToFloat((int) entries[i]);
+            }
+            return weights;
+        }
+    }
+
+    /**
+     * Random-hyperplane signature: bit b is set if the weighted sum of the pseudo-random
+     * signs of all dimensions for b is positive.
+     */
+    private static long simHash(int[] dims, float[] values) {
+        double[] sums = new double[64];
+        for (int k = 0; k < dims.length; k++) {
+            long bits = mix64(dims[k] + 0x9e3779b97f4a7c15L);
+            for (int b = 0; b < 64; b++) {
+                sums[b] += ((bits >>> b) & 1) != 0 ? values[k] : -values[k];
+            }
+        }
+        long signature = 0;
+        for (int b = 0; b < 64; b++) {
+            if (sums[b] > 0) {
+                signature |= 1L << b;
+            }
+        }
+        return signature;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
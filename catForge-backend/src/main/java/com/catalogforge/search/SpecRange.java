@@ -0,0 +1,86 @@
+package com.catalogforge.search;
+
+import com.catalogforge.exception.InvalidQueryException;
+
+import java.util.Locale;
+import java.util.OptionalDouble;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A numeric constraint on one spec key. Bounds are in the unit of the key and may be open.
+ *
+ * Accepted forms: {@code key:min..max}, {@code key:min..}, {@code key:..max}, {@code key:value},
+ * {@code key>value}, {@code key>=value}, {@code key<value}, {@code key<=value}.
+ * Bounds may carry a unit of the same dimension, e.g. {@code gesamtgewicht_t<18000kg}.
+ */
+public record SpecRange(
+    String key,
+    double min,
+    boolean minInclusive,
+    double max,
+    boolean maxInclusive
+) {
+    private static final Pattern COMPARISON = Pattern.compile("([\\w.-]+)\\s*(<=|>=|<|>)\\s*(.+)");
+    private static final Pattern INTERVAL = Pattern.compile("([\\w.-]+)\\s*:\\s*(.*)");
+
+    /**
+     * Parses a range expression.
+     *
+     * @throws InvalidQueryException if the expression is malformed
+     */
+    public static SpecRange parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new InvalidQueryException("Empty range expression");
+        }
+        String text = expression.trim();
+        
+        Matcher comparison = COMPARISON.matcher(text);
+        if (comparison.matches()) {
+            String key = normalizeKey(comparison.group(1));
+            double value = bound(key, comparison.group(3), expression);
+            return switch (comparison.group(2)) {
+                case ">" -> new SpecRange(key, value, false, Double.POSITIVE_INFINITY, true);
+                case ">=" -> new SpecRange(key, value, true, Double.POSITIVE_INFINITY, true);
+                case "<" -> new SpecRange(key, Double.NEGATIVE_INFINITY, true, value, false);
+                default -> new SpecRange(key, Double.NEGATIVE_INFINITY, true, value, true);
+            };
+        }
+        
+        Matcher interval = INTERVAL.matcher(text);
+        if (!interval.matches()) {
+            throw new InvalidQueryException("Invalid range expression: " + expression);
+        }
+        String key = normalizeKey(interval.group(1));
+        String bounds = interval.group(2).trim();
+        int separator = bounds.indexOf("..");
+        if (separator < 0) {
+            double value = bound(key, bounds, expression);
+            return new SpecRange(key, value, true, value, true);
+        }
+        
+        String lower = bounds.substring(0, separator).trim();
+        String upper = bounds.substring(separator + 2).trim();
+        if (lower.isEmpty() && upper.isEmpty()) {
+            throw new InvalidQueryException("Range needs at least one bound: " + expression);
+        }
+        double min = lower.isEmpty() ? Double.NEGATIVE_INFINITY : bound(key, lower, expression);
+        double max = upper.isEmpty() ? Double.POSITIVE_INFINITY : bound(key, upper, expression);
+        if (min > max) {
+            throw new InvalidQueryException("Range minimum exceeds maximum: " + expression);
+        }
+        return new SpecRange(key, min, true, max, true);
+    }
+
+    private static double bound(String key, String text, String expression) {
+        OptionalDouble value = SpecValueParser.parse(key, text);
+        if (value.isEmpty()) {
+            throw new InvalidQueryException("Invalid bound '" + text.trim() + "' in range: " + expression);
+        }
+        return value.getAsDouble();
+    }
+
+    private static String normalizeKey(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+}
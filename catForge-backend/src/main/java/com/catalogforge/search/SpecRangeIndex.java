@@ -0,0 +1,169 @@
+package com.catalogforge.search;
+
+import com.catalogforge.model.Product;
+import com.catalogforge.util.BinaryUtils;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Immutable index of numeric spec values for range queries.
+ * Per spec key, parsed values are stored as a sorted primitive array alongside the product positions,
+ * so a range query is two binary searches plus a scan of the matching slice.
+ */
+public final class SpecRangeIndex {
+
+    /**
+     * Sorted values of one spec key and the product position of each value.
+     */
+    private record Column(double[] values, int[] positions) {}
+
+    private final int productCount;
+    private final Map<String, Column> columns;
+
+    private SpecRangeIndex(int productCount, Map<String, Column> columns) {
+        this.productCount = productCount;
+        this.columns = columns;
+    }
+
+    /**
+     * Builds the index for a product list; positions refer to the list.
+     * Spec values that do not start with a number are left out.
+     */
+    public static SpecRangeIndex build(List<Product> products) {
+        Map<String, List<double[]>> entries = new HashMap<>();
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            if (product.specs() == null) {
+                continue;
+            }
+            for (Map.Entry<String, String> spec : product.specs().specifications().entrySet()) {
+                String key = spec.getKey().toLowerCase(Locale.ROOT);
+                OptionalDouble value = SpecValueParser.parse(key, spec.getValue());
+                if (value.isPresent()) {
+                    entries.computeIfAbsent(key, k -> new ArrayList<>()).add(new double[] {value.getAsDouble(), i});
+                }
+            }
+        }
+        
+        Map<String, Column> columns = new HashMap<>();
+        entries.forEach((key, list) -> {
+            list.sort(Comparator.comparingDouble(entry -> entry[0]));
+            double[] values = new double[list.size()];
+            int[] positions = new int[list.size()];
+            for (int i = 0; i < list.size(); i++) {
+                values[i] = list.get(i)[0];
+                positions[i] = (int) list.get(i)[1];
+            }
+            columns.put(key, new Column(values, positions));
+        });
+        return new SpecRangeIndex(products.size(), Map.copyOf(columns));
+    }
+
+    /**
+     * Writes the spec columns for a binary catalog snapshot.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(productCount);
+        out.writeInt(columns.size());
+        for (Map.Entry<String, Column> column : new TreeMap<>(columns).entrySet()) {
+            BinaryUtils.writeString(out, column.getKey());
+            BinaryUtils.writeDoubles(out, column.getValue().values());
+            BinaryUtils.writeInts(out, column.getValue().positions());
+        }
+    }
+
+    /**
+     * Reads an index written by {@link #writeTo}.
+     */
+    public static SpecRangeIndex readFrom(ByteBuffer in) {
+        int productCount = in.getInt();
+        int columnCount = in.getInt();
+        Map<String, Column> columns = new HashMap<>(columnCount * 2);
+        for (int i = 0; i < columnCount; i++) {
+            String key = BinaryUtils.readString(in);
+            columns.put(key, new Column(BinaryUtils.readDoubles(in), BinaryUtils.readInts(in)));
+        }
+        return new SpecRangeIndex(productCount, Map.copyOf(columns));
+    }
+
+    /**
+     * Returns the positions of products satisfying all ranges, or null if there are no ranges.
+     * Products without a numeric value for a key never match a range on that key.
+     */
+    public BitSet filter(Collection<SpecRange> ranges) {
+        if (ranges == null || ranges.isEmpty()) {
+            return null;
+        }
+        BitSet result = null;
+        for (SpecRange range : ranges) {
+            BitSet matches = match(range);
+            if (result == null) {
+                result = matches;
+            } else {
+                result.and(matches);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the numeric spec keys with their smallest and largest value.
+     */
+    public Map<String, double[]> bounds() {
+        Map<String, double[]> bounds = new TreeMap<>();
+        columns.forEach((key, column) ->
+                bounds.put(key, new double[] {column.values()[0], column.values()[column.values().length - 1]}));
+        return bounds;
+    }
+
+    private BitSet match(SpecRange range) {
+        BitSet matches = new BitSet(productCount);
+        Column column = columns.get(range.key());
+        if (column == null) {
+            return matches;
+        }
+        
+        double[] values = column.values();
+        int from = range.minInclusive()
+                ? firstAtLeast(values, range.min())
+                : firstAbove(values, range.min());
+        int to = range.maxInclusive()
+                ? firstAbove(values, range.max())
+                : firstAtLeast(values, range.max());
+        for (int i = from; i < to; i++) {
+            matches.set(column.positions()[i]);
+        }
+        return matches;
+    }
+
+    private static int firstAtLeast(double[] values, double bound) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < bound) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int firstAbove(double[] values, double bound) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= bound) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,129 @@
+package com.catalogforge.search;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses numeric specification values such as "530", "2.600 Nm", "15.6" or "0.04 km/h".
+ * The unit of a spec is taken from its key suffix ("leistung_ps" → PS); values or query bounds
+ * given in another unit of the same dimension are converted to it. Only a number, optionally
+ * followed by a known unit, is numeric: "4x2" or "4-Gang" are not.
+ */
+public final class SpecValueParser {
+
+    private static final Pattern NUMBER = Pattern.compile("(-?\\d[\\d.,]*)\\s*([\\p{L}%/³0-9]*)");
+    private static final Pattern GROUPED_THOUSANDS = Pattern.compile("-?[1-9]\\d{0,2}(\\.\\d{3})+");
+
+    /**
+     * A unit with its physical dimension and factor to the dimension's base unit.
+     * Values in integral units are whole numbers in practice, so "2.600 Nm" is read as thousands.
+     */
+    private record Unit(String dimension, double factor, boolean integral) {}
+
+    private static final Map<String, Unit> UNITS = Map.ofEntries(
+            Map.entry("kw", new Unit("power", 1, true)),
+            Map.entry("ps", new Unit("power", 0.73549875, true)),
+            Map.entry("hp", new Unit("power", 0.7457, true)),
+            Map.entry("kg", new Unit("mass", 1, true)),
+            Map.entry("t", new Unit("mass", 1000, false)),
+            Map.entry("mm", new Unit("length", 1, true)),
+            Map.entry("cm", new Unit("length", 10, false)),
+            Map.entry("m", new Unit("length", 1000, false)),
+            Map.entry("km", new Unit("length", 1_000_000, false)),
+            Map.entry("l", new Unit("volume", 1, false)),
+            Map.entry("m3", new Unit("volume", 1000, false)),
+            Map.entry("m³", new Unit("volume", 1000, false)),
+            Map.entry("nm", new Unit("torque", 1, true)),
+            Map.entry("kwh", new Unit("energy", 1, false)),
+            Map.entry("kmh", new Unit("speed", 1, false)),
+            Map.entry("km/h", new Unit("speed", 1, false)),
+            Map.entry("v", new Unit("voltage", 1, true)),
+            Map.entry("prozent", new Unit("ratio", 1, false)),
+            Map.entry("%", new Unit("ratio", 1, false)));
+
+    private SpecValueParser() {
+        // Utility class
+    }
+
+    /**
+     * Parses a spec value into the unit of its key.
+     *
+     * @return the value, or empty if the text is not a number with an optional known unit,
+     *         or the unit is incompatible
+     */
+    public static OptionalDouble parse(String key, String text) {
+        if (text == null) {
+            return OptionalDouble.empty();
+        }
+        Matcher matcher = NUMBER.matcher(text.trim());
+        if (!matcher.matches()) {
+            return OptionalDouble.empty();
+        }
+        
+        String unit = matcher.group(2).toLowerCase(Locale.ROOT);
+        Unit given = UNITS.get(unit);
+        if (given == null && !unit.isEmpty()) {
+            return OptionalDouble.empty();
+        }
+        
+        Unit target = unitOfKey(key);
+        Unit unitOfValue = given != null ? given : target;
+        Double number = parseNumber(matcher.group(1), unitOfValue != null && unitOfValue.integral());
+        if (number == null) {
+            return OptionalDouble.empty();
+        }
+        
+        if (given == null || target == null) {
+            return OptionalDouble.of(number);
+        }
+        if (!given.dimension().equals(target.dimension())) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(number * given.factor() / target.factor());
+    }
+
+    /**
+     * Returns the unit suffix of a spec key, or null if the key has no known unit.
+     */
+    public static String unitSuffix(String key) {
+        int underscore = key.lastIndexOf('_');
+        if (underscore < 0) {
+            return null;
+        }
+        String suffix = key.substring(underscore + 1).toLowerCase(Locale.ROOT);
+        return UNITS.containsKey(suffix) ? suffix : null;
+    }
+
+    private static Unit unitOfKey(String key) {
+        String suffix = unitSuffix(key);
+        return suffix != null ? UNITS.get(suffix) : null;
+    }
+
+    /**
+     * Parses German or English number formatting: "2.600,5" and "1.200.000" use "." for thousands,
+     * "15.6" and "0.125" use it as decimal point. A single group like "2.600" is only read as
+     * thousands in an integral unit, so "1.250 t" stays 1.25.
+     */
+    private static Double parseNumber(String raw, boolean integral) {
+        String normalized;
+        if (raw.indexOf(',') >= 0) {
+            normalized = raw.replace(".", "").replace(',', '.');
+        } else if (GROUPED_THOUSANDS.matcher(raw).matches()
+                && (integral || raw.indexOf('.') != raw.lastIndexOf('.'))) {
+            normalized = raw.replace(".", "");
+        } else {
+            normalized = raw;
+        }
+        if (normalized.endsWith(".")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        try {
+            return Double.parseDouble(normalized);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,20 +1,27 @@
 package com.catalogforge.service;
 
+import com.catalogforge.config.properties.ImageProperties;
 import com.catalogforge.exception.ImageUploadException;
 import com.catalogforge.exception.ResourceNotFoundException;
+import com.catalogforge.gemini.ImagePreprocessor;
+import com.catalogforge.model.ImageData;
+import com.catalogforge.model.ImageFingerprint;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for temporary image storage and management.
+ * Images are held in a {@link TieredImageStore} with a bounded memory tier that spills to disk.
+ * Each upload is fingerprinted once, so later vision analyses of it need not decode it again.
  */
 @Service
 public class ImageService {
@@ -25,13 +32,27 @@ public class ImageService {
             "image/jpeg", "image/png", "image/webp"
     );
     private static final long MAX_SIZE_BYTES = 10 * 1024 * 1024; // 10MB
-    private static final int URL_VALIDITY_HOURS = 24;
 
-    private final Map<String, StoredImage> imageStore = new ConcurrentHashMap<>();
+    private final TieredImageStore imageStore;
+    private final ImagePreprocessor preprocessor;
     private final String baseUrl;
+    private final int urlValidityHours;
 
-    public ImageService(@Value("${catalogforge.base-url:http://localhost:8080}") String baseUrl) {
+    public ImageService(@Value("${catalogforge.base-url:http://localhost:8080}") String baseUrl,
+                        ImageProperties properties, ImagePreprocessor preprocessor) {
         this.baseUrl = baseUrl;
+        this.preprocessor = preprocessor;
+        this.urlValidityHours = properties.expirationHours();
+        this.imageStore = new TieredImageStore(properties.memoryLimitBytes(),
+                properties.diskLimitBytes(), Path.of(properties.tempDir(), "spill"));
+    }
+
+    /**
+     * Deletes spilled image files on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        imageStore.clear();
     }
 
     /**
@@ -44,12 +65,24 @@ public class ImageService {
      */
     public String upload(String base64Data, String mimeType, String filename) {
         validateMimeType(mimeType);
-        
-        byte[] data = Base64.getDecoder().decode(base64Data);
+        return upload(decodeBase64(base64Data), mimeType, filename);
+    }
+
+    /**
+     * Uploads and stores raw image bytes temporarily; the array is stored without copying.
+     * 
+     * @param data Image bytes
+     * @param mimeType Image MIME type
+     * @param filename Original filename (optional)
+     * @return The generated image ID
+     */
+    public String upload(byte[] data, String mimeType, String filename) {
+        validateMimeType(mimeType);
         validateSize(data.length);
         
         String imageId = UUID.randomUUID().toString();
-        Instant expiresAt = Instant.now().plus(URL_VALIDITY_HOURS, ChronoUnit.HOURS);
+        Instant expiresAt = Instant.now().plus(urlValidityHours, ChronoUnit.HOURS);
+        ImageFingerprint fingerprint = preprocessor.fingerprint(ImageData.ofBytes(data, mimeType));
         
         StoredImage image = new StoredImage(
                 imageId,
@@ -57,10 +90,11 @@ public class ImageService {
                 mimeType,
                 filename,
                 Instant.now(),
-                expiresAt
+                expiresAt,
+                fingerprint
         );
         
-        imageStore.put(imageId, image);
+        imageStore.put(image);
         log.info("Image uploaded: id={}, size={} bytes, mimeType={}", 
                 imageId, data.length, mimeType);
         
@@ -71,7 +105,7 @@ public class ImageService {
      * Generates a URL for accessing the image.
      */
     public String generateUrl(String imageId) {
-        if (!imageStore.containsKey(imageId)) {
+        if (!imageStore.contains(imageId)) {
             throw new ResourceNotFoundException("Image", imageId);
         }
         return baseUrl + "/api/v1/images/" + imageId;
@@ -85,12 +119,6 @@ public class ImageService {
         if (image == null) {
             throw new ResourceNotFoundException("Image", imageId);
         }
-        
-        if (image.isExpired()) {
-            imageStore.remove(imageId);
-            throw new ResourceNotFoundException("Image", imageId);
-        }
-        
         return image;
     }
 
@@ -102,19 +130,36 @@ public class ImageService {
         return Base64.getEncoder().encodeToString(image.data());
     }
 
+    /**
+     * Retrieves an image as raw bytes for analysis, with the fingerprint computed on upload.
+     */
+    public ImageData getImageData(String imageId) {
+        StoredImage image = getImage(imageId);
+        return ImageData.ofBytes(image.data(), image.mimeType()).withFingerprint(image.fingerprint());
+    }
+
+    /**
+     * Returns the uploaded image if an ID is given, otherwise wraps the inline Base64 data as is.
+     */
+    public ImageData resolveImage(String imageId, String imageBase64, String mimeType) {
+        if (imageId != null && !imageId.isBlank()) {
+            return getImageData(imageId);
+        }
+        return ImageData.ofBase64(imageBase64, mimeType);
+    }
+
     /**
      * Checks if an image exists and is valid.
      */
     public boolean exists(String imageId) {
-        StoredImage image = imageStore.get(imageId);
-        return image != null && !image.isExpired();
+        return imageStore.contains(imageId);
     }
 
     /**
      * Deletes an image.
      */
     public void delete(String imageId) {
-        if (imageStore.remove(imageId) == null) {
+        if (!imageStore.remove(imageId)) {
             throw new ResourceNotFoundException("Image", imageId);
         }
         log.info("Image deleted: id={}", imageId);
@@ -122,15 +167,11 @@ public class ImageService {
 
     /**
      * Scheduled cleanup of expired images.
-     * Runs every hour.
+     * Runs every minute; only images whose expiry has passed are visited.
      */
-    @Scheduled(fixedRate = 3600000) // 1 hour
+    @Scheduled(fixedRate = 60000) // 1 minute
     public void cleanup() {
-        int before = imageStore.size();
-        
-        imageStore.entrySet().removeIf(entry -> entry.getValue().isExpired());
-        
-        int removed = before - imageStore.size();
+        int removed = imageStore.expire();
         if (removed > 0) {
             log.info("Cleaned up {} expired images", removed);
         }
@@ -143,6 +184,13 @@ public class ImageService {
         return imageStore.size();
     }
 
+    /**
+     * Returns memory and disk usage of the image store.
+     */
+    public TieredImageStore.Stats getStoreStats() {
+        return imageStore.stats();
+    }
+
     private void validateMimeType(String mimeType) {
         if (mimeType == null || !ALLOWED_MIME_TYPES.contains(mimeType.toLowerCase())) {
             throw new ImageUploadException(
@@ -151,6 +199,14 @@ public class ImageService {
         }
     }
 
+    private static byte[] decodeBase64(String base64Data) {
+        try {
+            return Base64.getDecoder().decode(base64Data);
+        } catch (IllegalArgumentException e) {
+            throw new ImageUploadException("Invalid Base64 image data", e);
+        }
+    }
+
     private void validateSize(long size) {
         if (size > MAX_SIZE_BYTES) {
             throw new ImageUploadException(
@@ -161,6 +217,8 @@ public class ImageService {
 
     /**
      * Stored image record.
+     *
+     * @param fingerprint computed on upload, or null if the image could not be decoded
      */
     public record StoredImage(
             String id,
@@ -168,10 +226,15 @@ public class ImageService {
             String mimeType,
             String filename,
             Instant uploadedAt,
-            Instant expiresAt
+            Instant expiresAt,
+            ImageFingerprint fingerprint
     ) {
         public boolean isExpired() {
             return Instant.now().isAfter(expiresAt);
         }
+
+        public StoredImage withData(byte[] newData) {
+            return new StoredImage(id, newData, mimeType, filename, uploadedAt, expiresAt, fingerprint);
+        }
     }
 }
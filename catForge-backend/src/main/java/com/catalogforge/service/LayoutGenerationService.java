@@ -4,9 +4,11 @@ import com.catalogforge.agent.AgentContext;
 import com.catalogforge.agent.AgentOrchestrator;
 import com.catalogforge.exception.LayoutGenerationException;
 import com.catalogforge.exception.ResourceNotFoundException;
+import com.catalogforge.model.ImageData;
 import com.catalogforge.model.Layout;
 import com.catalogforge.model.LayoutVariant;
 import com.catalogforge.model.Product;
+import com.catalogforge.model.ProductBatch;
 import com.catalogforge.model.request.LayoutOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,6 +18,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * Service for layout generation and lifecycle management.
@@ -63,16 +66,13 @@ public class LayoutGenerationService {
             List<Long> productIds, 
             LayoutOptions options, 
             String userPrompt,
-            String imageBase64,
-            String imageMimeType
+            ImageData image
     ) {
-        log.info("Generating layout from image: products={}, mimeType={}", productIds, imageMimeType);
+        log.info("Generating layout from image: products={}, mimeType={}", productIds, image.mimeType());
         
         List<Product> products = resolveProducts(productIds);
         
-        AgentContext context = AgentContext.forImageGeneration(
-                products, options, userPrompt, imageBase64, imageMimeType
-        );
+        AgentContext context = AgentContext.forImageGeneration(products, options, userPrompt, image);
         AgentContext result = orchestrator.execute(context);
         
         if (result.generatedLayout() == null) {
@@ -156,9 +156,12 @@ public class LayoutGenerationService {
             return List.of();
         }
         
-        return productIds.stream()
-                .map(id -> productService.findProductById(id)
-                        .orElseThrow(() -> new ResourceNotFoundException("Product", id.toString())))
-                .toList();
+        ProductBatch batch = productService.getProductsByIds(productIds);
+        if (!batch.isComplete()) {
+            throw new ResourceNotFoundException("Product", batch.missingIds().stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(", ")));
+        }
+        return batch.products();
     }
 }
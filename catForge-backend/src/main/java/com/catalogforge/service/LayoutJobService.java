@@ -0,0 +1,195 @@
+package com.catalogforge.service;
+
+import com.catalogforge.config.properties.JobProperties;
+import com.catalogforge.exception.ResourceNotFoundException;
+import com.catalogforge.exception.ServiceOverloadedException;
+import com.catalogforge.model.ImageData;
+import com.catalogforge.model.Layout;
+import com.catalogforge.model.LayoutJob;
+import com.catalogforge.model.request.LayoutOptions;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Service for asynchronous layout generation.
+ * Jobs run on a bounded worker pool; when the queue is full new submissions
+ * are rejected instead of piling up behind slow LLM calls.
+ */
+@Service
+public class LayoutJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(LayoutJobService.class);
+
+    private final LayoutGenerationService layoutService;
+    private final JobProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, LayoutJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, String> jobIdsByIdempotencyKey = new ConcurrentHashMap<>();
+
+    public LayoutJobService(LayoutGenerationService layoutService, JobProperties properties) {
+        this.layoutService = layoutService;
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(
+                properties.workerThreads(),
+                properties.workerThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                Thread.ofPlatform().name("layout-job-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        log.info("Layout job service started: workers={}, queueCapacity={}",
+                properties.workerThreads(), properties.queueCapacity());
+    }
+
+    /**
+     * Submits a text-to-layout job.
+     *
+     * @param idempotencyKey optional client key; resubmissions with the same key return the existing job
+     *                       unless it has failed
+     */
+    public LayoutJob submitText(List<Long> productIds, LayoutOptions options, String userPrompt,
+                                String idempotencyKey) {
+        return submit(idempotencyKey,
+                () -> layoutService.generateFromText(productIds, options, userPrompt));
+    }
+
+    /**
+     * Submits an image-to-layout job.
+     *
+     * @param idempotencyKey optional client key; resubmissions with the same key return the existing job
+     *                       unless it has failed
+     */
+    public LayoutJob submitImage(List<Long> productIds, LayoutOptions options, String userPrompt,
+                                 ImageData image, String idempotencyKey) {
+        return submit(idempotencyKey,
+                () -> layoutService.generateFromImage(productIds, options, userPrompt, image));
+    }
+
+    /**
+     * Retrieves a job by ID.
+     */
+    public LayoutJob getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId))
+                .orElseThrow(() -> new ResourceNotFoundException("Job", jobId));
+    }
+
+    /**
+     * Retrieves the layout produced by a job, or empty while the job has not completed.
+     */
+    public Optional<Layout> findResult(String jobId) {
+        LayoutJob job = getJob(jobId);
+        if (job.status() != LayoutJob.Status.COMPLETED) {
+            return Optional.empty();
+        }
+        return Optional.of(layoutService.getLayout(job.layoutId()));
+    }
+
+    /**
+     * Returns the number of jobs waiting for a worker.
+     */
+    public int getQueuedJobCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of tracked jobs.
+     */
+    public int getJobCount() {
+        return jobs.size();
+    }
+
+    /**
+     * Removes finished jobs older than the configured retention.
+     * Runs every five minutes.
+     */
+    @Scheduled(fixedRate = 300000)
+    public void cleanupFinishedJobs() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(properties.retentionMinutes()));
+        int before = jobs.size();
+
+        jobs.values().removeIf(job -> job.isFinished() && job.completedAt().isBefore(cutoff));
+        jobIdsByIdempotencyKey.values().removeIf(jobId -> !jobs.containsKey(jobId));
+
+        int removed = before - jobs.size();
+        if (removed > 0) {
+            log.info("Cleaned up {} finished layout jobs", removed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private LayoutJob submit(String idempotencyKey, Supplier<Layout> work) {
+        String key = idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey : null;
+        LayoutJob job = LayoutJob.queued(UUID.randomUUID().toString(), key);
+        jobs.put(job.id(), job);
+
+        // Register the job before claiming the key so a concurrent duplicate always finds it
+        if (key != null) {
+            String existingId = jobIdsByIdempotencyKey.putIfAbsent(key, job.id());
+            if (existingId != null) {
+                jobs.remove(job.id());
+                log.debug("Idempotent resubmission for key {} -> job {}", key, existingId);
+                return getJob(existingId);
+            }
+        }
+
+        try {
+            executor.execute(() -> run(job.id(), work));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id());
+            if (key != null) {
+                jobIdsByIdempotencyKey.remove(key, job.id());
+            }
+            log.warn("Layout job queue full ({} queued), rejecting submission", executor.getQueue().size());
+            throw new ServiceOverloadedException(
+                    "Layout job queue is full, please retry later", properties.retryAfterSeconds());
+        }
+
+        log.info("Layout job queued: id={}", job.id());
+        return job;
+    }
+
+    private void run(String jobId, Supplier<Layout> work) {
+        jobs.computeIfPresent(jobId, (id, job) -> job.running());
+        try {
+            Layout layout = work.get();
+            jobs.computeIfPresent(jobId, (id, job) -> job.completed(layout.id()));
+            log.info("Layout job completed: id={}, layoutId={}", jobId, layout.id());
+        } catch (Exception e) {
+            fail(jobId, e);
+        } catch (Error e) {
+            // Errors such as OutOfMemoryError still end the job, then propagate to the worker
+            fail(jobId, e);
+            throw e;
+        }
+    }
+
+    private void fail(String jobId, Throwable cause) {
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        LayoutJob failed = jobs.computeIfPresent(jobId, (id, job) -> job.failed(message));
+        // Release the key so the client can retry with it
+        if (failed != null && failed.idempotencyKey() != null) {
+            jobIdsByIdempotencyKey.remove(failed.idempotencyKey(), jobId);
+        }
+        log.error("Layout job failed: id={}, error={}", jobId, message);
+    }
+}
@@ -1,35 +1,51 @@
 package com.catalogforge.service;
 
+import com.catalogforge.catalog.ColumnarProductStore;
+import com.catalogforge.catalog.ProductCatalog;
+import com.catalogforge.catalog.ProductCatalogLoader;
+import com.catalogforge.config.properties.ProductDataProperties;
 import com.catalogforge.exception.ResourceNotFoundException;
 import com.catalogforge.model.Product;
-import com.catalogforge.util.JsonUtils;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.catalogforge.model.ProductBatch;
+import com.catalogforge.model.ProductFacets;
+import com.catalogforge.model.ProductFragment;
+import com.catalogforge.model.ProductGrouping;
+import com.catalogforge.model.SimilarProduct;
+import com.catalogforge.model.request.ProductListOptions;
+import com.catalogforge.model.response.ProductListResponse;
+import com.catalogforge.search.ProductFacetIndex;
+import com.catalogforge.search.ProductSimilarityIndex;
+import com.catalogforge.search.SpecRange;
+import com.catalogforge.util.ProductFragmentRenderer;
+import com.catalogforge.util.ProductJson;
+import com.fasterxml.jackson.databind.util.RawValue;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 /**
  * Service for managing product data.
- * Loads products from JSON file at startup and provides filtering, search, and lookup operations.
+ * Loads products from the configured source at startup and provides filtering, search, and lookup operations.
+ * Prompt fragments, JSON and indexes for every product are built once per load into an immutable
+ * {@link ProductCatalog}; external sources are re-checked periodically and swapped in atomically when changed.
  */
 @Service
 public class ProductService {
 
     private static final Logger log = LoggerFactory.getLogger(ProductService.class);
-    private static final String PRODUCTS_FILE = "data/products.json";
 
-    private final Map<Long, Product> productsById = new ConcurrentHashMap<>();
-    private final List<Product> allProducts = new ArrayList<>();
-    private volatile Set<String> cachedCategories;
-    private volatile Set<String> cachedSeries;
+    private final ProductCatalogLoader loader;
+    private final Object reloadLock = new Object();
+    private volatile ProductCatalog catalog = ProductCatalog.empty();
+
+    public ProductService(ProductDataProperties properties) {
+        this.loader = new ProductCatalogLoader(properties);
+    }
 
     @PostConstruct
     public void init() {
@@ -37,31 +53,42 @@ public class ProductService {
     }
 
     /**
-     * Loads products from the JSON file into memory.
+     * Loads the product catalog and swaps it in.
      */
     void loadProducts() {
-        try {
-            ClassPathResource resource = new ClassPathResource(PRODUCTS_FILE);
-            try (InputStream is = resource.getInputStream()) {
-                List<Product> products = JsonUtils.fromJson(is, new TypeReference<>() {});
-                
-                productsById.clear();
-                allProducts.clear();
-                
-                for (Product product : products) {
-                    productsById.put(product.id(), product);
-                    allProducts.add(product);
+        synchronized (reloadLock) {
+            try {
+                catalog = loader.load();
+            } catch (IOException e) {
+                log.error("Failed to load products", e);
+                throw new IllegalStateException("Could not load products", e);
+            }
+        }
+    }
+
+    /**
+     * Reloads the catalog if its external source changed since the last load.
+     * A failed reload keeps serving the previous catalog.
+     *
+     * @return whether a new catalog was loaded
+     */
+    @Scheduled(fixedDelayString = "${catalogforge.data.refresh-interval-ms:60000}",
+               initialDelayString = "${catalogforge.data.refresh-interval-ms:60000}")
+    public boolean refreshIfChanged() {
+        synchronized (reloadLock) {
+            try {
+                String fingerprint = loader.fingerprint();
+                if (fingerprint == null || fingerprint.equals(catalog.fingerprint())) {
+                    return false;
                 }
-                
-                // Invalidate caches
-                cachedCategories = null;
-                cachedSeries = null;
-                
-                log.info("Loaded {} products from {}", allProducts.size(), PRODUCTS_FILE);
+                ProductCatalog reloaded = loader.load();
+                log.info("Product catalog changed, {} -> {} products", catalog.size(), reloaded.size());
+                catalog = reloaded;
+                return true;
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to reload products, keeping previous catalog", e);
+                return false;
             }
-        } catch (IOException e) {
-            log.error("Failed to load products from {}", PRODUCTS_FILE, e);
-            throw new IllegalStateException("Could not load products", e);
         }
     }
 
@@ -69,7 +96,7 @@ public class ProductService {
      * Returns all products.
      */
     public List<Product> getAllProducts() {
-        return Collections.unmodifiableList(allProducts);
+        return catalog.products();
     }
 
     /**
@@ -77,18 +104,132 @@ public class ProductService {
      * @throws ResourceNotFoundException if product not found
      */
     public Product getProductById(Long id) {
-        Product product = productsById.get(id);
+        Product product = catalog.product(id);
         if (product == null) {
             throw new ResourceNotFoundException("Product", String.valueOf(id));
         }
         return product;
     }
 
+    /**
+     * Looks up several products at once, keeping the request order (including repeated IDs).
+     * Unknown IDs are collected instead of failing on the first one.
+     */
+    public ProductBatch getProductsByIds(List<Long> ids) {
+        ProductCatalog snapshot = catalog;
+        List<Product> products = new ArrayList<>(ids.size());
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Product product = snapshot.product(id);
+            if (product != null) {
+                products.add(product);
+            } else if (id != null) {
+                missing.add(id);
+            }
+        }
+        return new ProductBatch(products, new ArrayList<>(missing));
+    }
+
+    /**
+     * Returns up to {@code limit} products most similar to the given one, best first.
+     * @throws ResourceNotFoundException if product not found
+     */
+    public List<SimilarProduct> findSimilarProducts(Long id, int limit) {
+        ProductCatalog snapshot = catalog;
+        int position = positionOf(snapshot, id);
+        List<SimilarProduct> similar = new ArrayList<>(limit);
+        for (ProductSimilarityIndex.Neighbour neighbour : snapshot.similarityIndex().nearest(position, limit)) {
+            similar.add(new SimilarProduct(snapshot.products().get(neighbour.position()), neighbour.score()));
+        }
+        return similar;
+    }
+
+    /**
+     * Suggests up to {@code size} related products, starting with the given one, for a multi-product layout.
+     * @throws ResourceNotFoundException if product not found
+     */
+    public ProductGrouping suggestGrouping(Long id, int size) {
+        ProductCatalog snapshot = catalog;
+        int[] group = snapshot.similarityIndex().group(positionOf(snapshot, id), size);
+        List<Product> products = new ArrayList<>(group.length);
+        for (int position : group) {
+            products.add(snapshot.products().get(position));
+        }
+        return new ProductGrouping(products, snapshot.similarityIndex().cohesion(group));
+    }
+
     /**
      * Returns an optional product by ID.
      */
     public Optional<Product> findProductById(Long id) {
-        return Optional.ofNullable(productsById.get(id));
+        return Optional.ofNullable(catalog.product(id));
+    }
+
+    /**
+     * Returns the pre-rendered prompt fragment for a product.
+     * Products that are not part of the loaded catalog (or differ from it) are rendered on demand.
+     */
+    public ProductFragment getFragment(Product product) {
+        ProductFragment fragment = catalog.fragment(product);
+        return fragment != null ? fragment : ProductFragmentRenderer.render(product);
+    }
+
+    /**
+     * Sorts and projects products for a list response without paging.
+     */
+    public List<RawValue> listProducts(List<Product> products, ProductListOptions options) {
+        return sorted(products, options).stream()
+                .map(product -> new RawValue(getJson(product).render(options.fields())))
+                .toList();
+    }
+
+    /**
+     * Sorts, pages and projects products for a paged list response.
+     * The next cursor is null on the last page.
+     */
+    public ProductListResponse pageProducts(List<Product> products, ProductListOptions options) {
+        List<Product> ordered = sorted(products, options);
+        int size = options.isPaged() ? options.size() : ProductListOptions.DEFAULT_PAGE_SIZE;
+        int from = Math.min(options.offset(), ordered.size());
+        int to = Math.min(from + size, ordered.size());
+        
+        List<RawValue> page = new ArrayList<>(to - from);
+        for (Product product : ordered.subList(from, to)) {
+            page.add(new RawValue(getJson(product).render(options.fields())));
+        }
+        
+        int totalPages = (ordered.size() + size - 1) / size;
+        String nextCursor = to < ordered.size() ? ProductListOptions.encodeCursor(to) : null;
+        return new ProductListResponse(page, from / size, size, ordered.size(), totalPages, nextCursor);
+    }
+
+    private ProductJson getJson(Product product) {
+        ProductJson json = catalog.json(product);
+        return json != null ? json : ProductJson.of(product);
+    }
+
+    /**
+     * Sorts products for a list response. The columnar store sorts positions on its columns
+     * and returns a lazy view, so only the products of the returned page are materialized.
+     */
+    private static List<Product> sorted(List<Product> products, ProductListOptions options) {
+        ProductListOptions.Sort sort = options.sort();
+        if (sort == null) {
+            return products;
+        }
+        if (products instanceof ColumnarProductStore store) {
+            ColumnarProductStore.Column column = switch (sort.field()) {
+                case ID -> ColumnarProductStore.Column.ID;
+                case NAME -> ColumnarProductStore.Column.NAME;
+                case PRICE -> ColumnarProductStore.Column.PRICE;
+                case CATEGORY -> ColumnarProductStore.Column.CATEGORY;
+                case SERIES -> ColumnarProductStore.Column.SERIES;
+            };
+            return store.sorted(column, sort.descending());
+        }
+        List<Product> ordered = new ArrayList<>(products);
+        ordered.sort(sort);
+        return ordered;
     }
 
     /**
@@ -96,74 +237,89 @@ public class ProductService {
      * Both filters are optional and case-insensitive.
      */
     public List<Product> filterProducts(String category, String series) {
-        return allProducts.stream()
-                .filter(p -> category == null || p.category().equalsIgnoreCase(category))
-                .filter(p -> series == null || p.series().equalsIgnoreCase(series))
-                .toList();
+        return filterProducts(category, series, List.of());
+    }
+
+    /**
+     * Filters products by category, series and required spec keys.
+     * All filters are optional and case-insensitive; every spec key must be present.
+     */
+    public List<Product> filterProducts(String category, String series, List<String> specKeys) {
+        return filterProducts(category, series, specKeys, List.of());
+    }
+
+    /**
+     * Filters products by category, series, required spec keys and numeric spec ranges.
+     * Products without a numeric value for a ranged key are excluded.
+     */
+    public List<Product> filterProducts(String category, String series, List<String> specKeys,
+                                        List<SpecRange> ranges) {
+        ProductCatalog snapshot = catalog;
+        ProductFacetIndex index = snapshot.facetIndex();
+        return index.products(index.filter(category, series, specKeys, snapshot.rangeIndex().filter(ranges)));
+    }
+
+    /**
+     * Returns the facet counts for a filter, see {@link ProductFacetIndex#facets}.
+     */
+    public ProductFacets getFacets(String category, String series, List<String> specKeys) {
+        return getFacets(category, series, specKeys, List.of());
+    }
+
+    /**
+     * Returns the facet counts for a filter including numeric spec ranges.
+     */
+    public ProductFacets getFacets(String category, String series, List<String> specKeys,
+                                   List<SpecRange> ranges) {
+        ProductCatalog snapshot = catalog;
+        return snapshot.facetIndex().facets(category, series, specKeys, snapshot.rangeIndex().filter(ranges));
     }
 
     /**
      * Searches products by query string.
-     * Performs case-insensitive full-text search across name, description, shortDescription, and series.
+     * Uses the prebuilt full-text index over name, series, category, shortDescription and description:
+     * case- and umlaut-insensitive, prefix matching, all terms required, ranked by relevance.
      */
     public List<Product> searchProducts(String query) {
         if (query == null || query.isBlank()) {
             return getAllProducts();
         }
-        
-        String lowerQuery = query.toLowerCase(Locale.ROOT);
-        
-        return allProducts.stream()
-                .filter(p -> matchesQuery(p, lowerQuery))
-                .toList();
-    }
-
-    private boolean matchesQuery(Product product, String lowerQuery) {
-        return containsIgnoreCase(product.name(), lowerQuery)
-                || containsIgnoreCase(product.shortDescription(), lowerQuery)
-                || containsIgnoreCase(product.description(), lowerQuery)
-                || containsIgnoreCase(product.series(), lowerQuery)
-                || containsIgnoreCase(product.category(), lowerQuery);
-    }
-
-    private boolean containsIgnoreCase(String text, String query) {
-        return text != null && text.toLowerCase(Locale.ROOT).contains(query);
+        return catalog.searchIndex().search(query);
     }
 
     /**
      * Returns all unique categories, sorted alphabetically.
      */
     public Set<String> getAllCategories() {
-        Set<String> categories = cachedCategories;
-        if (categories == null) {
-            categories = allProducts.stream()
-                    .map(Product::category)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toCollection(TreeSet::new));
-            cachedCategories = categories;
-        }
-        return Collections.unmodifiableSet(categories);
+        return Collections.unmodifiableSet(catalog.facetIndex().categories());
     }
 
     /**
      * Returns all unique series, sorted alphabetically.
      */
     public Set<String> getAllSeries() {
-        Set<String> series = cachedSeries;
-        if (series == null) {
-            series = allProducts.stream()
-                    .map(Product::series)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toCollection(TreeSet::new));
-            cachedSeries = series;
-        }
-        return Collections.unmodifiableSet(series);
+        return Collections.unmodifiableSet(catalog.facetIndex().series());
+    }
+
+    /**
+     * Returns the version of the current catalog snapshot; it changes with every reload.
+     */
+    public long getCatalogVersion() {
+        return catalog.version();
     }
 
     /**
      * Returns the total number of products.
      */
     public int getProductCount() {
-        return allProducts.size();
+        return catalog.size();
+    }
+
+    private static int positionOf(ProductCatalog snapshot, Long id) {
+        int position = id != null ? snapshot.position(id) : -1;
+        if (position < 0) {
+            throw new ResourceNotFoundException("Product", String.valueOf(id));
+        }
+        return position;
     }
 }
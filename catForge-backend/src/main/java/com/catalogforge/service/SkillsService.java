@@ -1,19 +1,34 @@
 package com.catalogforge.service;
 
+import com.catalogforge.config.properties.SkillsProperties;
+import com.catalogforge.exception.SkillLoadException;
 import com.catalogforge.model.Skill;
 import com.catalogforge.skill.SkillAssembler;
+import com.catalogforge.skill.SkillDirectoryWatcher;
 import com.catalogforge.skill.SkillLoader;
+import com.catalogforge.skill.SkillPromptCache;
+import com.catalogforge.skill.SkillSelection;
+import com.catalogforge.skill.SkillSelector;
+import com.catalogforge.skill.SkillTopic;
+import com.catalogforge.util.TokenEstimator;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * Service for managing and assembling skills.
  * Provides caching and high-level operations for skill management.
+ * Skills and their assembled prompts are held in one snapshot that is swapped atomically on reload.
+ * Skills from an optional external directory override classpath skills of the same name and are
+ * re-parsed file by file when the directory changes.
  */
 @Service
 public class SkillsService {
@@ -22,46 +37,166 @@ public class SkillsService {
 
     private final SkillLoader skillLoader;
     private final SkillAssembler skillAssembler;
+    private final SkillSelector skillSelector;
+    private final SkillsProperties properties;
     
-    private volatile Map<String, Skill> skillCache = Map.of();
+    // Guarded by reloadLock; readers only see the published promptCache
+    private final Object reloadLock = new Object();
+    private Map<String, Skill> classpathSkills = Map.of();
+    private SortedMap<Path, Skill> externalSkills = new TreeMap<>();
+    
+    private volatile SkillPromptCache promptCache;
+    private SkillDirectoryWatcher watcher;
 
-    public SkillsService(SkillLoader skillLoader, SkillAssembler skillAssembler) {
+    public SkillsService(SkillLoader skillLoader, SkillAssembler skillAssembler,
+                         SkillSelector skillSelector, SkillsProperties properties) {
         this.skillLoader = skillLoader;
         this.skillAssembler = skillAssembler;
+        this.skillSelector = skillSelector;
+        this.properties = properties;
+        this.promptCache = SkillPromptCache.empty(skillAssembler);
     }
 
     @PostConstruct
     public void init() {
         reloadSkills();
+        
+        if (properties.hasExternalDir()) {
+            watcher = new SkillDirectoryWatcher(externalDir(), properties.watchDebounceMs(), this::applyExternalChanges);
+            try {
+                watcher.start();
+            } catch (IOException e) {
+                log.warn("Could not watch external skills directory {}: {}", externalDir(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (watcher != null) {
+            watcher.close();
+        }
     }
 
     /**
      * Reloads all skills from disk.
      */
     public void reloadSkills() {
-        skillCache = skillLoader.loadAllSkills();
-        log.info("Skills cache refreshed with {} skills", skillCache.size());
+        synchronized (reloadLock) {
+            Map<String, Skill> classpath = skillLoader.loadAllSkills();
+            SortedMap<Path, Skill> external = new TreeMap<>();
+            if (properties.hasExternalDir()) {
+                external.putAll(skillLoader.loadExternalSkills(externalDir()));
+            }
+            
+            // Fails on dependency cycles before anything is replaced
+            promptCache = SkillPromptCache.precompute(mergeSkills(classpath, external), skillAssembler);
+            classpathSkills = classpath;
+            externalSkills = external;
+        }
+        log.info("Skills cache refreshed with {} skills", promptCache.skills().size());
+    }
+
+    /**
+     * Re-parses changed files or directories of the external skills directory and publishes a new snapshot.
+     * Cached prompts that do not depend on a changed skill are carried over.
+     */
+    public void applyExternalChanges(Set<Path> changedPaths) {
+        if (!properties.hasExternalDir()) {
+            return;
+        }
+        
+        Path root = externalDir();
+        Set<String> changedNames = new HashSet<>();
+        synchronized (reloadLock) {
+            SortedMap<Path, Skill> external = new TreeMap<>(externalSkills);
+            for (Path path : changedPaths) {
+                if (Files.isRegularFile(path)) {
+                    reparseFile(external, path, root, changedNames);
+                    continue;
+                }
+                
+                // Deleted file, or a directory that was created, deleted or lost events
+                removeBelow(external, path, changedNames);
+                if (Files.isDirectory(path)) {
+                    skillLoader.loadExternalSkills(path, root).forEach((file, skill) -> {
+                        external.put(file, skill);
+                        changedNames.add(skill.name());
+                    });
+                }
+            }
+            
+            if (changedNames.isEmpty()) {
+                return;
+            }
+            try {
+                promptCache = promptCache.update(mergeSkills(classpathSkills, external), changedNames);
+                externalSkills = external;
+            } catch (SkillLoadException e) {
+                log.error("Rejected external skill changes, keeping previous skills: {}", e.getMessage());
+                return;
+            }
+        }
+        log.info("Applied external skill changes to {}", changedNames);
+    }
+
+    private void reparseFile(SortedMap<Path, Skill> external, Path file, Path root, Set<String> changedNames) {
+        if (!SkillLoader.isSkillFile(file)) {
+            return;
+        }
+        try {
+            Skill skill = skillLoader.loadSkill(file, root);
+            Skill previous = external.put(file, skill);
+            if (previous != null) {
+                changedNames.add(previous.name());
+            }
+            changedNames.add(skill.name());
+        } catch (Exception e) {
+            // Keep the previous version until the file parses again
+            log.warn("Failed to reload skill from {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void removeBelow(SortedMap<Path, Skill> external, Path path, Set<String> changedNames) {
+        Iterator<Map.Entry<Path, Skill>> it = external.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Path, Skill> entry = it.next();
+            if (entry.getKey().startsWith(path)) {
+                changedNames.add(entry.getValue().name());
+                it.remove();
+            }
+        }
+    }
+
+    private static Map<String, Skill> mergeSkills(Map<String, Skill> classpath, SortedMap<Path, Skill> external) {
+        Map<String, Skill> merged = new HashMap<>(classpath);
+        external.values().forEach(skill -> merged.put(skill.name(), skill));
+        return merged;
+    }
+
+    private Path externalDir() {
+        return Path.of(properties.externalDir()).toAbsolutePath().normalize();
     }
 
     /**
      * Returns all loaded skills.
      */
     public Collection<Skill> getAllSkills() {
-        return Collections.unmodifiableCollection(skillCache.values());
+        return Collections.unmodifiableCollection(skills().values());
     }
 
     /**
      * Returns a skill by name.
      */
     public Optional<Skill> getSkill(String name) {
-        return Optional.ofNullable(skillCache.get(name));
+        return Optional.ofNullable(skills().get(name));
     }
 
     /**
      * Returns all skills in a specific category.
      */
     public List<Skill> getSkillsByCategory(String category) {
-        return skillCache.values().stream()
+        return skills().values().stream()
                 .filter(s -> s.category().equalsIgnoreCase(category))
                 .sorted(Comparator.comparing(Skill::name))
                 .toList();
@@ -71,7 +206,7 @@ public class SkillsService {
      * Returns all unique categories.
      */
     public Set<String> getAllCategories() {
-        return skillCache.values().stream()
+        return skills().values().stream()
                 .map(Skill::category)
                 .collect(Collectors.toCollection(TreeSet::new));
     }
@@ -82,23 +217,52 @@ public class SkillsService {
      * @param skillNames List of skill names to include
      * @param style Optional style (e.g., "modern", "technical")
      * @param format Optional format (e.g., "A4", "DL")
-     * @return Assembled prompt string
+     * @return Assembled prompt string, shared between identical requests
      */
     public String assemblePrompt(List<String> skillNames, String style, String format) {
-        return skillAssembler.assemble(skillCache, skillNames, style, format);
+        return promptCache.get(skillNames, style, format);
+    }
+
+    /**
+     * Selects the skill content relevant to a layout request.
+     * With {@code catalogforge.skills.selection: all} the complete skill set is returned.
+     *
+     * @param style Optional style (e.g., "modern", "technical")
+     * @param format Optional format (e.g., "A4", "DL")
+     * @param topics Topics derived from the request
+     */
+    public SkillSelection selectSkills(String style, String format, Set<SkillTopic> topics) {
+        if (properties.selection() == SkillsProperties.SelectionMode.ALL) {
+            String prompt = assemblePrompt(List.of(), style, format);
+            int tokens = TokenEstimator.estimate(prompt);
+            List<String> order = getAssemblyOrder(List.of(), style, format);
+            return new SkillSelection(prompt, topics, order, order, Map.of(), List.of(), tokens, tokens);
+        }
+        return promptCache.select(style, format, topics, skillSelector);
     }
 
     /**
      * Returns the ordered list of skill names that would be included in assembly.
      */
     public List<String> getAssemblyOrder(List<String> skillNames, String style, String format) {
-        return skillAssembler.getOrderedSkillNames(skillCache, skillNames, style, format);
+        return skillAssembler.getOrderedSkillNames(promptCache.graph(), skillNames, style, format);
+    }
+
+    /**
+     * Returns the version of the current skills snapshot; it changes with every reload.
+     */
+    public long getSkillsVersion() {
+        return promptCache.version();
     }
 
     /**
      * Returns the total number of loaded skills.
      */
     public int getSkillCount() {
-        return skillCache.size();
+        return skills().size();
+    }
+
+    private Map<String, Skill> skills() {
+        return promptCache.skills();
     }
 }
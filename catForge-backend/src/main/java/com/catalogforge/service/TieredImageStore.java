@@ -0,0 +1,417 @@
+package com.catalogforge.service;
+
+import com.catalogforge.service.ImageService.StoredImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-tier store for uploaded images.
+ * Image bytes are kept on the heap up to a byte budget; when an upload exceeds it, the least recently
+ * used images are spilled to files in a directory of this store below the spill directory. A spilled
+ * image is read back from disk on access and moved back to memory. The disk tier has a budget as well;
+ * beyond it the least recently used spilled images are dropped.
+ * File I/O never runs while the store's monitor is held. An image stays in memory until its spill file
+ * is written, so a failed write leaves the memory tier over budget instead of losing the image.
+ * Expiry deadlines are kept in a {@link DelayQueue}, so {@link #expire()} only touches expired images.
+ */
+public final class TieredImageStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TieredImageStore.class);
+    private static final String SPILL_SUFFIX = ".img";
+
+    /**
+     * Current usage and eviction counters.
+     *
+     * @param evictions   images moved from memory to disk since startup
+     * @param promotions  spilled images moved back to memory on access since startup
+     * @param drops       spilled images deleted because the disk tier was full since startup
+     * @param expirations images removed because they expired since startup
+     */
+    public record Stats(
+            int memoryImages,
+            long memoryBytes,
+            long memoryLimitBytes,
+            int diskImages,
+            long diskBytes,
+            long diskLimitBytes,
+            long evictions,
+            long promotions,
+            long drops,
+            long expirations
+    ) {}
+
+    /**
+     * Image whose bytes live in a spill file; {@code image.data()} is null.
+     */
+    private record Spilled(StoredImage image, Path file, long size) {}
+
+    /**
+     * Expiry deadline of an image.
+     */
+    private record Expiry(String id, Instant expiresAt) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), expiresAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return expiresAt.compareTo(((Expiry) other).expiresAt);
+        }
+    }
+
+    private final long memoryLimitBytes;
+    private final long diskLimitBytes;
+    private final Path spillDir;
+
+    // Guarded by this; iteration order is least recently used first
+    private final LinkedHashMap<String, StoredImage> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Spilled> disk = new LinkedHashMap<>(16, 0.75f, true);
+    // Memory images whose spill file is being written; removing or replacing one cancels its spill
+    private final Set<StoredImage> spilling = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final DelayQueue<Expiry> expiries = new DelayQueue<>();
+    private long memoryBytes;
+    private long spillingBytes;
+    private long diskBytes;
+    private long evictions;
+    private long promotions;
+    private long drops;
+    private long expirations;
+
+    /**
+     * Creates an empty store. Spill files go to a subdirectory of {@code spillRoot} that belongs to this
+     * store alone, so other files in {@code spillRoot} are never touched. The directory is created on
+     * the first spill.
+     */
+    public TieredImageStore(long memoryLimitBytes, long diskLimitBytes, Path spillRoot) {
+        this.memoryLimitBytes = memoryLimitBytes;
+        this.diskLimitBytes = diskLimitBytes;
+        this.spillDir = spillRoot.resolve("store-" + UUID.randomUUID());
+    }
+
+    /**
+     * Stores an image, spilling least recently used images to disk if the memory budget is exceeded.
+     * Images larger than the whole budget go to disk directly.
+     */
+    public void put(StoredImage image) {
+        boolean direct = image.data().length > memoryLimitBytes && image.data().length <= diskLimitBytes;
+        Path replaced;
+        synchronized (this) {
+            replaced = detach(image.id());
+            expiries.add(new Expiry(image.id(), image.expiresAt()));
+            if (!direct) {
+                memory.put(image.id(), image);
+                memoryBytes += image.data().length;
+            }
+        }
+        deleteQuietly(replaced);
+
+        if (direct) {
+            Path file = write(image);
+            List<Path> dropped = List.of();
+            synchronized (this) {
+                if (file != null) {
+                    dropped = addToDisk(image, file);
+                } else {
+                    memory.put(image.id(), image);
+                    memoryBytes += image.data().length;
+                }
+            }
+            dropped.forEach(TieredImageStore::deleteQuietly);
+            return;
+        }
+        evict();
+    }
+
+    /**
+     * Returns the image with its bytes, or null if it is unknown or expired.
+     * A spilled image is read from disk and moved back to memory if it fits the memory budget.
+     */
+    public StoredImage get(String id) {
+        Spilled spilled;
+        synchronized (this) {
+            StoredImage image = memory.get(id);
+            if (image != null) {
+                return image.isExpired() ? null : image;
+            }
+            spilled = disk.get(id);
+        }
+        if (spilled == null || spilled.image().isExpired()) {
+            return null;
+        }
+
+        byte[] data;
+        try {
+            data = Files.readAllBytes(spilled.file());
+        } catch (NoSuchFileException e) {
+            // Promoted by another reader in the meantime, or deleted or expired while reading
+            synchronized (this) {
+                StoredImage image = memory.get(id);
+                return image != null && !image.isExpired() ? image : null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read spilled image " + id, e);
+        }
+        StoredImage metadata = spilled.image();
+        StoredImage image = metadata.withData(data);
+
+        if (data.length <= memoryLimitBytes) {
+            boolean promoted = false;
+            synchronized (this) {
+                if (disk.get(id) == spilled) {
+                    disk.remove(id);
+                    diskBytes -= spilled.size();
+                    memory.put(id, image);
+                    memoryBytes += data.length;
+                    promotions++;
+                    promoted = true;
+                }
+            }
+            if (promoted) {
+                deleteQuietly(spilled.file());
+                evict();
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Returns whether an image is stored and not expired, without loading spilled bytes.
+     */
+    public synchronized boolean contains(String id) {
+        StoredImage image = metadata(id);
+        return image != null && !image.isExpired();
+    }
+
+    /**
+     * Removes an image from either tier.
+     *
+     * @return whether the image was stored
+     */
+    public boolean remove(String id) {
+        Path file;
+        synchronized (this) {
+            if (metadata(id) == null) {
+                return false;
+            }
+            file = detach(id);
+        }
+        deleteQuietly(file);
+        return true;
+    }
+
+    /**
+     * Removes all images whose expiry has passed.
+     *
+     * @return the number of removed images
+     */
+    public int expire() {
+        List<Path> files = new ArrayList<>();
+        int removed = 0;
+        synchronized (this) {
+            for (Expiry expiry = expiries.poll(); expiry != null; expiry = expiries.poll()) {
+                // Deadlines of deleted or replaced images stay queued and are skipped here
+                StoredImage image = metadata(expiry.id());
+                if (image != null && image.expiresAt().equals(expiry.expiresAt())) {
+                    files.add(detach(expiry.id()));
+                    removed++;
+                }
+            }
+            expirations += removed;
+        }
+        files.forEach(TieredImageStore::deleteQuietly);
+        return removed;
+    }
+
+    public synchronized int size() {
+        return memory.size() + disk.size();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(memory.size(), memoryBytes, memoryLimitBytes, disk.size(), diskBytes, diskLimitBytes,
+                evictions, promotions, drops, expirations);
+    }
+
+    /**
+     * Removes all images, their spill files and the store's spill directory.
+     */
+    public void clear() {
+        List<Path> files;
+        synchronized (this) {
+            files = disk.values().stream().map(Spilled::file).toList();
+            memory.clear();
+            disk.clear();
+            spilling.clear();
+            expiries.clear();
+            memoryBytes = 0;
+            spillingBytes = 0;
+            diskBytes = 0;
+        }
+        files.forEach(TieredImageStore::deleteQuietly);
+        deleteQuietly(spillDir);
+    }
+
+    /**
+     * Directory holding this store's spill files.
+     */
+    Path spillDirectory() {
+        return spillDir;
+    }
+
+    /**
+     * Returns the stored image from either tier without changing recency; spilled images have no data.
+     */
+    private StoredImage metadata(String id) {
+        StoredImage image = memory.get(id);
+        if (image != null) {
+            return image;
+        }
+        Spilled spilled = disk.get(id);
+        return spilled != null ? spilled.image() : null;
+    }
+
+    /**
+     * Removes an image from both tiers and cancels a pending spill.
+     *
+     * @return the spill file to delete once the monitor is released, or null
+     */
+    private Path detach(String id) {
+        StoredImage image = memory.remove(id);
+        if (image != null) {
+            memoryBytes -= image.data().length;
+            if (spilling.remove(image)) {
+                spillingBytes -= image.data().length;
+            }
+            return null;
+        }
+        Spilled spilled = disk.remove(id);
+        if (spilled != null) {
+            diskBytes -= spilled.size();
+            return spilled.file();
+        }
+        return null;
+    }
+
+    /**
+     * Spills least recently used images until the memory tier fits its budget. Victims are written
+     * without holding the monitor and only leave memory once their file exists.
+     */
+    private void evict() {
+        List<StoredImage> victims = new ArrayList<>();
+        synchronized (this) {
+            long excess = memoryBytes - spillingBytes - memoryLimitBytes;
+            for (Iterator<StoredImage> lru = memory.values().iterator(); excess > 0 && lru.hasNext(); ) {
+                StoredImage image = lru.next();
+                if (spilling.contains(image) || image.data().length > diskLimitBytes) {
+                    continue;
+                }
+                spilling.add(image);
+                spillingBytes += image.data().length;
+                excess -= image.data().length;
+                victims.add(image);
+            }
+        }
+        if (victims.isEmpty()) {
+            return;
+        }
+
+        List<Path> files = new ArrayList<>(victims.size());
+        for (StoredImage victim : victims) {
+            files.add(write(victim));
+        }
+
+        List<Path> obsolete = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < victims.size(); i++) {
+                StoredImage victim = victims.get(i);
+                Path file = files.get(i);
+                if (!spilling.remove(victim)) {
+                    // Removed or replaced while its file was written
+                    if (file != null) {
+                        obsolete.add(file);
+                    }
+                    continue;
+                }
+                spillingBytes -= victim.data().length;
+                if (file == null) {
+                    continue;
+                }
+                memory.remove(victim.id());
+                memoryBytes -= victim.data().length;
+                evictions++;
+                obsolete.addAll(addToDisk(victim, file));
+            }
+        }
+        obsolete.forEach(TieredImageStore::deleteQuietly);
+    }
+
+    /**
+     * Registers a written spill file and drops least recently used spilled images beyond the disk budget.
+     *
+     * @return spill files of dropped images, to delete once the monitor is released
+     */
+    private List<Path> addToDisk(StoredImage image, Path file) {
+        StoredImage metadata = image.withData(null);
+        disk.put(image.id(), new Spilled(metadata, file, image.data().length));
+        diskBytes += image.data().length;
+
+        List<Path> dropped = new ArrayList<>();
+        for (Iterator<Spilled> lru = disk.values().iterator(); diskBytes > diskLimitBytes && lru.hasNext(); ) {
+            Spilled oldest = lru.next();
+            lru.remove();
+            diskBytes -= oldest.size();
+            drops++;
+            dropped.add(oldest.file());
+            log.warn("Image disk tier full ({} bytes), dropped image {}", diskLimitBytes, oldest.image().id());
+        }
+        return dropped;
+    }
+
+    /**
+     * Writes an image's spill file.
+     *
+     * @return the file, or null if it could not be written and the image has to stay in memory
+     */
+    private Path write(StoredImage image) {
+        Path file = spillDir.resolve(image.id() + SPILL_SUFFIX);
+        try {
+            Files.createDirectories(spillDir);
+            Files.write(file, image.data());
+            return file;
+        } catch (IOException e) {
+            log.warn("Could not spill image {} to {}, keeping it in memory: {}", image.id(), file, e.getMessage());
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spilled image {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -9,7 +9,7 @@ import java.util.*;
 
 /**
  * Assembles skills into a combined prompt.
- * Handles dependency resolution, priority ordering, and style/format skill inclusion.
+ * Handles dependency resolution and style/format skill inclusion on top of a {@link SkillGraph}.
  */
 @Component
 public class SkillAssembler {
@@ -19,6 +19,7 @@ public class SkillAssembler {
 
     /**
      * Assembles skills into a combined prompt string.
+     * Builds a throwaway graph; prefer {@link #assemble(SkillGraph, List, String, String)} for loaded skills.
      * 
      * @param skills Map of all available skills
      * @param requestedSkills List of skill names to include
@@ -28,43 +29,19 @@ public class SkillAssembler {
      */
     public String assemble(Map<String, Skill> skills, List<String> requestedSkills, 
                           String style, String format) {
+        return assemble(SkillGraph.build(skills), requestedSkills, style, format);
+    }
+
+    /**
+     * Assembles skills from a precompiled graph into a combined prompt string.
+     * The included skills are the union of the requested closures, walked in graph order.
+     */
+    public String assemble(SkillGraph graph, List<String> requestedSkills, String style, String format) {
+        BitSet included = include(graph, requestedSkills, style, format);
         
-        Set<String> toInclude = new LinkedHashSet<>();
-        
-        // 1. Always include MASTER_SKILL first
-        if (skills.containsKey(MASTER_SKILL)) {
-            toInclude.add(MASTER_SKILL);
-        }
-        
-        // 2. Add requested skills with their dependencies
-        for (String skillName : requestedSkills) {
-            addWithDependencies(skills, skillName, toInclude, new HashSet<>());
-        }
-        
-        // 3. Add style skill if specified
-        if (style != null && !style.isBlank()) {
-            String styleSkill = normalizeStyleName(style);
-            addWithDependencies(skills, styleSkill, toInclude, new HashSet<>());
-        }
-        
-        // 4. Add format skill if specified
-        if (format != null && !format.isBlank()) {
-            String formatSkill = normalizeFormatName(format);
-            addWithDependencies(skills, formatSkill, toInclude, new HashSet<>());
-        }
-        
-        // 5. Sort by priority (MASTER first, then by priority, then alphabetically)
-        List<Skill> orderedSkills = toInclude.stream()
-                .map(skills::get)
-                .filter(Objects::nonNull)
-                .sorted(Comparator
-                        .comparingInt(Skill::priority)
-                        .thenComparing(Skill::name))
-                .toList();
-        
-        // 6. Combine contents
         StringBuilder combined = new StringBuilder();
-        for (Skill skill : orderedSkills) {
+        for (int id = included.nextSetBit(0); id >= 0; id = included.nextSetBit(id + 1)) {
+            Skill skill = graph.skill(id);
             if (!combined.isEmpty()) {
                 combined.append("\n\n---\n\n");
             }
@@ -72,36 +49,58 @@ public class SkillAssembler {
             combined.append(skill.content());
         }
         
-        log.debug("Assembled {} skills: {}", orderedSkills.size(), 
-                orderedSkills.stream().map(Skill::name).toList());
+        log.debug("Assembled {} skills", included.cardinality());
         
         return combined.toString();
     }
 
     /**
-     * Recursively adds a skill and its dependencies to the include set.
+     * Returns every skill name an assembly looks up, including names that are currently missing.
+     * A change to any other skill cannot affect the assembled prompt.
      */
-    void addWithDependencies(Map<String, Skill> skills, String skillName, 
-                            Set<String> toInclude, Set<String> visited) {
-        if (skillName == null || visited.contains(skillName)) {
-            return;
+    Set<String> referencedSkillNames(SkillGraph graph, List<String> requestedSkills,
+                                     String style, String format) {
+        Set<String> referenced = new HashSet<>();
+        referenced.add(MASTER_SKILL);
+        for (String name : rootNames(requestedSkills, style, format)) {
+            int id = graph.idOf(name);
+            if (id < 0) {
+                referenced.add(name);
+                continue;
+            }
+            BitSet closure = new BitSet();
+            graph.addClosure(name, closure);
+            closure.stream().forEach(dep -> {
+                referenced.add(graph.skill(dep).name());
+                referenced.addAll(graph.missingDependencies(dep));
+            });
         }
+        return referenced;
+    }
+
+    private BitSet include(SkillGraph graph, List<String> requestedSkills, String style, String format) {
+        BitSet included = new BitSet(graph.size());
         
-        visited.add(skillName);
-        Skill skill = skills.get(skillName);
+        // MASTER_SKILL is always included; its lowest priority puts it first
+        graph.addClosure(MASTER_SKILL, included);
         
-        if (skill == null) {
-            log.warn("Skill not found: {}", skillName);
-            return;
+        for (String name : rootNames(requestedSkills, style, format)) {
+            if (!graph.addClosure(name, included)) {
+                log.warn("Skill not found: {}", name);
+            }
         }
-        
-        // Add dependencies first
-        for (String dep : skill.dependencies()) {
-            addWithDependencies(skills, dep, toInclude, visited);
+        return included;
+    }
+
+    private List<String> rootNames(List<String> requestedSkills, String style, String format) {
+        List<String> names = new ArrayList<>(requestedSkills != null ? requestedSkills : List.of());
+        if (style != null && !style.isBlank()) {
+            names.add(normalizeStyleName(style));
         }
-        
-        // Then add the skill itself
-        toInclude.add(skillName);
+        if (format != null && !format.isBlank()) {
+            names.add(normalizeFormatName(format));
+        }
+        return names;
     }
 
     /**
@@ -134,31 +133,16 @@ public class SkillAssembler {
      */
     public List<String> getOrderedSkillNames(Map<String, Skill> skills, List<String> requestedSkills,
                                              String style, String format) {
-        Set<String> toInclude = new LinkedHashSet<>();
-        
-        if (skills.containsKey(MASTER_SKILL)) {
-            toInclude.add(MASTER_SKILL);
-        }
-        
-        for (String skillName : requestedSkills) {
-            addWithDependencies(skills, skillName, toInclude, new HashSet<>());
-        }
-        
-        if (style != null && !style.isBlank()) {
-            addWithDependencies(skills, normalizeStyleName(style), toInclude, new HashSet<>());
-        }
-        
-        if (format != null && !format.isBlank()) {
-            addWithDependencies(skills, normalizeFormatName(format), toInclude, new HashSet<>());
-        }
-        
-        return toInclude.stream()
-                .map(skills::get)
-                .filter(Objects::nonNull)
-                .sorted(Comparator
-                        .comparingInt(Skill::priority)
-                        .thenComparing(Skill::name))
-                .map(Skill::name)
+        return getOrderedSkillNames(SkillGraph.build(skills), requestedSkills, style, format);
+    }
+
+    /**
+     * Gets the ordered list of skill names that would be included, using a precompiled graph.
+     */
+    public List<String> getOrderedSkillNames(SkillGraph graph, List<String> requestedSkills,
+                                             String style, String format) {
+        return include(graph, requestedSkills, style, format).stream()
+                .mapToObj(id -> graph.skill(id).name())
                 .toList();
     }
 }
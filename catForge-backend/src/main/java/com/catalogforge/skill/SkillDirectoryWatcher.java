@@ -0,0 +1,218 @@
+package com.catalogforge.skill;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Watches an external skills directory and reports changed skill files in batches.
+ * Events are collected until the directory has been quiet for the debounce interval,
+ * so editors that write a file in several steps trigger a single reload.
+ * A root that does not exist yet, or is deleted later, is awaited by watching its nearest existing
+ * ancestor; once it appears the whole root is reported as changed.
+ */
+public class SkillDirectoryWatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SkillDirectoryWatcher.class);
+
+    private final Path root;
+    private final long debounceMs;
+    private final Consumer<Set<Path>> listener;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    // Key of the ancestor watched while the root does not exist; only used by the watcher thread after start
+    private WatchKey ancestorKey;
+    private Thread thread;
+
+    public SkillDirectoryWatcher(Path root, long debounceMs, Consumer<Set<Path>> listener) {
+        this.root = root.toAbsolutePath().normalize();
+        this.debounceMs = debounceMs;
+        this.listener = listener;
+    }
+
+    /**
+     * Registers the directory tree, or the nearest existing ancestor of a missing root,
+     * and starts the watcher thread.
+     */
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        if (watchRoot()) {
+            log.info("Watching {} for skill changes", root);
+        } else {
+            log.info("Skills directory {} does not exist yet, waiting for it to be created", root);
+        }
+        thread = Thread.ofPlatform()
+                .name("skill-watcher")
+                .daemon(true)
+                .start(this::run);
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(watchService.take(), changed);
+                
+                // Drain until the directory has been quiet for the debounce interval
+                WatchKey next;
+                while ((next = watchService.poll(debounceMs, TimeUnit.MILLISECONDS)) != null) {
+                    collect(next, changed);
+                }
+                
+                if (!changed.isEmpty()) {
+                    notifyListener(changed);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        if (key == ancestorKey) {
+            // Something was created on the way to the root; check whether the root exists now
+            key.pollEvents();
+            key.cancel();
+            ancestorKey = null;
+            if (watchRootQuietly()) {
+                changed.add(root);
+            }
+            return;
+        }
+        
+        Path dir = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (dir == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost; let the listener rescan everything below the root
+                changed.add(root);
+                continue;
+            }
+            
+            Path path = dir.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                registerQuietly(path);
+                changed.add(path);
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                // A deleted or renamed-away directory only reports its own name; reload everything below it
+                unregisterBelow(path);
+                changed.add(path);
+            } else if (path.getFileName().toString().endsWith(".md")) {
+                changed.add(path);
+            }
+        }
+        
+        if (!key.reset()) {
+            directories.remove(key);
+            if (root.equals(dir)) {
+                // The root itself was deleted or moved away
+                changed.add(root);
+                watchRootQuietly();
+            }
+        }
+    }
+
+    private void notifyListener(Set<Path> changed) {
+        try {
+            listener.accept(Set.copyOf(changed));
+        } catch (RuntimeException e) {
+            log.error("Failed to apply skill changes {}: {}", changed, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Registers the root tree, or the nearest existing ancestor if the root does not exist.
+     *
+     * @return whether the root is watched
+     */
+    private boolean watchRoot() throws IOException {
+        while (!Files.isDirectory(root)) {
+            Path ancestor = root.getParent();
+            while (ancestor != null && !Files.isDirectory(ancestor)) {
+                ancestor = ancestor.getParent();
+            }
+            if (ancestor == null) {
+                throw new IOException("No existing ancestor of " + root);
+            }
+            WatchKey key = ancestor.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+            // The next directory towards the root may have been created before the key was registered
+            if (!Files.isDirectory(ancestor.resolve(root.getName(ancestor.getNameCount())))) {
+                ancestorKey = key;
+                return false;
+            }
+            key.cancel();
+        }
+        registerTree(root);
+        return true;
+    }
+
+    private boolean watchRootQuietly() {
+        try {
+            return watchRoot();
+        } catch (IOException e) {
+            log.warn("Failed to watch skills directory {}: {}", root, e.getMessage());
+            return false;
+        }
+    }
+
+    private void unregisterBelow(Path path) {
+        directories.entrySet().removeIf(entry -> {
+            if (!entry.getValue().startsWith(path)) {
+                return false;
+            }
+            entry.getKey().cancel();
+            return true;
+        });
+    }
+
+    private void registerTree(Path start) throws IOException {
+        try (Stream<Path> dirs = Files.walk(start)) {
+            for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                WatchKey key = dir.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+                directories.put(key, dir);
+            }
+        }
+    }
+
+    private void registerQuietly(Path dir) {
+        try {
+            registerTree(dir);
+        } catch (IOException e) {
+            log.warn("Failed to watch new skills directory {}: {}", dir, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Failed to close skill watcher: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.catalogforge.skill;
+
+import com.catalogforge.exception.SkillLoadException;
+import com.catalogforge.model.Skill;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Immutable, indexed dependency graph of all loaded skills.
+ * Skill IDs are their rank in a deterministic topological order (dependencies first,
+ * ties broken by priority and name), so walking a set of IDs in ascending order yields
+ * the assembly order. Transitive closures are precomputed as bitsets.
+ */
+public final class SkillGraph {
+
+    private static final Logger log = LoggerFactory.getLogger(SkillGraph.class);
+    private static final Comparator<Skill> ORDER = Comparator
+            .comparingInt(Skill::priority)
+            .thenComparing(Skill::name);
+
+    private final Skill[] skills;
+    private final Map<String, Integer> ids;
+    private final BitSet[] closures;
+    private final List<Set<String>> missingDependencies;
+
+    private SkillGraph(Skill[] skills, Map<String, Integer> ids, BitSet[] closures,
+                       List<Set<String>> missingDependencies) {
+        this.skills = skills;
+        this.ids = ids;
+        this.closures = closures;
+        this.missingDependencies = missingDependencies;
+    }
+
+    /**
+     * Builds the graph for a set of skills.
+     * Dependencies on unknown skills are ignored with a warning.
+     *
+     * @throws SkillLoadException if the dependencies contain a cycle
+     */
+    public static SkillGraph build(Map<String, Skill> skillMap) {
+        // Kahn's algorithm; the priority queue makes the order deterministic
+        Map<String, Integer> inDegree = new HashMap<>();
+        Map<String, List<Skill>> dependents = new HashMap<>();
+        for (Skill skill : skillMap.values()) {
+            int known = 0;
+            for (String dep : new LinkedHashSet<>(skill.dependencies())) {
+                if (skillMap.containsKey(dep)) {
+                    known++;
+                    dependents.computeIfAbsent(dep, k -> new ArrayList<>()).add(skill);
+                } else {
+                    log.warn("Skill {} depends on unknown skill {}", skill.name(), dep);
+                }
+            }
+            inDegree.put(skill.name(), known);
+        }
+        
+        PriorityQueue<Skill> ready = new PriorityQueue<>(ORDER);
+        skillMap.values().stream().filter(s -> inDegree.get(s.name()) == 0).forEach(ready::add);
+        
+        Skill[] ordered = new Skill[skillMap.size()];
+        Map<String, Integer> ids = new HashMap<>();
+        int next = 0;
+        while (!ready.isEmpty()) {
+            Skill skill = ready.poll();
+            ids.put(skill.name(), next);
+            ordered[next++] = skill;
+            for (Skill dependent : dependents.getOrDefault(skill.name(), List.of())) {
+                if (inDegree.merge(dependent.name(), -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        
+        if (next < ordered.length) {
+            List<String> cyclic = inDegree.entrySet().stream()
+                    .filter(e -> e.getValue() > 0)
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .toList();
+            throw new SkillLoadException("Cyclic skill dependencies between " + cyclic);
+        }
+        
+        // Dependencies have lower IDs, so one pass in ID order completes every closure
+        BitSet[] closures = new BitSet[ordered.length];
+        List<Set<String>> missing = new ArrayList<>(ordered.length);
+        for (int id = 0; id < ordered.length; id++) {
+            BitSet closure = new BitSet(ordered.length);
+            Set<String> missingHere = new TreeSet<>();
+            closure.set(id);
+            for (String dep : ordered[id].dependencies()) {
+                Integer depId = ids.get(dep);
+                if (depId != null) {
+                    closure.or(closures[depId]);
+                    missingHere.addAll(missing.get(depId));
+                } else {
+                    missingHere.add(dep);
+                }
+            }
+            closures[id] = closure;
+            missing.add(Set.copyOf(missingHere));
+        }
+        
+        return new SkillGraph(ordered, Map.copyOf(ids), closures, List.copyOf(missing));
+    }
+
+    /**
+     * Returns the ID of a skill, or -1 if it is unknown.
+     */
+    public int idOf(String name) {
+        Integer id = name != null ? ids.get(name) : null;
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Returns the skill with the given ID.
+     */
+    public Skill skill(int id) {
+        return skills[id];
+    }
+
+    /**
+     * Adds a skill and its transitive dependencies to the given set.
+     *
+     * @return false if the skill is unknown
+     */
+    public boolean addClosure(String name, BitSet target) {
+        int id = idOf(name);
+        if (id < 0) {
+            return false;
+        }
+        target.or(closures[id]);
+        return true;
+    }
+
+    /**
+     * Returns names of unknown skills that the skill depends on, directly or transitively.
+     */
+    public Set<String> missingDependencies(int id) {
+        return missingDependencies.get(id);
+    }
+
+    /**
+     * Returns all skills in topological order.
+     */
+    public List<Skill> topologicalOrder() {
+        return List.of(skills);
+    }
+
+    /**
+     * Returns the number of skills.
+     */
+    public int size() {
+        return skills.length;
+    }
+}
@@ -10,12 +10,15 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.stream.Stream;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * Loads skill files from resources/skills/ directory.
+ * Loads skill files from resources/skills/ directory or an external skills directory.
  * Parses metadata headers and extracts skill content.
  */
 @Component
@@ -61,6 +64,60 @@ public class SkillLoader {
         return skills;
     }
 
+    /**
+     * Loads all skills below an external directory, keyed by file path.
+     * Files that fail to parse are skipped, like on the classpath.
+     */
+    public Map<Path, Skill> loadExternalSkills(Path directory) {
+        return loadExternalSkills(directory, directory);
+    }
+
+    /**
+     * Loads all skills below a subdirectory of an external skills root, keyed by file path.
+     */
+    public Map<Path, Skill> loadExternalSkills(Path directory, Path root) {
+        Map<Path, Skill> skills = new HashMap<>();
+        if (!Files.isDirectory(directory)) {
+            log.warn("External skills directory does not exist: {}", directory);
+            return skills;
+        }
+        
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.filter(SkillLoader::isSkillFile).forEach(file -> {
+                try {
+                    skills.put(file, loadSkill(file, root));
+                } catch (Exception e) {
+                    log.warn("Failed to load skill from {}: {}", file, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            throw new SkillLoadException("Failed to scan skills directory " + directory, e);
+        }
+        
+        log.info("Loaded {} skills from {}", skills.size(), directory);
+        return skills;
+    }
+
+    /**
+     * Loads a single skill file from an external directory.
+     * The category is the first directory below the root, as for classpath skills.
+     */
+    public Skill loadSkill(Path file, Path root) throws IOException {
+        Path relative = root.relativize(file);
+        String category = relative.getNameCount() > 1 ? relative.getName(0).toString() : "default";
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        return parseSkill(extractName(file.getFileName().toString()), category, content);
+    }
+
+    /**
+     * Returns whether a path looks like a skill file.
+     */
+    public static boolean isSkillFile(Path path) {
+        return path.getFileName() != null
+                && path.getFileName().toString().endsWith(".md")
+                && Files.isRegularFile(path);
+    }
+
     /**
      * Loads a single skill from a resource.
      */
@@ -71,9 +128,13 @@ public class SkillLoader {
         }
         
         String content = resource.getContentAsString(StandardCharsets.UTF_8);
-        String name = extractName(filename);
-        String category = extractCategory(resource);
-        
+        return parseSkill(extractName(filename), extractCategory(resource), content);
+    }
+
+    /**
+     * Parses the metadata header and content of a skill file.
+     */
+    Skill parseSkill(String name, String category, String content) {
         // Parse metadata
         List<String> dependencies = List.of();
         int priority = Skill.DEFAULT_PRIORITY;
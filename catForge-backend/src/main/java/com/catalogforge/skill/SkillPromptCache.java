@@ -0,0 +1,191 @@
+package com.catalogforge.skill;
+
+import com.catalogforge.model.Skill;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable snapshot of loaded skills with memoized prompt assembly.
+ * All style × format combinations are assembled up front; other requests are
+ * cached on first use up to a fixed bound. Identical inputs return the same String instance.
+ */
+public final class SkillPromptCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SkillPromptCache.class);
+    private static final int MAX_ENTRIES = 256;
+    private static final String STYLE_PREFIX = "STYLE_";
+    private static final String FORMAT_PREFIX = "FORMAT_";
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final Map<String, Skill> skills;
+    private final SkillGraph graph;
+    private final SkillAssembler assembler;
+    private final Map<Key, Entry> prompts = new ConcurrentHashMap<>();
+    private final Map<SelectionKey, SkillSelection> selections = new ConcurrentHashMap<>();
+    private final long version = VERSIONS.incrementAndGet();
+
+    /**
+     * Cache key; requested skills are sorted since assembly order does not depend on them.
+     */
+    private record Key(List<String> requestedSkills, String style, String format) {}
+
+    /**
+     * Selection cache key.
+     */
+    private record SelectionKey(String style, String format, Set<SkillTopic> topics) {}
+
+    /**
+     * Assembled prompt together with the skill names it was resolved from.
+     */
+    private record Entry(String prompt, Set<String> referencedSkills) {}
+
+    private SkillPromptCache(Map<String, Skill> skills, SkillAssembler assembler) {
+        this.skills = Map.copyOf(skills);
+        this.graph = SkillGraph.build(this.skills);
+        this.assembler = assembler;
+    }
+
+    /**
+     * Creates a snapshot and precomputes every style × format combination.
+     *
+     * @throws com.catalogforge.exception.SkillLoadException if the skill dependencies contain a cycle
+     */
+    public static SkillPromptCache precompute(Map<String, Skill> skills, SkillAssembler assembler) {
+        SkillPromptCache cache = new SkillPromptCache(skills, assembler);
+        cache.warm();
+        return cache;
+    }
+
+    /**
+     * Creates an empty snapshot.
+     */
+    public static SkillPromptCache empty(SkillAssembler assembler) {
+        return new SkillPromptCache(Map.of(), assembler);
+    }
+
+    /**
+     * Creates a snapshot for updated skills, reusing every prompt that does not reference a changed skill.
+     *
+     * @param skills Complete set of skills after the change
+     * @param changedSkills Names of skills that were added, modified or removed
+     */
+    public SkillPromptCache update(Map<String, Skill> skills, Set<String> changedSkills) {
+        SkillPromptCache next = new SkillPromptCache(skills, assembler);
+        prompts.forEach((key, entry) -> {
+            if (Collections.disjoint(entry.referencedSkills(), changedSkills)) {
+                next.prompts.put(key, entry);
+            }
+        });
+        int reused = next.prompts.size();
+        next.warm();
+        log.debug("Reused {}/{} skill prompts after change to {}", reused, prompts.size(), changedSkills);
+        return next;
+    }
+
+    /**
+     * Returns the assembled prompt for the given inputs.
+     */
+    public String get(List<String> requestedSkills, String style, String format) {
+        Key key = key(requestedSkills, style, format);
+        Entry cached = prompts.get(key);
+        if (cached != null) {
+            return cached.prompt();
+        }
+        
+        if (prompts.size() >= MAX_ENTRIES) {
+            return assemble(key).prompt();
+        }
+        return prompts.computeIfAbsent(key, this::assemble).prompt();
+    }
+
+    /**
+     * Returns the relevance-based selection for the given inputs, memoized per snapshot.
+     */
+    public SkillSelection select(String style, String format, Set<SkillTopic> topics, SkillSelector selector) {
+        Key normalized = key(List.of(), style, format);
+        SelectionKey key = new SelectionKey(normalized.style(), normalized.format(), Set.copyOf(topics));
+        SkillSelection cached = selections.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        
+        if (selections.size() >= MAX_ENTRIES) {
+            return selector.select(graph, key.style(), key.format(), key.topics());
+        }
+        return selections.computeIfAbsent(key, k -> selector.select(graph, k.style(), k.format(), k.topics()));
+    }
+
+    /**
+     * Returns the skills in this snapshot.
+     */
+    public Map<String, Skill> skills() {
+        return skills;
+    }
+
+    /**
+     * Returns the dependency graph of this snapshot.
+     */
+    public SkillGraph graph() {
+        return graph;
+    }
+
+    /**
+     * Returns a number that is unique to this snapshot within the running process.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Returns the number of cached prompts.
+     */
+    public int size() {
+        return prompts.size();
+    }
+
+    private void warm() {
+        List<String> styles = new ArrayList<>();
+        List<String> formats = new ArrayList<>();
+        styles.add(null);
+        formats.add(null);
+        for (String name : skills.keySet()) {
+            if (name.startsWith(STYLE_PREFIX)) {
+                styles.add(name);
+            } else if (name.startsWith(FORMAT_PREFIX)) {
+                formats.add(name);
+            }
+        }
+        
+        for (String style : styles) {
+            for (String format : formats) {
+                get(List.of(), style, format);
+            }
+        }
+        
+        log.info("Precomputed {} skill prompts ({} styles x {} formats)",
+                size(), styles.size() - 1, formats.size() - 1);
+    }
+
+    private Entry assemble(Key key) {
+        return new Entry(
+                assembler.assemble(graph, key.requestedSkills(), key.style(), key.format()),
+                Set.copyOf(assembler.referencedSkillNames(graph, key.requestedSkills(), key.style(), key.format())));
+    }
+
+    private Key key(List<String> requestedSkills, String style, String format) {
+        List<String> requested = requestedSkills == null || requestedSkills.isEmpty()
+                ? List.of()
+                : requestedSkills.stream().distinct().sorted().toList();
+        String normalizedStyle = style == null || style.isBlank() ? null : assembler.normalizeStyleName(style);
+        String normalizedFormat = format == null || format.isBlank() ? null : assembler.normalizeFormatName(format);
+        return new Key(requested, normalizedStyle, normalizedFormat);
+    }
+}
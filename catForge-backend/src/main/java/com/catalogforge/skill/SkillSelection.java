@@ -0,0 +1,38 @@
+package com.catalogforge.skill;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of relevance-based skill selection.
+ *
+ * @param prompt Assembled skills section containing only the selected content
+ * @param topics Topics the request was matched against
+ * @param skillsUsed All skills that contributed to the prompt, in assembly order
+ * @param fullSkills Skills included completely, in assembly order
+ * @param partialSkills Skills trimmed to matching sections with the kept headings, in assembly order
+ * @param droppedSkills Dependencies left out entirely
+ * @param tokens Estimated tokens of the selected prompt
+ * @param unselectedTokens Estimated tokens the complete skill set would have used
+ */
+public record SkillSelection(
+    String prompt,
+    Set<SkillTopic> topics,
+    List<String> skillsUsed,
+    List<String> fullSkills,
+    Map<String, List<String>> partialSkills,
+    List<String> droppedSkills,
+    int tokens,
+    int unselectedTokens
+) {
+    public SkillSelection {
+        topics = Set.copyOf(topics);
+        skillsUsed = List.copyOf(skillsUsed);
+        fullSkills = List.copyOf(fullSkills);
+        partialSkills = Collections.unmodifiableMap(new LinkedHashMap<>(partialSkills));
+        droppedSkills = List.copyOf(droppedSkills);
+    }
+}
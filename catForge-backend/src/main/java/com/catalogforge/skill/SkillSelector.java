@@ -0,0 +1,167 @@
+package com.catalogforge.skill;
+
+import com.catalogforge.model.Skill;
+import com.catalogforge.util.TokenEstimator;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the skill content relevant to a layout request.
+ * MASTER_SKILL, the style skill and the format skill are always included in full.
+ * Their dependencies are included in full when the skill itself matches a requested topic,
+ * trimmed to the matching {@code ##}/{@code ###} sections otherwise, or dropped if nothing matches.
+ */
+@Component
+public class SkillSelector {
+
+    private static final String MASTER_SKILL = "MASTER_SKILL";
+    private static final Pattern HEADING = Pattern.compile("^(#{1,3})\\s+(.+)$");
+
+    private final SkillAssembler assembler;
+
+    public SkillSelector(SkillAssembler assembler) {
+        this.assembler = assembler;
+    }
+
+    /**
+     * A heading-delimited block of skill markdown. Level 0 is the text before the first heading.
+     */
+    record Section(int level, String heading, String text) {}
+
+    /**
+     * Selects skills for the given style, format and topics.
+     */
+    public SkillSelection select(SkillGraph graph, String style, String format, Set<SkillTopic> topics) {
+        Set<String> anchors = new HashSet<>();
+        anchors.add(MASTER_SKILL);
+        if (style != null && !style.isBlank()) {
+            anchors.add(assembler.normalizeStyleName(style));
+        }
+        if (format != null && !format.isBlank()) {
+            anchors.add(assembler.normalizeFormatName(format));
+        }
+        
+        List<String> used = new ArrayList<>();
+        List<String> full = new ArrayList<>();
+        Map<String, List<String>> partial = new LinkedHashMap<>();
+        List<String> dropped = new ArrayList<>();
+        StringBuilder prompt = new StringBuilder();
+        
+        for (String name : assembler.getOrderedSkillNames(graph, List.of(), style, format)) {
+            Skill skill = graph.skill(graph.idOf(name));
+            String content;
+            if (anchors.contains(name) || matchesAny(name, topics)) {
+                content = skill.content();
+                full.add(name);
+            } else {
+                List<String> keptHeadings = new ArrayList<>();
+                content = selectSections(skill.content(), topics, keptHeadings);
+                if (content == null) {
+                    dropped.add(name);
+                    continue;
+                }
+                partial.put(name, keptHeadings);
+            }
+            
+            used.add(name);
+            if (!prompt.isEmpty()) {
+                prompt.append("\n\n---\n\n");
+            }
+            prompt.append("# ").append(name).append("\n\n").append(content);
+        }
+        
+        String selected = prompt.toString();
+        int unselected = TokenEstimator.estimate(assembler.assemble(graph, List.of(), style, format));
+        return new SkillSelection(selected, topics, used, full, partial, dropped,
+                TokenEstimator.estimate(selected), unselected);
+    }
+
+    /**
+     * Returns the sections of a skill whose headings match a topic, or null if none match.
+     * A matching {@code ##} section keeps all its subsections; a matching {@code ###} section keeps its parent heading.
+     */
+    String selectSections(String content, Set<SkillTopic> topics, List<String> keptHeadings) {
+        List<Section> sections = parseSections(content);
+        boolean[] keep = new boolean[sections.size()];
+        boolean any = false;
+        int parent = -1;
+        boolean parentKept = false;
+        
+        for (int i = 0; i < sections.size(); i++) {
+            Section section = sections.get(i);
+            if (section.level() < 2) {
+                continue;
+            }
+            if (section.level() == 2) {
+                parent = i;
+                parentKept = matchesAny(section.heading(), topics);
+                keep[i] = parentKept;
+            } else {
+                keep[i] = parentKept || matchesAny(section.heading(), topics);
+                if (keep[i] && parent >= 0) {
+                    keep[parent] = true;
+                }
+            }
+            any |= keep[i];
+        }
+        
+        if (!any) {
+            return null;
+        }
+        
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < sections.size(); i++) {
+            Section section = sections.get(i);
+            if (section.level() < 2 || keep[i]) {
+                sb.append(section.text());
+                if (keep[i]) {
+                    keptHeadings.add(section.heading());
+                }
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Splits skill markdown at headings, ignoring {@code #} lines inside code fences.
+     */
+    static List<Section> parseSections(String content) {
+        List<Section> sections = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        int level = 0;
+        String heading = "";
+        boolean inFence = false;
+        
+        for (String line : content.split("\n", -1)) {
+            if (line.startsWith("```")) {
+                inFence = !inFence;
+            }
+            Matcher matcher = inFence ? null : HEADING.matcher(line);
+            if (matcher != null && matcher.matches()) {
+                if (!text.isEmpty()) {
+                    sections.add(new Section(level, heading, text.toString()));
+                }
+                text.setLength(0);
+                level = matcher.group(1).length();
+                heading = matcher.group(2).trim();
+            }
+            text.append(line).append("\n");
+        }
+        if (!text.isEmpty()) {
+            sections.add(new Section(level, heading, text.toString()));
+        }
+        return sections;
+    }
+
+    private static boolean matchesAny(String text, Set<SkillTopic> topics) {
+        for (SkillTopic topic : topics) {
+            if (topic.matches(text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+package com.catalogforge.skill;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Topics used to match skill sections against a layout request.
+ * Keywords are lower-case stems in English and German and match at the start of a word,
+ * so "rand" matches "Randabstand" but not "Brand".
+ */
+public enum SkillTopic {
+
+    TYPOGRAPHY("typograph", "font", "schrift", "type scale", "headline", "überschrift", "line height"),
+    COLOR("color", "colour", "farb", "palette", "kontrast", "contrast"),
+    GRID("grid", "raster", "column", "spalte", "modular", "layout pattern", "quadrant"),
+    SPACING("spacing", "abstand", "whitespace", "breathing", "margin", "rand"),
+    SPECS("technical", "technisch", "specs", "specification", "spezifikation", "datenblatt", "table", "tabelle"),
+    IMAGERY("image", "imagery", "bild", "foto", "photo"),
+    PRINT("print", "druck", "bleed", "beschnitt", "cmyk", "fold", "falz");
+
+    private final List<String> keywords;
+
+    SkillTopic(String... keywords) {
+        this.keywords = List.of(keywords);
+    }
+
+    /**
+     * Returns whether the text mentions this topic.
+     */
+    public boolean matches(String text) {
+        if (text == null || text.isBlank()) {
+            return false;
+        }
+        String lower = text.toLowerCase(Locale.ROOT).replace('_', ' ');
+        for (String keyword : keywords) {
+            if (startsWord(lower, keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWord(String text, String keyword) {
+        for (int i = text.indexOf(keyword); i >= 0; i = text.indexOf(keyword, i + 1)) {
+            if (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns all topics mentioned in the text.
+     */
+    public static Set<SkillTopic> detect(String text) {
+        EnumSet<SkillTopic> topics = EnumSet.noneOf(SkillTopic.class);
+        for (SkillTopic topic : values()) {
+            if (topic.matches(text)) {
+                topics.add(topic);
+            }
+        }
+        return topics;
+    }
+}
@@ -87,6 +87,13 @@ public final class ColorUtils {
         };
     }
 
+    /**
+     * Convert RGB channel values (0-255) to an uppercase 6-digit hex color.
+     */
+    public static String rgbToHex(int r, int g, int b) {
+        return String.format("#%02X%02X%02X", r, g, b);
+    }
+
     /**
      * Linearize a color channel value for luminance calculation.
      */
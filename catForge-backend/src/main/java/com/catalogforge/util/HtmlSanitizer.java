@@ -67,6 +67,8 @@ public final class HtmlSanitizer {
 
     /**
      * Check if HTML contains potentially dangerous content.
+     * Only markup counts: script elements and the attributes of tags. Comments and the content
+     * of raw text elements such as {@code <style>} are not markup and are ignored.
      *
      * @param html the HTML to check
      * @return true if dangerous content is detected
@@ -76,9 +78,21 @@ public final class HtmlSanitizer {
             return false;
         }
 
-        return SCRIPT_PATTERN.matcher(html).find()
-            || EVENT_HANDLER_PATTERN.matcher(html).find()
-            || JAVASCRIPT_URL_PATTERN.matcher(html).find()
-            || DATA_URL_PATTERN.matcher(html).find();
+        HtmlTokenizer tokenizer = new HtmlTokenizer(html);
+        for (HtmlTokenizer.Token token = tokenizer.next(); token != null; token = tokenizer.next()) {
+            if (token.type() != HtmlTokenizer.Type.START_TAG) {
+                continue;
+            }
+            if (token.name().equals("script")) {
+                return true;
+            }
+            String tag = html.substring(token.start(), token.end());
+            if (EVENT_HANDLER_PATTERN.matcher(tag).find()
+                    || JAVASCRIPT_URL_PATTERN.matcher(tag).find()
+                    || DATA_URL_PATTERN.matcher(tag).find()) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,205 @@
+package com.catalogforge.util;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Minimal HTML tokenizer for the structural checks of {@link LayoutRepairer} and {@link HtmlSanitizer}.
+ * Splits markup into text, comments and tags, keeps the content of raw text elements such as
+ * {@code <script>} and {@code <style>} as text, and knows which end tags HTML lets authors omit.
+ */
+final class HtmlTokenizer {
+
+    /** Elements that never have a closing tag. */
+    static final Set<String> VOID_ELEMENTS = Set.of(
+        "area", "base", "br", "col", "embed", "hr", "img", "input",
+        "link", "meta", "param", "source", "track", "wbr"
+    );
+
+    /** Elements whose content is raw text and must not be scanned for tags. */
+    static final Set<String> RAW_TEXT_ELEMENTS = Set.of("script", "style", "textarea", "title");
+
+    private static final Set<String> CLOSES_P = Set.of(
+        "address", "article", "aside", "blockquote", "details", "div", "dl", "fieldset",
+        "figcaption", "figure", "footer", "form", "h1", "h2", "h3", "h4", "h5", "h6",
+        "header", "hgroup", "hr", "main", "menu", "nav", "ol", "p", "pre", "section", "table", "ul"
+    );
+
+    /**
+     * Elements whose end tag may be omitted, mapped to the start tags that implicitly close them.
+     * An omitted end tag is also implied by the end tag of the parent element.
+     */
+    private static final Map<String, Set<String>> OPTIONAL_END_TAGS = Map.ofEntries(
+        Map.entry("p", CLOSES_P),
+        Map.entry("li", Set.of("li")),
+        Map.entry("dt", Set.of("dt", "dd")),
+        Map.entry("dd", Set.of("dt", "dd")),
+        Map.entry("option", Set.of("option", "optgroup")),
+        Map.entry("optgroup", Set.of("optgroup")),
+        Map.entry("td", Set.of("td", "th", "tr", "thead", "tbody", "tfoot")),
+        Map.entry("th", Set.of("td", "th", "tr", "thead", "tbody", "tfoot")),
+        Map.entry("tr", Set.of("tr", "thead", "tbody", "tfoot")),
+        Map.entry("thead", Set.of("tbody", "tfoot")),
+        Map.entry("tbody", Set.of("tbody", "tfoot")),
+        Map.entry("tfoot", Set.of()),
+        Map.entry("colgroup", Set.of("thead", "tbody", "tfoot", "tr")),
+        Map.entry("rt", Set.of("rt", "rp")),
+        Map.entry("rp", Set.of("rt", "rp")),
+        Map.entry("html", Set.of()),
+        Map.entry("head", Set.of("body")),
+        Map.entry("body", Set.of())
+    );
+
+    enum Type {
+        TEXT,
+        /** Comment, doctype or processing instruction. */
+        COMMENT,
+        START_TAG,
+        END_TAG,
+        /** Tag or comment cut off at the end of the input. */
+        TRUNCATED
+    }
+
+    /**
+     * A token spanning {@code [start, end)} of the input; {@code name} is the lower-case tag name of tags.
+     */
+    record Token(Type type, int start, int end, String name, boolean selfClosing) {
+    }
+
+    private final String html;
+    private int position;
+    private String rawTextElement;
+
+    HtmlTokenizer(String html) {
+        this.html = html;
+    }
+
+    /**
+     * Whether the end tag of {@code open} may be omitted.
+     */
+    static boolean hasOptionalEndTag(String open) {
+        return OPTIONAL_END_TAGS.containsKey(open);
+    }
+
+    /**
+     * Whether the start tag {@code next} implicitly closes the open element {@code open}.
+     */
+    static boolean isClosedBy(String open, String next) {
+        Set<String> closers = OPTIONAL_END_TAGS.get(open);
+        return closers != null && closers.contains(next);
+    }
+
+    /**
+     * Returns the next token, or {@code null} at the end of the input.
+     */
+    Token next() {
+        if (position >= html.length()) {
+            return null;
+        }
+        int start = position;
+        if (rawTextElement != null) {
+            int end = indexOfIgnoreCase(html, "</" + rawTextElement, position);
+            rawTextElement = null;
+            if (end != start) {
+                position = end < 0 ? html.length() : end;
+                return new Token(Type.TEXT, start, position, null, false);
+            }
+        }
+        if (html.charAt(start) != '<' || start + 1 >= html.length()) {
+            return text(start);
+        }
+        char next = html.charAt(start + 1);
+        if (html.startsWith("<!--", start)) {
+            int end = html.indexOf("-->", start + 4);
+            return end < 0 ? truncated(start) : token(Type.COMMENT, start, end + 3, null, false);
+        }
+        if (next == '!' || next == '?') {
+            int end = html.indexOf('>', start);
+            return end < 0 ? truncated(start) : token(Type.COMMENT, start, end + 1, null, false);
+        }
+        boolean closing = next == '/';
+        int nameStart = closing ? start + 2 : start + 1;
+        if (nameStart >= html.length()) {
+            return closing ? truncated(start) : text(start);
+        }
+        if (!isAsciiLetter(html.charAt(nameStart))) {
+            return text(start);
+        }
+        int nameEnd = nameStart;
+        while (nameEnd < html.length() && isNameChar(html.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        String name = html.substring(nameStart, nameEnd).toLowerCase(Locale.ROOT);
+        int end = tagEnd(nameEnd);
+        if (end < 0) {
+            return truncated(start);
+        }
+        if (closing) {
+            return token(Type.END_TAG, start, end, name, false);
+        }
+        boolean selfClosing = html.charAt(end - 2) == '/';
+        if (!selfClosing && RAW_TEXT_ELEMENTS.contains(name)) {
+            rawTextElement = name;
+        }
+        return token(Type.START_TAG, start, end, name, selfClosing);
+    }
+
+    /**
+     * Finds the end of a tag after its name, skipping quoted attribute values.
+     * Falls back to the first {@code >} if a quote is never closed.
+     *
+     * @return the index after the closing {@code >}, or -1 if the tag is cut off
+     */
+    private int tagEnd(int from) {
+        char quote = 0;
+        for (int i = from; i < html.length(); i++) {
+            char c = html.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return i + 1;
+            }
+        }
+        if (quote == 0) {
+            return -1;
+        }
+        int end = html.indexOf('>', from);
+        return end < 0 ? -1 : end + 1;
+    }
+
+    private Token text(int start) {
+        int end = html.indexOf('<', start + 1);
+        return token(Type.TEXT, start, end < 0 ? html.length() : end, null, false);
+    }
+
+    private Token truncated(int start) {
+        return token(Type.TRUNCATED, start, html.length(), null, false);
+    }
+
+    private Token token(Type type, int start, int end, String name, boolean selfClosing) {
+        position = end;
+        return new Token(type, start, end, name, selfClosing);
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isNameChar(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9') || c == '-';
+    }
+
+    static int indexOfIgnoreCase(String text, String needle, int from) {
+        for (int i = from; i <= text.length() - needle.length(); i++) {
+            if (text.regionMatches(true, i, needle, 0, needle.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,125 @@
+package com.catalogforge.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized JSON responses for read-mostly endpoints, kept per data version.
+ * A body is serialized and gzipped once per version; later requests only compare the version
+ * and write the cached bytes. The ETag is the checksum of the body alone, so it stays valid across
+ * reloads and restarts that produce the same content, and a matching {@code If-None-Match} is
+ * answered with 304 by Spring's {@code ResponseEntity} handling.
+ */
+public final class JsonResponseCache {
+
+    /** Bodies below this size are not worth compressing. */
+    static final int MIN_GZIP_SIZE = 1024;
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePublic();
+
+    /**
+     * Serialized body of one version; {@code gzip} is null if compression does not pay off.
+     */
+    private record Entry(long version, String etag, byte[] identity, byte[] gzip) {}
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cached response for a key, serializing the body first if the version changed.
+     *
+     * @param version        version of the data behind the body, e.g. the catalog snapshot
+     * @param body           supplies the value to serialize for a new version
+     * @param acceptEncoding the request's {@code Accept-Encoding} header, may be null
+     */
+    public ResponseEntity<byte[]> respond(String key, long version, Supplier<?> body, String acceptEncoding) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.version() != version) {
+            entry = entries.compute(key, (k, current) ->
+                    current != null && current.version() == version ? current : serialize(version, body.get()));
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CACHE_CONTROL);
+        if (entry.gzip() == null) {
+            return response.eTag(entry.etag()).body(entry.identity());
+        }
+        response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.eTag(entry.etag() + "-gzip")
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(entry.gzip());
+        }
+        return response.eTag(entry.etag()).body(entry.identity());
+    }
+
+    private static Entry serialize(long version, Object body) {
+        byte[] identity;
+        try {
+            identity = JsonUtils.getMapper().writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to serialize response", e);
+        }
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(identity);
+        String etag = Long.toHexString(checksum.getValue());
+
+        byte[] gzip = identity.length >= MIN_GZIP_SIZE ? gzip(identity) : null;
+        if (gzip != null && gzip.length >= identity.length) {
+            gzip = null;
+        }
+        return new Entry(version, etag, identity, gzip);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns whether an {@code Accept-Encoding} header allows gzip, i.e. lists it (or {@code *})
+     * without {@code q=0}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim();
+            if (!coding.equals("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean disabled = false;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=") && param.substring(2).trim().matches("0(\\.0*)?")) {
+                    disabled = true;
+                }
+            }
+            if (!disabled) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
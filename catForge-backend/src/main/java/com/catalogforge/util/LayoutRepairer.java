@@ -0,0 +1,259 @@
+package com.catalogforge.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utility for mechanically repairing generated layouts without another LLM call.
+ * Handles unbalanced CSS blocks, dangling HTML tags, unsafe content and truncated JSON output.
+ */
+public final class LayoutRepairer {
+
+    // Pattern to match a script tag left after sanitizing, i.e. one cut off before its closing tag
+    private static final Pattern UNTERMINATED_SCRIPT_PATTERN = Pattern.compile(
+        "<script\\b.*\\z",
+        Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+    );
+
+    private LayoutRepairer() {
+        // Utility class
+    }
+
+    /**
+     * Repair HTML by stripping unsafe content and closing dangling tags.
+     *
+     * @param html the HTML to repair
+     * @return repaired HTML
+     */
+    public static String repairHtml(String html) {
+        if (html == null || html.isEmpty()) {
+            return html;
+        }
+        return closeDanglingTags(stripUnsafeContent(html));
+    }
+
+    /**
+     * Remove script tags, event handlers and dangerous URLs, including scripts cut off by truncation.
+     */
+    public static String stripUnsafeContent(String html) {
+        if (html == null || html.isEmpty()) {
+            return html;
+        }
+        String sanitized = HtmlSanitizer.sanitize(html);
+        return UNTERMINATED_SCRIPT_PATTERN.matcher(sanitized).replaceAll("");
+    }
+
+    /**
+     * Check if HTML has unclosed, stray or truncated tags.
+     * End tags that HTML allows to omit, e.g. of {@code <li>}, {@code <p>} or {@code <td>}, are not required,
+     * and tags inside comments or raw text elements such as {@code <script>} are ignored.
+     */
+    public static boolean hasTagImbalance(String html) {
+        if (html == null || html.isEmpty()) {
+            return false;
+        }
+        return !closeDanglingTags(html).equals(html);
+    }
+
+    /**
+     * Close dangling HTML tags.
+     * Drops closing tags without a matching opener, removes a tag or comment cut off at the end,
+     * and appends closing tags for elements still open. Elements with optional end tags are closed
+     * implicitly, as a browser would, and never get an end tag added.
+     *
+     * @param html the HTML to repair
+     * @return HTML with balanced tags
+     */
+    public static String closeDanglingTags(String html) {
+        if (html == null || html.isEmpty()) {
+            return html;
+        }
+
+        StringBuilder out = new StringBuilder(html.length() + 64);
+        Deque<String> open = new ArrayDeque<>();
+        HtmlTokenizer tokenizer = new HtmlTokenizer(html);
+
+        for (HtmlTokenizer.Token token = tokenizer.next(); token != null; token = tokenizer.next()) {
+            switch (token.type()) {
+                case TRUNCATED -> {
+                    // Cut off at the end of the input, e.g. <div class="he
+                }
+                case END_TAG -> {
+                    if (open.contains(token.name())) {
+                        // Close inner elements the generator forgot before closing this one
+                        closeUntil(open, token.name(), out);
+                        out.append(html, token.start(), token.end());
+                    }
+                }
+                case START_TAG -> {
+                    while (!open.isEmpty() && HtmlTokenizer.isClosedBy(open.peek(), token.name())) {
+                        open.pop();
+                    }
+                    if (!token.selfClosing() && !HtmlTokenizer.VOID_ELEMENTS.contains(token.name())) {
+                        open.push(token.name());
+                    }
+                    out.append(html, token.start(), token.end());
+                }
+                default -> out.append(html, token.start(), token.end());
+            }
+        }
+
+        closeUntil(open, null, out);
+        return out.toString();
+    }
+
+    /**
+     * Pops open elements up to and including {@code name}, or all of them if {@code name} is null,
+     * appending end tags for those whose end tag is required.
+     */
+    private static void closeUntil(Deque<String> open, String name, StringBuilder out) {
+        while (!open.isEmpty()) {
+            String element = open.pop();
+            if (element.equals(name)) {
+                return;
+            }
+            if (!HtmlTokenizer.hasOptionalEndTag(element)) {
+                out.append("</").append(element).append('>');
+            }
+        }
+    }
+
+    /**
+     * Repair CSS by dropping unmatched closing brackets and closing open blocks,
+     * comments and strings left by truncation.
+     *
+     * @param css the CSS to repair
+     * @return CSS with balanced brackets
+     */
+    public static String repairCss(String css) {
+        if (css == null || css.isEmpty()) {
+            return css;
+        }
+
+        StringBuilder out = new StringBuilder(css.length() + 16);
+        int depth = 0;
+        boolean inComment = false;
+        char stringChar = 0;
+
+        for (int i = 0; i < css.length(); i++) {
+            char c = css.charAt(i);
+
+            if (inComment) {
+                out.append(c);
+                if (c == '/' && css.charAt(i - 1) == '*') {
+                    inComment = false;
+                }
+                continue;
+            }
+            if (stringChar != 0) {
+                out.append(c);
+                if (c == stringChar && css.charAt(i - 1) != '\\') {
+                    stringChar = 0;
+                }
+                continue;
+            }
+
+            if (c == '/' && i + 1 < css.length() && css.charAt(i + 1) == '*') {
+                inComment = true;
+                out.append("/*");
+                i++;
+            } else if (c == '"' || c == '\'') {
+                stringChar = c;
+                out.append(c);
+            } else if (c == '{') {
+                depth++;
+                out.append(c);
+            } else if (c == '}') {
+                if (depth > 0) {
+                    depth--;
+                    out.append(c);
+                }
+            } else {
+                out.append(c);
+            }
+        }
+
+        if (stringChar != 0) {
+            out.append(stringChar);
+        }
+        if (inComment) {
+            out.append("*/");
+        }
+        while (depth-- > 0) {
+            out.append("\n}");
+        }
+        return out.toString();
+    }
+
+    /**
+     * Recover string fields from a JSON object that was cut off mid-value,
+     * e.g. a Gemini response that stopped with finish reason MAX_TOKENS.
+     *
+     * @param json the truncated JSON
+     * @param fields the string fields to recover
+     * @return recovered fields, or empty if none could be found
+     */
+    public static Optional<Map<String, String>> salvageTruncatedJson(String json, String... fields) {
+        if (json == null || json.isBlank()) {
+            return Optional.empty();
+        }
+
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String field : fields) {
+            Matcher matcher = Pattern.compile("\"" + Pattern.quote(field) + "\"\\s*:\\s*\"").matcher(json);
+            if (matcher.find()) {
+                result.put(field, decodeJsonString(json, matcher.end()));
+            }
+        }
+        return result.isEmpty() ? Optional.empty() : Optional.of(result);
+    }
+
+    /**
+     * Decode a JSON string body starting at {@code start}, stopping at the closing quote or the end of input.
+     */
+    private static String decodeJsonString(String json, int start) {
+        StringBuilder sb = new StringBuilder();
+        int i = start;
+        while (i < json.length()) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                break;
+            }
+            if (c != '\\') {
+                sb.append(c);
+                i++;
+                continue;
+            }
+            if (i + 1 >= json.length()) {
+                break;
+            }
+            char escaped = json.charAt(i + 1);
+            switch (escaped) {
+                case 'n' -> sb.append('\n');
+                case 't' -> sb.append('\t');
+                case 'r' -> sb.append('\r');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (i + 6 > json.length()) {
+                        return sb.toString();
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(json.substring(i + 2, i + 6), 16));
+                    } catch (NumberFormatException e) {
+                        return sb.toString();
+                    }
+                    i += 4;
+                }
+                default -> sb.append(escaped);
+            }
+            i += 2;
+        }
+        return sb.toString();
+    }
+}
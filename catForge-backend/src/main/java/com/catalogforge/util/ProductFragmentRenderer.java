@@ -0,0 +1,101 @@
+package com.catalogforge.util;
+
+import com.catalogforge.model.Product;
+import com.catalogforge.model.ProductFragment;
+
+/**
+ * Renders the markdown blocks used for products in LLM prompts.
+ */
+public final class ProductFragmentRenderer {
+
+    /**
+     * Section header preceding the product fragments.
+     */
+    public static final String SECTION_HEADER = "## Product Data\n\n";
+
+    private ProductFragmentRenderer() {
+        // Utility class
+    }
+
+    /**
+     * Renders all forms of a product fragment.
+     */
+    public static ProductFragment render(Product product) {
+        String full = renderFull(product);
+        String compact = renderCompact(product, false);
+        int compactTokens = TokenEstimator.estimate(compact);
+        if (!hasSpecs(product)) {
+            return new ProductFragment(product.id(), full, compact, compact,
+                    TokenEstimator.estimate(full), compactTokens, compactTokens);
+        }
+        String compactWithSpecs = renderCompact(product, true);
+        return new ProductFragment(product.id(), full, compact, compactWithSpecs,
+                TokenEstimator.estimate(full), compactTokens, TokenEstimator.estimate(compactWithSpecs));
+    }
+
+    static String renderFull(Product product) {
+        StringBuilder sb = new StringBuilder();
+        appendIdentity(sb, product);
+        
+        if (product.shortDescription() != null) {
+            sb.append("- Short Description: ").append(product.shortDescription()).append("\n");
+        }
+        if (product.description() != null) {
+            sb.append("- Description: ").append(product.description()).append("\n");
+        }
+        if (product.priceEur() != null) {
+            sb.append("- Price: €").append(product.priceEur()).append("\n");
+        }
+        if (product.highlights() != null && !product.highlights().isEmpty()) {
+            sb.append("- Highlights: ").append(String.join(", ", product.highlights())).append("\n");
+        }
+        if (hasSpecs(product)) {
+            appendSpecs(sb, product);
+        }
+        if (product.imageUrl() != null) {
+            sb.append("- Image: ").append(product.imageUrl()).append("\n");
+        }
+        sb.append("\n");
+        
+        return sb.toString();
+    }
+
+    static String renderCompact(Product product, boolean withSpecs) {
+        StringBuilder sb = new StringBuilder();
+        appendIdentity(sb, product);
+        
+        if (product.shortDescription() != null) {
+            sb.append("- Short Description: ").append(product.shortDescription()).append("\n");
+        }
+        if (product.priceEur() != null) {
+            sb.append("- Price: €").append(product.priceEur()).append("\n");
+        }
+        if (withSpecs && hasSpecs(product)) {
+            appendSpecs(sb, product);
+        }
+        if (product.imageUrl() != null) {
+            sb.append("- Image: ").append(product.imageUrl()).append("\n");
+        }
+        sb.append("\n");
+        
+        return sb.toString();
+    }
+
+    private static boolean hasSpecs(Product product) {
+        return product.specs() != null && !product.specs().specifications().isEmpty();
+    }
+
+    private static void appendSpecs(StringBuilder sb, Product product) {
+        sb.append("- Technical Data:\n");
+        product.specs().specifications().forEach((key, value) ->
+            sb.append("  - ").append(key).append(": ").append(value).append("\n")
+        );
+    }
+
+    private static void appendIdentity(StringBuilder sb, Product product) {
+        sb.append("### ").append(product.name()).append("\n");
+        sb.append("- ID: ").append(product.id()).append("\n");
+        sb.append("- Category: ").append(product.category()).append("\n");
+        sb.append("- Series: ").append(product.series()).append("\n");
+    }
+}
@@ -0,0 +1,92 @@
+package com.catalogforge.util;
+
+import com.catalogforge.model.Product;
+import com.catalogforge.model.ProductField;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Pre-serialized JSON of a product, split into one fragment per field.
+ * Built once at catalog load so list responses concatenate strings instead of serializing records.
+ */
+public final class ProductJson {
+
+    private final String[] fragments;
+    private final String full;
+
+    private ProductJson(String[] fragments, String full) {
+        this.fragments = fragments;
+        this.full = full;
+    }
+
+    /**
+     * Serializes a product with the shared mapper.
+     */
+    public static ProductJson of(Product product) {
+        ObjectMapper mapper = JsonUtils.getMapper();
+        JsonNode tree = mapper.valueToTree(product);
+        ProductField[] fields = ProductField.values();
+        String[] fragments = new String[fields.length];
+        StringJoiner full = new StringJoiner(",", "{", "}");
+        try {
+            for (ProductField field : fields) {
+                fragments[field.ordinal()] = mapper.writeValueAsString(field.jsonName()) + ":"
+                        + mapper.writeValueAsString(tree.get(field.jsonName()));
+                full.add(fragments[field.ordinal()]);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize product " + product.id(), e);
+        }
+        return new ProductJson(fragments, full.toString());
+    }
+
+    /**
+     * Recreates the JSON from fragments returned by {@link #fragments()}.
+     */
+    public static ProductJson ofFragments(String[] fragments) {
+        if (fragments.length != ProductField.values().length) {
+            throw new IllegalArgumentException("Expected " + ProductField.values().length
+                    + " fragments, got " + fragments.length);
+        }
+        StringJoiner full = new StringJoiner(",", "{", "}");
+        for (String fragment : fragments) {
+            full.add(fragment);
+        }
+        return new ProductJson(fragments.clone(), full.toString());
+    }
+
+    /**
+     * Returns the serialized {@code "name":value} fragment of every field, in declaration order.
+     */
+    public String[] fragments() {
+        return fragments.clone();
+    }
+
+    /**
+     * Returns the JSON object with all fields.
+     */
+    public String full() {
+        return full;
+    }
+
+    /**
+     * Returns the JSON object with only the given fields, in declaration order.
+     * A null set selects all fields.
+     */
+    public String render(Set<ProductField> fields) {
+        if (fields == null || fields.size() == fragments.length) {
+            return full;
+        }
+        StringJoiner json = new StringJoiner(",", "{", "}");
+        for (ProductField field : ProductField.values()) {
+            if (fields.contains(field)) {
+                json.add(fragments[field.ordinal()]);
+            }
+        }
+        return json.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package com.catalogforge.util;
+
+/**
+ * Cheap token estimates for prompt budgeting and audit logging.
+ */
+public final class TokenEstimator {
+
+    // Rough average for mixed German/English text with Gemini's tokenizer
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private TokenEstimator() {
+        // Utility class
+    }
+
+    /**
+     * Estimates the token count of a text.
+     */
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+}
@@ -126,7 +126,7 @@ class AgentFrameworkTest {
             );
             
             assertThat(context.hasImage()).isTrue();
-            assertThat(context.imageBase64()).isEqualTo("base64data");
+            assertThat(context.image().toBase64()).isEqualTo("base64data");
             assertThat(context.imageMimeType()).isEqualTo("image/png");
         }
 
@@ -0,0 +1,171 @@
+package com.catalogforge.agent;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for DagPipeline.
+ */
+class DagPipelineTest {
+
+    @Test
+    @DisplayName("Dependencies should follow declared slots")
+    void dependenciesShouldFollowDeclaredSlots() {
+        List<AgentStep> steps = List.of(
+                step("skills", Set.of(ContextSlot.OPTIONS), Set.of(ContextSlot.SKILL_PROMPT), c -> c),
+                step("products", Set.of(ContextSlot.PRODUCTS), Set.of(ContextSlot.PRODUCT_SECTION), c -> c),
+                step("prompt", Set.of(ContextSlot.SKILL_PROMPT, ContextSlot.PRODUCT_SECTION),
+                        Set.of(ContextSlot.ASSEMBLED_PROMPT), c -> c),
+                step("generate", Set.of(ContextSlot.ASSEMBLED_PROMPT), Set.of(ContextSlot.GENERATED_LAYOUT), c -> c)
+        );
+
+        List<List<Integer>> dependencies = DagPipeline.computeDependencies(steps);
+
+        assertThat(dependencies.get(0)).isEmpty();
+        assertThat(dependencies.get(1)).isEmpty();
+        assertThat(dependencies.get(2)).containsExactly(0, 1);
+        assertThat(dependencies.get(3)).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Undeclared steps should act as barriers")
+    void undeclaredStepsShouldActAsBarriers() {
+        AgentStep barrier = context -> context;
+        List<AgentStep> steps = List.of(
+                step("skills", Set.of(ContextSlot.OPTIONS), Set.of(ContextSlot.SKILL_PROMPT), c -> c),
+                barrier,
+                step("products", Set.of(ContextSlot.PRODUCTS), Set.of(ContextSlot.PRODUCT_SECTION), c -> c)
+        );
+
+        List<List<Integer>> dependencies = DagPipeline.computeDependencies(steps);
+
+        assertThat(dependencies.get(1)).containsExactly(0);
+        assertThat(dependencies.get(2)).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Independent steps should run concurrently and merge their outputs")
+    void independentStepsShouldRunConcurrently() {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        UnaryOperator<AgentContext> rendezvous = context -> {
+            bothRunning.countDown();
+            try {
+                if (!bothRunning.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Steps did not run concurrently");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return context;
+        };
+
+        DagPipeline pipeline = new DagPipeline("Test", List.of(
+                step("skills", Set.of(ContextSlot.OPTIONS), Set.of(ContextSlot.SKILL_PROMPT),
+                        c -> rendezvous.apply(c).withMetadata("skillPrompt", "SKILLS")),
+                step("products", Set.of(ContextSlot.PRODUCTS), Set.of(ContextSlot.PRODUCT_SECTION),
+                        c -> rendezvous.apply(c).withMetadata("productSection", "PRODUCTS")),
+                step("prompt", Set.of(ContextSlot.SKILL_PROMPT, ContextSlot.PRODUCT_SECTION),
+                        Set.of(ContextSlot.ASSEMBLED_PROMPT),
+                        c -> c.withAssembledPrompt(ContextSlot.SKILL_PROMPT.readString(c) + "|"
+                                + ContextSlot.PRODUCT_SECTION.readString(c)))
+        ));
+
+        AgentContext result = pipeline.run(AgentContext.forTextGeneration(List.of(), null, "prompt"));
+
+        assertThat(result.assembledPrompt()).isEqualTo("SKILLS|PRODUCTS");
+    }
+
+    @Test
+    @DisplayName("Undeclared slot changes should not leak into the shared context")
+    void undeclaredSlotChangesShouldBeIgnored() {
+        DagPipeline pipeline = new DagPipeline("Test", List.of(
+                step("sneaky", Set.of(ContextSlot.OPTIONS), Set.of(ContextSlot.SKILL_PROMPT),
+                        c -> c.withAssembledPrompt("leaked").withMetadata("skillPrompt", "SKILLS"))
+        ));
+
+        AgentContext result = pipeline.run(AgentContext.forTextGeneration(List.of(), null, "prompt"));
+
+        assertThat(result.assembledPrompt()).isNull();
+        assertThat(result.metadata()).containsEntry("skillPrompt", "SKILLS");
+    }
+
+    @Test
+    @DisplayName("Metadata removed by a branch step should stay removed after the merge")
+    void removedMetadataShouldNotBeRestored() {
+        AgentContext initial = AgentContext.forTextGeneration(List.of(), null, "prompt")
+                .withMetadata(AgentContext.CORRECTION_TURN_KEY, "turn");
+        DagPipeline pipeline = new DagPipeline("Test", List.of(
+                step("generate", Set.of(ContextSlot.CORRECTION_TURN), Set.of(ContextSlot.CORRECTION_TURN),
+                        c -> c.withoutMetadata(AgentContext.CORRECTION_TURN_KEY)),
+                step("products", Set.of(ContextSlot.PRODUCTS), Set.of(ContextSlot.PRODUCT_SECTION),
+                        c -> c.withMetadata("productSection", "PRODUCTS"))
+        ));
+
+        AgentContext result = pipeline.run(initial);
+
+        assertThat(result.metadata())
+                .doesNotContainKey(AgentContext.CORRECTION_TURN_KEY)
+                .containsEntry("productSection", "PRODUCTS");
+    }
+
+    @Test
+    @DisplayName("Step failures should propagate to the caller")
+    void stepFailuresShouldPropagate() {
+        DagPipeline pipeline = new DagPipeline("Test", List.of(
+                step("failing", Set.of(ContextSlot.OPTIONS), Set.of(ContextSlot.SKILL_PROMPT), c -> {
+                    throw new IllegalStateException("boom");
+                })
+        ));
+
+        assertThatThrownBy(() -> pipeline.run(AgentContext.forTextGeneration(List.of(), null, "prompt")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+    }
+
+    @Test
+    @DisplayName("Closing the pipeline should shut down its executor")
+    void closeShouldRejectFurtherRuns() {
+        DagPipeline pipeline = new DagPipeline("Test", List.of(
+                step("noop", Set.of(ContextSlot.OPTIONS), Set.of(ContextSlot.SKILL_PROMPT), c -> c)
+        ));
+
+        pipeline.close();
+
+        assertThatThrownBy(() -> pipeline.run(AgentContext.forTextGeneration(List.of(), null, "prompt")))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    private static AgentStep step(String name, Set<ContextSlot> inputs, Set<ContextSlot> outputs,
+                                  UnaryOperator<AgentContext> body) {
+        return new AgentStep() {
+            @Override
+            public AgentContext execute(AgentContext context) {
+                return body.apply(context);
+            }
+
+            @Override
+            public Set<ContextSlot> inputs() {
+                return inputs;
+            }
+
+            @Override
+            public Set<ContextSlot> outputs() {
+                return outputs;
+            }
+
+            @Override
+            public String name() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.catalogforge.agent;
+
+import com.catalogforge.agent.strategies.MultiVariantStrategy;
+import com.catalogforge.config.properties.AgentProperties;
+import com.catalogforge.exception.ServiceOverloadedException;
+import com.catalogforge.model.Product;
+import com.catalogforge.model.request.LayoutOptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for StrategyBulkhead and strategy degradation.
+ */
+class StrategyBulkheadTest {
+
+    @Test
+    @DisplayName("Saturated bulkhead should reject with retry hint")
+    void saturatedBulkheadShouldReject() {
+        StrategyBulkhead bulkhead = new StrategyBulkhead("Test", new AgentProperties.Bulkhead(1, 0, 10), 7);
+
+        try (StrategyBulkhead.Permit permit = bulkhead.acquire()) {
+            assertThat(bulkhead.inFlight()).isEqualTo(1);
+            assertThatThrownBy(bulkhead::acquire)
+                    .isInstanceOf(ServiceOverloadedException.class)
+                    .satisfies(e -> assertThat(((ServiceOverloadedException) e).getRetryAfterSeconds()).isEqualTo(7));
+        }
+
+        assertThat(bulkhead.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Closing a permit twice should release only one slot")
+    void permitShouldReleaseOnce() {
+        StrategyBulkhead bulkhead = new StrategyBulkhead("Test", new AgentProperties.Bulkhead(2, 0, 10), 1);
+
+        StrategyBulkhead.Permit first = bulkhead.acquire();
+        StrategyBulkhead.Permit second = bulkhead.acquire();
+        first.close();
+        first.close();
+
+        assertThat(bulkhead.inFlight()).isEqualTo(1);
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Pressure should reflect in-flight share of capacity")
+    void pressureShouldReflectLoad() {
+        StrategyBulkhead bulkhead = new StrategyBulkhead("Test", new AgentProperties.Bulkhead(2, 2, 10), 1);
+
+        try (StrategyBulkhead.Permit first = bulkhead.acquire();
+             StrategyBulkhead.Permit second = bulkhead.acquire()) {
+            assertThat(first.pressure()).isEqualTo(0.25);
+            assertThat(second.pressure()).isEqualTo(0.5);
+        }
+    }
+
+    @Test
+    @DisplayName("Bulkhead settings should be looked up by kebab-case strategy name")
+    void bulkheadSettingsShouldUseKebabCase() {
+        AgentProperties properties = new AgentProperties(
+                Map.of("multi-variant", new AgentProperties.Bulkhead(3, 5, 100)), 10, 60);
+
+        assertThat(properties.bulkheadFor("MultiVariant").maxConcurrent()).isEqualTo(3);
+        assertThat(properties.bulkheadFor("SimpleLayout").maxConcurrent()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Multi-variant degradation should halve the variant count and record it")
+    void multiVariantDegradationShouldHalveVariants() {
+        PipelineStrategy strategy = new MultiVariantStrategy(null);
+        AgentContext context = AgentContext.forTextGeneration(
+                List.<Product>of(), new LayoutOptions("A4", null, 4, false, false), "prompt");
+
+        AgentContext degraded = strategy.degrade(context);
+
+        assertThat(degraded.options().variantCount()).isEqualTo(2);
+        assertThat(degraded.degradations()).containsExactly("variantCount reduced from 4 to 2");
+    }
+}
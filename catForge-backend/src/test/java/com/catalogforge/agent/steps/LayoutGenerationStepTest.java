@@ -0,0 +1,163 @@
+package com.catalogforge.agent.steps;
+
+import com.catalogforge.agent.AgentContext;
+import com.catalogforge.agent.CorrectionStep;
+import com.catalogforge.config.properties.LayoutProperties;
+import com.catalogforge.gemini.GeminiClient;
+import com.catalogforge.gemini.GeminiRequest;
+import com.catalogforge.gemini.GeminiResponse;
+import com.catalogforge.logging.LlmInteractionLogger;
+import com.catalogforge.model.*;
+import com.catalogforge.model.request.LayoutOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for LayoutGenerationStep.
+ */
+class LayoutGenerationStepTest {
+
+    private static final String PROMPT = """
+            ## Skills
+            Use a modular grid.
+            
+            ## Products
+            Actros 1845 | Leistung: 330 kW
+            """;
+
+    private static final String VALID_HTML = "<section class=\"product\"><h1>Actros 1845</h1><p>Leistung 330 kW</p></section>";
+
+    private GeminiClient geminiClient;
+    private LayoutGenerationStep generationStep;
+    private CorrectionStep correctionStep;
+    private ValidationStep validationStep;
+
+    @BeforeEach
+    void setUp() {
+        geminiClient = mock(GeminiClient.class);
+        when(geminiClient.generate(anyString(), any())).thenReturn(response(VALID_HTML, ".product { color: #333; }"));
+        LlmInteractionLogger llmLogger = mock(LlmInteractionLogger.class);
+        when(llmLogger.generateRequestId()).thenReturn("request-2");
+        generationStep = new LayoutGenerationStep(geminiClient, llmLogger);
+        correctionStep = new CorrectionStep(new LayoutProperties(0, 0, true, null, 0));
+        validationStep = new ValidationStep();
+    }
+
+    @Nested
+    @DisplayName("Delta correction")
+    class DeltaCorrectionTests {
+
+        @Test
+        @DisplayName("Correction request should summarize the request instead of resending skills and product text")
+        void correctionRequestShouldNotResendPrompt() {
+            when(geminiClient.generate(anyString(), any())).thenReturn(correctionResponse(0));
+
+            AgentContext corrected = generationStep.execute(correct(
+                    new LayoutVariant("v0", VALID_HTML, ".product { color: #333;")));
+
+            ArgumentCaptor<GeminiRequest> request = ArgumentCaptor.forClass(GeminiRequest.class);
+            verify(geminiClient).generate(anyString(), request.capture());
+            List<GeminiRequest.Content> contents = request.getValue().contents();
+            assertThat(contents).hasSize(3);
+            assertThat(contents).allSatisfy(content -> assertThat(text(content))
+                    .doesNotContain("modular grid", "Leistung: 330 kW"));
+            assertThat(text(contents.get(0))).contains("Actros 1845", "Datenblatt");
+            assertThat(contents.get(1).role()).isEqualTo("model");
+            assertThat(text(contents.get(1))).contains(".product { color: #333;");
+            assertThat(text(contents.get(2))).contains("CSS has unbalanced brackets");
+            assertThat(validationStep.execute(corrected).isValid()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should correct all failing variants in one request and keep the passing ones")
+        void shouldCorrectFailingVariantsTogether() {
+            when(geminiClient.generate(anyString(), any())).thenReturn(correctionResponse(0, 2));
+            LayoutVariant passing = new LayoutVariant("v1", VALID_HTML, ".product { color: #333; }");
+
+            AgentContext corrected = generationStep.execute(correct(
+                    new LayoutVariant("v0", VALID_HTML, ".product {"),
+                    passing,
+                    new LayoutVariant("v2", VALID_HTML, "}")));
+
+            ArgumentCaptor<GeminiRequest> request = ArgumentCaptor.forClass(GeminiRequest.class);
+            verify(geminiClient).generate(anyString(), request.capture());
+            List<GeminiRequest.Content> contents = request.getValue().contents();
+            assertThat(text(contents.get(1))).contains(".product {", "\"index\":2").doesNotContain("\"index\":1");
+            assertThat(text(contents.get(2))).contains("Variant 0:", "Variant 2:");
+            List<LayoutVariant> variants = corrected.generatedLayout().variants();
+            assertThat(variants).hasSize(3);
+            assertThat(variants.get(1)).isEqualTo(passing);
+            assertThat(variants.get(0).id()).isNotEqualTo("v0");
+            assertThat(variants.get(2).id()).isNotEqualTo("v2");
+            assertThat(validationStep.execute(corrected).isValid()).isTrue();
+        }
+    }
+
+    /**
+     * Validates a layout of the given variants and prepares its delta correction.
+     */
+    private AgentContext correct(LayoutVariant... variants) {
+        AgentContext context = AgentContext.forTextGeneration(List.of(product()),
+                        new LayoutOptions("A4", "modern", variants.length, true, false), "Datenblatt")
+                .withAssembledPrompt(PROMPT)
+                .withGeneratedLayout(new Layout("layout", "completed", Instant.now(),
+                        new PageFormat("A4", 210, 297, "mm"), null, List.of(variants),
+                        new LayoutMetadata(List.of(), 0L, 1)));
+        AgentContext validated = validationStep.execute(context);
+        assertThat(validated.isValid()).isFalse();
+        return correctionStep.execute(validated);
+    }
+
+    private static String text(GeminiRequest.Content content) {
+        return content.parts().get(content.parts().size() - 1).text();
+    }
+
+    private static GeminiResponse response(String html, String css) {
+        return jsonResponse("{\"html\": \"" + html.replace("\"", "\\\"") + "\", \"css\": \"" + css
+                + "\", \"title\": \"Actros\"}");
+    }
+
+    private static GeminiResponse jsonResponse(String json) {
+        return new GeminiResponse(List.of(new GeminiResponse.Candidate(
+                new GeminiResponse.Content(List.of(new GeminiResponse.Part(json)), "model"),
+                "STOP", 0, List.of())), null, null);
+    }
+
+    private static GeminiResponse correctionResponse(int... indexes) {
+        String variants = Arrays.stream(indexes)
+                .mapToObj(index -> "{\"index\": " + index + ", \"html\": \"" + VALID_HTML.replace("\"", "\\\"")
+                        + "\", \"css\": \".product { color: #333; }\"}")
+                .collect(Collectors.joining(", "));
+        return jsonResponse("{\"variants\": [" + variants + "]}");
+    }
+
+    private static Product product() {
+        return new Product(
+                1L,
+                "Actros 1845",
+                "Fernverkehr",
+                "Sattelzugmaschine",
+                "Sattelzugmaschine für den Fernverkehr",
+                "Lkw",
+                "Actros",
+                new TechnicalData(Map.of("Leistung", "330 kW")),
+                List.of("Effizient"),
+                "http://example.com/actros.jpg",
+                99999
+        );
+    }
+}
@@ -0,0 +1,101 @@
+package com.catalogforge.catalog;
+
+import com.catalogforge.config.properties.ProductDataProperties;
+import com.catalogforge.model.Product;
+import com.catalogforge.model.TechnicalData;
+import com.catalogforge.model.request.ProductListOptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ColumnarProductStore and TextArena.
+ */
+class ColumnarProductStoreTest {
+
+    @Test
+    @DisplayName("Should materialize products equal to the originals")
+    void shouldRoundTripCatalog() throws IOException {
+        List<Product> products = new ProductCatalogLoader(ProductDataProperties.defaults()).load().products();
+        ColumnarProductStore.Builder builder = ColumnarProductStore.builder();
+        products.forEach(builder::add);
+
+        ColumnarProductStore store = builder.build();
+
+        assertThat(store).isEqualTo(products);
+        assertThat(store.offHeapBytes()).isPositive();
+        assertThat(store.get(0)).isNotSameAs(store.get(0));
+    }
+
+    @Test
+    @DisplayName("Should keep null fields, missing specs and empty highlights apart")
+    void shouldPreserveNulls() {
+        Product withoutSpecs = new Product(1L, "A", null, null, null, null, null, null, List.of(), null, null);
+        Product emptySpecs = new Product(2L, "B", "", null, null, "Cat", "Series",
+                new TechnicalData(Map.of()), List.of("x"), null, 0);
+        Product withSpecs = new Product(3L, "C", null, null, null, "Cat", null,
+                new TechnicalData(Map.of("leistung_ps", "530")), List.of(), "url", 100);
+
+        ColumnarProductStore store = ColumnarProductStore.builder()
+                .add(withoutSpecs).add(emptySpecs).add(withSpecs).build();
+
+        assertThat(store).containsExactly(withoutSpecs, emptySpecs, withSpecs);
+        assertThat(store.id(2)).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should sort positions on columns in the same order as the list comparator")
+    void shouldSortLikeComparator() throws IOException {
+        ColumnarProductStore.Builder builder = ColumnarProductStore.builder();
+        new ProductCatalogLoader(ProductDataProperties.defaults()).load().products().forEach(builder::add);
+        builder.add(new Product(900L, null, null, null, null, null, null, null, List.of(), null, null));
+        builder.add(new Product(901L, "actros", null, null, null, "lkw", null, null, List.of(), null, 0));
+        ColumnarProductStore store = builder.build();
+
+        for (ColumnarProductStore.Column column : ColumnarProductStore.Column.values()) {
+            for (String direction : List.of("asc", "desc")) {
+                ProductListOptions.Sort sort = ProductListOptions.parse(null, null, null,
+                        column.name().toLowerCase() + "," + direction, null).sort();
+                List<Product> expected = new ArrayList<>(store);
+                expected.sort(sort);
+
+                assertThat(store.sorted(column, sort.descending()))
+                        .as("%s %s", column, direction)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should spread text over several arena chunks")
+    void arenaShouldSpanChunks() {
+        TextArena arena = new TextArena(16);
+        long small = arena.append("Actros");
+        long large = arena.append("Kühlkoffer mit Ladebordwand");
+        long empty = arena.append("");
+
+        assertThat(arena.read(small)).isEqualTo("Actros");
+        assertThat(arena.read(large)).isEqualTo("Kühlkoffer mit Ladebordwand");
+        assertThat(arena.read(empty)).isEmpty();
+        assertThat(arena.read(arena.append(null))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should load the catalog into columnar storage")
+    void loaderShouldBuildColumnarCatalog() throws IOException {
+        ProductCatalog heap = new ProductCatalogLoader(ProductDataProperties.defaults()).load();
+        ProductCatalog columnar = new ProductCatalogLoader(new ProductDataProperties(null, 0, 2, null,
+                ProductDataProperties.Storage.OFF_HEAP)).load();
+
+        assertThat(columnar.products()).isInstanceOf(ColumnarProductStore.class).isEqualTo(heap.products());
+        assertThat(columnar.product(1L)).isEqualTo(heap.product(1L));
+        assertThat(columnar.searchIndex().search("actros")).isEqualTo(heap.searchIndex().search("actros"));
+        assertThat(columnar.fragment(columnar.product(1L))).isNull();
+    }
+}
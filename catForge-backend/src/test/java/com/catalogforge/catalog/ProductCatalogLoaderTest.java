@@ -0,0 +1,119 @@
+package com.catalogforge.catalog;
+
+import com.catalogforge.config.properties.ProductDataProperties;
+import com.catalogforge.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for ProductCatalogLoader.
+ */
+class ProductCatalogLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should load the bundled classpath catalog without a fingerprint")
+    void shouldLoadClasspathCatalog() throws IOException {
+        ProductCatalogLoader loader = new ProductCatalogLoader(ProductDataProperties.defaults());
+
+        ProductCatalog catalog = loader.load();
+
+        assertThat(catalog.size()).isEqualTo(30);
+        assertThat(catalog.fingerprint()).isNull();
+        assertThat(catalog.product(1L)).isNotNull();
+        assertThat(catalog.fragment(catalog.product(1L))).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should stream JSON arrays and product sequences")
+    void shouldParseArraysAndSequences() throws IOException {
+        String array = "[{\"id\":1,\"name\":\"A\"},{\"id\":2,\"name\":\"B\"}]";
+        String sequence = "{\"id\":3,\"name\":\"C\"}\n{\"id\":4,\"name\":\"D\"}\n";
+
+        List<Long> ids = new ArrayList<>();
+        ProductCatalogLoader.parse(stream(array), product -> ids.add(product.id()));
+        ProductCatalogLoader.parse(stream(sequence), product -> ids.add(product.id()));
+
+        assertThat(ids).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should merge shards in file name order and skip duplicate IDs")
+    void shouldMergeShards() throws IOException {
+        Files.writeString(tempDir.resolve("02-rest.jsonl"), "{\"id\":3,\"name\":\"C\"}\n{\"id\":1,\"name\":\"Dup\"}\n");
+        Files.writeString(tempDir.resolve("01-first.json"), "[{\"id\":1,\"name\":\"A\"},{\"id\":2,\"name\":\"B\"}]");
+        Files.writeString(tempDir.resolve("notes.txt"), "ignored");
+
+        ProductCatalog catalog = loader(tempDir).load();
+
+        assertThat(catalog.products()).extracting(Product::name).containsExactly("A", "B", "C");
+        assertThat(catalog.searchIndex().search("C")).extracting(Product::id).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should keep file name order with more shards than loader threads")
+    void shouldKeepOrderAcrossLoaderWindow() throws IOException {
+        for (int shard = 0; shard < 7; shard++) {
+            StringBuilder products = new StringBuilder();
+            for (int i = 0; i < 50; i++) {
+                long id = shard * 50L + i;
+                products.append("{\"id\":").append(id).append(",\"name\":\"P").append(id).append("\"}\n");
+            }
+            Files.writeString(tempDir.resolve("shard-" + shard + ".jsonl"), products);
+        }
+
+        ProductCatalog catalog = loader(tempDir).load();
+
+        assertThat(catalog.products()).extracting(Product::id)
+                .containsExactlyElementsOf(LongStream.range(0, 350).boxed().toList());
+    }
+
+    @Test
+    @DisplayName("Should change the fingerprint when a shard changes")
+    void shouldDetectChanges() throws IOException {
+        Path shard = tempDir.resolve("products.json");
+        Files.writeString(shard, "[{\"id\":1,\"name\":\"A\"}]");
+        ProductCatalogLoader loader = loader(shard);
+        String before = loader.fingerprint();
+
+        Files.writeString(shard, "[{\"id\":1,\"name\":\"A\"},{\"id\":2,\"name\":\"B\"}]");
+        Files.setLastModifiedTime(shard, FileTime.from(Instant.now().plusSeconds(5)));
+
+        assertThat(loader.fingerprint()).isNotEqualTo(before);
+        assertThat(loader.load().size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should fail on invalid JSON or a missing source")
+    void shouldFailOnInvalidSource() throws IOException {
+        Files.writeString(tempDir.resolve("broken.json"), "[{\"id\":1,");
+
+        assertThatThrownBy(() -> loader(tempDir).load()).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> loader(tempDir.resolve("missing.json")).load()).isInstanceOf(IOException.class);
+    }
+
+    private static ProductCatalogLoader loader(Path path) {
+        return new ProductCatalogLoader(new ProductDataProperties(path.toString(), 0, 2, null, null));
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,47 @@
+package com.catalogforge.catalog;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ProductIdIndex.
+ */
+class ProductIdIndexTest {
+
+    @Test
+    @DisplayName("Should use a dense array for contiguous IDs")
+    void shouldUseDenseArrayForContiguousIds() {
+        ProductIdIndex index = ProductIdIndex.build(new long[] {3, 1, 2, 5});
+
+        assertThat(index.isDense()).isTrue();
+        assertThat(index.position(1)).isEqualTo(1);
+        assertThat(index.position(5)).isEqualTo(3);
+        assertThat(index.position(4)).isEqualTo(-1);
+        assertThat(index.position(0)).isEqualTo(-1);
+        assertThat(index.position(Long.MAX_VALUE)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should hash sparse IDs")
+    void shouldHashSparseIds() {
+        long[] ids = new Random(7).longs(1000, -1_000_000_000_000L, 1_000_000_000_000L).distinct().toArray();
+
+        ProductIdIndex index = ProductIdIndex.build(ids);
+
+        assertThat(index.isDense()).isFalse();
+        for (int i = 0; i < ids.length; i++) {
+            assertThat(index.position(ids[i])).isEqualTo(i);
+        }
+        assertThat(index.position(1_000_000_000_001L)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should handle an empty catalog")
+    void shouldHandleEmptyCatalog() {
+        assertThat(ProductIdIndex.build(new long[0]).position(1)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,117 @@
+package com.catalogforge.catalog;
+
+import com.catalogforge.config.properties.ProductDataProperties;
+import com.catalogforge.model.Product;
+import com.catalogforge.search.SpecRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ProductSnapshot.
+ */
+class ProductSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ProductCatalog catalog;
+    private Path snapshot;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        catalog = new ProductCatalogLoader(ProductDataProperties.defaults()).load();
+        snapshot = tempDir.resolve("products.snapshot");
+    }
+
+    @Test
+    @DisplayName("Should restore products, fragments, JSON and indexes")
+    void shouldRoundTrip() throws IOException {
+        ProductSnapshot.write(snapshot, catalog, 42L);
+
+        ProductCatalog restored = ProductSnapshot.read(snapshot, 42L, "fingerprint");
+
+        assertThat(restored).isNotNull();
+        assertThat(restored.products()).isEqualTo(catalog.products());
+        assertThat(restored.fingerprint()).isEqualTo("fingerprint");
+        for (Product product : catalog.products()) {
+            Product copy = restored.product(product.id());
+            assertThat(restored.fragment(copy)).isEqualTo(catalog.fragment(product));
+            assertThat(restored.json(copy).full()).isEqualTo(catalog.json(product).full());
+        }
+        assertThat(restored.searchIndex().search("actros")).isEqualTo(catalog.searchIndex().search("actros"));
+        List<SpecRange> ranges = List.of(SpecRange.parse("leistung_ps>500"));
+        assertThat(restored.rangeIndex().filter(ranges)).isEqualTo(catalog.rangeIndex().filter(ranges));
+        assertThat(restored.facetIndex().facets(null, null, null)).isEqualTo(catalog.facetIndex().facets(null, null, null));
+        assertThat(restored.facetIndex().filter("Fernverkehr", null, null))
+                .isEqualTo(catalog.facetIndex().filter("Fernverkehr", null, null));
+        assertThat(restored.similarityIndex().nearest(0, 5)).isEqualTo(catalog.similarityIndex().nearest(0, 5));
+    }
+
+    @Test
+    @DisplayName("Should ignore snapshots written by another build")
+    void shouldIgnoreSnapshotsOfOtherCode() throws IOException {
+        ProductSnapshot.write(snapshot, catalog, 42L);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        // Code fingerprint follows magic and format version
+        bytes[Integer.BYTES * 2 + Long.BYTES - 1] ^= 1;
+        Files.write(snapshot, bytes);
+
+        assertThat(ProductSnapshot.read(snapshot, 42L, null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should ignore stale, corrupt or missing snapshots")
+    void shouldIgnoreInvalidSnapshots() throws IOException {
+        assertThat(ProductSnapshot.read(snapshot, 42L, null)).isNull();
+
+        ProductSnapshot.write(snapshot, catalog, 42L);
+        assertThat(ProductSnapshot.read(snapshot, 43L, null)).isNull();
+
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(snapshot, bytes);
+        assertThat(ProductSnapshot.read(snapshot, 42L, null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should be written on JSON load and used on the next load")
+    void loaderShouldUseSnapshot() throws IOException {
+        Path source = tempDir.resolve("products.json");
+        Files.writeString(source, "[{\"id\":1,\"name\":\"Actros\"},{\"id\":2,\"name\":\"Arocs\"}]");
+        ProductCatalogLoader loader = new ProductCatalogLoader(
+                new ProductDataProperties(source.toString(), 0, 2, snapshot.toString(), null));
+
+        ProductCatalog first = loader.load();
+        assertThat(snapshot).exists();
+        assertThat(ProductSnapshot.read(snapshot, loader.checksum(), null)).isNotNull();
+
+        ProductCatalog second = loader.load();
+        assertThat(second.products()).isEqualTo(first.products());
+        assertThat(second.searchIndex().search("arocs")).extracting(Product::id).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Should key the snapshot by the size and modification time of the source")
+    void checksumShouldFollowSourceState() throws IOException {
+        Path source = tempDir.resolve("products.json");
+        Files.writeString(source, "[{\"id\":1,\"name\":\"Actros\"}]");
+        ProductCatalogLoader loader = new ProductCatalogLoader(
+                new ProductDataProperties(source.toString(), 0, 2, snapshot.toString(), null));
+        long before = loader.checksum();
+
+        assertThat(loader.checksum()).isEqualTo(before);
+        Files.setLastModifiedTime(source, FileTime.from(Instant.now().plusSeconds(5)));
+        assertThat(loader.checksum()).isNotEqualTo(before);
+    }
+}
@@ -1,6 +1,11 @@
 package com.catalogforge.controller;
 
 import com.catalogforge.model.Product;
+import com.catalogforge.model.ProductBatch;
+import com.catalogforge.model.ProductFacets;
+import com.catalogforge.model.ProductGrouping;
+import com.catalogforge.model.SimilarProduct;
+import com.catalogforge.search.SpecRange;
 import com.catalogforge.service.ProductService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -11,12 +16,15 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
@@ -69,6 +77,15 @@ class ProductControllerTest {
                     .andExpect(jsonPath("$[1].name", is("Arocs 3251")));
         }
 
+        @Test
+        @DisplayName("should reject page sizes above the limit")
+        void shouldRejectOversizedPages() throws Exception {
+            when(productService.getAllProducts()).thenReturn(List.of());
+
+            mockMvc.perform(get("/api/v1/products").param("size", "500"))
+                    .andExpect(status().isBadRequest());
+        }
+
         @Test
         @DisplayName("should filter by category")
         void shouldFilterByCategory() throws Exception {
@@ -115,6 +132,65 @@ class ProductControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/v1/products/filter")
+    class FilterProductsTests {
+
+        @Test
+        @DisplayName("should return products with facet counts")
+        void shouldReturnProductsWithFacets() throws Exception {
+            List<Product> filtered = List.of(
+                    createTestProduct(1L, "Actros L 1853", "Fernverkehr", "Actros L")
+            );
+            ProductFacets facets = new ProductFacets(
+                    Map.of("Fernverkehr", 1),
+                    Map.of("Actros L", 1, "eActros", 2),
+                    Map.of("motor", 1));
+            when(productService.filterProducts("Fernverkehr", null, List.of("motor"), List.of()))
+                    .thenReturn(filtered);
+            when(productService.getFacets("Fernverkehr", null, List.of("motor"), List.of()))
+                    .thenReturn(facets);
+
+            mockMvc.perform(get("/api/v1/products/filter")
+                            .param("category", "Fernverkehr")
+                            .param("spec", "motor"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements", is(1)))
+                    .andExpect(jsonPath("$.products[0].name", is("Actros L 1853")))
+                    .andExpect(jsonPath("$.facets.categories.Fernverkehr", is(1)))
+                    .andExpect(jsonPath("$.facets.series.eActros", is(2)))
+                    .andExpect(jsonPath("$.facets.specKeys.motor", is(1)));
+        }
+
+        @Test
+        @DisplayName("should pass parsed spec ranges to the service")
+        void shouldPassParsedSpecRanges() throws Exception {
+            List<SpecRange> ranges = List.of(
+                    SpecRange.parse("leistung_ps>400"),
+                    SpecRange.parse("gesamtgewicht_t:..18"));
+            List<Product> filtered = List.of(
+                    createTestProduct(1L, "Actros L 1853", "Fernverkehr", "Actros L")
+            );
+            when(productService.filterProducts(null, null, List.of(), ranges)).thenReturn(filtered);
+            when(productService.getFacets(null, null, List.of(), ranges))
+                    .thenReturn(new ProductFacets(Map.of(), Map.of(), Map.of()));
+
+            mockMvc.perform(get("/api/v1/products/filter")
+                            .param("range", "leistung_ps>400")
+                            .param("range", "gesamtgewicht_t:..18"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements", is(1)));
+        }
+
+        @Test
+        @DisplayName("should reject malformed range expressions")
+        void shouldRejectMalformedRange() throws Exception {
+            mockMvc.perform(get("/api/v1/products/filter")
+                            .param("range", "leistung_ps:viel"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/v1/products/{id}")
     class GetProductByIdTests {
@@ -134,6 +210,75 @@ class ProductControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/v1/products/batch")
+    class BatchLookupTests {
+
+        @Test
+        @DisplayName("should return found products and missing IDs")
+        void shouldReturnProductsAndMissingIds() throws Exception {
+            Product product = createTestProduct(1L, "Actros L 1853", "Fernverkehr", "Actros L");
+            when(productService.getProductsByIds(List.of(1L, 99L)))
+                    .thenReturn(new ProductBatch(List.of(product), List.of(99L)));
+
+            mockMvc.perform(post("/api/v1/products/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"ids\": [1, 99]}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.products", hasSize(1)))
+                    .andExpect(jsonPath("$.products[0].name", is("Actros L 1853")))
+                    .andExpect(jsonPath("$.missingIds[0]", is(99)));
+        }
+
+        @Test
+        @DisplayName("should reject an empty ID list")
+        void shouldRejectEmptyIds() throws Exception {
+            mockMvc.perform(post("/api/v1/products/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"ids\": []}"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/products/{id}/similar")
+    class SimilarProductsTests {
+
+        @Test
+        @DisplayName("should return similar products with scores")
+        void shouldReturnSimilarProducts() throws Exception {
+            Product product = createTestProduct(2L, "Actros L 1848 LS", "Fernverkehr", "Actros L");
+            when(productService.findSimilarProducts(1L, 5)).thenReturn(List.of(new SimilarProduct(product, 0.8)));
+
+            mockMvc.perform(get("/api/v1/products/1/similar"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].product.id", is(2)))
+                    .andExpect(jsonPath("$[0].score", is(0.8)));
+        }
+
+        @Test
+        @DisplayName("should reject a limit out of range")
+        void shouldRejectInvalidLimit() throws Exception {
+            mockMvc.perform(get("/api/v1/products/1/similar").param("limit", "500"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("should return a suggested grouping")
+        void shouldReturnGrouping() throws Exception {
+            List<Product> products = List.of(
+                    createTestProduct(1L, "Actros L 1853", "Fernverkehr", "Actros L"),
+                    createTestProduct(2L, "Actros L 1848 LS", "Fernverkehr", "Actros L"));
+            when(productService.suggestGrouping(1L, 2)).thenReturn(new ProductGrouping(products, 0.6));
+
+            mockMvc.perform(get("/api/v1/products/1/grouping").param("size", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.products", hasSize(2)))
+                    .andExpect(jsonPath("$.cohesion", is(0.6)));
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/v1/products/categories")
     class GetCategoriesTests {
@@ -149,6 +294,55 @@ class ProductControllerTest {
                     .andExpect(jsonPath("$", hasSize(3)))
                     .andExpect(jsonPath("$", containsInAnyOrder("Baustellenverkehr", "Fernverkehr", "Verteilerverkehr")));
         }
+
+        @Test
+        @DisplayName("should answer a matching ETag with 304 until the catalog version changes")
+        void shouldRevalidateWithETag() throws Exception {
+            when(productService.getCatalogVersion()).thenReturn(41L);
+            when(productService.getAllCategories()).thenReturn(Set.of("Fernverkehr"));
+
+            String etag = mockMvc.perform(get("/api/v1/products/categories"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", containsString("no-cache")))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/api/v1/products/categories").header("If-None-Match", etag))
+                    .andExpect(status().isNotModified());
+
+            when(productService.getCatalogVersion()).thenReturn(42L);
+            when(productService.getAllCategories()).thenReturn(Set.of("Fernverkehr", "Baustellenverkehr"));
+
+            mockMvc.perform(get("/api/v1/products/categories").header("If-None-Match", etag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", not(etag)))
+                    .andExpect(jsonPath("$", hasSize(2)));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/products (compression)")
+    class CompressionTests {
+
+        @Test
+        @DisplayName("should gzip large bodies when the client accepts it")
+        void shouldGzipLargeBodies() throws Exception {
+            List<Product> products = new ArrayList<>();
+            for (long id = 1; id <= 50; id++) {
+                products.add(createTestProduct(id, "Actros L 18" + id, "Fernverkehr", "Actros L"));
+            }
+            when(productService.getCatalogVersion()).thenReturn(43L);
+            when(productService.getAllProducts()).thenReturn(products);
+
+            mockMvc.perform(get("/api/v1/products").header("Accept-Encoding", "gzip, deflate"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"))
+                    .andExpect(header().string("Vary", containsString("Accept-Encoding")));
+
+            mockMvc.perform(get("/api/v1/products"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andExpect(jsonPath("$", hasSize(50)));
+        }
     }
 
     @Nested
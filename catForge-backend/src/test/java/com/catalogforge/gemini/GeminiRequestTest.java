@@ -1,5 +1,7 @@
 package com.catalogforge.gemini;
 
+import com.catalogforge.model.ImageData;
+import com.catalogforge.util.JsonUtils;
 import net.jqwik.api.*;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -102,6 +104,21 @@ class GeminiRequestTest {
             assertThat(textPart.text()).isEqualTo("Analyze this image");
         }
 
+        @Test
+        @DisplayName("Builder should place earlier turns before the user prompt")
+        void builderShouldPlaceTurnsBeforeUserPrompt() {
+            GeminiRequest request = GeminiRequest.builder()
+                    .turn("user", "Create a layout")
+                    .turn("model", "{\"html\":\"<div></div>\"}")
+                    .userPrompt("Fix the errors")
+                    .build();
+
+            assertThat(request.contents()).hasSize(3);
+            assertThat(request.contents()).extracting(GeminiRequest.Content::role)
+                    .containsExactly("user", "model", "user");
+            assertThat(request.contents().get(2).parts().get(0).text()).isEqualTo("Fix the errors");
+        }
+
         @Property
         @Label("Request should always have contents")
         void requestShouldAlwaysHaveContents(
@@ -147,5 +164,17 @@ class GeminiRequestTest {
             assertThat(part.inlineData().mimeType()).isEqualTo("image/png");
             assertThat(part.inlineData().data()).isEqualTo("base64data");
         }
+
+        @Test
+        @DisplayName("Part.image with raw bytes should serialize them as Base64")
+        void partImageWithBytesShouldSerializeAsBase64() throws Exception {
+            byte[] bytes = {1, 2, 3, (byte) 0xfa};
+            GeminiRequest.Part part = GeminiRequest.Part.image(ImageData.ofBytes(bytes, "image/png"));
+            
+            String json = JsonUtils.getMapper().writeValueAsString(part.inlineData());
+            
+            assertThat(json).isEqualTo("{\"mimeType\":\"image/png\",\"data\":\"AQID+g==\"}");
+            assertThat(part.inlineData().data()).isEqualTo("AQID+g==");
+        }
     }
 }
@@ -1,18 +1,35 @@
 package com.catalogforge.gemini;
 
+import com.catalogforge.config.properties.ImageProperties;
+import com.catalogforge.config.properties.ImageProperties.PaletteMode;
 import com.catalogforge.model.ColorPalette;
 import com.catalogforge.model.ImageAnalysisResult;
+import com.catalogforge.model.ImageData;
+import com.catalogforge.model.ImageFingerprint;
 import com.catalogforge.model.LayoutHints;
 import com.catalogforge.model.MoodAnalysis;
 import net.jqwik.api.*;
 import net.jqwik.api.constraints.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 /**
  * Property-based tests for GeminiVisionAnalyzer and Image Analysis models.
@@ -199,4 +216,170 @@ class GeminiVisionAnalyzerTest {
             assertThat(result.layoutHints()).isEqualTo(hints);
         }
     }
+
+    @Nested
+    @DisplayName("Palette modes and the analysis cache")
+    class PaletteModeTests {
+
+        private static final ColorPalette STALE_PALETTE =
+                new ColorPalette("#112233", "#445566", "#778899", "#FAFAFA", "#050505");
+        private static final String RESPONSE = """
+                {"colorPalette": {"primary": "#AA0000", "secondary": "#00AA00", "accent": "#0000AA",
+                                  "neutralLight": "#FFFFFF", "neutralDark": "#000000"},
+                 "moodAnalysis": {"type": "dynamic", "confidence": 0.7, "keywords": ["bold"]},
+                 "layoutHints": {"gridType": "columnar", "density": "high", "focusArea": "top", "suggestedColumns": 3}}
+                """;
+
+        @TempDir
+        Path tempDir;
+
+        private GeminiClient geminiClient;
+        private VisionAnalysisCache cache;
+        private ImageData image;
+
+        @BeforeEach
+        void setUp() throws IOException {
+            geminiClient = mock(GeminiClient.class);
+            when(geminiClient.generate(anyString(), any())).thenReturn(response(RESPONSE));
+            cache = new VisionAnalysisCache(properties(PaletteMode.HYBRID));
+            image = ImageData.ofBytes(png(1200, 900), "image/png");
+        }
+
+        @AfterEach
+        void tearDown() {
+            cache.shutdown();
+        }
+
+        @Test
+        @DisplayName("Hybrid mode should ask only for mood and hints and keep the local palette")
+        void hybridShouldCombineLocalPaletteAndVision() {
+            ImagePreprocessor.Prepared prepared = prepare(PaletteMode.HYBRID);
+
+            ImageAnalysisResult result = analyzer(PaletteMode.HYBRID).analyzeImage(image);
+
+            ArgumentCaptor<GeminiRequest> request = ArgumentCaptor.forClass(GeminiRequest.class);
+            verify(geminiClient).generate(anyString(), request.capture());
+            assertThat(properties(request.getValue())).doesNotContainKey("colorPalette");
+            assertThat(result.colorPalette()).isEqualTo(prepared.palette());
+            assertThat(result.mood().type()).isEqualTo("dynamic");
+        }
+
+        @Test
+        @DisplayName("Vision mode should take the palette from Gemini")
+        void visionShouldUseGeminiPalette() {
+            ImageAnalysisResult result = analyzer(PaletteMode.VISION).analyzeImage(image);
+
+            ArgumentCaptor<GeminiRequest> request = ArgumentCaptor.forClass(GeminiRequest.class);
+            verify(geminiClient).generate(anyString(), request.capture());
+            assertThat(properties(request.getValue())).containsKey("colorPalette");
+            assertThat(result.colorPalette().primary()).isEqualTo("#AA0000");
+        }
+
+        @Test
+        @DisplayName("Local mode should not call Gemini")
+        void localShouldSkipVision() {
+            ImagePreprocessor.Prepared prepared = prepare(PaletteMode.LOCAL);
+
+            ImageAnalysisResult result = analyzer(PaletteMode.LOCAL).analyzeImage(image);
+
+            verifyNoInteractions(geminiClient);
+            assertThat(result.colorPalette()).isEqualTo(prepared.palette());
+        }
+
+        @Test
+        @DisplayName("Should answer repeated images from the cache")
+        void shouldReuseCachedAnalysis() {
+            GeminiVisionAnalyzer analyzer = analyzer(PaletteMode.HYBRID);
+
+            ImageAnalysisResult first = analyzer.analyzeImage(image);
+            ImageAnalysisResult second = analyzer.analyzeImage(image);
+
+            verify(geminiClient, times(1)).generate(anyString(), any());
+            assertThat(second).isEqualTo(first);
+        }
+
+        @Test
+        @DisplayName("Should overlay the exact local palette on a cached result")
+        void shouldOverlayLocalPaletteOnCacheHit() {
+            for (PaletteMode mode : List.of(PaletteMode.HYBRID, PaletteMode.LOCAL)) {
+                ImagePreprocessor.Prepared prepared = prepare(mode);
+                cache.put(prepared.perceptualHash(), prepared.colorSignature(), new ImageAnalysisResult(STALE_PALETTE,
+                        new MoodAnalysis("elegant", 0.9, List.of()), new LayoutHints("grid", "low", "left", 4)));
+
+                ImageAnalysisResult result = analyzer(mode).analyzeImage(image);
+
+                assertThat(result.colorPalette()).isEqualTo(prepared.palette());
+                assertThat(result.mood().type()).isEqualTo("elegant");
+            }
+            verifyNoInteractions(geminiClient);
+        }
+
+        @Test
+        @DisplayName("Should look up uploaded images by the fingerprint computed on upload")
+        void shouldUseStoredFingerprint() {
+            ImagePreprocessor.Prepared prepared = prepare(PaletteMode.HYBRID);
+            cache.put(prepared.perceptualHash(), prepared.colorSignature(), new ImageAnalysisResult(STALE_PALETTE,
+                    new MoodAnalysis("elegant", 0.9, List.of()), new LayoutHints("grid", "low", "left", 4)));
+            // Undecodable bytes: a cache hit must not need to decode the image
+            ImageData uploaded = ImageData.ofBytes(new byte[] {1, 2, 3}, "image/png").withFingerprint(
+                    new ImageFingerprint(prepared.perceptualHash(), prepared.colorSignature(), prepared.palette()));
+
+            ImageAnalysisResult result = analyzer(PaletteMode.HYBRID).analyzeImage(uploaded);
+
+            verifyNoInteractions(geminiClient);
+            assertThat(result.colorPalette()).isEqualTo(prepared.palette());
+            assertThat(result.mood().type()).isEqualTo("elegant");
+        }
+
+        @Test
+        @DisplayName("Vision mode should return the cached palette")
+        void visionShouldUseCachedPalette() {
+            ImagePreprocessor.Prepared prepared = prepare(PaletteMode.VISION);
+            cache.put(prepared.perceptualHash(), prepared.colorSignature(), new ImageAnalysisResult(STALE_PALETTE,
+                    new MoodAnalysis("elegant", 0.9, List.of()), new LayoutHints("grid", "low", "left", 4)));
+
+            ImageAnalysisResult result = analyzer(PaletteMode.VISION).analyzeImage(image);
+
+            verifyNoInteractions(geminiClient);
+            assertThat(result.colorPalette()).isEqualTo(STALE_PALETTE);
+        }
+
+        private GeminiVisionAnalyzer analyzer(PaletteMode mode) {
+            return new GeminiVisionAnalyzer(geminiClient, new ImagePreprocessor(properties(mode)), cache,
+                    properties(mode));
+        }
+
+        private ImagePreprocessor.Prepared prepare(PaletteMode mode) {
+            return new ImagePreprocessor(properties(mode)).prepare(image);
+        }
+
+        private ImageProperties properties(PaletteMode mode) {
+            return new ImageProperties(tempDir.toString(), 0, 0, true, 0, 0, 0, 0,
+                    tempDir.resolve("cache.json").toString(), 0, 0, mode);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Object> properties(GeminiRequest request) {
+            return (Map<String, Object>) request.generationConfig().responseSchema().get("properties");
+        }
+
+        private static GeminiResponse response(String text) {
+            return new GeminiResponse(List.of(new GeminiResponse.Candidate(
+                    new GeminiResponse.Content(List.of(new GeminiResponse.Part(text)), "model"),
+                    "STOP", 0, List.of())), null, null);
+        }
+
+        private static byte[] png(int width, int height) throws IOException {
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int red = (int) (127.5 + 127.5 * Math.sin(6 * Math.PI * x / width));
+                    image.setRGB(x, y, red << 16 | (y * 255 / height) << 8 | 0x40);
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+    }
 }
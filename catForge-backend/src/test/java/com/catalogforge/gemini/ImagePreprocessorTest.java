@@ -0,0 +1,317 @@
+package com.catalogforge.gemini;
+
+import com.catalogforge.config.properties.ImageProperties;
+import com.catalogforge.config.properties.ImageProperties.PaletteMode;
+import com.catalogforge.model.ImageData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.color.ColorSpace;
+import java.awt.color.ICC_Profile;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ImagePreprocessor.
+ */
+class ImagePreprocessorTest {
+
+    private ImagePreprocessor preprocessor;
+
+    @BeforeEach
+    void setUp() {
+        preprocessor = new ImagePreprocessor(ImageProperties.defaults());
+    }
+
+    @Nested
+    @DisplayName("Downscaling")
+    class DownscalingTests {
+
+        @Test
+        @DisplayName("Should downscale large images to the max edge as JPEG")
+        void shouldDownscaleLargeImages() throws IOException {
+            byte[] png = encode(gradient(3000, 1500, BufferedImage.TYPE_INT_RGB), "png");
+
+            ImageData prepared = preprocessor.prepare(ImageData.ofBytes(png, "image/png")).image();
+
+            assertThat(prepared.mimeType()).isEqualTo("image/jpeg");
+            assertThat(prepared.bytes().length).isLessThan(png.length);
+            BufferedImage result = decode(prepared.bytes());
+            assertThat(result.getWidth()).isEqualTo(1024);
+            assertThat(result.getHeight()).isEqualTo(512);
+        }
+
+        @Test
+        @DisplayName("Should accept inline Base64 images")
+        void shouldAcceptInlineBase64() throws IOException {
+            byte[] png = encode(gradient(2048, 2048, BufferedImage.TYPE_INT_RGB), "png");
+            String base64 = Base64.getEncoder().encodeToString(png);
+
+            ImageData prepared = preprocessor.prepare(ImageData.ofBase64(base64, "image/png")).image();
+
+            assertThat(prepared.mimeType()).isEqualTo("image/jpeg");
+            assertThat(decode(prepared.toBytes()).getWidth()).isEqualTo(1024);
+        }
+
+        @Test
+        @DisplayName("Should render transparent areas white")
+        void shouldRenderTransparencyWhite() throws IOException {
+            BufferedImage image = gradient(2000, 2000, BufferedImage.TYPE_INT_ARGB);
+            for (int y = 0; y < 1000; y++) {
+                for (int x = 0; x < 1000; x++) {
+                    image.setRGB(x, y, 0);
+                }
+            }
+            byte[] png = encode(image, "png");
+
+            ImageData prepared = preprocessor.prepare(ImageData.ofBytes(png, "image/png")).image();
+
+            int rgb = decode(prepared.bytes()).getRGB(256, 256);
+            assertThat(rgb >> 16 & 0xff).isGreaterThan(245);
+            assertThat(rgb >> 8 & 0xff).isGreaterThan(245);
+            assertThat(rgb & 0xff).isGreaterThan(245);
+        }
+    }
+
+    @Nested
+    @DisplayName("Pass-through and caching")
+    class PassThroughTests {
+
+        @Test
+        @DisplayName("Should return images unchanged that cannot be decoded")
+        void shouldPassUndecodableImagesThrough() {
+            ImageData webp = ImageData.ofBytes("RIFF0000WEBPVP8 ".getBytes(), "image/webp");
+            ImageData invalidBase64 = ImageData.ofBase64("base64data", "image/jpeg");
+
+            assertThat(preprocessor.prepare(webp).image()).isSameAs(webp);
+            assertThat(preprocessor.prepare(webp).perceptualHash()).isNull();
+            assertThat(preprocessor.prepare(invalidBase64).image()).isSameAs(invalidBase64);
+        }
+
+        @Test
+        @DisplayName("Should return small images unchanged if re-encoding does not shrink them")
+        void shouldKeepSmallImages() throws IOException {
+            ImageData small = ImageData.ofBytes(
+                    encode(new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB), "png"), "image/png");
+
+            assertThat(preprocessor.prepare(small).image()).isSameAs(small);
+        }
+
+        @Test
+        @DisplayName("Should reuse the processed image for identical content")
+        void shouldCacheByContent() throws IOException {
+            byte[] png = encode(gradient(2000, 1000, BufferedImage.TYPE_INT_RGB), "png");
+
+            ImageData first = preprocessor.prepare(ImageData.ofBytes(png, "image/png")).image();
+            ImageData second = preprocessor.prepare(ImageData.ofBytes(png.clone(), "image/png")).image();
+
+            assertThat(second).isSameAs(first);
+        }
+    }
+
+    @Nested
+    @DisplayName("Orientation and color profile")
+    class MetadataTests {
+
+        @Test
+        @DisplayName("Should turn images upright according to their EXIF orientation")
+        void shouldApplyExifOrientation() throws IOException {
+            // Left half red, right half blue; orientation 6 means the camera was turned clockwise
+            BufferedImage image = new BufferedImage(1200, 600, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < 600; y++) {
+                for (int x = 0; x < 1200; x++) {
+                    image.setRGB(x, y, x < 600 ? 0xD62828 : 0x1A2A6C);
+                }
+            }
+            byte[] jpeg = withExifOrientation(encode(image, "jpg"), 6);
+
+            BufferedImage result = decode(preprocessor.prepare(ImageData.ofBytes(jpeg, "image/jpeg")).image().bytes());
+
+            assertThat(result.getWidth()).isEqualTo(512);
+            assertThat(result.getHeight()).isEqualTo(1024);
+            assertThat(result.getRGB(256, 100) >> 16 & 0xff).isGreaterThan(180);
+            assertThat(result.getRGB(256, 924) & 0xff).isGreaterThan(80);
+            assertThat(result.getRGB(256, 924) >> 16 & 0xff).isLessThan(60);
+        }
+
+        @Test
+        @DisplayName("Should send a rotated copy of small images even if it is not smaller")
+        void shouldRotateSmallImages() throws IOException {
+            byte[] jpeg = withExifOrientation(encode(gradient(64, 32, BufferedImage.TYPE_INT_RGB), "jpg"), 8);
+
+            ImageData prepared = preprocessor.prepare(ImageData.ofBytes(jpeg, "image/jpeg")).image();
+
+            assertThat(prepared.bytes()).isNotEqualTo(jpeg);
+            assertThat(decode(prepared.bytes()).getWidth()).isEqualTo(32);
+            assertThat(decode(prepared.bytes()).getHeight()).isEqualTo(64);
+        }
+
+        @Test
+        @DisplayName("Should read the orientation only from the EXIF segment of JPEGs")
+        void shouldIgnoreMissingOrMalformedExif() throws IOException {
+            byte[] jpeg = encode(gradient(64, 32, BufferedImage.TYPE_INT_RGB), "jpg");
+
+            assertThat(ExifOrientation.read(jpeg)).isEqualTo(1);
+            assertThat(ExifOrientation.read(withExifOrientation(jpeg, 3))).isEqualTo(3);
+            assertThat(ExifOrientation.read(withExifOrientation(jpeg, 42))).isEqualTo(1);
+            assertThat(ExifOrientation.read(encode(gradient(64, 32, BufferedImage.TYPE_INT_RGB), "png"))).isEqualTo(1);
+            assertThat(ExifOrientation.read(new byte[] {(byte) 0xff, (byte) 0xd8, (byte) 0xff, (byte) 0xe1, 0x7f})).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should convert images with an embedded color profile to sRGB before scaling")
+        void shouldConvertEmbeddedProfileToSrgb() throws IOException {
+            BufferedImage image = new BufferedImage(1200, 900, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < 900; y++) {
+                for (int x = 0; x < 1200; x++) {
+                    image.setRGB(x, y, 0x804020);
+                }
+            }
+            // The same pixel values mean brighter colors in linear RGB than in sRGB
+            ICC_Profile linear = ICC_Profile.getInstance(ColorSpace.CS_LINEAR_RGB);
+            byte[] png = withIccProfile(encode(image, "png"), linear);
+            float[] expected = ColorSpace.getInstance(ColorSpace.CS_LINEAR_RGB)
+                    .toRGB(new float[] {0x80 / 255f, 0x40 / 255f, 0x20 / 255f});
+
+            int rgb = decode(preprocessor.prepare(ImageData.ofBytes(png, "image/png")).image().bytes()).getRGB(600, 450);
+
+            assertThat(Math.abs((rgb >> 16 & 0xff) - Math.round(expected[0] * 255))).isLessThanOrEqualTo(4);
+            assertThat(Math.abs((rgb >> 8 & 0xff) - Math.round(expected[1] * 255))).isLessThanOrEqualTo(4);
+            assertThat(Math.abs((rgb & 0xff) - Math.round(expected[2] * 255))).isLessThanOrEqualTo(4);
+        }
+    }
+
+    @Nested
+    @DisplayName("Local palette")
+    class LocalPaletteTests {
+
+        @Test
+        @DisplayName("Should extract a local palette unless the palette comes from Gemini Vision")
+        void shouldExtractPaletteByMode() throws IOException {
+            ImageData png = ImageData.ofBytes(encode(gradient(1200, 900, BufferedImage.TYPE_INT_RGB), "png"), "image/png");
+            ImagePreprocessor vision = new ImagePreprocessor(new ImageProperties(
+                    null, 0, 0, true, 0, 0, 0, 0, null, 0, 0, PaletteMode.VISION));
+
+            assertThat(preprocessor.prepare(png).palette()).isNotNull();
+            assertThat(vision.prepare(png).palette()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Perceptual hash")
+    class PerceptualHashTests {
+
+        @Test
+        @DisplayName("Should give re-encoded and resized copies nearly the same hash")
+        void shouldHashCopiesAlike() throws IOException {
+            BufferedImage image = waves(1600, 1200, 3, 2);
+            BufferedImage smaller = waves(800, 600, 3, 2);
+
+            ImagePreprocessor.Prepared png = preprocessor.prepare(ImageData.ofBytes(encode(image, "png"), "image/png"));
+            ImagePreprocessor.Prepared jpeg = preprocessor.prepare(ImageData.ofBytes(encode(smaller, "jpg"), "image/jpeg"));
+
+            assertThat(png.perceptualHash()).isNotNull();
+            assertThat(PerceptualHash.distance(png.perceptualHash(), jpeg.perceptualHash())).isLessThanOrEqualTo(4);
+            assertThat(PerceptualHash.colorDifference(png.colorSignature(), jpeg.colorSignature())).isLessThanOrEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Should give different images distant hashes")
+        void shouldHashDifferentImagesApart() {
+            long image = PerceptualHash.dHash(waves(900, 800, 3, 2));
+            long other = PerceptualHash.dHash(waves(900, 800, 5, 1));
+
+            assertThat(PerceptualHash.distance(image, other)).isGreaterThan(16);
+        }
+    }
+
+    private static BufferedImage gradient(int width, int height, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, 0xff000000 | (x * 255 / width) << 16 | (y * 255 / height) << 8 | 0x80);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Grayscale pattern of sine waves with the given number of periods per axis.
+     */
+    private static BufferedImage waves(int width, int height, int periodsX, int periodsY) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double value = Math.sin(2 * Math.PI * periodsX * x / width) * Math.cos(2 * Math.PI * periodsY * y / height);
+                int gray = (int) Math.round(127.5 + 127.5 * value);
+                image.setRGB(x, y, gray << 16 | gray << 8 | gray);
+            }
+        }
+        return image;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Inserts an APP1 Exif segment with a big-endian IFD0 holding only the Orientation tag after SOI.
+     */
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        ByteBuffer segment = ByteBuffer.allocate(2 + 2 + 6 + 8 + 2 + 12 + 4);
+        segment.putShort((short) 0xFFE1).putShort((short) (segment.capacity() - 2));
+        segment.put(new byte[] {'E', 'x', 'i', 'f', 0, 0});
+        segment.put(new byte[] {'M', 'M'}).putShort((short) 42).putInt(8);
+        segment.putShort((short) 1);
+        segment.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        segment.putInt(0);
+        return insert(jpeg, 2, segment.array());
+    }
+
+    /**
+     * Inserts an iCCP chunk with the zlib-compressed profile after the IHDR chunk.
+     */
+    private static byte[] withIccProfile(byte[] png, ICC_Profile profile) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write("profile".getBytes(StandardCharsets.ISO_8859_1));
+        data.write(new byte[] {0, 0});
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(data)) {
+            deflater.write(profile.getData());
+        }
+        byte[] type = "iCCP".getBytes(StandardCharsets.ISO_8859_1);
+        byte[] body = data.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(body);
+        ByteBuffer chunk = ByteBuffer.allocate(4 + 4 + body.length + 4);
+        chunk.putInt(body.length).put(type).put(body).putInt((int) crc.getValue());
+        // Signature (8 bytes), then IHDR: length, type, 13 data bytes, CRC
+        return insert(png, 8 + 4 + 4 + 13 + 4, chunk.array());
+    }
+
+    private static byte[] insert(byte[] data, int position, byte[] inserted) {
+        byte[] result = new byte[data.length + inserted.length];
+        System.arraycopy(data, 0, result, 0, position);
+        System.arraycopy(inserted, 0, result, position, inserted.length);
+        System.arraycopy(data, position, result, position + inserted.length, data.length - position);
+        return result;
+    }
+
+    private static BufferedImage decode(byte[] data) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(data));
+    }
+}
@@ -0,0 +1,103 @@
+package com.catalogforge.gemini;
+
+import com.catalogforge.model.ColorPalette;
+import com.catalogforge.util.ColorUtils;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for PaletteExtractor.
+ */
+class PaletteExtractorTest {
+
+    @Test
+    @DisplayName("Should assign roles by lightness, frequency and saturation")
+    void shouldAssignRoles() {
+        // 60% navy, 25% white, 10% red, 5% black
+        BufferedImage image = stripes(200, 400, new int[][] {
+                {0x1A2A6C, 240}, {0xFFFFFF, 100}, {0xD62828, 40}, {0x000000, 20}
+        });
+
+        ColorPalette palette = PaletteExtractor.extract(image);
+
+        assertThat(dominantChannel(palette.primary())).isEqualTo(2);
+        assertThat(dominantChannel(palette.accent())).isEqualTo(0);
+        assertThat(ColorUtils.calculateRelativeLuminance(palette.neutralLight())).isGreaterThan(0.9);
+        assertThat(ColorUtils.calculateRelativeLuminance(palette.neutralDark())).isLessThan(0.01);
+    }
+
+    @Test
+    @DisplayName("Should return a complete palette for a single-color image")
+    void shouldHandleSingleColor() {
+        BufferedImage image = stripes(64, 64, new int[][] {{0x808080, 64}});
+
+        ColorPalette palette = PaletteExtractor.extract(image);
+
+        assertThat(palette.primary()).isNotNull();
+        assertThat(palette.secondary()).isNotNull();
+        assertThat(palette.accent()).isNotNull();
+        assertThat(ColorUtils.meetsWcagAA(palette.neutralLight(), palette.neutralDark())).isTrue();
+    }
+
+    @Property(tries = 50)
+    @Label("Extracted palettes should always pass the contrast checks")
+    void palettesShouldPassContrastChecks(
+            @ForAll @IntRange(min = 0, max = 0xFFFFFF) int first,
+            @ForAll @IntRange(min = 0, max = 0xFFFFFF) int second,
+            @ForAll @IntRange(min = 0, max = 0xFFFFFF) int third,
+            @ForAll @IntRange(min = 1, max = 30) int firstRows,
+            @ForAll @IntRange(min = 1, max = 30) int secondRows
+    ) {
+        BufferedImage image = stripes(32, 90, new int[][] {
+                {first, firstRows}, {second, secondRows}, {third, 90 - firstRows - secondRows}
+        });
+
+        ColorPalette palette = PaletteExtractor.extract(image);
+
+        assertThat(palette.primary()).matches("^#[0-9A-F]{6}$");
+        assertThat(palette.secondary()).matches("^#[0-9A-F]{6}$");
+        assertThat(palette.accent()).matches("^#[0-9A-F]{6}$");
+        assertThat(ColorUtils.calculateContrastRatio(palette.neutralLight(), palette.neutralDark()))
+                .isGreaterThanOrEqualTo(4.5);
+        assertThat(ColorUtils.calculateContrastRatio(palette.primary(), palette.neutralLight()))
+                .isGreaterThanOrEqualTo(3.0);
+        assertThat(ColorUtils.calculateContrastRatio(palette.accent(), palette.neutralLight()))
+                .isGreaterThanOrEqualTo(3.0);
+    }
+
+    /**
+     * Builds an image of horizontal stripes, each given as {rgb, rows}.
+     */
+    private static BufferedImage stripes(int width, int height, int[][] stripes) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int y = 0;
+        for (int[] stripe : stripes) {
+            for (int row = 0; row < stripe[1] && y < height; row++, y++) {
+                for (int x = 0; x < width; x++) {
+                    image.setRGB(x, y, stripe[0]);
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Returns 0, 1 or 2 for the strongest of the red, green and blue channels.
+     */
+    private static int dominantChannel(String hex) {
+        int[] rgb = ColorUtils.hexToRgb(hex);
+        int dominant = 0;
+        for (int c = 1; c < 3; c++) {
+            if (rgb[c] > rgb[dominant]) {
+                dominant = c;
+            }
+        }
+        return dominant;
+    }
+}
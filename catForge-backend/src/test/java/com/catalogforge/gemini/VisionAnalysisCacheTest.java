@@ -0,0 +1,162 @@
+package com.catalogforge.gemini;
+
+import com.catalogforge.config.properties.ImageProperties;
+import com.catalogforge.model.ColorPalette;
+import com.catalogforge.model.ImageAnalysisResult;
+import com.catalogforge.model.LayoutHints;
+import com.catalogforge.model.MoodAnalysis;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for VisionAnalysisCache.
+ */
+class VisionAnalysisCacheTest {
+
+    private static final long HASH = 0xdb2424dbdb2424dbL;
+    private static final int[] COLORS = colors(0x336699);
+
+    @TempDir
+    Path tempDir;
+
+    private final List<VisionAnalysisCache> caches = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        caches.forEach(VisionAnalysisCache::shutdown);
+    }
+
+    @Test
+    @DisplayName("Should return the result of a near-duplicate hash")
+    void shouldMatchNearDuplicates() {
+        VisionAnalysisCache cache = cache(10);
+        ImageAnalysisResult result = result("elegant");
+        cache.put(HASH, COLORS, result);
+
+        assertThat(cache.find(HASH, COLORS)).isEqualTo(result);
+        assertThat(cache.find(HASH ^ 0b101, colors(0x38609A))).isEqualTo(result);
+        assertThat(cache.find(HASH ^ 0xff, COLORS)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not match recolored copies of an image")
+    void shouldNotMatchRecoloredCopies() {
+        BufferedImage image = waves(0x2040A0);
+        BufferedImage recolored = waves(0xA04020);
+        long hash = PerceptualHash.dHash(image);
+        VisionAnalysisCache cache = cache(10);
+        cache.put(hash, PerceptualHash.colorSignature(image), result("elegant"));
+
+        // The luminance-only dHash cannot tell the copies apart, the color signature can
+        assertThat(PerceptualHash.distance(hash, PerceptualHash.dHash(recolored))).isLessThanOrEqualTo(6);
+        assertThat(cache.find(PerceptualHash.dHash(recolored), PerceptualHash.colorSignature(recolored))).isNull();
+        assertThat(cache.find(hash, PerceptualHash.colorSignature(image))).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should not match flat images of a different color")
+    void shouldNotMatchFlatImagesOfDifferentColor() {
+        VisionAnalysisCache cache = cache(10);
+        cache.put(0L, colors(0xFFFFFF), result("bright"));
+
+        assertThat(cache.find(0L, colors(0x1A1A1A))).isNull();
+        assertThat(cache.find(0L, colors(0xFAFAFA)).mood().type()).isEqualTo("bright");
+    }
+
+    @Test
+    @DisplayName("Should prefer the closest stored hash")
+    void shouldPreferClosestHash() {
+        VisionAnalysisCache cache = cache(10);
+        cache.put(HASH ^ 0b111, COLORS, result("far"));
+        cache.put(HASH ^ 0b1, COLORS, result("near"));
+
+        assertThat(cache.find(HASH, COLORS).mood().type()).isEqualTo("near");
+    }
+
+    @Test
+    @DisplayName("Should drop the least recently used result when full")
+    void shouldEvictLeastRecentlyUsed() {
+        VisionAnalysisCache cache = cache(2);
+        cache.put(1L, COLORS, result("a"));
+        cache.put(-1L, COLORS, result("b"));
+        cache.find(1L, COLORS);
+        cache.put(0x00ff00ff00ff00ffL, COLORS, result("c"));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.find(1L, COLORS)).isNotNull();
+        assertThat(cache.find(-1L, COLORS)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should load persisted results after a restart")
+    void shouldPersistResults() {
+        VisionAnalysisCache cache = cache(10);
+        cache.put(HASH, COLORS, result("elegant"));
+        cache.shutdown();
+
+        VisionAnalysisCache restarted = cache(10);
+
+        assertThat(restarted.size()).isEqualTo(1);
+        assertThat(restarted.find(HASH, COLORS)).isEqualTo(result("elegant"));
+    }
+
+    @Test
+    @DisplayName("Should start empty if the cache file is unreadable")
+    void shouldIgnoreCorruptFile() throws Exception {
+        Files.writeString(tempDir.resolve("cache.json"), "{not json");
+
+        assertThat(cache(10).size()).isZero();
+    }
+
+    private VisionAnalysisCache cache(int size) {
+        VisionAnalysisCache cache = new VisionAnalysisCache(new ImageProperties(tempDir.toString(), 0, 0, true, 0, 0, 0, 0,
+                tempDir.resolve("cache.json").toString(), size, 6, null));
+        caches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Color signature of a flat image.
+     */
+    private static int[] colors(int rgb) {
+        int[] colors = new int[16];
+        Arrays.fill(colors, rgb);
+        return colors;
+    }
+
+    /**
+     * Sine wave pattern in shades of one color; shades of other colors have the same luminance gradients.
+     */
+    private static BufferedImage waves(int rgb) {
+        BufferedImage image = new BufferedImage(360, 240, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                double shade = 0.5 + 0.5 * Math.sin(6 * Math.PI * x / image.getWidth()) * Math.cos(4 * Math.PI * y / image.getHeight());
+                int r = (int) ((rgb >> 16 & 0xff) * shade);
+                int g = (int) ((rgb >> 8 & 0xff) * shade);
+                int b = (int) ((rgb & 0xff) * shade);
+                image.setRGB(x, y, r << 16 | g << 8 | b);
+            }
+        }
+        return image;
+    }
+
+    private static ImageAnalysisResult result(String mood) {
+        return new ImageAnalysisResult(
+                new ColorPalette("#1A1A2E", "#16213E", "#E94560", "#F5F5F5", "#0F0F0F"),
+                new MoodAnalysis(mood, 0.9, List.of("calm")),
+                new LayoutHints("modular", "low", "center", 2)
+        );
+    }
+}
@@ -0,0 +1,74 @@
+package com.catalogforge.search;
+
+import com.catalogforge.model.Product;
+import com.catalogforge.model.ProductFacets;
+import com.catalogforge.model.TechnicalData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for ProductFacetIndex.
+ */
+class ProductFacetIndexTest {
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = ProductFacetIndex.build(List.of(
+                product(1L, "Fernverkehr", "Actros L", Map.of("motor", "OM 471", "leistung_ps", "530")),
+                product(2L, "Fernverkehr", "Actros L", Map.of("motor", "OM 470")),
+                product(3L, "Fernverkehr/Elektro", "eActros", Map.of("batteriekapazitaet_kwh", "621")),
+                product(4L, "Baustellenverkehr", "Arocs", Map.of("motor", "OM 473", "leistung_ps", "625"))));
+    }
+
+    @Test
+    @DisplayName("Should filter case-insensitively by intersection")
+    void shouldFilterByIntersection() {
+        assertThat(ids(index.filter("fernverkehr", null, List.of()))).containsExactly(1L, 2L);
+        assertThat(ids(index.filter("FERNVERKEHR", "actros l", List.of("leistung_ps")))).containsExactly(1L);
+        assertThat(ids(index.filter(null, null, List.of("motor", "leistung_ps")))).containsExactly(1L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should treat missing constraints as unfiltered and unknown values as empty")
+    void shouldHandleMissingAndUnknownValues() {
+        assertThat(ids(index.filter(null, " ", null))).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(ids(index.filter("Unbekannt", null, List.of()))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should count category and series without their own constraint")
+    void shouldCountDisjunctiveFacets() {
+        ProductFacets facets = index.facets("Fernverkehr", null, List.of());
+
+        assertThat(facets.categories()).containsExactly(
+                entry("Baustellenverkehr", 1), entry("Fernverkehr", 2), entry("Fernverkehr/Elektro", 1));
+        assertThat(facets.series()).containsExactly(entry("Actros L", 2));
+        assertThat(facets.specKeys()).containsExactly(entry("leistung_ps", 1), entry("motor", 2));
+    }
+
+    @Test
+    @DisplayName("Should list distinct categories and series")
+    void shouldListValues() {
+        assertThat(index.categories()).containsExactly("Baustellenverkehr", "Fernverkehr", "Fernverkehr/Elektro");
+        assertThat(index.series()).containsExactly("Actros L", "Arocs", "eActros");
+    }
+
+    private List<Long> ids(BitSet positions) {
+        return index.products(positions).stream().map(Product::id).toList();
+    }
+
+    private static Product product(Long id, String category, String series, Map<String, String> specs) {
+        return new Product(id, "Product " + id, null, null, null, category, series,
+                new TechnicalData(specs), List.of(), null, null);
+    }
+}
@@ -0,0 +1,119 @@
+package com.catalogforge.search;
+
+import com.catalogforge.model.Product;
+import com.catalogforge.model.TechnicalData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ProductSearchIndex and GermanAnalyzer.
+ */
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = ProductSearchIndex.build(List.of(
+                product(1L, "Unimog U 430", "Geräteträger/Kommunal", "Unimog",
+                        "Der vielseitige Geräteträger für den Winterdienst."),
+                product(2L, "Econic 1824 L Feuerwehr", "Feuerwehr", "Econic",
+                        "Niederflur-Fahrgestell für Löschfahrzeuge."),
+                product(3L, "eActros 600", "Fernverkehr/Elektro", "eActros",
+                        "Batterieelektrischer Fernverkehr mit großer Reichweite."),
+                product(4L, "Actros L 1853", "Fernverkehr", "Actros L",
+                        "Effizienter Fernverkehr mit Diesel, bekannt aus dem Fernverkehr-Test.")));
+    }
+
+    @Test
+    @DisplayName("Should fold umlauts and their transcriptions")
+    void shouldFoldUmlauts() {
+        assertThat(GermanAnalyzer.tokenize("Geräteträger")).containsExactly(GermanAnalyzer.tokenize("Geraetetraeger").get(0));
+        assertThat(GermanAnalyzer.tokenize("Straße")).isEqualTo(GermanAnalyzer.tokenize("STRASSE"));
+
+        assertThat(ids(index.search("geraetetraeger"))).containsExactly(1L);
+        assertThat(ids(index.search("Gerätetraeger"))).containsExactly(1L);
+        assertThat(GermanAnalyzer.tokenize("Kühlaufbau")).isEqualTo(GermanAnalyzer.tokenize("Kuehlaufbau"));
+        assertThat(GermanAnalyzer.tokenize("Ku\u0308hlaufbau")).isEqualTo(GermanAnalyzer.tokenize("Kühlaufbau"));
+    }
+
+    @Test
+    @DisplayName("Should keep vowel pairs that are not transcribed umlauts")
+    void shouldNotFoldPlainVowelPairs() {
+        assertThat(GermanAnalyzer.tokenize("Feuer blue Aero Poet Queue"))
+                .containsExactly("feuer", "blue", "aero", "poet", "queue");
+        assertThat(ids(index.search("feuer"))).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Should split on punctuation and ignore case")
+    void shouldTokenizeCategories() {
+        assertThat(GermanAnalyzer.tokenize("Fernverkehr/Elektro")).containsExactly("fernverkehr", "elektro");
+        assertThat(ids(index.search("ELEKTRO"))).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should match prefixes")
+    void shouldMatchPrefixes() {
+        assertThat(ids(index.search("feuerw"))).containsExactly(2L);
+        assertThat(ids(index.search("batterie"))).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should find every term sharing a prefix, however many there are")
+    void shouldExpandPrefixesWithoutLimit() {
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            products.add(product(id, "Modell " + id, "Aufbau", "Serie",
+                    "Kippaufbau Variante kipp" + String.format("%03d", id)));
+        }
+        ProductSearchIndex large = ProductSearchIndex.build(products);
+
+        assertThat(large.search("kipp0")).hasSize(99);
+        assertThat(ids(large.search("kipp variante modell 100"))).containsExactly(100L);
+    }
+
+    @Test
+    @DisplayName("Should require every query term")
+    void shouldRequireAllTerms() {
+        assertThat(ids(index.search("fernverkehr diesel"))).containsExactly(4L);
+        assertThat(ids(index.search("fernverkehr unimog"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should ignore stopwords unless the query has nothing else")
+    void shouldIgnoreStopwords() {
+        assertThat(ids(index.search("der Unimog"))).containsExactly(1L);
+        assertThat(index.search("für")).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rank name and series matches above description matches")
+    void shouldRankByFieldWeight() {
+        assertThat(ids(index.search("fernverkehr"))).containsExactly(4L, 3L);
+        assertThat(ids(index.search("actros")).get(0)).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("Should return nothing for unknown terms")
+    void shouldReturnEmptyForUnknownTerms() {
+        assertThat(index.search("xyznonexistent123")).isEmpty();
+        assertThat(index.search("   ")).isEmpty();
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::id).toList();
+    }
+
+    private static Product product(Long id, String name, String category, String series, String description) {
+        return new Product(id, name, null, description, null, category, series,
+                new TechnicalData(Map.of()), List.of(), null, null);
+    }
+}
@@ -0,0 +1,89 @@
+package com.catalogforge.search;
+
+import com.catalogforge.model.Product;
+import com.catalogforge.model.TechnicalData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for ProductSimilarityIndex.
+ */
+class ProductSimilarityIndexTest {
+
+    private List<Product> products;
+    private ProductSimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        products = List.of(
+                product(1L, "Actros L 1853 LS", "Fernverkehr", "Actros L", "Sattelzugmaschine für den Fernverkehr",
+                        Map.of("leistung_ps", "530", "motor", "OM 471")),
+                product(2L, "Actros L 1848 LS", "Fernverkehr", "Actros L", "Sattelzugmaschine für lange Strecken",
+                        Map.of("leistung_ps", "476", "motor", "OM 471")),
+                product(3L, "Arocs 3253 K", "Baustellenverkehr", "Arocs", "Kipper für die Baustelle",
+                        Map.of("leistung_ps", "530", "antrieb", "8x4")),
+                product(4L, "Arocs 4145 K", "Baustellenverkehr", "Arocs", "Kipper mit Allradantrieb",
+                        Map.of("leistung_ps", "449", "antrieb", "8x8")),
+                product(5L, "eActros 300", "Verteilerverkehr", "eActros", "Elektrischer Verteiler-Lkw",
+                        Map.of("batterie_kwh", "336")));
+        index = ProductSimilarityIndex.build(products);
+    }
+
+    @Test
+    @DisplayName("Should rank products of the same series first")
+    void shouldRankSameSeriesFirst() {
+        List<ProductSimilarityIndex.Neighbour> neighbours = index.nearest(0, 3);
+
+        assertThat(neighbours).isNotEmpty();
+        assertThat(neighbours.get(0).position()).isEqualTo(1);
+        assertThat(neighbours).extracting(ProductSimilarityIndex.Neighbour::position).doesNotContain(0);
+        assertThat(neighbours).isSortedAccordingTo((a, b) -> Double.compare(b.score(), a.score()));
+    }
+
+    @Test
+    @DisplayName("Should respect the limit")
+    void shouldRespectLimit() {
+        assertThat(index.nearest(2, 1)).hasSize(1);
+        assertThat(index.nearest(2, 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should score identical features as fully similar")
+    void shouldScoreIdenticalFeatures() {
+        ProductSimilarityIndex twins = ProductSimilarityIndex.build(List.of(products.get(0), products.get(0)));
+
+        assertThat(twins.cosine(0, 1)).isCloseTo(1.0, within(1e-5));
+        assertThat(index.cosine(0, 1)).isBetween(0.0, 1.0);
+    }
+
+    @Test
+    @DisplayName("Should group a seed with its closest related products")
+    void shouldGroupRelatedProducts() {
+        int[] group = index.group(2, 2);
+
+        assertThat(group).containsExactly(2, 3);
+        assertThat(index.cohesion(group)).isEqualTo(index.cosine(2, 3));
+    }
+
+    @Test
+    @DisplayName("Should handle an empty catalog")
+    void shouldHandleEmptyCatalog() {
+        ProductSimilarityIndex empty = ProductSimilarityIndex.build(List.of());
+
+        assertThat(empty.size()).isZero();
+        assertThat(empty.cohesion(new int[0])).isZero();
+    }
+
+    private static Product product(Long id, String name, String category, String series, String description,
+                                   Map<String, String> specs) {
+        return new Product(id, name, null, description, null, category, series,
+                new TechnicalData(specs), List.of(), null, null);
+    }
+}
@@ -0,0 +1,120 @@
+package com.catalogforge.search;
+
+import com.catalogforge.exception.InvalidQueryException;
+import com.catalogforge.model.Product;
+import com.catalogforge.model.TechnicalData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for SpecValueParser, SpecRange and SpecRangeIndex.
+ */
+class SpecRangeIndexTest {
+
+    private List<Product> products;
+    private SpecRangeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        products = List.of(
+                product(1L, Map.of("leistung_ps", "530", "gesamtgewicht_t", "40", "drehmoment_nm", "2.600")),
+                product(2L, Map.of("leistung_ps", "394", "gesamtgewicht_t", "18")),
+                product(3L, Map.of("leistung_ps", "625", "gesamtgewicht_t", "41", "kriechgang", "0.04 km/h")),
+                product(4L, Map.of("leistung_ps", "k.A.", "gesamtgewicht_t", "16")));
+        index = SpecRangeIndex.build(products);
+    }
+
+    @Test
+    @DisplayName("Should parse German and English number formats")
+    void shouldParseNumberFormats() {
+        assertThat(SpecValueParser.parse("drehmoment_nm", "2.600 Nm")).hasValue(2600);
+        assertThat(SpecValueParser.parse("hubraum_l", "15.6")).hasValue(15.6);
+        assertThat(SpecValueParser.parse("verbrauch", "24,5")).hasValue(24.5);
+        assertThat(SpecValueParser.parse("kriechgang", "0.04 km/h")).hasValue(0.04);
+        assertThat(SpecValueParser.parse("motor", "OM 471")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should read three decimals as thousands only in integral units")
+    void shouldNotMistakeDecimalsForThousands() {
+        assertThat(SpecValueParser.parse("laenge_m", "0.125 m")).hasValue(0.125);
+        assertThat(SpecValueParser.parse("nutzlast", "0.125")).hasValue(0.125);
+        assertThat(SpecValueParser.parse("gesamtgewicht_t", "1.250 t")).hasValue(1.25);
+        assertThat(SpecValueParser.parse("gesamtgewicht_t", "1.250")).hasValue(1.25);
+        assertThat(SpecValueParser.parse("wattiefe_mm", "1.200")).hasValue(1200);
+        assertThat(SpecValueParser.parse("gesamtgewicht_kg", "1.250.000")).hasValue(1_250_000);
+        assertThat(SpecValueParser.parse("gesamtgewicht_t", "1.250,5 t")).hasValue(1250.5);
+    }
+
+    @Test
+    @DisplayName("Should convert values into the unit of the key")
+    void shouldConvertUnits() {
+        assertThat(SpecValueParser.parse("gesamtgewicht_t", "18000 kg").getAsDouble()).isCloseTo(18, within(1e-9));
+        assertThat(SpecValueParser.parse("leistung_ps", "294 kW").getAsDouble()).isCloseTo(399.7, within(0.1));
+        assertThat(SpecValueParser.parse("gesamtgewicht_t", "18 Nm")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not parse values with text after the number as numbers")
+    void shouldRejectTrailingText() {
+        assertThat(SpecValueParser.parse("antriebsformel", "6x4")).isEmpty();
+        assertThat(SpecValueParser.parse("antriebsformel", "8x8")).isEmpty();
+        assertThat(SpecValueParser.parse("antriebsformel", "4x4 permanent")).isEmpty();
+        assertThat(SpecValueParser.parse("getriebe", "4-Gang Elektrogetriebe")).isEmpty();
+        assertThat(SpecValueParser.parse("leistung_ps", "530 PS (390 kW)")).isEmpty();
+        assertThat(SpecValueParser.parse("anzahl_zylinder", "6 Zylinder")).isEmpty();
+        assertThat(SpecValueParser.parse("leistung_ps", " 530 ps ")).hasValue(530);
+    }
+
+    @Test
+    @DisplayName("Should combine ranges by intersection")
+    void shouldCombineRanges() {
+        List<SpecRange> ranges = List.of(SpecRange.parse("leistung_ps>400"), SpecRange.parse("gesamtgewicht_t<41"));
+
+        assertThat(ids(index.filter(ranges))).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should respect inclusive and exclusive bounds")
+    void shouldRespectBounds() {
+        assertThat(ids(index.filter(List.of(SpecRange.parse("gesamtgewicht_t:18..40"))))).containsExactly(1L, 2L);
+        assertThat(ids(index.filter(List.of(SpecRange.parse("gesamtgewicht_t>18"))))).containsExactly(1L, 3L);
+        assertThat(ids(index.filter(List.of(SpecRange.parse("gesamtgewicht_t:..18000kg"))))).containsExactly(2L, 4L);
+        assertThat(ids(index.filter(List.of(SpecRange.parse("drehmoment_nm:2600"))))).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should exclude products without a numeric value and ignore missing ranges")
+    void shouldHandleMissingValues() {
+        assertThat(ids(index.filter(List.of(SpecRange.parse("leistung_ps>=0"))))).containsExactly(1L, 2L, 3L);
+        assertThat(ids(index.filter(List.of(SpecRange.parse("unbekannt>0"))))).isEmpty();
+        assertThat(index.filter(List.of())).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed range expressions")
+    void shouldRejectMalformedExpressions() {
+        assertThatThrownBy(() -> SpecRange.parse("leistung_ps")).isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> SpecRange.parse("leistung_ps:..")).isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> SpecRange.parse("leistung_ps:500..400")).isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> SpecRange.parse("gesamtgewicht_t<18 Nm")).isInstanceOf(InvalidQueryException.class);
+    }
+
+    private List<Long> ids(BitSet positions) {
+        return positions.stream().mapToObj(i -> products.get(i).id()).toList();
+    }
+
+    private static Product product(Long id, Map<String, String> specs) {
+        return new Product(id, "Product " + id, null, null, null, "Fernverkehr", "Actros",
+                new TechnicalData(specs), List.of(), null, null);
+    }
+}
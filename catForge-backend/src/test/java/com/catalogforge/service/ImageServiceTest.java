@@ -1,7 +1,10 @@
 package com.catalogforge.service;
 
+import com.catalogforge.config.properties.ImageProperties;
 import com.catalogforge.exception.ImageUploadException;
 import com.catalogforge.exception.ResourceNotFoundException;
+import com.catalogforge.gemini.ImagePreprocessor;
+import com.catalogforge.model.ImageData;
 import net.jqwik.api.*;
 import net.jqwik.api.constraints.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +12,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Base64;
 
 import static org.assertj.core.api.Assertions.*;
@@ -22,7 +29,8 @@ class ImageServiceTest {
 
     @BeforeEach
     void setUp() {
-        imageService = new ImageService("http://localhost:8080");
+        imageService = new ImageService("http://localhost:8080", ImageProperties.defaults(),
+                new ImagePreprocessor(ImageProperties.defaults()));
     }
 
     @Nested
@@ -154,6 +162,43 @@ class ImageServiceTest {
             assertThat(retrievedBase64).isEqualTo(base64);
         }
 
+        @Test
+        @DisplayName("Should resolve an uploaded image ID to its raw bytes")
+        void shouldResolveImageIdToBytes() {
+            byte[] originalData = "test image data".getBytes();
+            
+            String imageId = imageService.upload(originalData, "image/png", "test.png");
+            ImageData image = imageService.resolveImage(imageId, null, null);
+            
+            assertThat(image.bytes()).isEqualTo(originalData);
+            assertThat(image.mimeType()).isEqualTo("image/png");
+            assertThat(image.fingerprint()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should fingerprint decodable images once on upload")
+        void shouldFingerprintOnUpload() throws IOException {
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            ImageIO.write(new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB), "png", png);
+
+            String imageId = imageService.upload(png.toByteArray(), "image/png", "test.png");
+            ImageData image = imageService.resolveImage(imageId, null, null);
+
+            assertThat(image.fingerprint()).isNotNull();
+            assertThat(image.fingerprint().colorSignature()).isNotEmpty();
+            assertThat(image.fingerprint().palette()).isNotNull();
+            assertThat(imageService.getImageData(imageId).fingerprint()).isSameAs(image.fingerprint());
+        }
+
+        @Test
+        @DisplayName("Should pass inline Base64 through without decoding")
+        void shouldPassInlineBase64Through() {
+            ImageData image = imageService.resolveImage(null, "base64data", "image/jpeg");
+            
+            assertThat(image.toBase64()).isEqualTo("base64data");
+            assertThat(image.mimeType()).isEqualTo("image/jpeg");
+        }
+
         @Test
         @DisplayName("Should throw for non-existent image")
         void shouldThrowForNonExistentImage() {
@@ -0,0 +1,168 @@
+package com.catalogforge.service;
+
+import com.catalogforge.config.properties.JobProperties;
+import com.catalogforge.exception.LayoutGenerationException;
+import com.catalogforge.exception.ResourceNotFoundException;
+import com.catalogforge.exception.ServiceOverloadedException;
+import com.catalogforge.model.Layout;
+import com.catalogforge.model.LayoutJob;
+import com.catalogforge.model.PageFormat;
+import com.catalogforge.model.request.LayoutOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LayoutJobService.
+ */
+class LayoutJobServiceTest {
+
+    private LayoutGenerationService layoutService;
+    private LayoutJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        layoutService = mock(LayoutGenerationService.class);
+        jobService = new LayoutJobService(layoutService, new JobProperties(1, 1, 60, 15));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Completed job should expose the generated layout")
+    void completedJobShouldExposeLayout() {
+        Layout layout = layout("layout-1");
+        when(layoutService.generateFromText(anyList(), any(), any())).thenReturn(layout);
+        when(layoutService.getLayout("layout-1")).thenReturn(layout);
+
+        LayoutJob job = jobService.submitText(List.of(1L), LayoutOptions.defaults(), "prompt", null);
+
+        LayoutJob finished = awaitFinished(job.id());
+        assertThat(finished.status()).isEqualTo(LayoutJob.Status.COMPLETED);
+        assertThat(finished.layoutId()).isEqualTo("layout-1");
+        assertThat(jobService.findResult(job.id())).contains(layout);
+    }
+
+    @Test
+    @DisplayName("Failed job should record the error message")
+    void failedJobShouldRecordError() {
+        when(layoutService.generateFromText(anyList(), any(), any()))
+                .thenThrow(new LayoutGenerationException("boom"));
+
+        LayoutJob job = jobService.submitText(List.of(1L), LayoutOptions.defaults(), "prompt", null);
+
+        LayoutJob finished = awaitFinished(job.id());
+        assertThat(finished.status()).isEqualTo(LayoutJob.Status.FAILED);
+        assertThat(finished.errorMessage()).isEqualTo("boom");
+        assertThat(jobService.findResult(job.id())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Same idempotency key should return the same job")
+    void sameIdempotencyKeyShouldReturnSameJob() {
+        when(layoutService.generateFromText(anyList(), any(), any())).thenReturn(layout("layout-1"));
+
+        LayoutJob first = jobService.submitText(List.of(1L), LayoutOptions.defaults(), "prompt", "key-1");
+        LayoutJob second = jobService.submitText(List.of(1L), LayoutOptions.defaults(), "prompt", "key-1");
+
+        assertThat(second.id()).isEqualTo(first.id());
+        awaitFinished(first.id());
+        verify(layoutService, times(1)).generateFromText(anyList(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Failed job should release its idempotency key")
+    void failedJobShouldReleaseIdempotencyKey() {
+        when(layoutService.generateFromText(anyList(), any(), any()))
+                .thenThrow(new LayoutGenerationException("boom"))
+                .thenReturn(layout("layout-1"));
+
+        LayoutJob first = jobService.submitText(List.of(1L), LayoutOptions.defaults(), "prompt", "key-1");
+        awaitFinished(first.id());
+        LayoutJob retry = jobService.submitText(List.of(1L), LayoutOptions.defaults(), "prompt", "key-1");
+
+        assertThat(retry.id()).isNotEqualTo(first.id());
+        assertThat(awaitFinished(retry.id()).status()).isEqualTo(LayoutJob.Status.COMPLETED);
+        assertThat(jobService.submitText(List.of(1L), LayoutOptions.defaults(), "prompt", "key-1").id())
+                .isEqualTo(retry.id());
+    }
+
+    @Test
+    @DisplayName("Error thrown by the pipeline should still fail the job and release its key")
+    void errorShouldFailJob() {
+        when(layoutService.generateFromText(anyList(), any(), any()))
+                .thenThrow(new StackOverflowError())
+                .thenReturn(layout("layout-1"));
+
+        LayoutJob job = jobService.submitText(List.of(1L), LayoutOptions.defaults(), "prompt", "key-1");
+
+        LayoutJob finished = awaitFinished(job.id());
+        assertThat(finished.status()).isEqualTo(LayoutJob.Status.FAILED);
+        assertThat(finished.errorMessage()).isEqualTo("StackOverflowError");
+        assertThat(jobService.submitText(List.of(1L), LayoutOptions.defaults(), "prompt", "key-1").id())
+                .isNotEqualTo(job.id());
+    }
+
+    @Test
+    @DisplayName("Full queue should reject submissions with retry hint")
+    void fullQueueShouldRejectSubmissions() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(layoutService.generateFromText(anyList(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return layout("layout-1");
+        });
+
+        // One job occupies the single worker, one fills the single queue slot
+        jobService.submitText(List.of(1L), LayoutOptions.defaults(), "prompt", null);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        jobService.submitText(List.of(1L), LayoutOptions.defaults(), "prompt", null);
+
+        assertThatThrownBy(() -> jobService.submitText(List.of(1L), LayoutOptions.defaults(), "prompt", "key-2"))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .satisfies(e -> assertThat(((ServiceOverloadedException) e).getRetryAfterSeconds()).isEqualTo(15));
+        assertThat(jobService.getJobCount()).isEqualTo(2);
+
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Unknown job should throw ResourceNotFoundException")
+    void unknownJobShouldThrow() {
+        assertThatThrownBy(() -> jobService.getJob("missing"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private LayoutJob awaitFinished(String jobId) {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (Instant.now().isBefore(deadline)) {
+            LayoutJob job = jobService.getJob(jobId);
+            if (job.isFinished()) {
+                return job;
+            }
+            Thread.onSpinWait();
+        }
+        fail("Job did not finish in time: " + jobId);
+        return null;
+    }
+
+    private static Layout layout(String id) {
+        return new Layout(id, "completed", Instant.now(), PageFormat.A4, null, List.of(), null);
+    }
+}
@@ -1,7 +1,16 @@
 package com.catalogforge.service;
 
+import com.catalogforge.config.properties.ProductDataProperties;
+import com.catalogforge.exception.InvalidQueryException;
 import com.catalogforge.exception.ResourceNotFoundException;
 import com.catalogforge.model.Product;
+import com.catalogforge.model.ProductBatch;
+import com.catalogforge.model.ProductFragment;
+import com.catalogforge.model.ProductGrouping;
+import com.catalogforge.model.SimilarProduct;
+import com.catalogforge.model.request.ProductListOptions;
+import com.catalogforge.model.response.ProductListResponse;
+import com.fasterxml.jackson.databind.util.RawValue;
 import net.jqwik.api.*;
 import net.jqwik.api.constraints.NotBlank;
 import net.jqwik.api.constraints.Size;
@@ -10,6 +19,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -30,7 +40,7 @@ class ProductServiceTest {
 
     @BeforeEach
     void setUp() {
-        productService = new ProductService();
+        productService = new ProductService(ProductDataProperties.defaults());
         productService.init();
     }
 
@@ -102,6 +112,40 @@ class ProductServiceTest {
         void shouldReturnPresentOptional() {
             assertThat(productService.findProductById(1L)).isPresent();
         }
+
+        @Test
+        @DisplayName("should resolve batches in request order and report all missing IDs")
+        void shouldResolveBatch() {
+            ProductBatch batch = productService.getProductsByIds(List.of(3L, 999L, 1L, 3L, 998L, 999L));
+
+            assertThat(batch.products()).extracting(Product::id).containsExactly(3L, 1L, 3L);
+            assertThat(batch.missingIds()).containsExactly(999L, 998L);
+            assertThat(batch.isComplete()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should recommend similar products of the same series")
+        void shouldRecommendSimilarProducts() {
+            Product seed = productService.getProductById(1L);
+            List<SimilarProduct> similar = productService.findSimilarProducts(1L, 3);
+
+            assertThat(similar).hasSize(3);
+            assertThat(similar).extracting(s -> s.product().id()).doesNotContain(1L);
+            assertThat(similar.get(0).product().series()).isEqualTo(seed.series());
+            assertThat(similar.get(0).score()).isGreaterThanOrEqualTo(similar.get(2).score());
+        }
+
+        @Test
+        @DisplayName("should suggest a grouping starting with the seed product")
+        void shouldSuggestGrouping() {
+            ProductGrouping grouping = productService.suggestGrouping(1L, 4);
+
+            assertThat(grouping.products()).hasSize(4);
+            assertThat(grouping.products().get(0).id()).isEqualTo(1L);
+            assertThat(grouping.cohesion()).isBetween(0.0, 1.0);
+            assertThatThrownBy(() -> productService.suggestGrouping(999L, 4))
+                    .isInstanceOf(ResourceNotFoundException.class);
+        }
     }
 
     @Nested
@@ -367,6 +411,125 @@ class ProductServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Prompt Fragment Tests")
+    class PromptFragmentTests {
+
+        @Test
+        @DisplayName("should return the precomputed fragment for catalog products")
+        void shouldReturnPrecomputedFragment() {
+            Product product = productService.getProductById(1L);
+
+            ProductFragment first = productService.getFragment(product);
+            ProductFragment second = productService.getFragment(product);
+
+            assertThat(second).isSameAs(first);
+            assertThat(first.full()).contains(product.name()).contains("Active Brake Assist 6");
+        }
+
+        @Test
+        @DisplayName("should render compact fragments smaller than full ones")
+        void compactFragmentShouldBeSmaller() {
+            for (Product product : productService.getAllProducts()) {
+                ProductFragment fragment = productService.getFragment(product);
+                assertThat(fragment.compactTokens()).isPositive().isLessThan(fragment.fullTokens());
+                assertThat(fragment.compact()).contains(product.name());
+            }
+        }
+
+        @Test
+        @DisplayName("should keep technical data in the compact form when specs are requested")
+        void compactFragmentShouldKeepSpecsWhenRequested() {
+            Product product = productService.getProductById(1L);
+            ProductFragment fragment = productService.getFragment(product);
+
+            assertThat(fragment.text(true, false)).doesNotContain("Technical Data");
+            assertThat(fragment.text(true, true)).contains("Technical Data").doesNotContain("- Description:");
+            assertThat(fragment.tokens(true, true))
+                    .isGreaterThan(fragment.compactTokens())
+                    .isLessThan(fragment.fullTokens());
+        }
+
+        @Test
+        @DisplayName("should render products outside the catalog on demand")
+        void shouldRenderUnknownProductsOnDemand() {
+            Product catalogProduct = productService.getProductById(1L);
+            Product modified = new Product(1L, "Modified", null, null, null, "Cat", "Series",
+                    null, List.of(), null, null);
+
+            ProductFragment fragment = productService.getFragment(modified);
+
+            assertThat(fragment).isNotSameAs(productService.getFragment(catalogProduct));
+            assertThat(fragment.full()).contains("Modified");
+        }
+    }
+
+    @Nested
+    @DisplayName("List Response Tests")
+    class ListResponseTests {
+
+        @Test
+        @DisplayName("should page through all products with cursors")
+        void shouldPageWithCursors() {
+            List<Product> products = productService.getAllProducts();
+            List<String> seen = new ArrayList<>();
+            String cursor = null;
+            do {
+                ProductListResponse page = productService.pageProducts(products,
+                        ProductListOptions.parse(null, 7, cursor, null, "id"));
+                page.products().forEach(json -> seen.add(json.rawValue().toString()));
+                cursor = page.nextCursor();
+                assertThat(page.totalElements()).isEqualTo(30);
+                assertThat(page.totalPages()).isEqualTo(5);
+            } while (cursor != null);
+
+            assertThat(seen).hasSize(30).doesNotHaveDuplicates();
+            assertThat(seen.get(0)).isEqualTo("{\"id\":1}");
+        }
+
+        @Test
+        @DisplayName("should sort by price descending with missing prices last")
+        void shouldSortByPriceDescending() {
+            List<Product> products = List.of(
+                    new Product(1L, "A", null, null, null, null, null, null, List.of(), null, null),
+                    new Product(2L, "B", null, null, null, null, null, null, List.of(), null, 100),
+                    new Product(3L, "C", null, null, null, null, null, null, List.of(), null, 300));
+
+            List<RawValue> sorted = productService.listProducts(products,
+                    ProductListOptions.parse(null, null, null, "price,desc", "id"));
+
+            assertThat(sorted).extracting(json -> json.rawValue().toString())
+                    .containsExactly("{\"id\":3}", "{\"id\":2}", "{\"id\":1}");
+        }
+
+        @Test
+        @DisplayName("should project list views to summary fields")
+        void shouldProjectSummaryFields() {
+            Product product = productService.getProductById(1L);
+
+            String json = productService.listProducts(List.of(product),
+                    ProductListOptions.parse(null, null, null, null, "summary")).get(0).rawValue().toString();
+
+            assertThat(json).contains("\"name\"", "\"shortDescription\"", "\"imageUrl\"")
+                    .doesNotContain("longDescription", "specs");
+        }
+
+        @Test
+        @DisplayName("should reject invalid paging parameters")
+        void shouldRejectInvalidParameters() {
+            assertThatThrownBy(() -> ProductListOptions.parse(0, null, "b2Ox", null, null))
+                    .isInstanceOf(InvalidQueryException.class);
+            assertThatThrownBy(() -> ProductListOptions.parse(null, 0, null, null, null))
+                    .isInstanceOf(InvalidQueryException.class);
+            assertThatThrownBy(() -> ProductListOptions.parse(null, null, "invalid", null, null))
+                    .isInstanceOf(InvalidQueryException.class);
+            assertThatThrownBy(() -> ProductListOptions.parse(null, null, null, "weight", null))
+                    .isInstanceOf(InvalidQueryException.class);
+            assertThatThrownBy(() -> ProductListOptions.parse(Integer.MAX_VALUE, 100, null, null, null))
+                    .isInstanceOf(InvalidQueryException.class);
+        }
+    }
+
     private boolean containsIgnoreCase(String text, String query) {
         return text != null && text.toLowerCase().contains(query.toLowerCase());
     }
@@ -0,0 +1,178 @@
+package com.catalogforge.service;
+
+import com.catalogforge.service.ImageService.StoredImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for TieredImageStore.
+ */
+class TieredImageStoreTest {
+
+    private static final int LIMIT = 1000;
+    private static final int DISK_LIMIT = 2000;
+
+    @TempDir
+    Path spillDir;
+
+    private TieredImageStore store;
+    private Path storeDir;
+
+    @BeforeEach
+    void setUp() {
+        store = new TieredImageStore(LIMIT, DISK_LIMIT, spillDir);
+        storeDir = store.spillDirectory();
+    }
+
+    @Test
+    @DisplayName("Should spill the least recently used image when the memory budget is exceeded")
+    void shouldSpillLeastRecentlyUsed() {
+        store.put(image("a", 400));
+        store.put(image("b", 400));
+        store.get("a");
+        store.put(image("c", 400));
+
+        TieredImageStore.Stats stats = store.stats();
+        assertThat(stats.memoryImages()).isEqualTo(2);
+        assertThat(stats.memoryBytes()).isEqualTo(800);
+        assertThat(stats.diskImages()).isEqualTo(1);
+        assertThat(stats.diskBytes()).isEqualTo(400);
+        assertThat(stats.evictions()).isEqualTo(1);
+        assertThat(Files.exists(storeDir.resolve("b.img"))).isTrue();
+        assertThat(store.get("b").data()).isEqualTo(image("b", 400).data());
+    }
+
+    @Test
+    @DisplayName("Should write images larger than the budget straight to disk")
+    void shouldSpillOversizedImages() {
+        store.put(image("big", LIMIT + 1));
+
+        assertThat(store.stats().memoryBytes()).isZero();
+        assertThat(store.stats().diskImages()).isEqualTo(1);
+        assertThat(store.get("big").data()).hasSize(LIMIT + 1);
+    }
+
+    @Test
+    @DisplayName("Should remove images from both tiers including spill files")
+    void shouldRemoveFromBothTiers() {
+        store.put(image("a", 600));
+        store.put(image("b", 600));
+
+        assertThat(store.remove("a")).isTrue();
+        assertThat(store.remove("b")).isTrue();
+        assertThat(store.remove("b")).isFalse();
+        assertThat(store.size()).isZero();
+        assertThat(store.stats().diskBytes()).isZero();
+        assertThat(storeDir.resolve("a.img")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should expire only images whose deadline has passed")
+    void shouldExpireImages() {
+        store.put(image("old", 100, Instant.now().minusSeconds(1)));
+        store.put(image("spilled", LIMIT + 1, Instant.now().minusSeconds(1)));
+        store.put(image("fresh", 100));
+
+        assertThat(store.get("old")).isNull();
+        assertThat(store.contains("old")).isFalse();
+        assertThat(store.expire()).isEqualTo(2);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.contains("fresh")).isTrue();
+        assertThat(store.stats().expirations()).isEqualTo(2);
+        assertThat(storeDir.resolve("spilled.img")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should skip deadlines of deleted images")
+    void shouldSkipDeletedDeadlines() {
+        store.put(image("gone", 100, Instant.now().minusSeconds(1)));
+        store.remove("gone");
+
+        assertThat(store.expire()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should move a spilled image back to memory on access")
+    void shouldPromoteOnAccess() {
+        store.put(image("a", 600));
+        store.put(image("b", 600));
+
+        assertThat(store.get("a").data()).isEqualTo(image("a", 600).data());
+
+        TieredImageStore.Stats stats = store.stats();
+        assertThat(stats.promotions()).isEqualTo(1);
+        assertThat(stats.evictions()).isEqualTo(2);
+        assertThat(stats.memoryBytes()).isEqualTo(600);
+        assertThat(storeDir.resolve("a.img")).doesNotExist();
+        assertThat(storeDir.resolve("b.img")).exists();
+    }
+
+    @Test
+    @DisplayName("Should drop the least recently used spilled images beyond the disk budget")
+    void shouldBoundDiskTier() {
+        store.put(image("a", 900));
+        store.put(image("b", 900));
+        store.put(image("c", 900));
+        store.put(image("d", 900));
+
+        TieredImageStore.Stats stats = store.stats();
+        assertThat(stats.diskBytes()).isLessThanOrEqualTo(DISK_LIMIT);
+        assertThat(stats.drops()).isEqualTo(1);
+        assertThat(store.get("a")).isNull();
+        assertThat(storeDir.resolve("a.img")).doesNotExist();
+        assertThat(store.get("d").data()).isEqualTo(image("d", 900).data());
+    }
+
+    @Test
+    @DisplayName("Should keep images in memory when the spill file cannot be written")
+    void shouldKeepImagesWhenSpillFails() throws IOException {
+        Path notADirectory = Files.writeString(spillDir.resolve("blocked"), "file");
+        TieredImageStore failing = new TieredImageStore(LIMIT, DISK_LIMIT, notADirectory);
+
+        failing.put(image("a", 600));
+        failing.put(image("b", 600));
+        failing.put(image("big", LIMIT + 1));
+
+        assertThat(failing.stats().diskImages()).isZero();
+        assertThat(failing.stats().evictions()).isZero();
+        assertThat(failing.get("a").data()).isEqualTo(image("a", 600).data());
+        assertThat(failing.get("b").data()).isEqualTo(image("b", 600).data());
+        assertThat(failing.get("big").data()).hasSize(LIMIT + 1);
+    }
+
+    @Test
+    @DisplayName("Should leave foreign files in the spill directory untouched")
+    void shouldNotDeleteForeignFiles() throws IOException {
+        Path foreign = Files.writeString(spillDir.resolve("other.img"), "keep");
+        TieredImageStore other = new TieredImageStore(LIMIT, DISK_LIMIT, spillDir);
+        other.put(image("big", LIMIT + 1));
+
+        other.clear();
+
+        assertThat(foreign).exists();
+        assertThat(other.spillDirectory()).doesNotExist();
+        assertThat(other.spillDirectory()).isNotEqualTo(storeDir);
+    }
+
+    private static StoredImage image(String id, int size) {
+        return image(id, size, Instant.now().plus(1, ChronoUnit.HOURS));
+    }
+
+    private static StoredImage image(String id, int size, Instant expiresAt) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (id.hashCode() + i);
+        }
+        return new StoredImage(id, data, "image/png", id + ".png", Instant.now(), expiresAt, null);
+    }
+}
@@ -0,0 +1,96 @@
+package com.catalogforge.skill;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for SkillDirectoryWatcher.
+ */
+class SkillDirectoryWatcherTest {
+
+    private static final long DEBOUNCE_MS = 100;
+
+    @TempDir
+    Path tempDir;
+
+    private final BlockingQueue<Set<Path>> batches = new LinkedBlockingQueue<>();
+    private SkillDirectoryWatcher watcher;
+
+    @AfterEach
+    void tearDown() {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report a missing root once it is created")
+    void shouldWaitForMissingRoot() throws Exception {
+        Path root = tempDir.resolve("skills/external");
+        start(root);
+
+        Files.createDirectories(root.resolve("layout"));
+        Files.writeString(root.resolve("layout/GRID.md"), "# Grid");
+
+        assertThat(awaitChanges(root)).contains(root);
+
+        Path added = root.resolve("layout/HERO.md");
+        Files.writeString(added, "# Hero");
+
+        assertThat(awaitChanges(added)).contains(added);
+    }
+
+    @Test
+    @DisplayName("Should report deleted and renamed directories")
+    void shouldReportDeletedDirectories() throws Exception {
+        Path root = tempDir.resolve("skills");
+        Files.createDirectories(root.resolve("layout"));
+        Files.createDirectories(root.resolve("color"));
+        Files.writeString(root.resolve("layout/GRID.md"), "# Grid");
+        Files.writeString(root.resolve("color/PALETTE.md"), "# Palette");
+        start(root);
+
+        Files.delete(root.resolve("layout/GRID.md"));
+        Files.delete(root.resolve("layout"));
+
+        assertThat(awaitChanges(root.resolve("layout"))).contains(root.resolve("layout"));
+
+        Files.move(root.resolve("color"), root.resolve("colour"));
+
+        assertThat(awaitChanges(root.resolve("color"), root.resolve("colour")))
+                .contains(root.resolve("color"), root.resolve("colour"));
+    }
+
+    private void start(Path root) throws IOException {
+        watcher = new SkillDirectoryWatcher(root, DEBOUNCE_MS, batches::add);
+        watcher.start();
+    }
+
+    /**
+     * Collects batches until all expected paths were reported or the timeout passes.
+     */
+    private Set<Path> awaitChanges(Path... expected) throws InterruptedException {
+        Set<Path> changed = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!changed.containsAll(Set.of(expected)) && System.nanoTime() < deadline) {
+            Set<Path> batch = batches.poll(100, TimeUnit.MILLISECONDS);
+            if (batch != null) {
+                changed.addAll(batch);
+            }
+        }
+        return changed;
+    }
+}
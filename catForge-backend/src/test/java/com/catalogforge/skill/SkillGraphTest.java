@@ -0,0 +1,107 @@
+package com.catalogforge.skill;
+
+import com.catalogforge.exception.SkillLoadException;
+import com.catalogforge.model.Skill;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for SkillGraph.
+ */
+class SkillGraphTest {
+
+    @Test
+    @DisplayName("Should order by priority when dependencies allow it")
+    void shouldOrderByPriority() {
+        SkillGraph graph = SkillGraph.build(skills(
+                skill("MASTER_SKILL", 0),
+                skill("TYPOGRAPHY", 15, "MASTER_SKILL"),
+                skill("LAYOUT_PRINCIPLES", 10, "MASTER_SKILL"),
+                skill("STYLE_MODERN", 50, "TYPOGRAPHY", "LAYOUT_PRINCIPLES")));
+
+        assertThat(graph.topologicalOrder())
+                .extracting(Skill::name)
+                .containsExactly("MASTER_SKILL", "LAYOUT_PRINCIPLES", "TYPOGRAPHY", "STYLE_MODERN");
+    }
+
+    @Test
+    @DisplayName("Should place dependencies first even with a higher priority value")
+    void shouldPlaceDependenciesFirst() {
+        SkillGraph graph = SkillGraph.build(skills(
+                skill("LATE_BASE", 90),
+                skill("EARLY", 5, "LATE_BASE")));
+
+        assertThat(graph.idOf("LATE_BASE")).isLessThan(graph.idOf("EARLY"));
+    }
+
+    @Test
+    @DisplayName("Should precompute transitive closures")
+    void shouldPrecomputeClosures() {
+        SkillGraph graph = SkillGraph.build(skills(
+                skill("A", 10),
+                skill("B", 20, "A"),
+                skill("C", 30, "B"),
+                skill("D", 40)));
+
+        BitSet closure = new BitSet();
+        assertThat(graph.addClosure("C", closure)).isTrue();
+
+        assertThat(closure.stream().mapToObj(id -> graph.skill(id).name()).toList())
+                .containsExactly("A", "B", "C");
+        assertThat(graph.addClosure("UNKNOWN", closure)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should ignore missing dependencies but remember them")
+    void shouldTrackMissingDependencies() {
+        SkillGraph graph = SkillGraph.build(skills(
+                skill("A", 10, "MISSING"),
+                skill("B", 20, "A")));
+
+        assertThat(graph.size()).isEqualTo(2);
+        assertThat(graph.missingDependencies(graph.idOf("B"))).containsExactly("MISSING");
+    }
+
+    @Test
+    @DisplayName("Should reject cyclic dependencies at build time")
+    void shouldRejectCycles() {
+        Map<String, Skill> skills = skills(
+                skill("A", 10, "C"),
+                skill("B", 20, "A"),
+                skill("C", 30, "B"),
+                skill("D", 40));
+
+        assertThatThrownBy(() -> SkillGraph.build(skills))
+                .isInstanceOf(SkillLoadException.class)
+                .hasMessageContaining("A")
+                .hasMessageContaining("B")
+                .hasMessageContaining("C");
+    }
+
+    @Test
+    @DisplayName("Should reject self dependencies")
+    void shouldRejectSelfDependency() {
+        assertThatThrownBy(() -> SkillGraph.build(skills(skill("A", 10, "A"))))
+                .isInstanceOf(SkillLoadException.class);
+    }
+
+    private static Skill skill(String name, int priority, String... dependencies) {
+        return new Skill(name, "core", name + " content", List.of(dependencies), priority);
+    }
+
+    private static Map<String, Skill> skills(Skill... skills) {
+        Map<String, Skill> map = new HashMap<>();
+        for (Skill skill : skills) {
+            map.put(skill.name(), skill);
+        }
+        return map;
+    }
+}
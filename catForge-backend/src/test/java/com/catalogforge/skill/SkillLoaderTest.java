@@ -5,7 +5,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
@@ -119,4 +123,39 @@ class SkillLoaderTest {
             assertThat(loader.extractName("STYLE_MODERN.md")).isEqualTo("STYLE_MODERN");
         }
     }
+
+    @Nested
+    @DisplayName("External Directory Tests")
+    class ExternalDirectoryTests {
+
+        @TempDir
+        Path root;
+
+        @Test
+        @DisplayName("should load skills with category from first subdirectory")
+        void shouldLoadExternalSkills() throws IOException {
+            Files.createDirectories(root.resolve("styles"));
+            Path styleFile = root.resolve("styles/STYLE_CUSTOM.md");
+            Files.writeString(styleFile, "---\npriority: 42\ndependencies: [MASTER_SKILL]\n---\nCustom style");
+            Files.writeString(root.resolve("NOTES.md"), "Top-level skill");
+            Files.writeString(root.resolve("readme.txt"), "ignored");
+
+            Map<Path, Skill> skills = loader.loadExternalSkills(root);
+
+            assertThat(skills).hasSize(2);
+            Skill style = skills.get(styleFile);
+            assertThat(style.name()).isEqualTo("STYLE_CUSTOM");
+            assertThat(style.category()).isEqualTo("styles");
+            assertThat(style.priority()).isEqualTo(42);
+            assertThat(style.dependencies()).containsExactly("MASTER_SKILL");
+            assertThat(style.content()).isEqualTo("Custom style");
+            assertThat(skills.get(root.resolve("NOTES.md")).category()).isEqualTo("default");
+        }
+
+        @Test
+        @DisplayName("should return no skills for a missing directory")
+        void shouldHandleMissingDirectory() {
+            assertThat(loader.loadExternalSkills(root.resolve("missing"))).isEmpty();
+        }
+    }
 }
@@ -0,0 +1,107 @@
+package com.catalogforge.skill;
+
+import com.catalogforge.model.Skill;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for SkillPromptCache.
+ */
+class SkillPromptCacheTest {
+
+    private SkillAssembler assembler;
+    private Map<String, Skill> skills;
+
+    @BeforeEach
+    void setUp() {
+        assembler = new SkillAssembler();
+        skills = new HashMap<>();
+        skills.put("MASTER_SKILL", new Skill("MASTER_SKILL", "core", "Master", List.of(), Skill.MASTER_PRIORITY));
+        skills.put("TYPOGRAPHY", new Skill("TYPOGRAPHY", "core", "Typography", List.of("MASTER_SKILL"), 15));
+        skills.put("STYLE_MODERN", new Skill("STYLE_MODERN", "styles", "Modern", List.of("TYPOGRAPHY"), 50));
+        skills.put("STYLE_TECHNICAL", new Skill("STYLE_TECHNICAL", "styles", "Technical", List.of(), 50));
+        skills.put("FORMAT_A4", new Skill("FORMAT_A4", "formats", "A4", List.of(), 60));
+        skills.put("FORMAT_DL", new Skill("FORMAT_DL", "formats", "DL", List.of(), 60));
+    }
+
+    @Test
+    @DisplayName("Should precompute every style and format combination")
+    void shouldPrecomputeAllCombinations() {
+        SkillPromptCache cache = SkillPromptCache.precompute(skills, assembler);
+
+        // (no style + 2 styles) x (no format + 2 formats)
+        assertThat(cache.size()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Should return the same instance for equivalent requests")
+    void shouldReturnSameInstanceForEquivalentRequests() {
+        SkillPromptCache cache = SkillPromptCache.precompute(skills, assembler);
+
+        String first = cache.get(List.of(), "modern", "A4");
+        String second = cache.get(null, "STYLE_MODERN", "FORMAT_A4");
+        String third = cache.get(List.of("TYPOGRAPHY", "MASTER_SKILL"), "modern", "a4");
+        String fourth = cache.get(List.of("MASTER_SKILL", "TYPOGRAPHY", "TYPOGRAPHY"), "modern", "a4");
+
+        assertThat(second).isSameAs(first);
+        assertThat(fourth).isSameAs(third);
+    }
+
+    @Test
+    @DisplayName("Should match direct assembly output")
+    void shouldMatchAssemblerOutput() {
+        SkillPromptCache cache = SkillPromptCache.precompute(skills, assembler);
+
+        assertThat(cache.get(List.of("TYPOGRAPHY"), "technical", "DL"))
+                .isEqualTo(assembler.assemble(skills, List.of("TYPOGRAPHY"), "technical", "DL"));
+        assertThat(cache.get(List.of(), null, null))
+                .isEqualTo(assembler.assemble(skills, List.of(), null, null));
+    }
+
+    @Test
+    @DisplayName("Should not be affected by later changes to the source map")
+    void shouldSnapshotSkills() {
+        SkillPromptCache cache = SkillPromptCache.precompute(skills, assembler);
+        String before = cache.get(List.of(), "modern", "A4");
+
+        skills.put("STYLE_MODERN", new Skill("STYLE_MODERN", "styles", "Changed", List.of(), 50));
+
+        assertThat(cache.get(List.of(), "modern", "A4")).isSameAs(before);
+        assertThat(cache.skills().get("STYLE_MODERN").content()).isEqualTo("Modern");
+    }
+
+    @Test
+    @DisplayName("Should reuse prompts that do not depend on changed skills")
+    void shouldReusePromptsUnaffectedByUpdate() {
+        SkillPromptCache cache = SkillPromptCache.precompute(skills, assembler);
+        String technical = cache.get(List.of(), "technical", "DL");
+        String modern = cache.get(List.of(), "modern", "DL");
+
+        skills.put("TYPOGRAPHY", new Skill("TYPOGRAPHY", "core", "New typography", List.of("MASTER_SKILL"), 15));
+        SkillPromptCache updated = cache.update(skills, Set.of("TYPOGRAPHY"));
+
+        assertThat(updated.get(List.of(), "technical", "DL")).isSameAs(technical);
+        assertThat(updated.get(List.of(), "modern", "DL")).isNotSameAs(modern).contains("New typography");
+        assertThat(updated.size()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Should pick up skills that were previously missing")
+    void shouldPickUpPreviouslyMissingSkills() {
+        SkillPromptCache cache = SkillPromptCache.precompute(skills, assembler);
+        assertThat(cache.get(List.of("EXTRA"), null, null)).doesNotContain("Extra");
+
+        skills.put("EXTRA", new Skill("EXTRA", "core", "Extra", List.of(), 20));
+        SkillPromptCache updated = cache.update(skills, Set.of("EXTRA"));
+
+        assertThat(updated.get(List.of("EXTRA"), null, null)).contains("Extra");
+    }
+}
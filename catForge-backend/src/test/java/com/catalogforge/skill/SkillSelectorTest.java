@@ -0,0 +1,143 @@
+package com.catalogforge.skill;
+
+import com.catalogforge.model.Skill;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for SkillSelector.
+ */
+class SkillSelectorTest {
+
+    private static final String COLOR_THEORY = """
+            # Color Theory
+
+            ## Color Harmony
+            Harmony content
+
+            ## Contrast Requirements
+            Contrast content
+
+            ## Color Application
+
+            ### Product Images
+            Image colors
+
+            ### Technical Data
+            Spec table colors
+            """;
+
+    private SkillSelector selector;
+    private SkillGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        selector = new SkillSelector(new SkillAssembler());
+        Map<String, Skill> skills = new HashMap<>();
+        skills.put("MASTER_SKILL", new Skill("MASTER_SKILL", "core", "Master rules", List.of(), Skill.MASTER_PRIORITY));
+        skills.put("TYPOGRAPHY", new Skill("TYPOGRAPHY", "core", "## Fonts\nFont content", List.of("MASTER_SKILL"), 15));
+        skills.put("COLOR_THEORY", new Skill("COLOR_THEORY", "core", COLOR_THEORY, List.of("MASTER_SKILL"), 30));
+        skills.put("LAYOUT_PRINCIPLES", new Skill("LAYOUT_PRINCIPLES", "core",
+                "## Visual Flow\nFlow content", List.of("MASTER_SKILL"), 10));
+        skills.put("STYLE_ECO", new Skill("STYLE_ECO", "styles", "## Palette\nGreen",
+                List.of("TYPOGRAPHY", "COLOR_THEORY", "LAYOUT_PRINCIPLES"), 50));
+        skills.put("FORMAT_A4", new Skill("FORMAT_A4", "formats", "## Dimensions\n210x297", List.of(), 60));
+        graph = SkillGraph.build(skills);
+    }
+
+    @Test
+    @DisplayName("Should always include master, style and format skills in full")
+    void shouldAlwaysIncludeAnchors() {
+        SkillSelection selection = selector.select(graph, "eco", "A4", EnumSet.noneOf(SkillTopic.class));
+
+        assertThat(selection.fullSkills()).containsExactly("MASTER_SKILL", "STYLE_ECO", "FORMAT_A4");
+        assertThat(selection.droppedSkills())
+                .containsExactlyInAnyOrder("TYPOGRAPHY", "COLOR_THEORY", "LAYOUT_PRINCIPLES");
+        assertThat(selection.prompt()).contains("# STYLE_ECO").doesNotContain("Flow content");
+    }
+
+    @Test
+    @DisplayName("Should include dependencies matching a topic in full")
+    void shouldIncludeMatchingSkillsInFull() {
+        SkillSelection selection = selector.select(graph, "eco", "A4", EnumSet.of(SkillTopic.COLOR));
+
+        assertThat(selection.fullSkills()).contains("COLOR_THEORY");
+        assertThat(selection.prompt()).contains("Harmony content", "Spec table colors");
+    }
+
+    @Test
+    @DisplayName("Should trim dependencies to matching sections")
+    void shouldTrimToMatchingSections() {
+        SkillSelection selection = selector.select(graph, "eco", "A4", EnumSet.of(SkillTopic.SPECS));
+
+        assertThat(selection.partialSkills())
+                .containsEntry("COLOR_THEORY", List.of("Color Application", "Technical Data"));
+        assertThat(selection.prompt())
+                .contains("# Color Theory", "## Color Application", "Spec table colors")
+                .doesNotContain("Harmony content", "Image colors");
+        assertThat(selection.tokens()).isLessThan(selection.unselectedTokens());
+    }
+
+    @Test
+    @DisplayName("Should report all skills that contributed to the prompt in assembly order")
+    void shouldReportSkillsUsed() {
+        SkillSelection selection = selector.select(graph, "eco", "A4",
+                EnumSet.of(SkillTopic.TYPOGRAPHY, SkillTopic.SPECS));
+
+        assertThat(selection.skillsUsed())
+                .containsExactly("MASTER_SKILL", "TYPOGRAPHY", "COLOR_THEORY", "STYLE_ECO", "FORMAT_A4");
+        assertThat(selection.prompt().indexOf("# COLOR_THEORY"))
+                .isLessThan(selection.prompt().indexOf("# STYLE_ECO"));
+    }
+
+    @Test
+    @DisplayName("Should keep a whole section when its level-2 heading matches")
+    void shouldKeepSubsectionsOfMatchingSection() {
+        List<String> headings = new ArrayList<>();
+        String trimmed = selector.selectSections(
+                "## Print Production\n### Paper\nPaper text\n### Finishing\nFinish text\n## Other\nOther text",
+                EnumSet.of(SkillTopic.PRINT), headings);
+
+        assertThat(headings).containsExactly("Print Production", "Paper", "Finishing");
+        assertThat(trimmed).contains("Paper text", "Finish text").doesNotContain("Other text");
+    }
+
+    @Test
+    @DisplayName("Should keep the parent heading of a matching level-3 section")
+    void shouldKeepParentOfMatchingSubsection() {
+        List<String> headings = new ArrayList<>();
+        String trimmed = selector.selectSections(COLOR_THEORY, EnumSet.of(SkillTopic.IMAGERY), headings);
+
+        assertThat(headings).containsExactly("Color Application", "Product Images");
+        assertThat(trimmed).contains("Image colors").doesNotContain("Spec table colors");
+    }
+
+    @Test
+    @DisplayName("Should match topic keywords only at the start of a word")
+    void topicsShouldMatchWordStarts() {
+        assertThat(SkillTopic.SPACING.matches("Randabstand und Weißraum")).isTrue();
+        assertThat(SkillTopic.SPACING.matches("Brand Guidelines")).isFalse();
+        assertThat(SkillTopic.SPECS.matches("Spec table colors")).isTrue();
+        assertThat(SkillTopic.SPECS.matches("Adjustable suspension")).isFalse();
+        assertThat(SkillTopic.TYPOGRAPHY.matches("LINE_HEIGHT rules")).isTrue();
+        assertThat(SkillTopic.detect("Brand adjustable")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should ignore headings inside code fences")
+    void shouldIgnoreHeadingsInCodeFences() {
+        List<SkillSelector.Section> sections = SkillSelector.parseSections(
+                "## CSS Example\n```css\n# not a heading\n```\n## Next\ntext");
+
+        assertThat(sections).extracting(SkillSelector.Section::heading).containsExactly("CSS Example", "Next");
+    }
+}
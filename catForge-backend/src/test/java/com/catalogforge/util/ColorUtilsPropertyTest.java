@@ -10,6 +10,7 @@ import net.jqwik.api.ForAll;
 import net.jqwik.api.Label;
 import net.jqwik.api.Property;
 import net.jqwik.api.constraints.CharRange;
+import net.jqwik.api.constraints.IntRange;
 import net.jqwik.api.constraints.StringLength;
 
 /**
@@ -127,4 +128,17 @@ class ColorUtilsPropertyTest {
         
         assertThat(contrast1).isCloseTo(contrast2, within(0.001));
     }
+
+    @Property(tries = 100)
+    @Label("Property 18: Color Conversion - rgbToHex and hexToRgb round-trip")
+    void rgbToHexRoundTrips(
+            @ForAll @IntRange(min = 0, max = 255) int r,
+            @ForAll @IntRange(min = 0, max = 255) int g,
+            @ForAll @IntRange(min = 0, max = 255) int b) {
+        
+        String hex = ColorUtils.rgbToHex(r, g, b);
+        
+        assertThat(ColorUtils.isValidHexColor(hex)).isTrue();
+        assertThat(ColorUtils.hexToRgb(hex)).containsExactly(r, g, b);
+    }
 }
@@ -0,0 +1,66 @@
+package com.catalogforge.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for JsonResponseCache.
+ */
+class JsonResponseCacheTest {
+
+    @Test
+    @DisplayName("Should serialize once per version")
+    void shouldSerializeOncePerVersion() {
+        JsonResponseCache cache = new JsonResponseCache();
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<byte[]> first = cache.respond("key", 1, () -> List.of(calls.incrementAndGet()), null);
+        ResponseEntity<byte[]> second = cache.respond("key", 1, () -> List.of(calls.incrementAndGet()), null);
+        ResponseEntity<byte[]> third = cache.respond("key", 2, () -> List.of(calls.incrementAndGet()), null);
+
+        assertThat(calls).hasValue(2);
+        assertThat(second.getBody()).isSameAs(first.getBody());
+        assertThat(new String(third.getBody())).isEqualTo("[2]");
+        assertThat(third.getHeaders().getETag()).isNotEqualTo(first.getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("Should keep the ETag for identical content across versions and caches")
+    void etagShouldDependOnContentOnly() {
+        ResponseEntity<byte[]> first = new JsonResponseCache().respond("key", 1, () -> List.of("a"), null);
+        ResponseEntity<byte[]> reloaded = new JsonResponseCache().respond("key", 7, () -> List.of("a"), null);
+
+        assertThat(reloaded.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("Should only compress bodies that are large enough")
+    void shouldCompressLargeBodies() {
+        JsonResponseCache cache = new JsonResponseCache();
+
+        ResponseEntity<byte[]> small = cache.respond("small", 1, () -> List.of("a"), "gzip");
+        ResponseEntity<byte[]> large = cache.respond("large", 1,
+                () -> List.of("x".repeat(JsonResponseCache.MIN_GZIP_SIZE * 2)), "gzip");
+
+        assertThat(small.getHeaders().containsKey("Content-Encoding")).isFalse();
+        assertThat(large.getHeaders().getFirst("Content-Encoding")).isEqualTo("gzip");
+        assertThat(large.getBody().length).isLessThan(JsonResponseCache.MIN_GZIP_SIZE);
+    }
+
+    @Test
+    @DisplayName("Should parse Accept-Encoding with quality values")
+    void shouldParseAcceptEncoding() {
+        assertThat(JsonResponseCache.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(JsonResponseCache.acceptsGzip("br;q=1.0, gzip;q=0.8")).isTrue();
+        assertThat(JsonResponseCache.acceptsGzip("*")).isTrue();
+        assertThat(JsonResponseCache.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(JsonResponseCache.acceptsGzip("identity")).isFalse();
+        assertThat(JsonResponseCache.acceptsGzip(null)).isFalse();
+    }
+}
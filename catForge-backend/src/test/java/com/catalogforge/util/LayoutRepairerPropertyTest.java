@@ -0,0 +1,130 @@
+package com.catalogforge.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Tag;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Label;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+
+/**
+ * Property-based tests for local layout repair.
+ * 
+ * For any generated layout:
+ * - Repaired CSS always has balanced brackets
+ * - Repaired HTML has no dangling tags and no unsafe content
+ * - Already valid content is left unchanged
+ */
+@Tag("property")
+@Tag("unit")
+class LayoutRepairerPropertyTest {
+
+    @Property(tries = 100)
+    @Label("Repaired CSS has balanced brackets")
+    void repairedCssIsBalanced(
+            @ForAll @IntRange(min = 0, max = 5) int open,
+            @ForAll @IntRange(min = 0, max = 5) int close
+    ) {
+        String css = ".page { width: 210mm; " + "{".repeat(open) + "color: red;" + "}".repeat(close);
+        
+        String repaired = LayoutRepairer.repairCss(css);
+        
+        assertThat(CssValidator.hasBalancedBrackets(repaired)).isTrue();
+    }
+
+    @Property(tries = 100)
+    @Label("Balanced CSS is left unchanged")
+    void balancedCssIsUnchanged(@ForAll @IntRange(min = 1, max = 5) int depth) {
+        String css = ".a { ".repeat(depth) + "content: \"}\";" + " }".repeat(depth);
+        
+        assertThat(LayoutRepairer.repairCss(css)).isEqualTo(css);
+    }
+
+    @Property(tries = 100)
+    @Label("Truncated HTML is closed")
+    void truncatedHtmlIsClosed(@ForAll @IntRange(min = 1, max = 40) int cut) {
+        String html = "<div class=\"page\"><header><h1>Actros</h1></header>"
+                + "<main><p>Leistung <strong>530 PS</strong></p><ul><li>A</li><li>B</li></ul></main></div>";
+        String truncated = html.substring(0, html.length() - cut);
+        
+        String repaired = LayoutRepairer.closeDanglingTags(truncated);
+        
+        assertThat(LayoutRepairer.hasTagImbalance(repaired)).isFalse();
+        assertThat(repaired).startsWith("<div class=\"page\">").endsWith("</div>");
+    }
+
+    @Property(tries = 50)
+    @Label("Well-formed HTML is left unchanged")
+    void wellFormedHtmlIsUnchanged(@ForAll @IntRange(min = 1, max = 5) int depth) {
+        String html = "<section>".repeat(depth) + "<img src=\"a.png\"><br>Text" + "</section>".repeat(depth);
+        
+        assertThat(LayoutRepairer.hasTagImbalance(html)).isFalse();
+        assertThat(LayoutRepairer.repairHtml(html)).isEqualTo(html);
+    }
+
+    @Property(tries = 50)
+    @Label("Well-formed HTML with optional end tags passes validation")
+    void optionalEndTagsAreNotRequired(@ForAll @IntRange(min = 1, max = 5) int items) {
+        String html = "<div class=\"page\"><ul>" + "<li>Actros".repeat(items) + "</ul>"
+                + "<p>Leistung<p>Nutzlast <strong>18 t</strong>"
+                + "<table><thead><tr><th>Motor<th>PS<tbody>"
+                + "<tr><td>OM 471<td>530".repeat(items) + "</table>"
+                + "<dl><dt>Radstand<dd>3.900 mm</dl><p>Ende</div>";
+        
+        assertThat(LayoutRepairer.hasTagImbalance(html)).isFalse();
+        assertThat(LayoutRepairer.closeDanglingTags(html)).isEqualTo(html);
+        assertThat(HtmlSanitizer.containsDangerousContent(html)).isFalse();
+    }
+
+    @Property(tries = 50)
+    @Label("Tags inside comments and style elements are ignored")
+    void commentsAndRawTextAreNotMarkup(@ForAll @IntRange(min = 1, max = 5) int sections) {
+        String html = "<style>.a::after { content: \"</div><script>\"; }</style>"
+                + "<!-- <div onclick=\"x()\"> <script>alert(1)</script> -->".repeat(sections)
+                + "<section><img src=\"a.png\" alt=\"<b>\"></section>";
+        
+        assertThat(LayoutRepairer.hasTagImbalance(html)).isFalse();
+        assertThat(HtmlSanitizer.containsDangerousContent(html)).isFalse();
+        assertThat(HtmlSanitizer.containsDangerousContent(html + "<script>alert(1)</script>")).isTrue();
+    }
+
+    @Property(tries = 20)
+    @Label("Unclosed elements inside optional end tag elements are still closed")
+    void requiredEndTagsInsideOptionalOnesAreClosed(@ForAll @IntRange(min = 1, max = 5) int items) {
+        String html = "<ul>" + "<li><strong>Actros".repeat(items) + "</ul>";
+        
+        String repaired = LayoutRepairer.closeDanglingTags(html);
+        
+        assertThat(LayoutRepairer.hasTagImbalance(html)).isTrue();
+        assertThat(LayoutRepairer.hasTagImbalance(repaired)).isFalse();
+        assertThat(repaired).endsWith("</strong></ul>");
+    }
+
+    @Property(tries = 20)
+    @Label("Unsafe content is stripped, including truncated scripts")
+    void unsafeContentIsStripped(@ForAll @IntRange(min = 0, max = 10) int cut) {
+        String script = "<script>alert('x')</script>";
+        String html = "<div onclick=\"steal()\">Text</div>" + script.substring(0, script.length() - cut);
+        
+        String repaired = LayoutRepairer.repairHtml(html);
+        
+        assertThat(HtmlSanitizer.containsDangerousContent(repaired)).isFalse();
+        assertThat(repaired).doesNotContainIgnoringCase("<script");
+        assertThat(repaired).isEqualTo("<div>Text</div>");
+    }
+
+    @Property(tries = 50)
+    @Label("Truncated JSON output is salvaged")
+    void truncatedJsonIsSalvaged(@ForAll @IntRange(min = 1, max = 20) int cut) {
+        String json = "{\"css\": \".a { color: red; }\", \"html\": \"<div class=\\\"a\\\">Actros 1845 mit sehr langem Text</div>\"}";
+        String truncated = json.substring(0, json.length() - cut);
+        
+        var salvaged = LayoutRepairer.salvageTruncatedJson(truncated, "html", "css");
+        
+        assertThat(salvaged).isPresent();
+        assertThat(salvaged.get().get("css")).isEqualTo(".a { color: red; }");
+        assertThat(salvaged.get().get("html")).startsWith("<div class=\"a\">Actros");
+    }
+}
@@ -1,5 +1,13 @@
 import { apiClient } from './client';
-import type { Product } from './types';
+import type {
+  FacetedProductResponse,
+  Product,
+  ProductBatch,
+  ProductGrouping,
+  ProductListResponse,
+  ProductPageOptions,
+  SimilarProduct,
+} from './types';
 
 export const productsApi = {
   getAll: (category?: string, series?: string) => {
@@ -10,8 +18,41 @@ export const productsApi = {
     return apiClient<Product[]>(`/products${query ? `?${query}` : ''}`);
   },
 
+  getPage: (options: ProductPageOptions, category?: string, series?: string) => {
+    const params = new URLSearchParams();
+    if (category) params.set('category', category);
+    if (series) params.set('series', series);
+    Object.entries(options).forEach(([key, value]) => {
+      if (value !== undefined) params.set(key, String(value));
+    });
+    if (!params.has('page') && !params.has('cursor')) params.set('page', '0');
+    return apiClient<ProductListResponse>(`/products?${params.toString()}`);
+  },
+
+  filter: (category?: string, series?: string, specKeys: string[] = [], ranges: string[] = []) => {
+    const params = new URLSearchParams();
+    if (category) params.set('category', category);
+    if (series) params.set('series', series);
+    specKeys.forEach((key) => params.append('spec', key));
+    ranges.forEach((range) => params.append('range', range));
+    const query = params.toString();
+    return apiClient<FacetedProductResponse>(`/products/filter${query ? `?${query}` : ''}`);
+  },
+
   getById: (id: number) => apiClient<Product>(`/products/${id}`),
 
+  getSimilar: (id: number, limit = 5) =>
+    apiClient<SimilarProduct[]>(`/products/${id}/similar?limit=${limit}`),
+
+  getGrouping: (id: number, size = 4) =>
+    apiClient<ProductGrouping>(`/products/${id}/grouping?size=${size}`),
+
+  getByIds: (ids: number[]) =>
+    apiClient<ProductBatch>('/products/batch', {
+      method: 'POST',
+      body: JSON.stringify({ ids }),
+    }),
+
   getCategories: () => apiClient<string[]>('/products/categories'),
 
   getSeries: () => apiClient<string[]>('/products/series'),
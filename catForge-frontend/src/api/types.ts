@@ -13,6 +13,50 @@ export interface Product {
   priceEur: number | null;
 }
 
+export interface ProductFacets {
+  categories: Record<string, number>;
+  series: Record<string, number>;
+  specKeys: Record<string, number>;
+}
+
+export interface FacetedProductResponse {
+  products: Product[];
+  totalElements: number;
+  facets: ProductFacets;
+}
+
+export interface ProductBatch {
+  products: Product[];
+  missingIds: number[];
+}
+
+export interface SimilarProduct {
+  product: Product;
+  score: number;
+}
+
+export interface ProductGrouping {
+  products: Product[];
+  cohesion: number;
+}
+
+export interface ProductPageOptions {
+  page?: number;
+  size?: number;
+  cursor?: string;
+  sort?: string;
+  fields?: string;
+}
+
+export interface ProductListResponse {
+  products: Partial<Product>[];
+  page: number;
+  size: number;
+  totalElements: number;
+  totalPages: number;
+  nextCursor: string | null;
+}
+
 // Layouts
 export type PageFormat = 'A4' | 'A5' | 'A6' | 'DL' | 'SQUARE';
 export type LayoutStyle = 'modern' | 'technical' | 'premium' | 'eco' | 'dynamic';
@@ -35,8 +79,9 @@ export interface ImageToLayoutRequest {
   productIds: number[];
   options?: LayoutOptions;
   prompt?: string;
-  imageBase64: string;
-  imageMimeType: string;
+  imageBase64?: string;
+  imageMimeType?: string;
+  imageId?: string;
 }
 
 export interface VariantResponse {
@@ -52,6 +97,7 @@ export interface LayoutResponse {
   pageFormat: string;
   variants: VariantResponse[];
   variantCount: number;
+  degradations?: string[];
 }
 
 // Skills
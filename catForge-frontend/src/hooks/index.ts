@@ -1,4 +1,4 @@
-export { useProducts, useProduct, useCategories, useSeries, useProductSearch } from './useProducts';
+export { useProducts, useProduct, useProductsByIds, useCategories, useSeries, useProductSearch } from './useProducts';
 export { useSkills, useSkillCategories, useSkillsByCategory, useExamplePrompts } from './useSkills';
 export { useLayout, useLayoutVariants, useGenerateFromText, useGenerateFromImage, useUpdateLayout, useDeleteLayout } from './useLayouts';
 export { usePrintPresets, useGeneratePdf, useDownloadPdf } from './usePdf';
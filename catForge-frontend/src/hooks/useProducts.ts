@@ -16,6 +16,14 @@ export function useProduct(id: number) {
   });
 }
 
+export function useProductsByIds(ids: number[]) {
+  return useQuery({
+    queryKey: ['products', 'batch', ids],
+    queryFn: () => productsApi.getByIds(ids),
+    enabled: ids.length > 0,
+  });
+}
+
 export function useCategories() {
   return useQuery({
     queryKey: ['products', 'categories'],